@@ -1151,6 +1151,9 @@ void TaskWorkerPool::_upload_worker_thread_callback() {
         std::map<int64_t, std::vector<std::string>> tablet_files;
         SnapshotLoader loader(_env, upload_request.job_id,
                               agent_task_req.signature);
+        if (upload_request.__isset.max_bytes_per_sec) {
+            loader.set_max_bytes_per_sec(upload_request.max_bytes_per_sec);
+        }
         Status status = loader.upload(upload_request.src_dest_map, upload_request.broker_addr,
                                       upload_request.broker_prop, &tablet_files);
 
@@ -1210,6 +1213,9 @@ void TaskWorkerPool::_download_worker_thread_callback() {
         std::vector<int64_t> downloaded_tablet_ids;
         SnapshotLoader loader(_env, download_request.job_id,
                               agent_task_req.signature);
+        if (download_request.__isset.max_bytes_per_sec) {
+            loader.set_max_bytes_per_sec(download_request.max_bytes_per_sec);
+        }
         Status status = loader.download(download_request.src_dest_map, download_request.broker_addr,
                                         download_request.broker_prop, &downloaded_tablet_ids);
 
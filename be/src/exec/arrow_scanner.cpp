@@ -0,0 +1,534 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+#include "exec/arrow_scanner.h"
+
+#include "exprs/slot_ref.h"
+#include "gutil/strings/numbers.h"
+#include "runtime/exec_env.h"
+#include "runtime/datetime_value.h"
+#include "runtime/runtime_state.h"
+#include "runtime/string_value.h"
+#include "exec/local_file_reader.h"
+#include "exec/broker_reader.h"
+#include "exec/s3_reader.h"
+#include "util/uid_util.h"
+
+namespace doris {
+
+arrow::Status ArrowFileStream::Read(int64_t nbytes, int64_t* bytes_read, void* out) {
+    int64_t total = 0;
+    while (total < nbytes) {
+        size_t len = nbytes - total;
+        bool eof = false;
+        Status st = _file->read((uint8_t*) out + total, &len, &eof);
+        if (!st.ok()) {
+            return arrow::Status::IOError(st.get_error_msg());
+        }
+        if (eof || len == 0) {
+            break;
+        }
+        total += len;
+    }
+    *bytes_read = total;
+    _pos += total;
+    return arrow::Status::OK();
+}
+
+arrow::Status ArrowFileStream::Read(int64_t nbytes, std::shared_ptr<arrow::Buffer>* out) {
+    std::shared_ptr<arrow::Buffer> read_buf;
+    ARROW_RETURN_NOT_OK(arrow::AllocateBuffer(arrow::default_memory_pool(), nbytes, &read_buf));
+    int64_t bytes_read = 0;
+    ARROW_RETURN_NOT_OK(Read(nbytes, &bytes_read, read_buf->mutable_data()));
+    if (bytes_read == nbytes) {
+        *out = std::move(read_buf);
+    } else {
+        *out = arrow::SliceBuffer(read_buf, 0, bytes_read);
+    }
+    return arrow::Status::OK();
+}
+
+arrow::Status ArrowFileStream::Tell(int64_t* position) const {
+    *position = _pos;
+    return arrow::Status::OK();
+}
+
+arrow::Status ArrowFileStream::Close() {
+    // the file is closed by its owner
+    _closed = true;
+    return arrow::Status::OK();
+}
+
+bool ArrowFileStream::closed() const {
+    return _closed;
+}
+
+ArrowScanner::ArrowScanner(RuntimeState* state,
+                         RuntimeProfile* profile,
+                         const TBrokerScanRangeParams& params,
+                         const std::vector<TBrokerRangeDesc>& ranges,
+                         const std::vector<TNetworkAddress>& broker_addresses,
+                         ScannerCounter* counter) : BaseScanner(state, profile, params, counter),
+                          _ranges(ranges),
+                          _broker_addresses(broker_addresses),
+                          _current_line_of_batch(0),
+                          _next_range(0),
+                          _cur_file_eof(false),
+                          _scanner_eof(false) {
+}
+
+ArrowScanner::~ArrowScanner() {
+    close();
+}
+
+Status ArrowScanner::open() {
+    RETURN_IF_ERROR(BaseScanner::open());
+    init_direct_slots();
+    return Status::OK();
+}
+
+void ArrowScanner::init_direct_slots() {
+    for (int i = 0; i < _src_slot_descs.size(); ++i) {
+        _src_slot_indices.emplace(_src_slot_descs[i]->id(), i);
+    }
+    int dest_index = 0;
+    for (auto slot_desc : _dest_tuple_desc->slots()) {
+        if (!slot_desc->is_materialized()) {
+            continue;
+        }
+        int index = dest_index++;
+        Expr* expr = _dest_expr_ctx[index]->root();
+        if (expr->node_type() == TExprNodeType::CAST_EXPR && expr->get_num_children() == 1) {
+            expr = expr->get_child(0);
+        }
+        if (!expr->is_slotref()) {
+            continue;
+        }
+        auto it = _src_slot_indices.find(static_cast<SlotRef*>(expr)->slot_id());
+        if (it != _src_slot_indices.end()) {
+            _direct_slot_candidates.push_back({index, slot_desc, it->second});
+        }
+    }
+}
+
+static bool is_direct_type(arrow::Type::type arrow_type, PrimitiveType type) {
+    switch (arrow_type) {
+    case arrow::Type::type::BOOL:
+        return type == TYPE_BOOLEAN;
+    case arrow::Type::type::INT8:
+        return type == TYPE_TINYINT;
+    case arrow::Type::type::INT16:
+        return type == TYPE_SMALLINT;
+    case arrow::Type::type::INT32:
+        return type == TYPE_INT;
+    case arrow::Type::type::INT64:
+        return type == TYPE_BIGINT;
+    case arrow::Type::type::FLOAT:
+        return type == TYPE_FLOAT;
+    case arrow::Type::type::DOUBLE:
+        return type == TYPE_DOUBLE;
+    case arrow::Type::type::DATE32:
+    case arrow::Type::type::DATE64:
+        return type == TYPE_DATE;
+    case arrow::Type::type::TIMESTAMP:
+        return type == TYPE_DATETIME;
+    default:
+        return false;
+    }
+}
+
+void ArrowScanner::choose_direct_slots() {
+    std::shared_ptr<arrow::Schema> schema = _batch_reader->schema();
+    _direct_slots.clear();
+    _dest_slot_filled.assign(_dest_expr_ctx.size(), false);
+    for (auto& slot : _direct_slot_candidates) {
+        if (slot.src_index < _field_indices.size()
+                && is_direct_type(schema->field(_field_indices[slot.src_index])->type()->id(),
+                                  slot.dest_slot->type().type)) {
+            _direct_slots.push_back(slot);
+            _dest_slot_filled[slot.dest_index] = true;
+        }
+    }
+
+    _src_slot_used.assign(_field_indices.size(), false);
+    for (int i = 0; i < _dest_expr_ctx.size(); ++i) {
+        if (_dest_slot_filled[i]) {
+            continue;
+        }
+        std::vector<SlotId> slot_ids;
+        _dest_expr_ctx[i]->root()->get_slot_ids(&slot_ids);
+        for (auto slot_id : slot_ids) {
+            auto it = _src_slot_indices.find(slot_id);
+            if (it != _src_slot_indices.end() && it->second < _src_slot_used.size()) {
+                _src_slot_used[it->second] = true;
+            }
+        }
+    }
+    // the source slots only used by direct slots are not filled, they are null in the error rows
+    for (int i = 0; i < _src_slot_used.size(); ++i) {
+        if (!_src_slot_used[i]) {
+            _src_tuple->set_null(_src_slot_descs[i]->null_indicator_offset());
+        }
+    }
+}
+
+Status ArrowScanner::get_next(Tuple* tuple, MemPool* tuple_pool, bool* eof) {
+    SCOPED_TIMER(_read_timer);
+    while (!_scanner_eof) {
+        if (_batch_reader == nullptr || _cur_file_eof) {
+            RETURN_IF_ERROR(open_next_reader());
+            // If there isn't any more reader, break this
+            if (_scanner_eof) {
+                break;
+            }
+            _cur_file_eof = false;
+        }
+        if (_batch == nullptr || _current_line_of_batch >= _batch->num_rows()) {
+            RETURN_IF_ERROR(next_batch(&_cur_file_eof));
+            if (_cur_file_eof) {
+                continue; // read next file
+            }
+        }
+        int64_t row = _current_line_of_batch;
+        RETURN_IF_ERROR(fill_src_tuple(tuple_pool));
+        ++_current_line_of_batch;
+
+        const TBrokerRangeDesc& range = _ranges.at(_next_range - 1);
+        if (range.__isset.num_of_columns_from_file) {
+            fill_slots_of_columns_from_path(range.num_of_columns_from_file, range.columns_from_path);
+        }
+        COUNTER_UPDATE(_rows_read_counter, 1);
+        SCOPED_TIMER(_materialize_timer);
+        bool filtered = false;
+        RETURN_IF_ERROR(fill_direct_slots(row, tuple, &filtered));
+        if (!filtered && fill_dest_tuple(tuple, tuple_pool)) {
+            break; // break if true
+        }
+    }
+    *eof = _scanner_eof;
+    return Status::OK();
+}
+
+Status ArrowScanner::open_next_reader() {
+    close();
+    if (_next_range >= _ranges.size()) {
+        _scanner_eof = true;
+        return Status::OK();
+    }
+    const TBrokerRangeDesc& range = _ranges[_next_range++];
+    FileReader* file = nullptr;
+    switch (range.file_type) {
+    case TFileType::FILE_LOCAL: {
+        _cur_file.reset(new LocalFileReader(range.path, 0));
+        RETURN_IF_ERROR(_cur_file->open());
+        file = _cur_file.get();
+        break;
+    }
+    case TFileType::FILE_BROKER: {
+        _cur_file.reset(new BrokerReader(
+            _state->exec_env(), _broker_addresses, _params.properties, range.path, 0));
+        RETURN_IF_ERROR(_cur_file->open());
+        file = _cur_file.get();
+        break;
+    }
+    case TFileType::FILE_S3: {
+        int64_t file_size = range.__isset.file_size ? range.file_size : 0;
+        _cur_file.reset(new S3Reader(_params.properties, range.path, 0, file_size));
+        RETURN_IF_ERROR(_cur_file->open());
+        file = _cur_file.get();
+        break;
+    }
+    case TFileType::FILE_STREAM: {
+        _stream_load_pipe = _state->exec_env()->load_stream_mgr()->get(range.load_id);
+        if (_stream_load_pipe == nullptr) {
+            VLOG(3) << "unknown stream load id: " << UniqueId(range.load_id);
+            return Status::InternalError("unknown stream load id");
+        }
+        file = _stream_load_pipe.get();
+        break;
+    }
+    default: {
+        std::stringstream ss;
+        ss << "Unknown file type, type=" << range.file_type;
+        return Status::InternalError(ss.str());
+    }
+    }
+
+    _arrow_stream = std::make_shared<ArrowFileStream>(file);
+    arrow::Status st = arrow::ipc::RecordBatchStreamReader::Open(_arrow_stream.get(), &_batch_reader);
+    if (!st.ok()) {
+        LOG(WARNING) << "failed to open arrow stream: " << st.ToString();
+        return Status::InternalError("failed to open arrow stream: " + st.ToString());
+    }
+
+    // map the source slots to the fields of the arrow schema by name
+    int num_of_columns_from_file = range.__isset.num_of_columns_from_file ?
+            range.num_of_columns_from_file : _src_slot_descs.size();
+    std::shared_ptr<arrow::Schema> schema = _batch_reader->schema();
+    _field_indices.clear();
+    for (int i = 0; i < num_of_columns_from_file; ++i) {
+        SlotDescriptor* slot_desc = _src_slot_descs[i];
+        int index = schema->GetFieldIndex(slot_desc->col_name());
+        if (index < 0) {
+            std::stringstream ss;
+            ss << "column " << slot_desc->col_name() << " is not found in arrow schema: "
+               << schema->ToString();
+            return Status::InternalError(ss.str());
+        }
+        _field_indices.push_back(index);
+    }
+    choose_direct_slots();
+    return Status::OK();
+}
+
+Status ArrowScanner::next_batch(bool* eof) {
+    do {
+        arrow::Status st = _batch_reader->ReadNext(&_batch);
+        if (!st.ok()) {
+            LOG(WARNING) << "failed to read arrow record batch: " << st.ToString();
+            return Status::InternalError("failed to read arrow record batch: " + st.ToString());
+        }
+        if (_batch == nullptr) {
+            *eof = true;
+            return Status::OK();
+        }
+    } while (_batch->num_rows() == 0);
+    _current_line_of_batch = 0;
+    *eof = false;
+    return Status::OK();
+}
+
+Status ArrowScanner::fill_src_tuple(MemPool* mem_pool) {
+    for (int i = 0; i < _field_indices.size(); ++i) {
+        if (!_src_slot_used[i]) {
+            continue;
+        }
+        RETURN_IF_ERROR(fill_slot(_src_slot_descs[i], *_batch->column(_field_indices[i]), mem_pool));
+    }
+    return Status::OK();
+}
+
+Status ArrowScanner::fill_slot(SlotDescriptor* slot_desc, const arrow::Array& array, MemPool* mem_pool) {
+    int64_t row = _current_line_of_batch;
+    if (array.IsNull(row)) {
+        if (!slot_desc->is_nullable()) {
+            std::stringstream ss;
+            ss << "The field name(" << slot_desc->col_name() << ") is not allowed null, but arrow field is NULL.";
+            return Status::InternalError(ss.str());
+        }
+        _src_tuple->set_null(slot_desc->null_indicator_offset());
+        return Status::OK();
+    }
+
+    char buf[64];
+    int len = 0;
+    switch (array.type_id()) {
+    case arrow::Type::type::STRING:
+    case arrow::Type::type::BINARY: {
+        int32_t length = 0;
+        const uint8_t* value = static_cast<const arrow::BinaryArray&>(array).GetValue(row, &length);
+        set_slot_value(slot_desc, (const char*) value, length, mem_pool);
+        return Status::OK();
+    }
+    case arrow::Type::type::BOOL:
+        if (static_cast<const arrow::BooleanArray&>(array).Value(row)) {
+            set_slot_value(slot_desc, "true", 4, mem_pool);
+        } else {
+            set_slot_value(slot_desc, "false", 5, mem_pool);
+        }
+        return Status::OK();
+    case arrow::Type::type::INT8:
+        len = FastInt32ToBufferLeft(static_cast<const arrow::Int8Array&>(array).Value(row), buf) - buf;
+        break;
+    case arrow::Type::type::UINT8:
+        len = FastUInt32ToBufferLeft(static_cast<const arrow::UInt8Array&>(array).Value(row), buf) - buf;
+        break;
+    case arrow::Type::type::INT16:
+        len = FastInt32ToBufferLeft(static_cast<const arrow::Int16Array&>(array).Value(row), buf) - buf;
+        break;
+    case arrow::Type::type::UINT16:
+        len = FastUInt32ToBufferLeft(static_cast<const arrow::UInt16Array&>(array).Value(row), buf) - buf;
+        break;
+    case arrow::Type::type::INT32:
+        len = FastInt32ToBufferLeft(static_cast<const arrow::Int32Array&>(array).Value(row), buf) - buf;
+        break;
+    case arrow::Type::type::UINT32:
+        len = FastUInt32ToBufferLeft(static_cast<const arrow::UInt32Array&>(array).Value(row), buf) - buf;
+        break;
+    case arrow::Type::type::INT64:
+        len = FastInt64ToBufferLeft(static_cast<const arrow::Int64Array&>(array).Value(row), buf) - buf;
+        break;
+    case arrow::Type::type::UINT64:
+        len = FastUInt64ToBufferLeft(static_cast<const arrow::UInt64Array&>(array).Value(row), buf) - buf;
+        break;
+    case arrow::Type::type::FLOAT:
+        len = strlen(FloatToBuffer(static_cast<const arrow::FloatArray&>(array).Value(row), buf));
+        break;
+    case arrow::Type::type::DOUBLE:
+        len = strlen(DoubleToBuffer(static_cast<const arrow::DoubleArray&>(array).Value(row), buf));
+        break;
+    case arrow::Type::type::DECIMAL: {
+        std::string value = static_cast<const arrow::DecimalArray&>(array).FormatValue(row);
+        set_slot_value(slot_desc, value.c_str(), value.length(), mem_pool);
+        return Status::OK();
+    }
+    case arrow::Type::type::DATE32:
+    case arrow::Type::type::DATE64:
+    case arrow::Type::type::TIMESTAMP: {
+        DateTimeValue dtv;
+        if (!to_datetime(array, row, &dtv)) {
+            std::stringstream ss;
+            ss << "Convert " << array.type()->ToString() << " value of field name("
+               << slot_desc->col_name() << ") in timezone " << _state->timezone() << " error";
+            return Status::InternalError(ss.str());
+        }
+        len = dtv.to_string(buf) - buf - 1;
+        break;
+    }
+    default: {
+        std::stringstream ss;
+        ss << "The field name(" << slot_desc->col_name() << "), type("
+           << array.type()->ToString() << ") is not supported in arrow format.";
+        return Status::InternalError(ss.str());
+    }
+    }
+    set_slot_value(slot_desc, buf, len, mem_pool);
+    return Status::OK();
+}
+
+bool ArrowScanner::to_datetime(const arrow::Array& array, int64_t row, DateTimeValue* value) {
+    int64_t timestamp = 0;
+    int64_t units_per_second = 1;
+    switch (array.type_id()) {
+    case arrow::Type::type::DATE32:
+        timestamp = (int64_t) static_cast<const arrow::Date32Array&>(array).Value(row) * 24 * 60 * 60;
+        break;
+    case arrow::Type::type::DATE64:
+        timestamp = static_cast<const arrow::Date64Array&>(array).Value(row);
+        units_per_second = 1000L;
+        break;
+    case arrow::Type::type::TIMESTAMP: {
+        const auto& ts_array = static_cast<const arrow::TimestampArray&>(array);
+        timestamp = ts_array.Value(row);
+        switch (std::static_pointer_cast<arrow::TimestampType>(ts_array.type())->unit()) {
+        case arrow::TimeUnit::type::NANO:
+            units_per_second = 1000000000L;
+            break;
+        case arrow::TimeUnit::type::MICRO:
+            units_per_second = 1000000L;
+            break;
+        case arrow::TimeUnit::type::MILLI:
+            units_per_second = 1000L;
+            break;
+        default:
+            break;
+        }
+        break;
+    }
+    default:
+        return false;
+    }
+    // Doris only supports seconds, round down the timestamps before epoch too
+    int64_t seconds = timestamp / units_per_second;
+    if (timestamp % units_per_second < 0) {
+        --seconds;
+    }
+    // dates are days since epoch without a timezone, only timestamps are shifted
+    // into the session timezone
+    if (array.type_id() != arrow::Type::type::TIMESTAMP) {
+        static const cctz::time_zone utc = cctz::utc_time_zone();
+        if (!value->from_unixtime(seconds, utc)) {
+            return false;
+        }
+        value->cast_to_date();
+    } else if (!value->from_unixtime(seconds, _state->timezone_obj())) {
+        return false;
+    }
+    return value->year() <= 9999;
+}
+
+Status ArrowScanner::fill_direct_slots(int64_t row, Tuple* tuple, bool* filtered) {
+    for (auto& slot : _direct_slots) {
+        SlotDescriptor* slot_desc = slot.dest_slot;
+        const arrow::Array& array = *_batch->column(_field_indices[slot.src_index]);
+        if (array.IsNull(row)) {
+            if (!slot_desc->is_nullable()) {
+                std::stringstream ss;
+                ss << "The field name(" << slot_desc->col_name() << ") is not allowed null, but arrow field is NULL.";
+                return Status::InternalError(ss.str());
+            }
+            tuple->set_null(slot_desc->null_indicator_offset());
+            continue;
+        }
+        tuple->set_not_null(slot_desc->null_indicator_offset());
+        void* value = tuple->get_slot(slot_desc->tuple_offset());
+        switch (array.type_id()) {
+        case arrow::Type::type::BOOL:
+            *reinterpret_cast<bool*>(value) = static_cast<const arrow::BooleanArray&>(array).Value(row);
+            break;
+        case arrow::Type::type::INT8:
+            *reinterpret_cast<int8_t*>(value) = static_cast<const arrow::Int8Array&>(array).Value(row);
+            break;
+        case arrow::Type::type::INT16:
+            *reinterpret_cast<int16_t*>(value) = static_cast<const arrow::Int16Array&>(array).Value(row);
+            break;
+        case arrow::Type::type::INT32:
+            *reinterpret_cast<int32_t*>(value) = static_cast<const arrow::Int32Array&>(array).Value(row);
+            break;
+        case arrow::Type::type::INT64:
+            *reinterpret_cast<int64_t*>(value) = static_cast<const arrow::Int64Array&>(array).Value(row);
+            break;
+        case arrow::Type::type::FLOAT:
+            *reinterpret_cast<float*>(value) = static_cast<const arrow::FloatArray&>(array).Value(row);
+            break;
+        case arrow::Type::type::DOUBLE:
+            *reinterpret_cast<double*>(value) = static_cast<const arrow::DoubleArray&>(array).Value(row);
+            break;
+        default: {
+            // date and timestamp
+            if (!to_datetime(array, row, reinterpret_cast<DateTimeValue*>(value))) {
+                std::stringstream error_msg;
+                error_msg << "column(" << slot_desc->col_name() << ") value is out of range";
+                _state->append_error_msg_to_file(_src_tuple_row->to_string(*(_row_desc.get())), error_msg.str());
+                _counter->num_rows_filtered++;
+                *filtered = true;
+                return Status::OK();
+            }
+            break;
+        }
+        }
+    }
+    return Status::OK();
+}
+
+void ArrowScanner::set_slot_value(SlotDescriptor* slot_desc, const char* value, int len, MemPool* mem_pool) {
+    _src_tuple->set_not_null(slot_desc->null_indicator_offset());
+    StringValue* str_slot = reinterpret_cast<StringValue*>(_src_tuple->get_slot(slot_desc->tuple_offset()));
+    str_slot->ptr = reinterpret_cast<char*>(mem_pool->allocate(len));
+    memcpy(str_slot->ptr, value, len);
+    str_slot->len = len;
+}
+
+void ArrowScanner::close() {
+    _batch.reset();
+    _batch_reader.reset();
+    _arrow_stream.reset();
+    _cur_file.reset();
+    _stream_load_pipe.reset();
+}
+
+}
@@ -0,0 +1,142 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+#ifndef BE_SRC_ARROW_SCANNER_H_
+#define BE_SRC_ARROW_SCANNER_H_
+
+#include <map>
+#include <memory>
+#include <vector>
+#include <string>
+#include <arrow/api.h>
+#include <arrow/io/interfaces.h>
+#include <arrow/ipc/reader.h>
+
+#include "exec/base_scanner.h"
+#include "common/status.h"
+#include "gen_cpp/PlanNodes_types.h"
+#include "gen_cpp/Types_types.h"
+#include "runtime/mem_pool.h"
+#include "runtime/tuple.h"
+#include "runtime/descriptors.h"
+#include "runtime/stream_load/load_stream_mgr.h"
+#include "util/runtime_profile.h"
+
+namespace doris {
+
+class Tuple;
+class SlotDescriptor;
+class RuntimeState;
+class FileReader;
+class StreamLoadPipe;
+class DateTimeValue;
+
+// Sequential arrow input stream on a FileReader, which may be a StreamLoadPipe
+// that doesn't support readat.
+class ArrowFileStream : public arrow::io::InputStream {
+public:
+    ArrowFileStream(FileReader* file) : _file(file) {}
+    virtual ~ArrowFileStream() {}
+    arrow::Status Read(int64_t nbytes, int64_t* bytes_read, void* out) override;
+    arrow::Status Read(int64_t nbytes, std::shared_ptr<arrow::Buffer>* out) override;
+    arrow::Status Tell(int64_t* position) const override;
+    arrow::Status Close() override;
+    bool closed() const override;
+private:
+    FileReader* _file;
+    int64_t _pos = 0;
+    bool _closed = false;
+};
+
+// Scanner of the arrow IPC stream format.
+// The fields of the record batches are mapped to the source slots by name.
+// A dest slot whose expr only casts a source slot is filled from the arrow array directly if the arrow
+// type is the same as the dest type, other values are converted to strings and cast by the dest exprs.
+class ArrowScanner : public BaseScanner {
+public:
+    ArrowScanner(
+        RuntimeState* state,
+        RuntimeProfile* profile,
+        const TBrokerScanRangeParams& params,
+        const std::vector<TBrokerRangeDesc>& ranges,
+        const std::vector<TNetworkAddress>& broker_addresses,
+        ScannerCounter* counter);
+    ~ArrowScanner();
+
+    // Open this scanner, will initialize information needed
+    Status open() override;
+
+    // Get next tuple
+    Status get_next(Tuple* tuple, MemPool* tuple_pool, bool* eof) override;
+
+    // Close this scanner
+    void close() override;
+private:
+    Status open_next_reader();
+    // Read the next non-empty record batch of current file
+    Status next_batch(bool* eof);
+    // Find the dest slots whose exprs only cast a source slot
+    void init_direct_slots();
+    // Choose the direct slots of current file, and the source slots needed by the other dest exprs
+    void choose_direct_slots();
+    Status fill_src_tuple(MemPool* mem_pool);
+    Status fill_slot(SlotDescriptor* slot_desc, const arrow::Array& array, MemPool* mem_pool);
+    void set_slot_value(SlotDescriptor* slot_desc, const char* value, int len, MemPool* mem_pool);
+    // Fill the direct slots of dest tuple from the row of current batch,
+    // 'filtered' is set if the row is filtered for a bad value
+    Status fill_direct_slots(int64_t row, Tuple* tuple, bool* filtered);
+    // Convert the date or timestamp value in the session timezone
+    bool to_datetime(const arrow::Array& array, int64_t row, DateTimeValue* value);
+private:
+    struct DirectSlot {
+        // index in _dest_expr_ctx
+        int dest_index;
+        SlotDescriptor* dest_slot;
+        // index in _src_slot_descs
+        int src_index;
+    };
+
+    const std::vector<TBrokerRangeDesc>& _ranges;
+    const std::vector<TNetworkAddress>& _broker_addresses;
+
+    // owned reader of local or broker file
+    std::unique_ptr<FileReader> _cur_file;
+    // used to hold current StreamLoadPipe
+    std::shared_ptr<StreamLoadPipe> _stream_load_pipe;
+    std::shared_ptr<ArrowFileStream> _arrow_stream;
+    std::shared_ptr<arrow::RecordBatchReader> _batch_reader;
+    std::shared_ptr<arrow::RecordBatch> _batch;
+    int64_t _current_line_of_batch;
+
+    // index of the arrow field of each source slot read from file
+    std::vector<int> _field_indices;
+    // index in _src_slot_descs of each source slot id
+    std::map<SlotId, int> _src_slot_indices;
+    // dest slots whose exprs only cast a source slot
+    std::vector<DirectSlot> _direct_slot_candidates;
+    // dest slots filled from the arrow arrays of current file
+    std::vector<DirectSlot> _direct_slots;
+    // whether the source slot read from file is used by the dest exprs
+    std::vector<bool> _src_slot_used;
+
+    int _next_range;
+    bool _cur_file_eof; // whether current file is eof
+    bool _scanner_eof;
+};
+
+}
+#endif
@@ -144,6 +144,9 @@ bool BaseScanner::fill_dest_tuple(Tuple* dest_tuple, MemPool* mem_pool) {
         }
 
         int dest_index = ctx_idx++;
+        if (!_dest_slot_filled.empty() && _dest_slot_filled[dest_index]) {
+            continue;
+        }
         ExprContext* ctx = _dest_expr_ctx[dest_index];
         void* value = ctx->get_value(_src_tuple_row);
         if (value == nullptr) {
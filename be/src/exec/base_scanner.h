@@ -86,6 +86,9 @@ protected:
     // the map values of dest slot id to src slot desc
     // if there is not key of dest slot id in dest_sid_to_src_sid_without_trans, it will be set to nullptr
     std::vector<SlotDescriptor*> _src_slot_descs_order_by_dest;
+    // whether the dest slot is filled by the scanner itself before fill_dest_tuple, indexed like
+    // _dest_expr_ctx. The exprs of these slots are not evaluated. Empty if no slot is filled by the scanner.
+    std::vector<bool> _dest_slot_filled;
 
     bool _strict_mode;
     // Profile
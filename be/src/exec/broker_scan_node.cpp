@@ -28,6 +28,7 @@
 #include "exec/parquet_scanner.h"
 #include "exec/orc_scanner.h"
 #include "exec/json_scanner.h"
+#include "exec/arrow_scanner.h"
 #include "exprs/expr.h"
 #include "util/runtime_profile.h"
 
@@ -298,6 +299,14 @@ std::unique_ptr<BaseScanner> BrokerScanNode::create_scanner(const TBrokerScanRan
                 scan_range.broker_addresses,
                 counter);
         break;
+    case TFileFormatType::FORMAT_ARROW:
+        scan = new ArrowScanner(_runtime_state,
+                runtime_profile(),
+                scan_range.params,
+                scan_range.ranges,
+                scan_range.broker_addresses,
+                counter);
+        break;
     default:
         scan = new BrokerScanner(
                 _runtime_state,
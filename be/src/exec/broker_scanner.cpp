@@ -33,6 +33,7 @@
 #include "exec/plain_text_line_reader.h"
 #include "exec/local_file_reader.h"
 #include "exec/broker_reader.h"
+#include "exec/s3_reader.h"
 #include "exec/decompressor.h"
 #include "util/utf8_check.h"
 
@@ -153,6 +154,13 @@ Status BrokerScanner::open_file_reader() {
         _cur_file_reader = broker_reader;
         break;
     }
+    case TFileType::FILE_S3: {
+        int64_t file_size = range.__isset.file_size ? range.file_size : 0;
+        S3Reader* s3_reader = new S3Reader(_params.properties, range.path, start_offset, file_size);
+        RETURN_IF_ERROR(s3_reader->open());
+        _cur_file_reader = s3_reader;
+        break;
+    }
     case TFileType::FILE_STREAM: {
         _stream_load_pipe = _state->exec_env()->load_stream_mgr()->get(range.load_id);
         if (_stream_load_pipe == nullptr) {
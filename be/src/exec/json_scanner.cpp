@@ -27,6 +27,7 @@
 #include "env/env.h"
 #include "exec/local_file_reader.h"
 #include "exec/broker_reader.h"
+#include "exec/s3_reader.h"
 #include "exprs/json_functions.h"
 
 namespace doris {
@@ -117,6 +118,13 @@ Status JsonScanner::open_next_reader() {
         file = broker_reader;
         break;
     }
+    case TFileType::FILE_S3: {
+        int64_t file_size = range.__isset.file_size ? range.file_size : 0;
+        S3Reader* s3_reader = new S3Reader(_params.properties, range.path, start_offset, file_size);
+        RETURN_IF_ERROR(s3_reader->open());
+        file = s3_reader;
+        break;
+    }
 
     case TFileType::FILE_STREAM: {
         _stream_load_pipe = _state->exec_env()->load_stream_mgr()->get(range.load_id);
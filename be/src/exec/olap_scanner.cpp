@@ -206,6 +206,12 @@ Status OlapScanner::_init_params(
         _params.use_page_cache = true;
     }
 
+    // Rows are returned in key order only when the reader merges the rowsets,
+    // otherwise the first rows of this scanner are not the smallest ones.
+    if (_aggregation || _tablet->keys_type() == KeysType::DUP_KEYS) {
+        _sort_limit = -1;
+    }
+
     return Status::OK();
 }
 
@@ -345,6 +351,7 @@ Status OlapScanner::get_batch(
                 char* new_tuple = reinterpret_cast<char*>(tuple);
                 new_tuple += _tuple_desc->byte_size();
                 tuple = reinterpret_cast<Tuple*>(new_tuple);
+                ++_num_rows_returned;
 
                 // compute pushdown conjuncts filter rate
                 if (_use_pushdown_conjuncts) {
@@ -363,6 +370,12 @@ Status OlapScanner::get_batch(
                 }
             } while (false);
 
+            // The rows are in key order, the rest rows of this scanner can not be in the top-n.
+            if (_sort_limit > 0 && _num_rows_returned >= _sort_limit) {
+                *eof = true;
+                break;
+            }
+
             if (raw_rows_read() >= raw_rows_threshold) {
                 break;
             }
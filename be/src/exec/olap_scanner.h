@@ -86,6 +86,10 @@ public:
 
     int64_t raw_rows_read() const { return _raw_rows_read; }
 
+    // Stop scanning after 'sort_limit' rows are returned. Only takes effect when
+    // the storage reader returns rows in key order.
+    void set_sort_limit(int64_t sort_limit) { _sort_limit = sort_limit; }
+
     void update_counter();
 
     const std::string& scan_disk() const {
@@ -145,6 +149,11 @@ private:
     // number rows filtered by pushed condition
     int64_t _num_rows_pushed_cond_filtered = 0;
 
+    // max number of rows to return, -1 means no limit
+    int64_t _sort_limit = -1;
+    // number rows returned after filtered by conjuncts
+    int64_t _num_rows_returned = 0;
+
     bool _is_closed = false;
 };
 
@@ -17,7 +17,10 @@
 
 #include "exec/orc_scanner.h"
 
+#include <limits>
+
 #include "exec/broker_reader.h"
+#include "exec/s3_reader.h"
 #include "exec/local_file_reader.h"
 #include "exprs/expr.h"
 #include "runtime/descriptors.h"
@@ -172,7 +175,7 @@ Status ORCScanner::get_next(Tuple* tuple, MemPool* tuple_pool, bool* eof) {
                     _cur_file_eof = true;
                     continue;
                 }
-                _rows_of_group = _reader->getStripe(_current_group)->getNumberOfRows();
+                _rows_of_group = _reader->getStripe(_stripes[_current_group])->getNumberOfRows();
                 _batch = _row_reader->createRowBatch(_rows_of_group);
                 _row_reader->next(*_batch.get());
 
@@ -384,6 +387,13 @@ Status ORCScanner::open_next_reader() {
                                                    range.path, range.start_offset, file_size));
                 break;
             }
+            case TFileType::FILE_S3: {
+                int64_t file_size = 0;
+                if (range.__isset.file_size) { file_size = range.file_size; }
+                file_reader.reset(new S3Reader(_params.properties, range.path, range.start_offset,
+                                               file_size));
+                break;
+            }
             default: {
                 std::stringstream ss;
                 ss << "Unknown file type, type=" << range.file_type;
@@ -399,8 +409,22 @@ Status ORCScanner::open_next_reader() {
         std::unique_ptr<orc::InputStream> inStream = std::unique_ptr<orc::InputStream>(
                 new ORCFileStream(file_reader.release(), range.path));
         _reader = orc::createReader(std::move(inStream), _options);
+        // only read the stripes which begin in this range, if the file is split into several ranges
+        _stripes.clear();
+        for (int i = 0; i < _reader->getNumberOfStripes(); ++i) {
+            uint64_t stripe_offset = _reader->getStripe(i)->getOffset();
+            if (range.size <= 0 || (stripe_offset >= range.start_offset
+                                    && stripe_offset < range.start_offset + range.size)) {
+                _stripes.push_back(i);
+            }
+        }
+        if (range.size > 0) {
+            _row_reader_options.range(range.start_offset, range.size);
+        } else {
+            _row_reader_options.range(0, std::numeric_limits<uint64_t>::max());
+        }
 
-        _total_groups = _reader->getNumberOfStripes();
+        _total_groups = _stripes.size();
         _current_group = 0;
         _rows_of_group = 0;
         _current_line_of_group = 0;
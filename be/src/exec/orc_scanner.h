@@ -68,8 +68,9 @@ private:
     std::vector<int> _position_in_orc_original;
     int _num_of_columns_from_file;
 
-    int _total_groups; // groups in a orc file
-    int _current_group;
+    std::vector<int> _stripes; // ids of the stripes to read in a orc file
+    int _total_groups; // stripes to read in a orc file
+    int _current_group; // index of _stripes
     int64_t _rows_of_group; // rows in a group.
     int64_t _current_line_of_group;
 };
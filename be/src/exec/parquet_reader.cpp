@@ -34,8 +34,10 @@ namespace doris {
 
 // Broker
 
-ParquetReaderWrap::ParquetReaderWrap(FileReader *file_reader, int32_t num_of_columns_from_file) :
-           _num_of_columns_from_file(num_of_columns_from_file), _total_groups(0), _current_group(0), _rows_of_group(0), _current_line_of_group(0), _current_line_of_batch(0) {
+ParquetReaderWrap::ParquetReaderWrap(FileReader *file_reader, int32_t num_of_columns_from_file,
+                                     int64_t range_start_offset, int64_t range_size) :
+           _num_of_columns_from_file(num_of_columns_from_file),
+           _range_start_offset(range_start_offset), _range_size(range_size), _total_groups(0), _current_group(0), _rows_of_group(0), _current_line_of_group(0), _current_line_of_batch(0) {
     _parquet = std::shared_ptr<ParquetFile>(new ParquetFile(file_reader));
     _properties = parquet::ReaderProperties();
     _properties.enable_buffered_stream();
@@ -58,11 +60,12 @@ Status ParquetReaderWrap::init_parquet_reader(const std::vector<SlotDescriptor*>
 
         _file_metadata = _reader->parquet_reader()->metadata();
         // initial members
-        _total_groups = _file_metadata->num_row_groups();
+        select_row_groups();
+        _total_groups = _row_groups.size();
         if (_total_groups == 0) {
             return Status::EndOfFile("Empty Parquet File");
         }
-        _rows_of_group = _file_metadata->RowGroup(0)->num_rows();
+        _rows_of_group = _file_metadata->RowGroup(_row_groups[0])->num_rows();
 
         // map
         auto *schemaDescriptor = _file_metadata->schema();
@@ -76,7 +79,7 @@ Status ParquetReaderWrap::init_parquet_reader(const std::vector<SlotDescriptor*>
         if (_current_line_of_group == 0) {// the first read
             RETURN_IF_ERROR(column_indices(tuple_slot_descs));
             // read batch
-            arrow::Status status = _reader->GetRecordBatchReader({_current_group}, _parquet_column_ids, &_rb_batch);
+            arrow::Status status = _reader->GetRecordBatchReader({_row_groups[_current_group]}, _parquet_column_ids, &_rb_batch);
             if (!status.ok()) {
                 LOG(WARNING) << "Get RecordBatch Failed. " << status.ToString();
                 return Status::InternalError(status.ToString());
@@ -107,6 +110,33 @@ Status ParquetReaderWrap::init_parquet_reader(const std::vector<SlotDescriptor*>
     }
 }
 
+void ParquetReaderWrap::select_row_groups() {
+    _row_groups.clear();
+    for (int i = 0; i < _file_metadata->num_row_groups(); ++i) {
+        if (_range_size <= 0) {
+            _row_groups.push_back(i);
+            continue;
+        }
+        auto row_group = _file_metadata->RowGroup(i);
+        int64_t group_start = INT64_MAX;
+        int64_t group_size = 0;
+        for (int j = 0; j < row_group->num_columns(); ++j) {
+            auto column_chunk = row_group->ColumnChunk(j);
+            int64_t chunk_start = column_chunk->has_dictionary_page() ?
+                    column_chunk->dictionary_page_offset() : column_chunk->data_page_offset();
+            group_start = std::min(group_start, chunk_start);
+            group_size += column_chunk->total_compressed_size();
+        }
+        int64_t group_middle = group_start + group_size / 2;
+        if (group_middle >= _range_start_offset && group_middle < _range_start_offset + _range_size) {
+            _row_groups.push_back(i);
+        }
+    }
+    VLOG(3) << "select " << _row_groups.size() << " of " << _file_metadata->num_row_groups()
+            << " row groups in range [" << _range_start_offset << ", "
+            << _range_start_offset + _range_size << ")";
+}
+
 void ParquetReaderWrap::close() {
     _parquet->Close();
 }
@@ -168,9 +198,9 @@ Status ParquetReaderWrap::read_record_batch(const std::vector<SlotDescriptor*>&
             return Status::OK();
         }
         _current_line_of_group = 0;
-        _rows_of_group = _file_metadata->RowGroup(_current_group)->num_rows(); //get rows of the current row group
+        _rows_of_group = _file_metadata->RowGroup(_row_groups[_current_group])->num_rows(); //get rows of the current row group
         // read batch
-        arrow::Status status = _reader->GetRecordBatchReader({_current_group}, _parquet_column_ids, &_rb_batch);
+        arrow::Status status = _reader->GetRecordBatchReader({_row_groups[_current_group]}, _parquet_column_ids, &_rb_batch);
         if (!status.ok()) {
             return Status::InternalError("Get RecordBatchReader Failed.");
         }
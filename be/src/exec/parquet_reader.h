@@ -69,7 +69,10 @@ private:
 // Reader of broker parquet file
 class ParquetReaderWrap {
 public:
-    ParquetReaderWrap(FileReader *file_reader, int32_t num_of_columns_from_file);
+    // Only the row groups whose middle points are in [range_start_offset, range_start_offset + range_size)
+    // are read, so that a file can be split into several ranges. All row groups are read if range_size <= 0.
+    ParquetReaderWrap(FileReader *file_reader, int32_t num_of_columns_from_file,
+                      int64_t range_start_offset = 0, int64_t range_size = -1);
     virtual ~ParquetReaderWrap();
 
     // Read 
@@ -81,6 +84,7 @@ public:
 private:
     void fill_slot(Tuple* tuple, SlotDescriptor* slot_desc, MemPool* mem_pool, const uint8_t* value, int32_t len);
     Status column_indices(const std::vector<SlotDescriptor*>& tuple_slot_descs);
+    void select_row_groups();
     Status set_field_null(Tuple* tuple, const SlotDescriptor* slot_desc);
     Status read_record_batch(const std::vector<SlotDescriptor*>& tuple_slot_descs, bool* eof);
     Status handle_timestamp(const std::shared_ptr<arrow::TimestampArray>& ts_array, uint8_t *buf, int32_t *wbtyes);
@@ -98,8 +102,11 @@ private:
     std::map<std::string, int> _map_column; // column-name <---> column-index
     std::vector<int> _parquet_column_ids;
     std::vector<arrow::Type::type> _parquet_column_type;
-    int _total_groups; // groups in a parquet file
-    int _current_group;
+    const int64_t _range_start_offset;
+    const int64_t _range_size;
+    std::vector<int> _row_groups; // ids of the row groups to read
+    int _total_groups; // groups to read in a parquet file
+    int _current_group; // index of _row_groups
 
     int _rows_of_group; // rows in a group.
     int _current_line_of_group;
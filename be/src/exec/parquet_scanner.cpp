@@ -28,6 +28,7 @@
 #include "exec/text_converter.hpp"
 #include "exec/local_file_reader.h"
 #include "exec/broker_reader.h"
+#include "exec/s3_reader.h"
 #include "exec/buffered_reader.h"
 #include "exec/decompressor.h"
 #include "exec/parquet_reader.h"
@@ -123,6 +124,12 @@ Status ParquetScanner::open_next_reader() {
                                                range.path, range.start_offset, file_size)));
                 break;
             }
+            case TFileType::FILE_S3: {
+                int64_t file_size = range.__isset.file_size ? range.file_size : 0;
+                file_reader.reset(new BufferedReader(new S3Reader(_params.properties, range.path,
+                                                                  range.start_offset, file_size)));
+                break;
+            }
 #if 0
             case TFileType::FILE_STREAM:
         {
@@ -146,9 +153,11 @@ Status ParquetScanner::open_next_reader() {
             continue;
         }
         if (range.__isset.num_of_columns_from_file) {
-            _cur_file_reader = new ParquetReaderWrap(file_reader.release(), range.num_of_columns_from_file);
+            _cur_file_reader = new ParquetReaderWrap(file_reader.release(), range.num_of_columns_from_file,
+                                                     range.start_offset, range.size);
         } else {
-            _cur_file_reader = new ParquetReaderWrap(file_reader.release(), _src_slot_descs.size());
+            _cur_file_reader = new ParquetReaderWrap(file_reader.release(), _src_slot_descs.size(),
+                                                     range.start_offset, range.size);
         }
 
         Status status = _cur_file_reader->init_parquet_reader(_src_slot_descs, _state->timezone());
@@ -0,0 +1,187 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+#include "exec/s3_reader.h"
+
+#include <string.h>
+
+#include <algorithm>
+#include <sstream>
+
+#include "common/logging.h"
+#include "util/monotime.h"
+
+namespace doris {
+
+static const int64_t S3_REQUEST_TIMEOUT_MS = 60 * 1000;
+// a failed request is retried at most this times, waiting 200ms, 400ms and 800ms before the retries
+static const int S3_MAX_RETRY_TIMES = 3;
+static const int64_t S3_RETRY_BASE_DELAY_MS = 200;
+
+S3Reader::S3Reader(const std::map<std::string, std::string>& properties,
+                   const std::string& path, int64_t start_offset, int64_t file_size)
+        : _properties(properties),
+          _path(path),
+          _cur_offset(start_offset),
+          _file_size(file_size),
+          _closed(true) {}
+
+S3Reader::~S3Reader() {
+    close();
+}
+
+Status S3Reader::open() {
+    RETURN_IF_ERROR(S3Conf::parse(_properties, &_conf));
+    RETURN_IF_ERROR(S3Path::parse(_path, &_s3_path));
+    if (_file_size <= 0) {
+        Status status;
+        for (int retry = 0; ; ++retry) {
+            status = _send_request("HEAD", {}, {});
+            if (status.ok() || !_is_retryable() || !_wait_retry(retry, status)) {
+                break;
+            }
+        }
+        if (!status.ok()) {
+            std::stringstream ss;
+            ss << "Open file failed. path=" << _path << ", error=" << status.get_error_msg();
+            LOG(WARNING) << ss.str();
+            return Status::InternalError(ss.str());
+        }
+        _file_size = _client.get_content_length();
+    }
+    _closed = false;
+    return Status::OK();
+}
+
+Status S3Reader::read_one_message(uint8_t** buf, size_t* length) {
+    return Status::NotSupported("Not support");
+}
+
+Status S3Reader::read(uint8_t* buf, size_t* buf_len, bool* eof) {
+    DCHECK_NE(*buf_len, 0);
+    RETURN_IF_ERROR(readat(_cur_offset, (int64_t)*buf_len, (int64_t*)buf_len, buf));
+    if (*buf_len == 0) {
+        *eof = true;
+    } else {
+        *eof = false;
+    }
+    return Status::OK();
+}
+
+Status S3Reader::readat(int64_t position, int64_t nbytes, int64_t* bytes_read, void* out) {
+    // a range beyond the end of the object is rejected by S3, so it is checked here
+    nbytes = std::min(nbytes, _file_size - position);
+    if (nbytes <= 0) {
+        *bytes_read = 0;
+        return Status::OK();
+    }
+
+    std::map<std::string, std::string> headers;
+    std::stringstream range;
+    range << "bytes=" << position << "-" << position + nbytes - 1;
+    headers["range"] = range.str();
+
+    int64_t read_len = 0;
+    bool range_ignored = false;
+    auto callback = [&read_len, &range_ignored, nbytes, out](const void* data, size_t length) {
+        if (read_len + (int64_t)length > nbytes) {
+            // the server ignored the range
+            range_ignored = true;
+            return false;
+        }
+        memcpy((uint8_t*)out + read_len, data, length);
+        read_len += length;
+        return true;
+    };
+    Status status;
+    for (int retry = 0; ; ++retry) {
+        // the data of a failed request is read again from the start of the range
+        read_len = 0;
+        status = _send_request("GET", headers, callback);
+        if (status.ok() || range_ignored || !_is_retryable() || !_wait_retry(retry, status)) {
+            break;
+        }
+    }
+    if (!status.ok()) {
+        std::stringstream ss;
+        ss << "Read file failed. path=" << _path << ", offset=" << position
+           << ", error=" << status.get_error_msg();
+        LOG(WARNING) << ss.str();
+        return Status::InternalError(ss.str());
+    }
+
+    *bytes_read = read_len;
+    _cur_offset = position + read_len;
+    return Status::OK();
+}
+
+Status S3Reader::_send_request(const std::string& method, std::map<std::string, std::string> headers,
+                               const std::function<bool(const void* data, size_t length)>& callback) {
+    // the request is signed again for each retry, as the signature expires
+    std::string url = S3Util::build_request(_conf, _s3_path, method, &headers);
+    RETURN_IF_ERROR(_client.init(url));
+    for (auto& header : headers) {
+        _client.set_header(header.first, header.second);
+    }
+    _client.set_timeout_ms(S3_REQUEST_TIMEOUT_MS);
+    if (method == "HEAD") {
+        return _client.head();
+    }
+    return _client.execute(callback);
+}
+
+bool S3Reader::_is_retryable() {
+    // 0 if no response is received, and 2xx if the connection is broken while reading the body
+    long http_status = _client.get_http_status();
+    return http_status < 400 || http_status >= 500;
+}
+
+bool S3Reader::_wait_retry(int retry, const Status& status) {
+    if (retry >= S3_MAX_RETRY_TIMES) {
+        return false;
+    }
+    int64_t delay_ms = S3_RETRY_BASE_DELAY_MS << retry;
+    LOG(WARNING) << "request of S3 failed, retry after " << delay_ms << " ms. path=" << _path
+                 << ", http status=" << _client.get_http_status()
+                 << ", error=" << status.get_error_msg();
+    SleepFor(MonoDelta::FromMilliseconds(delay_ms));
+    return true;
+}
+
+int64_t S3Reader::size() {
+    return _file_size;
+}
+
+Status S3Reader::seek(int64_t position) {
+    _cur_offset = position;
+    return Status::OK();
+}
+
+Status S3Reader::tell(int64_t* position) {
+    *position = _cur_offset;
+    return Status::OK();
+}
+
+bool S3Reader::closed() {
+    return _closed;
+}
+
+void S3Reader::close() {
+    _closed = true;
+}
+
+}
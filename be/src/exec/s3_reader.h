@@ -0,0 +1,79 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+#pragma once
+
+#include <stdint.h>
+
+#include <functional>
+#include <map>
+#include <string>
+
+#include "common/status.h"
+#include "exec/file_reader.h"
+#include "http/http_client.h"
+#include "util/s3_util.h"
+
+namespace doris {
+
+// Reader of the file on S3 compatible storage, which reads the file by ranged GET requests
+// without the broker.
+class S3Reader : public FileReader {
+public:
+    // If the file size is not given, it is got by a HEAD request when open.
+    S3Reader(const std::map<std::string, std::string>& properties,
+             const std::string& path,
+             int64_t start_offset,
+             int64_t file_size = 0);
+    virtual ~S3Reader();
+
+    virtual Status open() override;
+
+    virtual Status read(uint8_t* buf, size_t* buf_len, bool* eof) override;
+    virtual Status readat(int64_t position, int64_t nbytes, int64_t* bytes_read, void* out) override;
+    virtual Status read_one_message(uint8_t** buf, size_t* length) override;
+    virtual int64_t size() override;
+    virtual Status seek(int64_t position) override;
+    virtual Status tell(int64_t* position) override;
+    virtual void close() override;
+    virtual bool closed() override;
+
+private:
+    // send the request signed with the given headers, the response body is passed to the callback
+    Status _send_request(const std::string& method, std::map<std::string, std::string> headers,
+                         const std::function<bool(const void* data, size_t length)>& callback);
+
+    // the last request failed by a server error, eg. 503 SlowDown, or a broken connection
+    bool _is_retryable();
+
+    // sleep before the next retry, return false if no more retry is allowed
+    bool _wait_retry(int retry, const Status& status);
+
+    const std::map<std::string, std::string>& _properties;
+    const std::string& _path;
+    S3Conf _conf;
+    S3Path _s3_path;
+
+    int64_t _cur_offset;
+    int64_t _file_size;
+    bool _closed;
+
+    // the connection is reused by the requests of the reader
+    HttpClient _client;
+};
+
+}
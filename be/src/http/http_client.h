@@ -66,10 +66,12 @@ public:
         curl_easy_setopt(_curl, CURLOPT_COPYPOSTFIELDS, post_body.c_str());
     }
 
-    // TODO(zc): support set header
-    // void set_header(const std::string& key, const std::string& value) {
-        // _cntl.http_request().SetHeader(key, value);
-    // }
+    // the headers are cleared when init is called again
+    void set_header(const std::string& key, const std::string& value) {
+        std::string scratch_str = key + ": " + value;
+        _header_list = curl_slist_append(_header_list, scratch_str.c_str());
+        curl_easy_setopt(_curl, CURLOPT_HTTPHEADER, _header_list);
+    }
 
     std::string get_response_content_type() {
         char *ct = nullptr;
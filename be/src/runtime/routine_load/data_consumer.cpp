@@ -290,6 +290,25 @@ Status KafkaDataConsumer::get_partition_meta(std::vector<int32_t>* partition_ids
     return Status::OK();
 }
 
+Status KafkaDataConsumer::get_latest_offsets(const std::vector<int32_t>& partition_ids,
+                                             std::vector<int64_t>* latest_offsets) {
+    for (int32_t partition_id : partition_ids) {
+        int64_t low = 0;
+        int64_t high = 0;
+        RdKafka::ErrorCode err = _k_consumer->query_watermark_offsets(
+                _topic, partition_id, &low, &high, 5000);
+        if (err != RdKafka::ERR_NO_ERROR) {
+            std::stringstream ss;
+            ss << "failed to get latest offset of partition " << partition_id
+               << ": " << RdKafka::err2str(err);
+            LOG(WARNING) << ss.str();
+            return Status::InternalError(ss.str());
+        }
+        latest_offsets->push_back(high);
+    }
+    return Status::OK();
+}
+
 Status KafkaDataConsumer::cancel(StreamLoadContext* ctx) {
     std::unique_lock<std::mutex> l(_lock);
     if (!_init) {
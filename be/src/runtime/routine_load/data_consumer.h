@@ -149,6 +149,10 @@ public:
     // get the partitions ids of the topic
     Status get_partition_meta(std::vector<int32_t>* partition_ids);
 
+    // get the offset of the next message to be produced of each partition
+    Status get_latest_offsets(const std::vector<int32_t>& partition_ids,
+                              std::vector<int64_t>* latest_offsets);
+
 private:
     std::string _brokers;
     std::string _topic;
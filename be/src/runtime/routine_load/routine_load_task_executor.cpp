@@ -69,34 +69,58 @@ Status RoutineLoadTaskExecutor::get_kafka_partition_meta(
 
     // This context is meaningless, just for unifing the interface
     StreamLoadContext ctx(_exec_env);
-    ctx.load_type = TLoadType::ROUTINE_LOAD;
-    ctx.load_src_type = TLoadSourceType::KAFKA;
-    ctx.label = "NaN";
+    std::shared_ptr<DataConsumer> consumer;
+    RETURN_IF_ERROR(_get_kafka_consumer(request.kafka_info(), &ctx, &consumer));
 
-    // convert PKafkaInfo to TKafkaLoadInfo
-    TKafkaLoadInfo t_info;
-    t_info.brokers = request.kafka_info().brokers();
-    t_info.topic = request.kafka_info().topic();
-    std::map<std::string, std::string> properties;
-    for (int i = 0; i < request.kafka_info().properties_size(); ++i) {
-        const PStringPair& pair = request.kafka_info().properties(i);
-        properties.emplace(pair.key(), pair.val());
+    Status st = std::static_pointer_cast<KafkaDataConsumer>(consumer)->get_partition_meta(partition_ids);
+    if (st.ok()) {
+        _data_consumer_pool.return_consumer(consumer);
     }
-    t_info.__set_properties(std::move(properties));
+    return st;
+}
 
-    ctx.kafka_info.reset(new KafkaLoadInfo(t_info));
-    ctx.need_rollback = false;
+Status RoutineLoadTaskExecutor::get_kafka_latest_offsets(
+        const PKafkaOffsetProxyRequest& request, std::vector<int64_t>* latest_offsets) {
+    DCHECK(request.has_kafka_info());
 
+    // This context is meaningless, just for unifing the interface
+    StreamLoadContext ctx(_exec_env);
     std::shared_ptr<DataConsumer> consumer;
-    RETURN_IF_ERROR(_data_consumer_pool.get_consumer(&ctx, &consumer));
+    RETURN_IF_ERROR(_get_kafka_consumer(request.kafka_info(), &ctx, &consumer));
 
-    Status st = std::static_pointer_cast<KafkaDataConsumer>(consumer)->get_partition_meta(partition_ids);
+    std::vector<int32_t> partition_ids(request.partition_ids().begin(), request.partition_ids().end());
+    Status st = std::static_pointer_cast<KafkaDataConsumer>(consumer)->get_latest_offsets(
+            partition_ids, latest_offsets);
     if (st.ok()) {
         _data_consumer_pool.return_consumer(consumer);
     }
     return st;
 }
 
+Status RoutineLoadTaskExecutor::_get_kafka_consumer(const PKafkaLoadInfo& kafka_info,
+                                                    StreamLoadContext* ctx,
+                                                    std::shared_ptr<DataConsumer>* consumer) {
+    ctx->load_type = TLoadType::ROUTINE_LOAD;
+    ctx->load_src_type = TLoadSourceType::KAFKA;
+    ctx->label = "NaN";
+
+    // convert PKafkaInfo to TKafkaLoadInfo
+    TKafkaLoadInfo t_info;
+    t_info.brokers = kafka_info.brokers();
+    t_info.topic = kafka_info.topic();
+    std::map<std::string, std::string> properties;
+    for (int i = 0; i < kafka_info.properties_size(); ++i) {
+        const PStringPair& pair = kafka_info.properties(i);
+        properties.emplace(pair.key(), pair.val());
+    }
+    t_info.__set_properties(std::move(properties));
+
+    ctx->kafka_info.reset(new KafkaLoadInfo(t_info));
+    ctx->need_rollback = false;
+
+    return _data_consumer_pool.get_consumer(ctx, consumer);
+}
+
 Status RoutineLoadTaskExecutor::submit_task(const TRoutineLoadTask& task) {
     std::unique_lock<std::mutex> l(_lock);
     if (_task_map.find(task.id) != _task_map.end()) {
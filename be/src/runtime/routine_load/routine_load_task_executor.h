@@ -53,6 +53,9 @@ public:
     Status get_kafka_partition_meta(const PKafkaMetaProxyRequest& request,
                                     std::vector<int32_t>* partition_ids);
 
+    Status get_kafka_latest_offsets(const PKafkaOffsetProxyRequest& request,
+                                    std::vector<int64_t>* latest_offsets);
+
 private:
     // execute the task
     void exec_task(StreamLoadContext* ctx, DataConsumerPool* pool, ExecFinishCallback cb);
@@ -62,6 +65,10 @@ private:
     // for test only
     Status _execute_plan_for_test(StreamLoadContext* ctx);
 
+    // get a kafka consumer of the broker and topic, only used to get meta of the topic
+    Status _get_kafka_consumer(const PKafkaLoadInfo& kafka_info, StreamLoadContext* ctx,
+                               std::shared_ptr<DataConsumer>* consumer);
+
 private:
     ExecEnv* _exec_env;
     PriorityThreadPool _thread_pool;
@@ -17,6 +17,9 @@
 
 #include <stdint.h>
 
+#include <algorithm>
+#include <mutex>
+
 #include "runtime/snapshot_loader.h"
 
 #include "gen_cpp/PaloBrokerService_types.h"
@@ -36,7 +39,9 @@
 #include "runtime/exec_env.h"
 #include "runtime/broker_mgr.h"
 #include "util/file_utils.h"
+#include "util/monotime.h"
 #include "util/thrift_rpc_helper.h"
+#include "util/time.h"
 
 namespace doris {
 
@@ -60,6 +65,59 @@ inline const std::string& client_id(ExecEnv* env, const TNetworkAddress& addr) {
 }
 #endif
 
+// Limit the speed of all upload or download tasks of a job on this backend.
+// Each task takes its share when it transfers bytes, so a single running
+// task can use the whole limit, and several tasks split it between them.
+class JobTransferThrottle {
+public:
+    explicit JobTransferThrottle(int64_t max_bytes_per_sec) :
+            _max_bytes_per_sec(max_bytes_per_sec),
+            _next_free_ms(MonotonicMillis()) {
+    }
+
+    // get the throttle of the job, create it if no task of the job is running
+    static std::shared_ptr<JobTransferThrottle> get(int64_t job_id, int64_t max_bytes_per_sec) {
+        static std::mutex s_lock;
+        static std::map<int64_t, std::weak_ptr<JobTransferThrottle>> s_throttles;
+
+        std::lock_guard<std::mutex> l(s_lock);
+        // remove the throttles of the jobs which have no running task
+        for (auto it = s_throttles.begin(); it != s_throttles.end();) {
+            if (it->second.expired()) {
+                it = s_throttles.erase(it);
+            } else {
+                ++it;
+            }
+        }
+        std::shared_ptr<JobTransferThrottle> throttle = s_throttles[job_id].lock();
+        if (throttle == nullptr) {
+            throttle = std::make_shared<JobTransferThrottle>(max_bytes_per_sec);
+            s_throttles[job_id] = throttle;
+        }
+        return throttle;
+    }
+
+    // take the time of the transferred bytes,
+    // return the milliseconds to wait before transferring more.
+    int64_t acquire(int64_t bytes) {
+        std::lock_guard<std::mutex> l(_lock);
+        int64_t now_ms = MonotonicMillis();
+        // the unused time of an idle period is kept for at most one second
+        _next_free_ms = std::max(_next_free_ms, now_ms - 1000);
+        _next_free_ms += bytes * 1000 / _max_bytes_per_sec;
+        return std::max(_next_free_ms - now_ms, (int64_t) 0);
+    }
+
+private:
+    std::mutex _lock;
+    const int64_t _max_bytes_per_sec;
+    // the time before which the bytes transferred so far should not be finished
+    int64_t _next_free_ms;
+};
+
+// check whether the job is cancelled every 5 seconds while waiting
+static const int64_t THROTTLE_CHECK_INTERVAL_MS = 5000;
+
 SnapshotLoader::SnapshotLoader(
         ExecEnv* env,
         int64_t job_id,
@@ -90,6 +148,9 @@ Status SnapshotLoader::upload(
     RETURN_IF_ERROR(_report_every(0, &tmp_counter, 0, 0,
             TTaskType::type::UPLOAD));
 
+    if (_max_bytes_per_sec > 0) {
+        _job_throttle = JobTransferThrottle::get(_job_id, _max_bytes_per_sec);
+    }
     Status status = Status::OK();
     // 1. validate local tablet snapshot paths
     RETURN_IF_ERROR(_check_local_snapshot_paths(src_to_dest_path, true));
@@ -221,7 +282,10 @@ Status SnapshotLoader::upload(
                     DCHECK_EQ(write_len, read_len);
 
                     read_offset += read_len;
+                    _finished_bytes += read_len;
                     left_len -= read_len;
+                    RETURN_IF_ERROR(_throttle(read_len, &report_counter, finished_num, total_num,
+                            TTaskType::type::UPLOAD));
                 }
 
                 // close manually, because we need to check its close status
@@ -244,6 +308,10 @@ Status SnapshotLoader::upload(
                 << src_path << ", remote path: " << dest_path;
     } // end for each tablet path
 
+    // report the bytes of the last files
+    RETURN_IF_ERROR(_report_every(0, &report_counter, finished_num, total_num,
+            TTaskType::type::UPLOAD));
+
     LOG(INFO) << "finished to upload snapshots. job: " << _job_id
             << ", task id: " << _task_id;
     return status;
@@ -270,6 +338,9 @@ Status SnapshotLoader::download(
     RETURN_IF_ERROR(_report_every(0, &tmp_counter, 0, 0,
             TTaskType::type::DOWNLOAD));
 
+    if (_max_bytes_per_sec > 0) {
+        _job_throttle = JobTransferThrottle::get(_job_id, _max_bytes_per_sec);
+    }
     Status status = Status::OK();
     // 1. validate local tablet snapshot paths
     RETURN_IF_ERROR(_check_local_snapshot_paths(src_to_dest_path, false));
@@ -437,6 +508,9 @@ Status SnapshotLoader::download(
                         }
 
                         write_offset += read_len;
+                        _finished_bytes += read_len;
+                        RETURN_IF_ERROR(_throttle(read_len, &report_counter, finished_num,
+                                total_num, TTaskType::type::DOWNLOAD));
                     }
                 }
             } // file_handler should be closed before calculating checksum
@@ -496,6 +570,10 @@ Status SnapshotLoader::download(
         finished_num++;
     } // end for src_to_dest_path
 
+    // report the bytes of the last files
+    RETURN_IF_ERROR(_report_every(0, &report_counter, finished_num, total_num,
+            TTaskType::type::DOWNLOAD));
+
     LOG(INFO) << "finished to download snapshots. job: " << _job_id
             << ", task id: " << _task_id;
     return status;
@@ -893,6 +971,28 @@ Status SnapshotLoader::_get_tablet_id_from_remote_path(
     return Status::OK();
 }
 
+Status SnapshotLoader::_throttle(
+        int64_t bytes,
+        int* report_counter,
+        int32_t finished_num,
+        int32_t total_num,
+        TTaskType::type type) {
+    if (_job_throttle == nullptr) {
+        return Status::OK();
+    }
+    int64_t wait_ms = _job_throttle->acquire(bytes);
+    // sleep in slices, so that a cancelled job does not wait to the end
+    while (wait_ms > 0) {
+        int64_t sleep_ms = std::min(wait_ms, THROTTLE_CHECK_INTERVAL_MS);
+        SleepFor(MonoDelta::FromMilliseconds(sleep_ms));
+        wait_ms -= sleep_ms;
+        if (wait_ms > 0) {
+            RETURN_IF_ERROR(_report_every(0, report_counter, finished_num, total_num, type));
+        }
+    }
+    return Status::OK();
+}
+
 // only return CANCELLED if FE return that job is cancelled.
 // otherwise, return OK
 Status SnapshotLoader::_report_every(
@@ -910,7 +1010,8 @@ Status SnapshotLoader::_report_every(
     LOG(INFO) << "report to frontend. job id: " << _job_id
             << ", task id: " << _task_id
             << ", finished num: " << finished_num
-            << ", total num:" << total_num;
+            << ", total num:" << total_num
+            << ", finished bytes: " << _finished_bytes;
 
     TNetworkAddress master_addr = _env->master_info()->network_address;
 
@@ -920,6 +1021,7 @@ Status SnapshotLoader::_report_every(
     request.task_type = type;
     request.__set_finished_num(finished_num);
     request.__set_total_num(total_num);
+    request.__set_finished_bytes(_finished_bytes);
     TStatus report_st;
 
     Status rpcStatus = ThriftRpcHelper::rpc<FrontendServiceClient>(
@@ -22,6 +22,7 @@
 
 #include <string>
 #include <map>
+#include <memory>
 #include <vector>
 
 #include "gen_cpp/Types_types.h"
@@ -33,6 +34,7 @@
 namespace doris {
 
 class ExecEnv;
+class JobTransferThrottle;
 
 struct FileStat {
     std::string name;
@@ -66,6 +68,12 @@ public:
 
     ~SnapshotLoader();
 
+    // limit the speed of upload and download, no limit if <= 0.
+    // the limit is shared by all running tasks of the same job on this backend.
+    void set_max_bytes_per_sec(int64_t max_bytes_per_sec) {
+        _max_bytes_per_sec = max_bytes_per_sec;
+    }
+
     Status upload(
         const std::map<std::string, std::string>& src_to_dest_path,
         const TNetworkAddress& broker_addr,
@@ -135,10 +143,22 @@ private:
         int finished_num, int total_num,
         TTaskType::type type);
 
+    // sleep if the bytes transferred by the job exceed the speed limit.
+    // return CANCELLED if the job is cancelled while waiting.
+    Status _throttle(
+        int64_t bytes, int* report_counter,
+        int finished_num, int total_num,
+        TTaskType::type type);
+
 private:
     ExecEnv* _env;
     int64_t _job_id;
     int64_t _task_id;
+    // bytes uploaded or downloaded so far, reported to frontend
+    int64_t _finished_bytes = 0;
+    int64_t _max_bytes_per_sec = 0;
+    // shared with the other tasks of the same job, set when the transfer begins
+    std::shared_ptr<JobTransferThrottle> _job_throttle;
 };
 
 } // end namespace doris
@@ -219,6 +219,21 @@ void PInternalServiceImpl<T>::get_info(
         st.to_protobuf(response->mutable_status());
         return;
     }
+    if (request->has_kafka_offset_request()) {
+        const PKafkaOffsetProxyRequest& offset_request = request->kafka_offset_request();
+        std::vector<int64_t> latest_offsets;
+        Status st = _exec_env->routine_load_task_executor()->get_kafka_latest_offsets(
+                offset_request, &latest_offsets);
+        if (st.ok()) {
+            PKafkaOffsetProxyResult* offset_result = response->mutable_kafka_offset_result();
+            for (int i = 0; i < offset_request.partition_ids_size(); ++i) {
+                offset_result->add_partition_ids(offset_request.partition_ids(i));
+                offset_result->add_latest_offsets(latest_offsets[i]);
+            }
+        }
+        st.to_protobuf(response->mutable_status());
+        return;
+    }
     Status::OK().to_protobuf(response->mutable_status());
 }
 
@@ -0,0 +1,218 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+#include "util/s3_util.h"
+
+#include <time.h>
+
+#include <algorithm>
+
+#include <openssl/hmac.h>
+#include <openssl/sha.h>
+
+namespace doris {
+
+static const std::string ENDPOINT = "fs.s3a.endpoint";
+static const std::string ACCESS_KEY = "fs.s3a.access.key";
+static const std::string SECRET_KEY = "fs.s3a.secret.key";
+static const std::string SESSION_TOKEN = "fs.s3a.session.token";
+static const std::string REGION = "fs.s3a.endpoint.region";
+static const std::string PATH_STYLE_ACCESS = "fs.s3a.path.style.access";
+static const std::string DEFAULT_REGION = "us-east-1";
+static const std::string AWS_DOMAIN = ".amazonaws.com";
+static const std::string AWS_CN_DOMAIN = ".amazonaws.com.cn";
+static const std::string ALGORITHM = "AWS4-HMAC-SHA256";
+static const std::string SERVICE = "s3";
+
+const std::string S3Util::UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+
+static std::string get_property(const std::map<std::string, std::string>& properties,
+                                const std::string& key, const std::string& default_value) {
+    auto it = properties.find(key);
+    return it == properties.end() ? default_value : it->second;
+}
+
+Status S3Conf::parse(const std::map<std::string, std::string>& properties, S3Conf* conf) {
+    std::string endpoint = get_property(properties, ENDPOINT, "");
+    if (endpoint.empty()) {
+        return Status::InvalidArgument("missing property " + ENDPOINT);
+    }
+    size_t pos = endpoint.find("://");
+    if (pos != std::string::npos && pos > 0) {
+        conf->protocol = endpoint.substr(0, pos);
+        endpoint = endpoint.substr(pos + 3);
+    } else {
+        conf->protocol = "https";
+    }
+    if (!endpoint.empty() && endpoint.back() == '/') {
+        endpoint.pop_back();
+    }
+    conf->host = endpoint;
+    conf->access_key = get_property(properties, ACCESS_KEY, "");
+    conf->secret_key = get_property(properties, SECRET_KEY, "");
+    conf->session_token = get_property(properties, SESSION_TOKEN, "");
+    conf->region = get_property(properties, REGION, "");
+    if (conf->region.empty()) {
+        conf->region = region_of_endpoint(conf->host);
+    }
+    conf->path_style_access = get_property(properties, PATH_STYLE_ACCESS, "false") == "true";
+    return Status::OK();
+}
+
+static bool remove_suffix(const std::string& suffix, std::string* str) {
+    if (str->size() < suffix.size()
+            || str->compare(str->size() - suffix.size(), suffix.size(), suffix) != 0) {
+        return false;
+    }
+    str->resize(str->size() - suffix.size());
+    return true;
+}
+
+std::string S3Conf::region_of_endpoint(const std::string& host) {
+    std::string domain = host.substr(0, host.find(':'));
+    std::transform(domain.begin(), domain.end(), domain.begin(), ::tolower);
+    if (!remove_suffix(AWS_CN_DOMAIN, &domain) && !remove_suffix(AWS_DOMAIN, &domain)) {
+        return DEFAULT_REGION;
+    }
+    // s3.<region>, s3.dualstack.<region> or the legacy s3-<region>
+    size_t dot = domain.rfind('.');
+    std::string label = dot == std::string::npos ? domain : domain.substr(dot + 1);
+    if (label.compare(0, 3, "s3-") == 0) {
+        label = label.substr(3);
+    }
+    if (label.empty() || label == "s3" || label == "external-1") {
+        return DEFAULT_REGION;
+    }
+    return label;
+}
+
+Status S3Path::parse(const std::string& path, S3Path* s3_path) {
+    size_t pos = path.find("://");
+    if (pos == std::string::npos || pos == 0) {
+        return Status::InvalidArgument("invalid path: " + path);
+    }
+    std::string rest = path.substr(pos + 3);
+    size_t slash = rest.find('/');
+    s3_path->bucket = rest.substr(0, slash);
+    s3_path->key = slash == std::string::npos ? "" : rest.substr(slash + 1);
+    if (s3_path->bucket.empty()) {
+        return Status::InvalidArgument("no bucket in path: " + path);
+    }
+    return Status::OK();
+}
+
+static std::string hex(const unsigned char* data, size_t length) {
+    static const char digits[] = "0123456789abcdef";
+    std::string result;
+    result.reserve(length * 2);
+    for (size_t i = 0; i < length; ++i) {
+        result.push_back(digits[data[i] >> 4]);
+        result.push_back(digits[data[i] & 0xF]);
+    }
+    return result;
+}
+
+static std::string sha256_hex(const std::string& data) {
+    unsigned char digest[SHA256_DIGEST_LENGTH];
+    SHA256((const unsigned char*)data.data(), data.size(), digest);
+    return hex(digest, SHA256_DIGEST_LENGTH);
+}
+
+static std::string hmac_sha256(const std::string& key, const std::string& data) {
+    unsigned char digest[EVP_MAX_MD_SIZE];
+    unsigned int length = 0;
+    HMAC(EVP_sha256(), key.data(), key.size(),
+         (const unsigned char*)data.data(), data.size(), digest, &length);
+    return std::string((const char*)digest, length);
+}
+
+std::string S3Util::uri_encode(const std::string& value, bool encode_slash) {
+    static const char digits[] = "0123456789ABCDEF";
+    std::string result;
+    for (unsigned char c : value) {
+        if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '_' || c == '.' || c == '~' || (c == '/' && !encode_slash)) {
+            result.push_back(c);
+        } else {
+            result.push_back('%');
+            result.push_back(digits[c >> 4]);
+            result.push_back(digits[c & 0xF]);
+        }
+    }
+    return result;
+}
+
+std::string S3Util::sign(const std::string& method, const std::string& canonical_uri,
+                         const std::string& canonical_query,
+                         const std::map<std::string, std::string>& headers,
+                         const std::string& payload_hash, const std::string& access_key,
+                         const std::string& secret_key, const std::string& region) {
+    // std::map is sorted by the names, as required by the canonical request
+    std::string canonical_headers;
+    std::string signed_headers;
+    for (auto& header : headers) {
+        canonical_headers.append(header.first).append(":").append(header.second).append("\n");
+        if (!signed_headers.empty()) {
+            signed_headers.append(";");
+        }
+        signed_headers.append(header.first);
+    }
+    std::string canonical_request = method + "\n" + canonical_uri + "\n" + canonical_query + "\n"
+            + canonical_headers + "\n" + signed_headers + "\n" + payload_hash;
+
+    const std::string& amz_date = headers.at("x-amz-date");
+    std::string date = amz_date.substr(0, 8);
+    std::string scope = date + "/" + region + "/" + SERVICE + "/aws4_request";
+    std::string string_to_sign = ALGORITHM + "\n" + amz_date + "\n" + scope + "\n"
+            + sha256_hex(canonical_request);
+
+    std::string key = hmac_sha256("AWS4" + secret_key, date);
+    key = hmac_sha256(key, region);
+    key = hmac_sha256(key, SERVICE);
+    key = hmac_sha256(key, "aws4_request");
+    std::string signature = hmac_sha256(key, string_to_sign);
+    return ALGORITHM + " Credential=" + access_key + "/" + scope + ", SignedHeaders=" + signed_headers
+            + ", Signature=" + hex((const unsigned char*)signature.data(), signature.size());
+}
+
+std::string S3Util::build_request(const S3Conf& conf, const S3Path& path, const std::string& method,
+                                  std::map<std::string, std::string>* headers) {
+    std::string host = conf.path_style_access ? conf.host : path.bucket + "." + conf.host;
+    std::string canonical_uri = "/" + (conf.path_style_access ? path.bucket + "/" : "")
+            + uri_encode(path.key, false);
+
+    char amz_date[32];
+    time_t now = time(nullptr);
+    struct tm tm;
+    gmtime_r(&now, &tm);
+    strftime(amz_date, sizeof(amz_date), "%Y%m%dT%H%M%SZ", &tm);
+
+    (*headers)["host"] = host;
+    (*headers)["x-amz-content-sha256"] = UNSIGNED_PAYLOAD;
+    (*headers)["x-amz-date"] = amz_date;
+    if (!conf.session_token.empty()) {
+        (*headers)["x-amz-security-token"] = conf.session_token;
+    }
+    std::string authorization = sign(method, canonical_uri, "", *headers, UNSIGNED_PAYLOAD,
+                                     conf.access_key, conf.secret_key, conf.region);
+    // host is set by the http client from the url
+    headers->erase("host");
+    (*headers)["authorization"] = authorization;
+    return conf.protocol + "://" + host + canonical_uri;
+}
+
+}
@@ -0,0 +1,76 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+#pragma once
+
+#include <map>
+#include <string>
+
+#include "common/status.h"
+
+namespace doris {
+
+// Configuration of the S3 compatible storage, which is parsed from the properties of the load.
+// The property names are the same as the ones of hadoop s3a, which are used by the broker.
+struct S3Conf {
+    std::string protocol;
+    std::string host;
+    std::string access_key;
+    std::string secret_key;
+    // the session token of the temporary credentials, sent as x-amz-security-token
+    std::string session_token;
+    std::string region;
+    bool path_style_access = false;
+
+    static Status parse(const std::map<std::string, std::string>& properties, S3Conf* conf);
+
+    // Return the region in the AWS endpoint, such as s3.us-west-2.amazonaws.com,
+    // or us-east-1 if the endpoint is not an AWS one or has no region.
+    static std::string region_of_endpoint(const std::string& host);
+};
+
+// Path of an object, such as s3://bucket/path/to/object
+struct S3Path {
+    std::string bucket;
+    std::string key;
+
+    static Status parse(const std::string& path, S3Path* s3_path);
+};
+
+// Helper to sign the requests to S3 compatible storage by AWS signature version 4
+class S3Util {
+public:
+    static const std::string UNSIGNED_PAYLOAD;
+
+    // Return the url of the object, and fill the headers of the request, including the Authorization.
+    // The given headers are signed too, their names must be in lower case.
+    static std::string build_request(const S3Conf& conf, const S3Path& path, const std::string& method,
+                                     std::map<std::string, std::string>* headers);
+
+    // Return the Authorization header of the request.
+    // The headers must contain host and x-amz-date, and the names must be in lower case.
+    static std::string sign(const std::string& method, const std::string& canonical_uri,
+                            const std::string& canonical_query,
+                            const std::map<std::string, std::string>& headers,
+                            const std::string& payload_hash, const std::string& access_key,
+                            const std::string& secret_key, const std::string& region);
+
+    // Encode as the canonical request of AWS. '/' is kept if encode_slash is false.
+    static std::string uri_encode(const std::string& value, bool encode_slash);
+};
+
+}
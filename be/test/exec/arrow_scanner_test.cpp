@@ -0,0 +1,304 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+#include "exec/arrow_scanner.h"
+
+#include <cstdio>
+#include <fstream>
+#include <string>
+#include <vector>
+
+#include <gtest/gtest.h>
+#include <arrow/builder.h>
+#include <runtime/descriptor_helper.h>
+#include "common/object_pool.h"
+#include "exprs/cast_functions.h"
+#include "runtime/descriptors.h"
+#include "runtime/mem_pool.h"
+#include "runtime/runtime_state.h"
+#include "runtime/tuple.h"
+#include "runtime/user_function_cache.h"
+#include "util/arrow/row_batch.h"
+#include "gen_cpp/Descriptors_types.h"
+#include "gen_cpp/PlanNodes_types.h"
+
+namespace doris {
+
+class ArrowScannerTest : public testing::Test {
+public:
+    static void SetUpTestCase() {
+        UserFunctionCache::instance()->init("./be/test/runtime/test_data/user_function_cache/normal");
+        CastFunctions::init();
+    }
+
+protected:
+    virtual void SetUp() {
+        write_arrow_file();
+        init_params();
+    }
+
+    virtual void TearDown() {
+        std::remove(_file_path.c_str());
+    }
+
+    void write_arrow_file();
+    void init_params();
+    // scan the arrow file in the timezone, and return the dest tuples as strings
+    void scan(const std::string& timezone, std::vector<std::string>* rows);
+
+private:
+    const std::string _file_path = "./arrow_scanner_test.arrow";
+    ObjectPool _obj_pool;
+    TBrokerScanRangeParams _params;
+    TDescriptorTable _t_desc_table;
+    std::vector<TNetworkAddress> _addresses;
+    ScannerCounter _counter;
+};
+
+static TTypeDesc scalar_type(TPrimitiveType::type type) {
+    TTypeDesc type_desc;
+    TTypeNode node;
+    node.__set_type(TTypeNodeType::SCALAR);
+    TScalarType scalar_type;
+    scalar_type.__set_type(type);
+    if (type == TPrimitiveType::VARCHAR) {
+        scalar_type.__set_len(65535);
+    }
+    node.__set_scalar_type(scalar_type);
+    type_desc.types.push_back(node);
+    return type_desc;
+}
+
+static TExprNode slot_ref_node(int slot_id) {
+    TExprNode slot_ref;
+    slot_ref.node_type = TExprNodeType::SLOT_REF;
+    slot_ref.type = scalar_type(TPrimitiveType::VARCHAR);
+    slot_ref.num_children = 0;
+    slot_ref.__isset.slot_ref = true;
+    slot_ref.slot_ref.slot_id = slot_id;
+    slot_ref.slot_ref.tuple_id = 0;
+    return slot_ref;
+}
+
+static TExpr slot_ref_expr(int slot_id) {
+    TExpr expr;
+    expr.nodes.push_back(slot_ref_node(slot_id));
+    return expr;
+}
+
+static TExpr cast_expr(TPrimitiveType::type type, const std::string& name, const std::string& symbol,
+                       int slot_id) {
+    TExprNode cast_expr;
+    cast_expr.node_type = TExprNodeType::CAST_EXPR;
+    cast_expr.type = scalar_type(type);
+    cast_expr.__set_opcode(TExprOpcode::CAST);
+    cast_expr.__set_num_children(1);
+    cast_expr.__set_output_scale(-1);
+    cast_expr.__isset.fn = true;
+    cast_expr.fn.name.function_name = name;
+    cast_expr.fn.binary_type = TFunctionBinaryType::BUILTIN;
+    cast_expr.fn.arg_types.push_back(scalar_type(TPrimitiveType::VARCHAR));
+    cast_expr.fn.ret_type = scalar_type(type);
+    cast_expr.fn.has_var_args = false;
+    cast_expr.fn.__set_signature(name + "(VARCHAR(*))");
+    cast_expr.fn.__isset.scalar_fn = true;
+    cast_expr.fn.scalar_fn.symbol = symbol;
+
+    TExpr expr;
+    expr.nodes.push_back(cast_expr);
+    expr.nodes.push_back(slot_ref_node(slot_id));
+    return expr;
+}
+
+// c_int int32, c_str utf8, c_date date32, c_ts timestamp[ms], c_int2 int32, c_float float
+void ArrowScannerTest::write_arrow_file() {
+    std::vector<std::shared_ptr<arrow::Array>> arrays(6);
+    {
+        arrow::Int32Builder builder;
+        ASSERT_TRUE(builder.Append(1).ok());
+        ASSERT_TRUE(builder.AppendNull().ok());
+        ASSERT_TRUE(builder.Append(-3).ok());
+        ASSERT_TRUE(builder.Finish(&arrays[0]).ok());
+    }
+    {
+        arrow::StringBuilder builder;
+        ASSERT_TRUE(builder.Append("a").ok());
+        ASSERT_TRUE(builder.Append("bb").ok());
+        ASSERT_TRUE(builder.AppendNull().ok());
+        ASSERT_TRUE(builder.Finish(&arrays[1]).ok());
+    }
+    {
+        arrow::Date32Builder builder;
+        ASSERT_TRUE(builder.Append(0).ok());
+        ASSERT_TRUE(builder.Append(18000).ok());
+        ASSERT_TRUE(builder.AppendNull().ok());
+        ASSERT_TRUE(builder.Finish(&arrays[2]).ok());
+    }
+    {
+        arrow::TimestampBuilder builder(arrow::timestamp(arrow::TimeUnit::MILLI), arrow::default_memory_pool());
+        ASSERT_TRUE(builder.Append(0).ok());
+        ASSERT_TRUE(builder.Append(1600000000123L).ok());
+        ASSERT_TRUE(builder.Append(-1500).ok());
+        ASSERT_TRUE(builder.Finish(&arrays[3]).ok());
+    }
+    {
+        arrow::Int32Builder builder;
+        ASSERT_TRUE(builder.Append(2147483647).ok());
+        ASSERT_TRUE(builder.Append(0).ok());
+        ASSERT_TRUE(builder.Append(-2147483648).ok());
+        ASSERT_TRUE(builder.Finish(&arrays[4]).ok());
+    }
+    {
+        arrow::FloatBuilder builder;
+        ASSERT_TRUE(builder.Append(1.5).ok());
+        ASSERT_TRUE(builder.Append(-0.25).ok());
+        ASSERT_TRUE(builder.AppendNull().ok());
+        ASSERT_TRUE(builder.Finish(&arrays[5]).ok());
+    }
+    auto schema = arrow::schema({
+            arrow::field("c_int", arrow::int32()),
+            arrow::field("c_str", arrow::utf8()),
+            arrow::field("c_date", arrow::date32()),
+            arrow::field("c_ts", arrow::timestamp(arrow::TimeUnit::MILLI)),
+            arrow::field("c_int2", arrow::int32()),
+            arrow::field("c_float", arrow::float32())});
+    auto record_batch = arrow::RecordBatch::Make(schema, 3, arrays);
+
+    std::string data;
+    ASSERT_TRUE(serialize_record_batch(*record_batch, &data).ok());
+    std::ofstream out(_file_path, std::ios::binary);
+    out << data;
+    out.close();
+}
+
+void ArrowScannerTest::init_params() {
+    // source slots 0 - 5 are the arrow fields, dest slots are 6 - 13
+    TDescriptorTableBuilder dtb;
+    TTupleDescriptorBuilder src_tuple_builder;
+    for (auto name : {"c_int", "c_str", "c_date", "c_ts", "c_int2", "c_float"}) {
+        src_tuple_builder.add_slot(
+                TSlotDescriptorBuilder().string_type(65535).nullable(true).column_name(name).build());
+    }
+    src_tuple_builder.build(&dtb);
+
+    TTupleDescriptorBuilder dest_tuple_builder;
+    dest_tuple_builder.add_slot(
+            TSlotDescriptorBuilder().type(TYPE_INT).nullable(true).column_name("d_int").build());
+    dest_tuple_builder.add_slot(
+            TSlotDescriptorBuilder().string_type(65535).nullable(true).column_name("d_str").build());
+    dest_tuple_builder.add_slot(
+            TSlotDescriptorBuilder().type(TYPE_DATE).nullable(true).column_name("d_date").build());
+    dest_tuple_builder.add_slot(
+            TSlotDescriptorBuilder().type(TYPE_DATETIME).nullable(true).column_name("d_ts").build());
+    dest_tuple_builder.add_slot(
+            TSlotDescriptorBuilder().type(TYPE_BIGINT).nullable(true).column_name("d_big").build());
+    dest_tuple_builder.add_slot(
+            TSlotDescriptorBuilder().type(TYPE_DOUBLE).nullable(true).column_name("d_double").build());
+    dest_tuple_builder.add_slot(
+            TSlotDescriptorBuilder().string_type(65535).nullable(true).column_name("d_date_str").build());
+    dest_tuple_builder.add_slot(
+            TSlotDescriptorBuilder().string_type(65535).nullable(true).column_name("d_ts_str").build());
+    dest_tuple_builder.build(&dtb);
+    _t_desc_table = dtb.desc_tbl();
+
+    // the same types are filled from arrow directly
+    _params.expr_of_dest_slot.emplace(6, cast_expr(TPrimitiveType::INT, "casttoint",
+            "doris::CastFunctions::cast_to_int_val", 0));
+    _params.expr_of_dest_slot.emplace(7, slot_ref_expr(1));
+    _params.expr_of_dest_slot.emplace(8, cast_expr(TPrimitiveType::DATE, "casttodate",
+            "doris::CastFunctions::cast_to_date_val", 2));
+    _params.expr_of_dest_slot.emplace(9, cast_expr(TPrimitiveType::DATETIME, "casttodatetime",
+            "doris::CastFunctions::cast_to_datetime_val", 3));
+    // the other types are converted to strings and cast
+    _params.expr_of_dest_slot.emplace(10, cast_expr(TPrimitiveType::BIGINT, "casttobigint",
+            "doris::CastFunctions::cast_to_big_int_val", 4));
+    _params.expr_of_dest_slot.emplace(11, cast_expr(TPrimitiveType::DOUBLE, "casttodouble",
+            "doris::CastFunctions::cast_to_double_val", 5));
+    _params.expr_of_dest_slot.emplace(12, slot_ref_expr(2));
+    _params.expr_of_dest_slot.emplace(13, slot_ref_expr(3));
+    for (int i = 0; i < 6; ++i) {
+        _params.src_slot_ids.push_back(i);
+    }
+    _params.__set_src_tuple_id(0);
+    _params.__set_dest_tuple_id(1);
+}
+
+void ArrowScannerTest::scan(const std::string& timezone, std::vector<std::string>* rows) {
+    TQueryGlobals query_globals;
+    query_globals.__set_time_zone(timezone);
+    RuntimeState runtime_state(query_globals);
+    runtime_state._instance_mem_tracker.reset(new MemTracker());
+    DescriptorTbl* desc_tbl = nullptr;
+    ASSERT_TRUE(DescriptorTbl::create(&_obj_pool, _t_desc_table, &desc_tbl).ok());
+    runtime_state.set_desc_tbl(desc_tbl);
+
+    std::vector<TBrokerRangeDesc> ranges;
+    TBrokerRangeDesc range_desc;
+    range_desc.start_offset = 0;
+    range_desc.size = -1;
+    range_desc.format_type = TFileFormatType::FORMAT_ARROW;
+    range_desc.splittable = false;
+    range_desc.path = _file_path;
+    range_desc.file_type = TFileType::FILE_LOCAL;
+    ranges.push_back(range_desc);
+
+    ArrowScanner scanner(&runtime_state, runtime_state.runtime_profile(), _params, ranges, _addresses, &_counter);
+    ASSERT_TRUE(scanner.open().ok());
+
+    auto tracker = std::make_shared<MemTracker>();
+    MemPool tuple_pool(tracker.get());
+    const TupleDescriptor* tuple_desc = desc_tbl->get_tuple_descriptor(1);
+    Tuple* tuple = (Tuple*) tuple_pool.allocate(tuple_desc->byte_size());
+    bool eof = false;
+    while (true) {
+        ASSERT_TRUE(scanner.get_next(tuple, &tuple_pool, &eof).ok());
+        if (eof) {
+            break;
+        }
+        rows->push_back(Tuple::to_string(tuple, *tuple_desc));
+    }
+    scanner.close();
+}
+
+TEST_F(ArrowScannerTest, normal) {
+    std::vector<std::string> rows;
+    scan("+08:00", &rows);
+    ASSERT_EQ(3, rows.size());
+    ASSERT_EQ("(1 a 1970-01-01 1970-01-01 08:00:00 2147483647 1.5 1970-01-01 1970-01-01 08:00:00)", rows[0]);
+    ASSERT_EQ("(null bb 2019-04-14 2020-09-13 20:26:40 0 -0.25 2019-04-14 2020-09-13 20:26:40)", rows[1]);
+    // timestamps before epoch are rounded down to seconds
+    ASSERT_EQ("(-3 null null 1970-01-01 07:59:58 -2147483648 null null 1970-01-01 07:59:58)", rows[2]);
+}
+
+TEST_F(ArrowScannerTest, timezone) {
+    // timestamps are converted in the session timezone, but dates are not shifted,
+    // whether they are filled directly or converted to strings
+    std::vector<std::string> rows;
+    scan("-08:00", &rows);
+    ASSERT_EQ(3, rows.size());
+    ASSERT_EQ("(1 a 1970-01-01 1969-12-31 16:00:00 2147483647 1.5 1970-01-01 1969-12-31 16:00:00)", rows[0]);
+    ASSERT_EQ("(null bb 2019-04-14 2020-09-13 04:26:40 0 -0.25 2019-04-14 2020-09-13 04:26:40)", rows[1]);
+    ASSERT_EQ("(-3 null null 1969-12-31 15:59:58 -2147483648 null null 1969-12-31 15:59:58)", rows[2]);
+}
+
+} // end namespace doris
+
+int main(int argc, char** argv) {
+    ::testing::InitGoogleTest(&argc, argv);
+    doris::CpuInfo::init();
+    return RUN_ALL_TESTS();
+}
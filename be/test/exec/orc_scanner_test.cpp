@@ -799,6 +799,104 @@ TEST_F(OrcScannerTest, normal3) {
     scanner.close();
 }
 
+TEST_F(OrcScannerTest, split_ranges) {
+    TBrokerScanRangeParams params;
+    TTypeDesc varchar_type;
+    {
+        TTypeNode node;
+        node.__set_type(TTypeNodeType::SCALAR);
+        TScalarType scalar_type;
+        scalar_type.__set_type(TPrimitiveType::VARCHAR);
+        scalar_type.__set_len(65535);
+        node.__set_scalar_type(scalar_type);
+        varchar_type.types.push_back(node);
+    }
+
+    {
+        TExprNode slot_ref;
+        slot_ref.node_type = TExprNodeType::SLOT_REF;
+        slot_ref.type = varchar_type;
+        slot_ref.num_children = 0;
+        slot_ref.__isset.slot_ref = true;
+        slot_ref.slot_ref.slot_id = 1;
+        slot_ref.slot_ref.tuple_id = 0;
+
+        TExpr expr;
+        expr.nodes.push_back(slot_ref);
+
+        params.expr_of_dest_slot.emplace(3, expr);
+        params.src_slot_ids.push_back(1);
+    }
+    params.__set_src_tuple_id(0);
+    params.__set_dest_tuple_id(1);
+
+    TDescriptorTableBuilder dtb;
+    TTupleDescriptorBuilder src_tuple_builder;
+    src_tuple_builder.add_slot(
+            TSlotDescriptorBuilder().string_type(65535).nullable(true).column_name("col1").column_pos(1).build());
+    src_tuple_builder.add_slot(
+            TSlotDescriptorBuilder().string_type(65535).nullable(true).column_name("col2").column_pos(2).build());
+    src_tuple_builder.add_slot(
+            TSlotDescriptorBuilder().string_type(65535).nullable(true).column_name("col3").column_pos(3).build());
+    src_tuple_builder.build(&dtb);
+    TTupleDescriptorBuilder dest_tuple_builder;
+    dest_tuple_builder.add_slot(
+            TSlotDescriptorBuilder().string_type(65535).column_name("value_from_col2").column_pos(1).build());
+    dest_tuple_builder.build(&dtb);
+
+    DescriptorTbl::create(&_obj_pool, dtb.desc_tbl(), &_desc_tbl);
+    _runtime_state.set_desc_tbl(_desc_tbl);
+
+    const std::string path = "./be/test/exec/test_data/orc_scanner/my-file.orc";
+    LocalFileReader file_reader(path, 0);
+    ASSERT_TRUE(file_reader.open().ok());
+    int64_t file_size = file_reader.size();
+    file_reader.close();
+
+    auto tracker = std::make_shared<MemTracker>();
+    MemPool tuple_pool(tracker.get());
+    Tuple *tuple = (Tuple *) tuple_pool.allocate(_desc_tbl->get_tuple_descriptor(1)->byte_size());
+
+    // read the file split into 'num_ranges' ranges of the same size, one scanner per range
+    auto scan_rows = [&](int num_ranges, std::vector<std::string>* rows) {
+        for (int i = 0; i < num_ranges; ++i) {
+            TBrokerRangeDesc rangeDesc;
+            rangeDesc.start_offset = file_size * i / num_ranges;
+            rangeDesc.size = file_size * (i + 1) / num_ranges - rangeDesc.start_offset;
+            rangeDesc.format_type = TFileFormatType::FORMAT_ORC;
+            rangeDesc.splittable = true;
+            rangeDesc.path = path;
+            rangeDesc.file_type = TFileType::FILE_LOCAL;
+            std::vector<TBrokerRangeDesc> ranges{rangeDesc};
+
+            ORCScanner scanner(&_runtime_state, _profile, params, ranges, _addresses, &_counter);
+            ASSERT_TRUE(scanner.open().ok());
+            bool eof = false;
+            while (true) {
+                ASSERT_TRUE(scanner.get_next(tuple, &tuple_pool, &eof).ok());
+                if (eof) {
+                    break;
+                }
+                rows->push_back(Tuple::to_string(tuple, *_desc_tbl->get_tuple_descriptor(1)));
+            }
+            scanner.close();
+        }
+    };
+
+    std::vector<std::string> expected_rows;
+    scan_rows(1, &expected_rows);
+    ASSERT_EQ(10, expected_rows.size());
+    ASSERT_EQ("(null)", expected_rows[0]);
+    ASSERT_EQ("(true)", expected_rows[1]);
+
+    // every stripe is read by the only range which it begins in
+    for (int num_ranges : {2, 3, 5, 64}) {
+        std::vector<std::string> rows;
+        scan_rows(num_ranges, &rows);
+        ASSERT_EQ(expected_rows, rows) << "num_ranges: " << num_ranges;
+    }
+}
+
 } // end namespace doris
 int main(int argc, char** argv) {
     ::testing::InitGoogleTest(&argc, argv);
@@ -58,6 +58,7 @@ private:
     int create_dst_tuple(TDescriptorTable& t_desc_table, int next_slot_id);
     void create_expr_info();
     void init_desc_table();
+    int64_t scan_rows_in_ranges(int num_ranges);
     RuntimeState _runtime_state;
     ObjectPool _obj_pool;
     std::map<std::string, SlotDescriptor*> _slots_map;
@@ -489,6 +490,66 @@ TEST_F(ParquetSannerTest, normal) {
     }
 }
 
+// Scan localfile.parquet split into 'num_ranges' ranges of the same size, and return the number of rows read.
+int64_t ParquetSannerTest::scan_rows_in_ranges(int num_ranges) {
+    const std::string path = "./be/test/exec/test_data/parquet_scanner/localfile.parquet";
+    LocalFileReader file_reader(path, 0);
+    EXPECT_TRUE(file_reader.open().ok());
+    int64_t file_size = file_reader.size();
+    file_reader.close();
+
+    BrokerScanNode scan_node(&_obj_pool, _tnode, *_desc_tbl);
+    EXPECT_TRUE(scan_node.prepare(&_runtime_state).ok());
+    std::vector<TScanRangeParams> scan_ranges;
+    for (int i = 0; i < num_ranges; ++i) {
+        TBrokerRangeDesc range;
+        range.start_offset = file_size * i / num_ranges;
+        range.size = file_size * (i + 1) / num_ranges - range.start_offset;
+        range.format_type = TFileFormatType::FORMAT_PARQUET;
+        range.splittable = true;
+        std::vector<std::string> columns_from_path{"value"};
+        range.__set_columns_from_path(columns_from_path);
+        range.__set_num_of_columns_from_file(19);
+        range.path = path;
+        range.file_type = TFileType::FILE_LOCAL;
+
+        TBrokerScanRange broker_scan_range;
+        broker_scan_range.params = _params;
+        broker_scan_range.ranges.push_back(range);
+        TScanRangeParams scan_range_params;
+        scan_range_params.scan_range.__set_broker_scan_range(broker_scan_range);
+        scan_ranges.push_back(scan_range_params);
+    }
+    scan_node.set_scan_ranges(scan_ranges);
+    EXPECT_TRUE(scan_node.open(&_runtime_state).ok());
+
+    auto tracker = std::make_shared<MemTracker>();
+    RowBatch batch(scan_node.row_desc(), _runtime_state.batch_size(), tracker.get());
+    int64_t num_rows = 0;
+    bool eof = false;
+    while (!eof) {
+        Status status = scan_node.get_next(&_runtime_state, &batch, &eof);
+        EXPECT_TRUE(status.ok());
+        if (!status.ok()) {
+            break;
+        }
+        num_rows += batch.num_rows();
+        batch.reset();
+    }
+    scan_node.close(&_runtime_state);
+    return num_rows;
+}
+
+TEST_F(ParquetSannerTest, split_ranges) {
+    // each row group is read by the only range which its middle point falls in,
+    // whatever ranges the row group straddles
+    ASSERT_EQ(30000, scan_rows_in_ranges(1));
+    ASSERT_EQ(30000, scan_rows_in_ranges(2));
+    ASSERT_EQ(30000, scan_rows_in_ranges(3));
+    ASSERT_EQ(30000, scan_rows_in_ranges(16));
+    ASSERT_EQ(30000, scan_rows_in_ranges(1000));
+}
+
 }
 
 int main(int argc, char** argv) {
@@ -50,6 +50,10 @@ public interface ConfigurationOptions {
     int DORIS_TABLET_SIZE_DEFAULT = Integer.MAX_VALUE;
     int DORIS_TABLET_SIZE_MIN = 1;
 
+    // the tablets of one BE are packed into partitions of about this size, disabled if not positive
+    String DORIS_PARTITION_SIZE_BYTES = "doris.request.partition.size.bytes";
+    long DORIS_PARTITION_SIZE_BYTES_DEFAULT = -1L;
+
     String DORIS_BATCH_SIZE = "doris.batch.size";
     int DORIS_BATCH_SIZE_DEFAULT = 1024;
 
@@ -63,4 +67,24 @@ public interface ConfigurationOptions {
 
     String DORIS_DESERIALIZE_QUEUE_SIZE = "doris.deserialize.queue.size";
     int DORIS_DESERIALIZE_QUEUE_SIZE_DEFAULT = 64;
+
+    // read the arrow vectors as Spark columnar batches instead of converting them to rows
+    String DORIS_READ_COLUMNAR = "doris.read.columnar";
+    boolean DORIS_READ_COLUMNAR_DEFAULT = false;
+
+    // max bytes of the rows sent by one stream load, in json format
+    String DORIS_SINK_BATCH_SIZE_BYTES = "doris.sink.batch.size.bytes";
+    long DORIS_SINK_BATCH_SIZE_BYTES_DEFAULT = 67108864L;
+
+    String DORIS_SINK_MAX_RETRIES = "doris.sink.max.retries";
+    int DORIS_SINK_MAX_RETRIES_DEFAULT = 3;
+
+    // number of partitions to write, the DataFrame is not repartitioned if not set
+    String DORIS_SINK_TASK_PARTITION_SIZE = "doris.sink.task.partition.size";
+
+    // the label of a stream load is <prefix>_<spark partition id>_<batch index>
+    String DORIS_SINK_LABEL_PREFIX = "doris.sink.label.prefix";
+
+    // properties of stream load, eg. doris.sink.properties.max_filter_ratio
+    String DORIS_SINK_PROPERTIES_PREFIX = "doris.sink.properties.";
 }
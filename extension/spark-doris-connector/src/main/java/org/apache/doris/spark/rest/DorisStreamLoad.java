@@ -0,0 +1,278 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.spark.rest;
+
+import static org.apache.doris.spark.cfg.ConfigurationOptions.DORIS_FENODES;
+import static org.apache.doris.spark.cfg.ConfigurationOptions.DORIS_REQUEST_AUTH_PASSWORD;
+import static org.apache.doris.spark.cfg.ConfigurationOptions.DORIS_REQUEST_AUTH_USER;
+import static org.apache.doris.spark.cfg.ConfigurationOptions.DORIS_SINK_MAX_RETRIES;
+import static org.apache.doris.spark.cfg.ConfigurationOptions.DORIS_SINK_MAX_RETRIES_DEFAULT;
+import static org.apache.doris.spark.cfg.ConfigurationOptions.DORIS_SINK_PROPERTIES_PREFIX;
+import static org.apache.doris.spark.cfg.ConfigurationOptions.DORIS_TABLE_IDENTIFIER;
+import static org.apache.doris.spark.util.ErrorMessages.CONNECT_FAILED_MESSAGE;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.doris.spark.cfg.ConfigurationOptions;
+import org.apache.doris.spark.cfg.Settings;
+import org.apache.doris.spark.exception.IllegalArgumentException;
+import org.apache.doris.spark.exception.StreamLoadException;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write rows to a Doris table by stream load in json format.
+ * The rows are buffered in memory until {@link #load(String)} is called, and then loaded by one stream load,
+ * so the caller bounds the memory by loading a batch once {@link #getBufferedBytes()} is large enough.
+ * The load is sent to a FE, which redirects it to a BE.
+ */
+public class DorisStreamLoad {
+    private static Logger logger = LoggerFactory.getLogger(DorisStreamLoad.class);
+
+    private static final String LOAD_URL_PATTERN = "http://%s/api/%s/%s/_stream_load";
+    private static final int MAX_REDIRECTS = 3;
+
+    private final Settings settings;
+    private final String db;
+    private final String table;
+    private final List<String> columns;
+    private final String authorization;
+    private final Map<String, String> loadProperties = new HashMap<>();
+    private final RequestConfig requestConfig;
+    private final int maxRetries;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final CloseableHttpClient httpClient = HttpClients.createDefault();
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private JsonGenerator generator;
+    private int bufferedRows = 0;
+
+    public DorisStreamLoad(Settings settings, List<String> columns) throws IllegalArgumentException {
+        this.settings = settings;
+        String[] identifier = RestService.parseIdentifier(settings.getProperty(DORIS_TABLE_IDENTIFIER), logger);
+        this.db = identifier[0];
+        this.table = identifier[1];
+        this.columns = columns;
+        String user = settings.getProperty(DORIS_REQUEST_AUTH_USER, "");
+        String password = settings.getProperty(DORIS_REQUEST_AUTH_PASSWORD, "");
+        this.authorization = "Basic " + Base64.getEncoder().encodeToString(
+                (user + ":" + password).getBytes(StandardCharsets.UTF_8));
+        for (String name : settings.asProperties().stringPropertyNames()) {
+            if (name.startsWith(DORIS_SINK_PROPERTIES_PREFIX)) {
+                // '_' in the option names is replaced by '.', and there is no '.' in the header names of stream load
+                String header = name.substring(DORIS_SINK_PROPERTIES_PREFIX.length()).replace('.', '_');
+                loadProperties.put(header, settings.getProperty(name));
+            }
+        }
+        this.requestConfig = RequestConfig.custom()
+                .setConnectTimeout(settings.getIntegerProperty(ConfigurationOptions.DORIS_REQUEST_CONNECT_TIMEOUT_MS,
+                        ConfigurationOptions.DORIS_REQUEST_CONNECT_TIMEOUT_MS_DEFAULT))
+                .setSocketTimeout(settings.getIntegerProperty(ConfigurationOptions.DORIS_REQUEST_READ_TIMEOUT_MS,
+                        ConfigurationOptions.DORIS_REQUEST_READ_TIMEOUT_MS_DEFAULT))
+                // FE returns the redirect before the data is sent
+                .setExpectContinueEnabled(true)
+                .setRedirectsEnabled(false)
+                .build();
+        this.maxRetries = settings.getIntegerProperty(DORIS_SINK_MAX_RETRIES, DORIS_SINK_MAX_RETRIES_DEFAULT);
+    }
+
+    /**
+     * buffer one row, the values are in the order of the columns.
+     * @param row values of the row
+     * @throws IOException throw when serialize the row failed
+     */
+    public void addRow(List<Object> row) throws IOException {
+        if (generator == null) {
+            generator = mapper.getJsonFactory().createJsonGenerator(buffer);
+            generator.writeStartArray();
+        }
+        generator.writeStartObject();
+        for (int i = 0; i < columns.size(); i++) {
+            generator.writeFieldName(columns.get(i));
+            Object value = row.get(i);
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof Number || value instanceof Boolean) {
+                generator.writeObject(value);
+            } else if (value instanceof String || value instanceof java.sql.Date
+                    || value instanceof java.sql.Timestamp) {
+                generator.writeString(value.toString());
+            } else {
+                throw new IOException("Value of column " + columns.get(i) + " can not be written to Doris, type: "
+                        + value.getClass().getName());
+            }
+        }
+        generator.writeEndObject();
+        // make the buffered bytes accurate
+        generator.flush();
+        bufferedRows++;
+    }
+
+    public long getBufferedBytes() {
+        return buffer.size();
+    }
+
+    public int getBufferedRows() {
+        return bufferedRows;
+    }
+
+    /**
+     * load the buffered rows by one stream load with the label, and clear the buffer.
+     * a load of the same label, eg. by a retried or speculative task, must send the same rows,
+     * because a finished label is not loaded again.
+     * @param label label of the stream load
+     * @throws StreamLoadException throw when load failed after retries
+     */
+    public void load(String label) throws StreamLoadException {
+        if (bufferedRows == 0) {
+            return;
+        }
+        byte[] data;
+        try {
+            generator.writeEndArray();
+            generator.close();
+            data = buffer.toByteArray();
+        } catch (IOException e) {
+            throw new StreamLoadException("Serialize rows of load " + label + " failed.", e);
+        }
+        send(label, data);
+        generator = null;
+        buffer.reset();
+        bufferedRows = 0;
+    }
+
+    // send the data with retries
+    protected void send(String label, byte[] data) throws StreamLoadException {
+        StreamLoadException ex = null;
+        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+            if (attempt > 0) {
+                try {
+                    Thread.sleep(1000L * attempt);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new StreamLoadException("Load " + label + " is interrupted.", e);
+                }
+            }
+            try {
+                sendLoad(label, data);
+                return;
+            } catch (StreamLoadException e) {
+                logger.warn("Attempt {} to load {} rows with label {} failed.", attempt, bufferedRows, label, e);
+                ex = e;
+            }
+        }
+        throw ex;
+    }
+
+    private void sendLoad(String label, byte[] data) throws StreamLoadException {
+        String address;
+        try {
+            address = RestService.randomEndpoint(settings.getProperty(DORIS_FENODES), logger);
+        } catch (IllegalArgumentException e) {
+            throw new StreamLoadException(e.getMessage(), e);
+        }
+        for (int redirect = 0; redirect <= MAX_REDIRECTS; redirect++) {
+            String url = String.format(LOAD_URL_PATTERN, address, db, table);
+            HttpPut httpPut = new HttpPut(url);
+            httpPut.setConfig(requestConfig);
+            httpPut.setHeader(HttpHeaders.AUTHORIZATION, authorization);
+            httpPut.setHeader(HttpHeaders.EXPECT, "100-continue");
+            httpPut.setHeader("label", label);
+            httpPut.setHeader("format", "json");
+            httpPut.setHeader("strip_outer_array", "true");
+            for (Map.Entry<String, String> property : loadProperties.entrySet()) {
+                httpPut.setHeader(property.getKey(), property.getValue());
+            }
+            httpPut.setEntity(new ByteArrayEntity(data));
+
+            try (CloseableHttpResponse response = httpClient.execute(httpPut)) {
+                int statusCode = response.getStatusLine().getStatusCode();
+                if (statusCode == HttpStatus.SC_TEMPORARY_REDIRECT) {
+                    URI location = URI.create(response.getFirstHeader(HttpHeaders.LOCATION).getValue());
+                    address = location.getHost() + ":" + location.getPort();
+                    logger.debug("Load {} is redirected to {}.", label, address);
+                    continue;
+                }
+                String res = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+                if (statusCode != HttpStatus.SC_OK) {
+                    throw new StreamLoadException("Load " + label + " to " + url + " failed, http code is "
+                            + statusCode + ", response: " + res);
+                }
+                checkLoadResult(label, res);
+                return;
+            } catch (IOException e) {
+                logger.warn(CONNECT_FAILED_MESSAGE, url, e);
+                throw new StreamLoadException("Load " + label + " to " + url + " failed.", e);
+            }
+        }
+        throw new StreamLoadException("Load " + label + " is redirected more than " + MAX_REDIRECTS + " times.");
+    }
+
+    private void checkLoadResult(String label, String response) throws StreamLoadException {
+        Map<String, Object> result;
+        try {
+            result = mapper.readValue(response, Map.class);
+        } catch (IOException e) {
+            throw new StreamLoadException("Response of load " + label + " is not a json: " + response, e);
+        }
+        String status = String.valueOf(result.get("Status"));
+        switch (status) {
+            case "Success":
+            case "Publish Timeout":
+                logger.info("Load {} succeed, loaded rows: {}, load time: {} ms.",
+                        label, result.get("NumberLoadedRows"), result.get("LoadTimeMs"));
+                return;
+            case "Label Already Exists":
+                // the same rows were loaded by an earlier try whose response was lost, or by another attempt
+                // of the task. if that load is still running, it is checked again by the next try
+                if ("FINISHED".equals(result.get("ExistingJobStatus"))) {
+                    logger.info("Load {} has been finished by a previous attempt.", label);
+                    return;
+                }
+                throw new StreamLoadException("Load " + label + " failed: " + response);
+            default:
+                throw new StreamLoadException("Load " + label + " failed: " + response);
+        }
+    }
+
+    public void close() {
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            // do nothing
+        }
+    }
+}
@@ -19,6 +19,8 @@ package org.apache.doris.spark.rest;
 
 import static org.apache.doris.spark.cfg.ConfigurationOptions.DORIS_FENODES;
 import static org.apache.doris.spark.cfg.ConfigurationOptions.DORIS_FILTER_QUERY;
+import static org.apache.doris.spark.cfg.ConfigurationOptions.DORIS_PARTITION_SIZE_BYTES;
+import static org.apache.doris.spark.cfg.ConfigurationOptions.DORIS_PARTITION_SIZE_BYTES_DEFAULT;
 import static org.apache.doris.spark.cfg.ConfigurationOptions.DORIS_READ_FIELD;
 import static org.apache.doris.spark.cfg.ConfigurationOptions.DORIS_REQUEST_AUTH_PASSWORD;
 import static org.apache.doris.spark.cfg.ConfigurationOptions.DORIS_REQUEST_AUTH_USER;
@@ -83,6 +85,8 @@ public class RestService implements Serializable {
     private static final String API_PREFIX = "/api";
     private static final String SCHEMA = "_schema";
     private static final String QUERY_PLAN = "_query_plan";
+    // ask the FE to return the data size and row count of the tablets
+    private static final String QUERY_PLAN_WITH_TABLET_SIZE = QUERY_PLAN + "?with_tablet_size=true";
 
     /**
      * send request to Doris FE and get response json string.
@@ -281,7 +285,7 @@ public class RestService implements Serializable {
         }
         logger.debug("Query SQL Sending to Doris FE is: '{}'.", sql);
 
-        HttpPost httpPost = new HttpPost(getUriStr(cfg, logger) + QUERY_PLAN);
+        HttpPost httpPost = new HttpPost(getUriStr(cfg, logger) + QUERY_PLAN_WITH_TABLET_SIZE);
         String entity = "{\"sql\": \""+ sql +"\"}";
         logger.debug("Post body Sending to Doris FE is: '{}'.", entity);
         StringEntity stringEntity = new StringEntity(entity, StandardCharsets.UTF_8);
@@ -293,9 +297,14 @@ public class RestService implements Serializable {
         logger.debug("Find partition response is '{}'.", resStr);
         QueryPlan queryPlan = getQueryPlan(resStr, logger);
         Map<String, List<Long>> be2Tablets = selectBeForTablet(queryPlan, logger);
+        Map<Long, Long> tabletDataSizes = new HashMap<>();
+        for (Map.Entry<String, Tablet> part : queryPlan.getPartitions().entrySet()) {
+            tabletDataSizes.put(Long.parseLong(part.getKey()), part.getValue().getDataSize());
+        }
         return tabletsMapToPartition(
                 cfg,
                 be2Tablets,
+                tabletDataSizes,
                 queryPlan.getOpaqued_query_plan(),
                 tableIdentifiers[0],
                 tableIdentifiers[1],
@@ -353,7 +362,12 @@ public class RestService implements Serializable {
     @VisibleForTesting
     static  Map<String, List<Long>> selectBeForTablet(QueryPlan queryPlan, Logger logger) throws DorisException {
         Map<String, List<Long>> be2Tablets = new HashMap<>();
-        for (Map.Entry<String, Tablet> part : queryPlan.getPartitions().entrySet()) {
+        // data size of the tablets chosen to read from each BE
+        Map<String, Long> be2DataSize = new HashMap<>();
+        // choose BE for the big tablets first, so that the data read from each BE is balanced
+        List<Map.Entry<String, Tablet>> parts = new ArrayList<>(queryPlan.getPartitions().entrySet());
+        parts.sort((p1, p2) -> Long.compare(p2.getValue().getDataSize(), p1.getValue().getDataSize()));
+        for (Map.Entry<String, Tablet> part : parts) {
             logger.debug("Parse tablet info: '{}'.", part);
             long tabletId;
             try {
@@ -364,6 +378,7 @@ public class RestService implements Serializable {
                 throw new DorisException(errMsg, e);
             }
             String target = null;
+            long dataSize = Long.MAX_VALUE;
             int tabletCount = Integer.MAX_VALUE;
             for (String candidate : part.getValue().getRoutings()) {
                 logger.trace("Evaluate Doris BE '{}' to tablet '{}'.", candidate, tabletId);
@@ -371,14 +386,19 @@ public class RestService implements Serializable {
                     logger.debug("Choice a new Doris BE '{}' for tablet '{}'.", candidate, tabletId);
                     List<Long> tablets = new ArrayList<>();
                     be2Tablets.put(candidate, tablets);
+                    be2DataSize.put(candidate, 0L);
                     target = candidate;
                     break;
                 } else {
-                    if (be2Tablets.get(candidate).size() < tabletCount) {
+                    long candidateDataSize = be2DataSize.get(candidate);
+                    int candidateTabletCount = be2Tablets.get(candidate).size();
+                    if (candidateDataSize < dataSize
+                            || (candidateDataSize == dataSize && candidateTabletCount < tabletCount)) {
                         target = candidate;
-                        tabletCount = be2Tablets.get(candidate).size();
-                        logger.debug("Current candidate Doris BE to tablet '{}' is '{}' with tablet count {}.",
-                                tabletId, target, tabletCount);
+                        dataSize = candidateDataSize;
+                        tabletCount = candidateTabletCount;
+                        logger.debug("Current candidate Doris BE to tablet '{}' is '{}' with data size {} "
+                                + "and tablet count {}.", tabletId, target, dataSize, tabletCount);
                     }
                 }
             }
@@ -390,6 +410,7 @@ public class RestService implements Serializable {
 
             logger.debug("Choice Doris BE '{}' for tablet '{}'.", target, tabletId);
             be2Tablets.get(target).add(tabletId);
+            be2DataSize.put(target, be2DataSize.get(target) + part.getValue().getDataSize());
         }
         return be2Tablets;
     }
@@ -419,6 +440,27 @@ public class RestService implements Serializable {
         return tabletsSize;
     }
 
+    /**
+     * data size limit for one Doris RDD partition
+     * @param cfg configuration of request
+     * @param logger {@link Logger}
+     * @return data size limit in bytes, not positive if partitions are not limited by data size
+     */
+    @VisibleForTesting
+    static long dataSizeLimitForOnePartition(Settings cfg, Logger logger) {
+        long partitionBytes = DORIS_PARTITION_SIZE_BYTES_DEFAULT;
+        if (cfg.getProperty(DORIS_PARTITION_SIZE_BYTES) != null) {
+            try {
+                partitionBytes = Long.parseLong(cfg.getProperty(DORIS_PARTITION_SIZE_BYTES));
+            } catch (NumberFormatException e) {
+                logger.warn(PARSE_NUMBER_FAILED_MESSAGE, DORIS_PARTITION_SIZE_BYTES,
+                        cfg.getProperty(DORIS_PARTITION_SIZE_BYTES));
+            }
+        }
+        logger.debug("Partition size is set to {} bytes.", partitionBytes);
+        return partitionBytes;
+    }
+
     /**
      * translate BE tablets map to Doris RDD partition.
      * @param cfg configuration of request
@@ -434,18 +476,49 @@ public class RestService implements Serializable {
     static List<PartitionDefinition> tabletsMapToPartition(Settings cfg, Map<String, List<Long>> be2Tablets,
             String opaquedQueryPlan, String database, String table, Logger logger)
             throws IllegalArgumentException {
+        return tabletsMapToPartition(cfg, be2Tablets, Collections.emptyMap(), opaquedQueryPlan,
+                database, table, logger);
+    }
+
+    /**
+     * translate BE tablets map to Doris RDD partition.
+     * if the data size limit of one partition is set, the tablets of one BE are packed into partitions
+     * by their data size, otherwise they are split by the tablet count limit.
+     * @param cfg configuration of request
+     * @param be2Tablets BE to tablets {@link Map}
+     * @param tabletDataSizes tablet to data size {@link Map}
+     * @param opaquedQueryPlan Doris BE execute plan getting from Doris FE
+     * @param database database name of Doris table
+     * @param table table name of Doris table
+     * @param logger {@link Logger}
+     * @return Doris RDD partition {@link List}
+     * @throws IllegalArgumentException throw when translate failed
+     */
+    @VisibleForTesting
+    static List<PartitionDefinition> tabletsMapToPartition(Settings cfg, Map<String, List<Long>> be2Tablets,
+            Map<Long, Long> tabletDataSizes, String opaquedQueryPlan, String database, String table, Logger logger)
+            throws IllegalArgumentException {
         int tabletsSize = tabletCountLimitForOnePartition(cfg, logger);
+        long partitionBytes = dataSizeLimitForOnePartition(cfg, logger);
         List<PartitionDefinition> partitions = new ArrayList<>();
         for (Map.Entry<String, List<Long>> beInfo : be2Tablets.entrySet()) {
             logger.debug("Generate partition with beInfo: '{}'.", beInfo);
             HashSet<Long> tabletSet = new HashSet<>(beInfo.getValue());
             beInfo.getValue().clear();
             beInfo.getValue().addAll(tabletSet);
-            int first = 0;
-            while (first < beInfo.getValue().size()) {
-                Set<Long> partitionTablets = new HashSet<>(beInfo.getValue().subList(
-                        first, Math.min(beInfo.getValue().size(), first + tabletsSize)));
-                first = first + tabletsSize;
+            List<Set<Long>> tabletGroups;
+            if (partitionBytes > 0 && !tabletDataSizes.isEmpty()) {
+                tabletGroups = packTabletsByDataSize(beInfo.getValue(), tabletDataSizes, partitionBytes, tabletsSize);
+            } else {
+                tabletGroups = new ArrayList<>();
+                int first = 0;
+                while (first < beInfo.getValue().size()) {
+                    tabletGroups.add(new HashSet<>(beInfo.getValue().subList(
+                            first, Math.min(beInfo.getValue().size(), first + tabletsSize))));
+                    first = first + tabletsSize;
+                }
+            }
+            for (Set<Long> partitionTablets : tabletGroups) {
                 PartitionDefinition partitionDefinition =
                         new PartitionDefinition(database, table, cfg,
                                 beInfo.getKey(), partitionTablets, opaquedQueryPlan);
@@ -455,4 +528,41 @@ public class RestService implements Serializable {
         }
         return partitions;
     }
+
+    /**
+     * pack tablets into groups whose data size are not larger than the limit by first fit decreasing.
+     * a tablet larger than the limit is put in a group of its own.
+     * @param tablets tablets to pack
+     * @param tabletDataSizes tablet to data size {@link Map}
+     * @param partitionBytes data size limit of one group
+     * @param tabletsSize tablet count limit of one group
+     * @return tablet groups
+     */
+    @VisibleForTesting
+    static List<Set<Long>> packTabletsByDataSize(List<Long> tablets, Map<Long, Long> tabletDataSizes,
+            long partitionBytes, int tabletsSize) {
+        List<Long> sortedTablets = new ArrayList<>(tablets);
+        sortedTablets.sort((t1, t2) -> Long.compare(
+                tabletDataSizes.getOrDefault(t2, 0L), tabletDataSizes.getOrDefault(t1, 0L)));
+        List<Set<Long>> groups = new ArrayList<>();
+        List<Long> groupDataSizes = new ArrayList<>();
+        for (Long tablet : sortedTablets) {
+            long dataSize = tabletDataSizes.getOrDefault(tablet, 0L);
+            int target = -1;
+            for (int i = 0; i < groups.size(); i++) {
+                if (groups.get(i).size() < tabletsSize && groupDataSizes.get(i) + dataSize <= partitionBytes) {
+                    target = i;
+                    break;
+                }
+            }
+            if (target < 0) {
+                groups.add(new HashSet<>());
+                groupDataSizes.add(0L);
+                target = groups.size() - 1;
+            }
+            groups.get(target).add(tablet);
+            groupDataSizes.set(target, groupDataSizes.get(target) + dataSize);
+        }
+        return groups;
+    }
 }
@@ -19,6 +19,9 @@ package org.apache.doris.spark.rest.models;
 
 import java.util.Objects;
 
+import org.codehaus.jackson.annotate.JsonIgnoreProperties;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class Field {
     private String name;
     private String type;
@@ -20,6 +20,9 @@ package org.apache.doris.spark.rest.models;
 import java.util.Map;
 import java.util.Objects;
 
+import org.codehaus.jackson.annotate.JsonIgnoreProperties;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class QueryPlan {
     private int status;
     private String opaqued_query_plan;
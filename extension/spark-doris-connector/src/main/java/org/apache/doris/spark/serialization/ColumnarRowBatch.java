@@ -0,0 +1,118 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.spark.serialization;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.util.TransferPair;
+import org.apache.doris.spark.exception.DorisException;
+import org.apache.doris.spark.rest.models.Schema;
+import org.apache.doris.thrift.TScanBatchResult;
+import org.apache.spark.sql.vectorized.ColumnVector;
+import org.apache.spark.sql.vectorized.ColumnarBatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * columnar data container of one scan batch result.
+ * the arrow vectors are exposed to Spark as {@link ColumnarBatch}, so the values are not boxed into rows.
+ */
+public class ColumnarRowBatch {
+    private static Logger logger = LoggerFactory.getLogger(ColumnarRowBatch.class);
+
+    // offset for iterate the batches
+    private int offsetInBatches = 0;
+    private int readRowCount = 0;
+    private final List<ColumnarBatch> batches = new ArrayList<>();
+    // vectors taken over from the arrow reader, which are released when closed
+    private final List<FieldVector> vectors = new ArrayList<>();
+    private final RootAllocator rootAllocator;
+
+    public ColumnarRowBatch(TScanBatchResult nextResult, Schema schema) throws DorisException {
+        this.rootAllocator = new RootAllocator(Integer.MAX_VALUE);
+        try (ArrowStreamReader arrowStreamReader = new ArrowStreamReader(
+                new ByteArrayInputStream(nextResult.getRows()), rootAllocator)) {
+            VectorSchemaRoot root = arrowStreamReader.getVectorSchemaRoot();
+            while (arrowStreamReader.loadNextBatch()) {
+                List<FieldVector> fieldVectors = root.getFieldVectors();
+                if (fieldVectors.size() != schema.size()) {
+                    logger.error("Schema size '{}' is not equal to arrow field size '{}'.",
+                            fieldVectors.size(), schema.size());
+                    throw new DorisException("Load Doris data failed, schema size of fetch data is wrong.");
+                }
+                if (fieldVectors.size() == 0 || root.getRowCount() == 0) {
+                    logger.debug("One batch in arrow has no data.");
+                    continue;
+                }
+                ColumnVector[] columns = new ColumnVector[fieldVectors.size()];
+                for (int col = 0; col < fieldVectors.size(); col++) {
+                    // take over the buffers, the vectors of root are reused by the reader for the next batch
+                    TransferPair transferPair = fieldVectors.get(col).getTransferPair(rootAllocator);
+                    transferPair.transfer();
+                    FieldVector vector = (FieldVector) transferPair.getTo();
+                    vectors.add(vector);
+                    columns[col] = new DorisArrowColumnVector(vector, schema.get(col).getType());
+                }
+                ColumnarBatch batch = new ColumnarBatch(columns);
+                batch.setNumRows(root.getRowCount());
+                batches.add(batch);
+                readRowCount += root.getRowCount();
+            }
+        } catch (Exception e) {
+            logger.error("Read Doris Data failed because: ", e);
+            close();
+            throw new DorisException(e.getMessage());
+        }
+    }
+
+    public boolean hasNext() {
+        return offsetInBatches < batches.size();
+    }
+
+    /**
+     * the returned batch is valid until this row batch is closed.
+     */
+    public ColumnarBatch next() {
+        if (!hasNext()) {
+            String errMsg = "Get batch offset:" + offsetInBatches + " larger than batch size: " + batches.size();
+            logger.error(errMsg);
+            throw new NoSuchElementException(errMsg);
+        }
+        return batches.get(offsetInBatches++);
+    }
+
+    public int getReadRowCount() {
+        return readRowCount;
+    }
+
+    public void close() {
+        for (FieldVector vector : vectors) {
+            vector.close();
+        }
+        vectors.clear();
+        batches.clear();
+        rootAllocator.close();
+    }
+}
@@ -0,0 +1,240 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.spark.serialization;
+
+import java.math.BigDecimal;
+
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.TinyIntVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.holders.NullableVarCharHolder;
+import org.apache.arrow.vector.types.Types;
+import org.apache.doris.spark.exception.DorisException;
+import org.apache.spark.sql.types.DataType;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.Decimal;
+import org.apache.spark.sql.vectorized.ColumnVector;
+import org.apache.spark.sql.vectorized.ColumnarArray;
+import org.apache.spark.sql.vectorized.ColumnarMap;
+import org.apache.spark.unsafe.types.UTF8String;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Spark column vector reading the values of a Doris column from the arrow vector directly.
+ * Spark's ArrowColumnVector can not be used because arrow is shaded in the connector.
+ */
+public class DorisArrowColumnVector extends ColumnVector {
+    private final FieldVector vector;
+    private final String dorisType;
+    private final boolean nullType;
+    private final NullableVarCharHolder stringResult = new NullableVarCharHolder();
+
+    public DorisArrowColumnVector(FieldVector vector, String dorisType) throws DorisException {
+        super(getCatalystType(dorisType));
+        this.vector = vector;
+        this.dorisType = dorisType;
+        this.nullType = "NULL_TYPE".equals(dorisType);
+        if (!nullType) {
+            Types.MinorType mt = vector.getMinorType();
+            Types.MinorType expected = getArrowType(dorisType);
+            Preconditions.checkArgument(mt.equals(expected),
+                    String.format("Spark type is %1$s, but arrow type is %2$s.", dorisType, mt.name()));
+        }
+    }
+
+    private static DataType getCatalystType(String dorisType) throws DorisException {
+        switch (dorisType) {
+            case "NULL_TYPE":
+                return DataTypes.NullType;
+            case "BOOLEAN":
+                return DataTypes.BooleanType;
+            case "TINYINT":
+                return DataTypes.ByteType;
+            case "SMALLINT":
+                return DataTypes.ShortType;
+            case "INT":
+                return DataTypes.IntegerType;
+            case "BIGINT":
+                return DataTypes.LongType;
+            case "FLOAT":
+                return DataTypes.FloatType;
+            case "TIME":
+            case "DOUBLE":
+                return DataTypes.DoubleType;
+            case "BINARY":
+                return DataTypes.BinaryType;
+            case "DECIMAL":
+            case "DECIMALV2":
+                // the precision and scale are given by Spark when reading the value
+                return DataTypes.createDecimalType(38, 18);
+            case "DATE":
+            case "DATETIME":
+            case "LARGEINT":
+            case "CHAR":
+            case "VARCHAR":
+                return DataTypes.StringType;
+            default:
+                throw new DorisException("Unsupported type " + dorisType);
+        }
+    }
+
+    private static Types.MinorType getArrowType(String dorisType) {
+        switch (dorisType) {
+            case "BOOLEAN":
+                return Types.MinorType.BIT;
+            case "TINYINT":
+                return Types.MinorType.TINYINT;
+            case "SMALLINT":
+                return Types.MinorType.SMALLINT;
+            case "INT":
+                return Types.MinorType.INT;
+            case "BIGINT":
+                return Types.MinorType.BIGINT;
+            case "FLOAT":
+                return Types.MinorType.FLOAT4;
+            case "TIME":
+            case "DOUBLE":
+                return Types.MinorType.FLOAT8;
+            case "BINARY":
+                return Types.MinorType.VARBINARY;
+            case "DECIMALV2":
+                return Types.MinorType.DECIMAL;
+            default:
+                // DECIMAL, DATE, DATETIME, LARGEINT, CHAR and VARCHAR are sent as string
+                return Types.MinorType.VARCHAR;
+        }
+    }
+
+    @Override
+    public void close() {
+        vector.close();
+    }
+
+    @Override
+    public boolean hasNull() {
+        return numNulls() > 0;
+    }
+
+    @Override
+    public int numNulls() {
+        return nullType ? vector.getValueCount() : vector.getNullCount();
+    }
+
+    @Override
+    public boolean isNullAt(int rowId) {
+        return nullType || vector.isNull(rowId);
+    }
+
+    @Override
+    public boolean getBoolean(int rowId) {
+        return ((BitVector) vector).get(rowId) != 0;
+    }
+
+    @Override
+    public byte getByte(int rowId) {
+        return ((TinyIntVector) vector).get(rowId);
+    }
+
+    @Override
+    public short getShort(int rowId) {
+        return ((SmallIntVector) vector).get(rowId);
+    }
+
+    @Override
+    public int getInt(int rowId) {
+        return ((IntVector) vector).get(rowId);
+    }
+
+    @Override
+    public long getLong(int rowId) {
+        return ((BigIntVector) vector).get(rowId);
+    }
+
+    @Override
+    public float getFloat(int rowId) {
+        return ((Float4Vector) vector).get(rowId);
+    }
+
+    @Override
+    public double getDouble(int rowId) {
+        return ((Float8Vector) vector).get(rowId);
+    }
+
+    @Override
+    public Decimal getDecimal(int rowId, int precision, int scale) {
+        if (isNullAt(rowId)) {
+            return null;
+        }
+        if ("DECIMALV2".equals(dorisType)) {
+            return Decimal.apply(((DecimalVector) vector).getObject(rowId), precision, scale);
+        }
+        String decimalValue = new String(((VarCharVector) vector).get(rowId));
+        try {
+            return Decimal.apply(new BigDecimal(decimalValue), precision, scale);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Decimal response result '" + decimalValue + "' is illegal.", e);
+        }
+    }
+
+    @Override
+    public UTF8String getUTF8String(int rowId) {
+        if (nullType) {
+            return null;
+        }
+        // point to the arrow buffer instead of copying the bytes
+        ((VarCharVector) vector).get(rowId, stringResult);
+        if (stringResult.isSet == 0) {
+            return null;
+        }
+        return UTF8String.fromAddress(null,
+                stringResult.buffer.memoryAddress() + stringResult.start,
+                stringResult.end - stringResult.start);
+    }
+
+    @Override
+    public byte[] getBinary(int rowId) {
+        if (isNullAt(rowId)) {
+            return null;
+        }
+        return ((VarBinaryVector) vector).get(rowId);
+    }
+
+    @Override
+    public ColumnarArray getArray(int rowId) {
+        throw new UnsupportedOperationException("Unsupported type " + dorisType);
+    }
+
+    @Override
+    public ColumnarMap getMap(int ordinal) {
+        throw new UnsupportedOperationException("Unsupported type " + dorisType);
+    }
+
+    @Override
+    protected ColumnVector getChild(int ordinal) {
+        throw new UnsupportedOperationException("Unsupported type " + dorisType);
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.doris.spark.sql
 import scala.collection.JavaConverters._
 import scala.collection.mutable
 import scala.math.min
+import scala.util.Try
 
 import org.apache.doris.spark.cfg.ConfigurationOptions._
 import org.apache.doris.spark.cfg.{ConfigurationOptions, SparkSettings}
@@ -49,8 +50,15 @@ private[sql] class DorisRelation(
 
   private lazy val dialect = JdbcDialects.get("")
 
+  private lazy val readColumnar = Try {
+    cfg.getProperty(DORIS_READ_COLUMNAR, DORIS_READ_COLUMNAR_DEFAULT.toString).toBoolean
+  } getOrElse DORIS_READ_COLUMNAR_DEFAULT
+
   override def schema: StructType = lazySchema
 
+  // the columnar scan returns InternalRow read from the arrow vectors directly
+  override def needConversion: Boolean = !readColumnar
+
   override def unhandledFilters(filters: Array[Filter]): Array[Filter] = {
     filters.filter(Utils.compileFilter(_, dialect, inValueLengthLimit).isEmpty)
   }
@@ -84,6 +92,10 @@ private[sql] class DorisRelation(
       paramWithScan += (ConfigurationOptions.DORIS_FILTER_QUERY -> filterWhereClause)
     }
 
-    new ScalaDorisRowRDD(sqlContext.sparkContext, paramWithScan.toMap, lazySchema)
+    if (readColumnar) {
+      new ScalaDorisColumnarRDD(sqlContext.sparkContext, paramWithScan.toMap).asInstanceOf[RDD[Row]]
+    } else {
+      new ScalaDorisRowRDD(sqlContext.sparkContext, paramWithScan.toMap, lazySchema)
+    }
   }
 }
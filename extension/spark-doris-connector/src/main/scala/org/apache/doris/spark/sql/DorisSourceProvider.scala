@@ -17,14 +17,36 @@
 
 package org.apache.doris.spark.sql
 
+import scala.collection.JavaConverters._
+
+import org.apache.doris.spark.cfg.SparkSettings
+import org.apache.doris.spark.exception.DorisException
+
 import org.apache.spark.internal.Logging
-import org.apache.spark.sql.SQLContext
-import org.apache.spark.sql.sources.{BaseRelation, DataSourceRegister, RelationProvider}
+import org.apache.spark.sql.{DataFrame, SQLContext, SaveMode}
+import org.apache.spark.sql.sources.{BaseRelation, CreatableRelationProvider, DataSourceRegister, RelationProvider}
 
-private[sql] class DorisSourceProvider extends DataSourceRegister with RelationProvider with Logging {
+private[sql] class DorisSourceProvider extends DataSourceRegister with RelationProvider
+    with CreatableRelationProvider with Logging {
   override def shortName(): String = "doris"
 
   override def createRelation(sqlContext: SQLContext, parameters: Map[String, String]): BaseRelation = {
     new DorisRelation(sqlContext, Utils.params(parameters, log))
   }
+
+  // the Doris table must have been created, so only appending to it is supported
+  override def createRelation(
+      sqlContext: SQLContext,
+      mode: SaveMode,
+      parameters: Map[String, String],
+      data: DataFrame): BaseRelation = {
+    if (mode != SaveMode.Append) {
+      throw new DorisException(s"SaveMode.$mode is not supported by Doris Datasource, use SaveMode.Append.")
+    }
+    val dorisParams = Utils.params(parameters, log)
+    val settings = new SparkSettings(sqlContext.sparkContext.getConf)
+    settings.merge(dorisParams.asJava)
+    new DorisWriter(settings).write(data)
+    new DorisRelation(sqlContext, dorisParams)
+  }
 }
@@ -0,0 +1,119 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.spark.sql
+
+import java.util.UUID
+
+import scala.collection.JavaConverters._
+import scala.util.Try
+
+import org.apache.doris.spark.cfg.ConfigurationOptions._
+import org.apache.doris.spark.cfg.{PropertiesSettings, Settings}
+import org.apache.doris.spark.exception.DorisException
+import org.apache.doris.spark.rest.DorisStreamLoad
+
+import org.apache.spark.TaskContext
+import org.apache.spark.internal.Logging
+import org.apache.spark.sql.{DataFrame, Row}
+import org.apache.spark.sql.types._
+
+/**
+ * write DataFrame to Doris by stream load.
+ * every Spark partition buffers its rows and loads them in batches of limited size.
+ * the labels of the batches only depend on the partition and the batch index, so a retried or speculative
+ * task skips the batches which have been loaded, and the rows are not loaded twice.
+ * this relies on a partition having the same rows in the same order in every attempt. it holds for the
+ * repartition by doris.sink.task.partition.size, since Spark sorts the rows before a round-robin repartition,
+ * but the DataFrame to write must not be computed non-deterministically.
+ * @param settings request configuration
+ */
+private[sql] class DorisWriter(settings: Settings) extends Logging {
+
+  private val batchSizeBytes: Long = Try {
+    settings.getProperty(DORIS_SINK_BATCH_SIZE_BYTES, DORIS_SINK_BATCH_SIZE_BYTES_DEFAULT.toString).toLong
+  } getOrElse {
+    logWarning(s"Parse '$DORIS_SINK_BATCH_SIZE_BYTES' to number failed. " +
+        s"Original string is '${settings.getProperty(DORIS_SINK_BATCH_SIZE_BYTES)}'.")
+    DORIS_SINK_BATCH_SIZE_BYTES_DEFAULT
+  }
+
+  private val labelPrefix: String = settings.getProperty(DORIS_SINK_LABEL_PREFIX,
+    "spark_" + UUID.randomUUID().toString.replace("-", ""))
+
+  // Settings is not serializable
+  private val serializedSettings: String = settings.save()
+
+  def write(data: DataFrame): Unit = {
+    DorisWriter.checkSchema(data.schema)
+    val partitionSize = settings.getIntegerProperty(DORIS_SINK_TASK_PARTITION_SIZE, -1)
+    val dataToWrite = if (partitionSize > 0) data.repartition(partitionSize) else data
+    val columns = data.schema.fieldNames.toList
+    logInfo(s"Write to Doris with label prefix '$labelPrefix', columns: ${columns.mkString(",")}.")
+
+    // local copies, to avoid serializing the writer into the closure
+    val prefix = labelPrefix
+    val maxBytes = batchSizeBytes
+    val serialized = serializedSettings
+    dataToWrite.rdd.foreachPartition { rows =>
+      val streamLoad = new DorisStreamLoad(new PropertiesSettings().load(serialized), columns.asJava)
+      try {
+        DorisWriter.writePartition(rows, streamLoad, s"${prefix}_${TaskContext.getPartitionId()}", maxBytes)
+      } finally {
+        streamLoad.close()
+      }
+    }
+  }
+}
+
+private[sql] object DorisWriter {
+  /**
+   * load the rows of a partition in batches of at most about batchSizeBytes,
+   * the label of a batch is <labelPrefix>_<batch index>.
+   * @param rows rows of the partition
+   * @param streamLoad stream load of the partition
+   * @param labelPrefix label prefix of the partition
+   * @param batchSizeBytes max bytes of a batch
+   */
+  def writePartition(rows: Iterator[Row], streamLoad: DorisStreamLoad, labelPrefix: String,
+      batchSizeBytes: Long): Unit = {
+    var batchIndex = 0
+    rows.foreach { row =>
+      streamLoad.addRow(row.toSeq.map(_.asInstanceOf[AnyRef]).asJava)
+      if (streamLoad.getBufferedBytes >= batchSizeBytes) {
+        streamLoad.load(s"${labelPrefix}_$batchIndex")
+        batchIndex += 1
+      }
+    }
+    streamLoad.load(s"${labelPrefix}_$batchIndex")
+  }
+
+  /**
+   * only the types whose values can be written as json numbers, booleans or strings are supported.
+   * @param schema schema of the DataFrame to write
+   */
+  def checkSchema(schema: StructType): Unit = {
+    schema.fields.foreach { field =>
+      field.dataType match {
+        case NullType | BooleanType | ByteType | ShortType | IntegerType | LongType | FloatType | DoubleType
+             | _: DecimalType | StringType | DateType | TimestampType =>
+        case other =>
+          throw new DorisException(s"Column ${field.name} of type ${other.simpleString} can not be written to Doris.")
+      }
+    }
+  }
+}
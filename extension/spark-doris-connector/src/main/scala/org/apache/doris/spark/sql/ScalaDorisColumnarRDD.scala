@@ -0,0 +1,52 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.spark.sql
+
+import org.apache.doris.spark.cfg.ConfigurationOptions.{DORIS_DESERIALIZE_ARROW_ASYNC, DORIS_VALUE_READER_CLASS}
+import org.apache.doris.spark.cfg.Settings
+import org.apache.doris.spark.rdd.{AbstractDorisRDD, AbstractDorisRDDIterator, DorisPartition}
+import org.apache.doris.spark.rest.PartitionDefinition
+
+import org.apache.spark.{Partition, SparkContext, TaskContext}
+import org.apache.spark.sql.catalyst.InternalRow
+
+private[spark] class ScalaDorisColumnarRDD(
+  sc: SparkContext,
+  params: Map[String, String] = Map.empty)
+  extends AbstractDorisRDD[InternalRow](sc, params) {
+
+  override def compute(split: Partition, context: TaskContext): ScalaDorisColumnarRDDIterator = {
+    new ScalaDorisColumnarRDDIterator(context, split.asInstanceOf[DorisPartition].dorisPartition)
+  }
+}
+
+private[spark] class ScalaDorisColumnarRDDIterator(
+  context: TaskContext,
+  partition: PartitionDefinition)
+  extends AbstractDorisRDDIterator[InternalRow](context, partition) {
+
+  override def initReader(settings: Settings) = {
+    settings.setProperty(DORIS_VALUE_READER_CLASS, classOf[ScalaDorisColumnarValueReader].getName)
+    // ScalaDorisColumnarValueReader prefetches the batches by itself
+    settings.setProperty(DORIS_DESERIALIZE_ARROW_ASYNC, "false")
+  }
+
+  override def createValue(value: Object): InternalRow = {
+    value.asInstanceOf[InternalRow]
+  }
+}
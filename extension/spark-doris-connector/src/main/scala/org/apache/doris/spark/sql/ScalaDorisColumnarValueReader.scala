@@ -0,0 +1,139 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.spark.sql
+
+import java.util.concurrent.{Callable, ExecutionException, ExecutorService, Executors, Future, ThreadFactory}
+
+import scala.util.Try
+
+import org.apache.doris.spark.cfg.Settings
+import org.apache.doris.spark.exception.ShouldNeverHappenException
+import org.apache.doris.spark.rdd.ScalaValueReader
+import org.apache.doris.spark.rest.PartitionDefinition
+import org.apache.doris.spark.serialization.ColumnarRowBatch
+import org.apache.doris.spark.util.ErrorMessages.SHOULD_NOT_HAPPEN_MESSAGE
+import org.apache.doris.thrift.TScanNextBatchParams
+
+import org.apache.spark.internal.Logging
+import org.apache.spark.sql.catalyst.InternalRow
+
+/**
+ * read data from Doris BE as Spark InternalRow backed by the arrow vectors, without boxing the values.
+ * the next batch is fetched from Doris BE and deserialized while the current batch is consumed.
+ * @param partition Doris RDD partition
+ * @param settings request configuration
+ */
+class ScalaDorisColumnarValueReader(
+  partition: PartitionDefinition,
+  settings: Settings)
+  extends ScalaValueReader(partition, settings) with Logging {
+
+  // only one request is sent to BE at a time, because the offset of the next batch
+  // is known after the current batch is deserialized
+  private val prefetchExecutor: ExecutorService = Executors.newSingleThreadExecutor(new ThreadFactory {
+    override def newThread(r: Runnable): Thread = {
+      val thread = new Thread(r, s"doris-prefetch-$contextId")
+      thread.setDaemon(true)
+      thread
+    }
+  })
+
+  private var columnarRowBatch: ColumnarRowBatch = _
+  private var rowIterator: java.util.Iterator[InternalRow] = _
+  private var prefetch: Future[ColumnarRowBatch] = prefetchNextBatch()
+
+  /**
+   * fetch the next batch in the prefetch thread.
+   * @return future of the next batch, whose value is null if reach the end
+   */
+  private def prefetchNextBatch(): Future[ColumnarRowBatch] = {
+    prefetchExecutor.submit(new Callable[ColumnarRowBatch] {
+      override def call(): ColumnarRowBatch = {
+        val nextBatchParams = new TScanNextBatchParams
+        nextBatchParams.setContext_id(contextId)
+        nextBatchParams.setOffset(offset)
+        val nextResult = client.getNext(nextBatchParams)
+        eos.set(nextResult.isEos)
+        if (eos.get) {
+          null
+        } else {
+          val batch = new ColumnarRowBatch(nextResult, schema)
+          offset += batch.getReadRowCount
+          batch
+        }
+      }
+    })
+  }
+
+  private def takePrefetchedBatch(): ColumnarRowBatch = {
+    try {
+      prefetch.get
+    } catch {
+      case e: ExecutionException => throw e.getCause
+    }
+  }
+
+  override def hasNext: Boolean = {
+    while (rowIterator == null || !rowIterator.hasNext) {
+      if (columnarRowBatch != null && columnarRowBatch.hasNext) {
+        rowIterator = columnarRowBatch.next.rowIterator
+      } else {
+        if (columnarRowBatch != null) {
+          columnarRowBatch.close()
+          columnarRowBatch = null
+        }
+        if (prefetch == null) {
+          return false
+        }
+        columnarRowBatch = takePrefetchedBatch()
+        if (columnarRowBatch == null) {
+          prefetch = null
+          return false
+        }
+        prefetch = prefetchNextBatch()
+      }
+    }
+    true
+  }
+
+  /**
+   * get next value.
+   * @return next row, which is reused and only valid until the next call
+   */
+  override def next: AnyRef = {
+    if (!hasNext) {
+      logError(SHOULD_NOT_HAPPEN_MESSAGE)
+      throw new ShouldNeverHappenException
+    }
+    rowIterator.next
+  }
+
+  override def close(): Unit = {
+    // wait for the request in flight, the client can not be used by two threads at the same time
+    if (prefetch != null) {
+      Try(prefetch.get).foreach(batch => if (batch != null) batch.close())
+      prefetch = null
+    }
+    prefetchExecutor.shutdownNow()
+    if (columnarRowBatch != null) {
+      columnarRowBatch.close()
+      columnarRowBatch = null
+    }
+    super.close()
+  }
+}
@@ -0,0 +1,113 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.spark.rest;
+
+import static org.apache.doris.spark.cfg.ConfigurationOptions.DORIS_FENODES;
+import static org.apache.doris.spark.cfg.ConfigurationOptions.DORIS_TABLE_IDENTIFIER;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.doris.spark.cfg.PropertiesSettings;
+import org.apache.doris.spark.cfg.Settings;
+import org.apache.doris.spark.exception.IllegalArgumentException;
+import org.apache.doris.spark.exception.StreamLoadException;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class TestDorisStreamLoad {
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void testBufferRows() throws Exception {
+        Settings settings = new PropertiesSettings();
+        settings.setProperty(DORIS_FENODES, "127.0.0.1:8030");
+        settings.setProperty(DORIS_TABLE_IDENTIFIER, "db.tbl");
+        DorisStreamLoad streamLoad = new DorisStreamLoad(settings, Arrays.asList("k1", "k2", "k3"));
+        Assert.assertEquals(0, streamLoad.getBufferedRows());
+
+        streamLoad.addRow(Arrays.asList(1, "a\tb", null));
+        Assert.assertEquals(1, streamLoad.getBufferedRows());
+        streamLoad.addRow(Arrays.asList(new BigDecimal("1.5"), Date.valueOf("2020-01-01"), true));
+        Assert.assertEquals(2, streamLoad.getBufferedRows());
+        Assert.assertTrue(streamLoad.getBufferedBytes() > 0);
+        streamLoad.close();
+        // loading nothing is a no-op
+        new DorisStreamLoad(settings, Arrays.asList("k1")).load("label");
+    }
+
+    @Test
+    public void testLoadBatches() throws Exception {
+        Settings settings = new PropertiesSettings();
+        settings.setProperty(DORIS_FENODES, "127.0.0.1:8030");
+        settings.setProperty(DORIS_TABLE_IDENTIFIER, "db.tbl");
+        List<String> sent = new ArrayList<>();
+        DorisStreamLoad streamLoad = new DorisStreamLoad(settings, Arrays.asList("k1", "k2")) {
+            @Override
+            protected void send(String label, byte[] data) throws StreamLoadException {
+                sent.add(label + ":" + new String(data, StandardCharsets.UTF_8));
+            }
+        };
+
+        streamLoad.addRow(Arrays.asList(1, "a"));
+        streamLoad.addRow(Arrays.asList(2, null));
+        streamLoad.load("label_0");
+        Assert.assertEquals(0, streamLoad.getBufferedRows());
+        Assert.assertEquals(0, streamLoad.getBufferedBytes());
+        // the buffer is reused by the next batch
+        streamLoad.addRow(Arrays.asList(3, "c"));
+        streamLoad.load("label_1");
+        streamLoad.load("label_2");
+        streamLoad.close();
+
+        Assert.assertEquals(Arrays.asList("label_0:[{\"k1\":1,\"k2\":\"a\"},{\"k1\":2,\"k2\":null}]",
+                "label_1:[{\"k1\":3,\"k2\":\"c\"}]"), sent);
+    }
+
+    @Test
+    public void testUnsupportedValue() throws Exception {
+        Settings settings = new PropertiesSettings();
+        settings.setProperty(DORIS_FENODES, "127.0.0.1:8030");
+        settings.setProperty(DORIS_TABLE_IDENTIFIER, "db.tbl");
+        DorisStreamLoad streamLoad = new DorisStreamLoad(settings, Arrays.asList("k1"));
+        try {
+            thrown.expect(IOException.class);
+            thrown.expectMessage("Value of column k1 can not be written to Doris");
+            streamLoad.addRow(Arrays.asList(new byte[] {1, 2}));
+        } finally {
+            streamLoad.close();
+        }
+    }
+
+    @Test
+    public void testIllegalIdentifier() throws Exception {
+        Settings settings = new PropertiesSettings();
+        settings.setProperty(DORIS_FENODES, "127.0.0.1:8030");
+        settings.setProperty(DORIS_TABLE_IDENTIFIER, "tbl");
+        thrown.expect(IllegalArgumentException.class);
+        new DorisStreamLoad(settings, Arrays.asList("k1"));
+    }
+}
@@ -18,6 +18,7 @@
 package org.apache.doris.spark.rest;
 
 import static org.apache.doris.spark.cfg.ConfigurationOptions.DORIS_FENODES;
+import static org.apache.doris.spark.cfg.ConfigurationOptions.DORIS_PARTITION_SIZE_BYTES;
 import static org.apache.doris.spark.cfg.ConfigurationOptions.DORIS_TABLET_SIZE;
 import static org.apache.doris.spark.cfg.ConfigurationOptions.DORIS_TABLET_SIZE_DEFAULT;
 import static org.apache.doris.spark.cfg.ConfigurationOptions.DORIS_TABLET_SIZE_MIN;
@@ -25,6 +26,7 @@ import static org.apache.doris.spark.cfg.ConfigurationOptions.DORIS_TABLE_IDENTI
 import static org.hamcrest.core.StringStartsWith.startsWith;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -201,6 +203,23 @@ public class TestRestService {
         RestService.parseSchema(notOkRes, logger);
     }
 
+    @Test
+    public void testFeResponseWithUnknownFields() throws Exception {
+        String res = "{\"partitions\":{"
+                + "\"11017\":{\"routings\":[\"be1\"],\"version\":3,\"versionHash\":1,\"schemaHash\":1,"
+                + "\"unknownTabletField\":1}},"
+                + "\"opaqued_query_plan\":\"query_plan\",\"status\":200,\"unknownField\":\"a\"}";
+        QueryPlan queryPlan = RestService.getQueryPlan(res, logger);
+        Assert.assertEquals(200, queryPlan.getStatus());
+        Assert.assertEquals(3, queryPlan.getPartitions().get("11017").getVersion());
+
+        String schemaRes = "{\"properties\":[{\"type\":\"TINYINT\",\"name\":\"k1\",\"comment\":\"\","
+                + "\"unknownColumnField\":1}],\"status\":200,\"unknownField\":\"a\"}";
+        Schema schema = RestService.parseSchema(schemaRes, logger);
+        Assert.assertEquals(1, schema.size());
+        Assert.assertEquals("k1", schema.get(0).getName());
+    }
+
     @Test
     public void testSelectTabletBe() throws Exception {
         String res = "{\"partitions\":{"
@@ -293,4 +312,70 @@ public class TestRestService {
 
         Assert.assertEquals(expected, actual);
     }
+
+    @Test
+    public void testSelectTabletBeByDataSize() throws Exception {
+        String res = "{\"partitions\":{"
+                + "\"11017\":{\"routings\":[\"be1\",\"be2\"],\"version\":3,\"versionHash\":1,\"schemaHash\":1,"
+                + "\"dataSize\":100,\"rowCount\":10},"
+                + "\"11019\":{\"routings\":[\"be1\",\"be2\"],\"version\":3,\"versionHash\":1,\"schemaHash\":1,"
+                + "\"dataSize\":10,\"rowCount\":1},"
+                + "\"11021\":{\"routings\":[\"be2\",\"be1\"],\"version\":3,\"versionHash\":1,\"schemaHash\":1,"
+                + "\"dataSize\":1000,\"rowCount\":100}},"
+                + "\"opaqued_query_plan\":\"query_plan\",\"status\":200}";
+
+        QueryPlan queryPlan = RestService.getQueryPlan(res, logger);
+        Assert.assertEquals(1000, queryPlan.getPartitions().get("11021").getDataSize());
+        Assert.assertEquals(100, queryPlan.getPartitions().get("11021").getRowCount());
+
+        // the biggest tablet 11021 is chosen first, and the other tablets are read from the other BE
+        Map<String, List<Long>> expected = new HashMap<>();
+        expected.put("be1", Arrays.asList(11017L, 11019L));
+        expected.put("be2", Collections.singletonList(11021L));
+        Assert.assertEquals(expected, RestService.selectBeForTablet(queryPlan, logger));
+    }
+
+    @Test
+    public void testPackTabletsByDataSize() {
+        Map<Long, Long> tabletDataSizes = new HashMap<>();
+        tabletDataSizes.put(1L, 60L);
+        tabletDataSizes.put(2L, 50L);
+        tabletDataSizes.put(3L, 40L);
+        tabletDataSizes.put(4L, 30L);
+        tabletDataSizes.put(5L, 200L);
+
+        List<Set<Long>> groups = RestService.packTabletsByDataSize(
+                Arrays.asList(1L, 2L, 3L, 4L, 5L), tabletDataSizes, 100, DORIS_TABLET_SIZE_DEFAULT);
+        List<Set<Long>> expected = new ArrayList<>();
+        expected.add(Collections.singleton(5L));
+        expected.add(new HashSet<>(Arrays.asList(1L, 3L)));
+        expected.add(new HashSet<>(Arrays.asList(2L, 4L)));
+        Assert.assertEquals(expected, groups);
+
+        // limited by tablet count
+        groups = RestService.packTabletsByDataSize(
+                Arrays.asList(1L, 2L, 3L, 4L), tabletDataSizes, 1000, 3);
+        Assert.assertEquals(2, groups.size());
+        Assert.assertEquals(3, groups.get(0).size());
+    }
+
+    @Test
+    public void testTabletsMapToPartitionByDataSize() throws Exception {
+        Map<String, List<Long>> beToTablets = new HashMap<>();
+        beToTablets.put("be1", new ArrayList<>(Arrays.asList(1L, 2L, 3L)));
+        Map<Long, Long> tabletDataSizes = new HashMap<>();
+        tabletDataSizes.put(1L, 100L);
+        tabletDataSizes.put(2L, 50L);
+        tabletDataSizes.put(3L, 50L);
+
+        Settings settings = new PropertiesSettings();
+        List<PartitionDefinition> actual = RestService.tabletsMapToPartition(
+                settings, beToTablets, tabletDataSizes, "query_plan", "d", "t", logger);
+        Assert.assertEquals(1, actual.size());
+
+        settings.setProperty(DORIS_PARTITION_SIZE_BYTES, "100");
+        actual = RestService.tabletsMapToPartition(
+                settings, beToTablets, tabletDataSizes, "query_plan", "d", "t", logger);
+        Assert.assertEquals(2, actual.size());
+    }
 }
@@ -0,0 +1,156 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.spark.serialization;
+
+import static org.hamcrest.core.StringStartsWith.startsWith;
+
+import java.io.ByteArrayOutputStream;
+import java.util.NoSuchElementException;
+
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.doris.spark.exception.DorisException;
+import org.apache.doris.spark.rest.RestService;
+import org.apache.doris.spark.rest.models.Schema;
+import org.apache.doris.thrift.TScanBatchResult;
+import org.apache.doris.thrift.TStatus;
+import org.apache.doris.thrift.TStatusCode;
+import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.vectorized.ColumnarBatch;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+
+public class TestColumnarRowBatch {
+    private static Logger logger = LoggerFactory.getLogger(TestColumnarRowBatch.class);
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private TScanBatchResult createScanBatchResult() throws Exception {
+        ImmutableList.Builder<Field> childrenBuilder = ImmutableList.builder();
+        childrenBuilder.add(new Field("k1", FieldType.nullable(new ArrowType.Int(32, true)), null));
+        childrenBuilder.add(new Field("k2", FieldType.nullable(new ArrowType.Int(64, true)), null));
+        childrenBuilder.add(new Field("k3", FieldType.nullable(new ArrowType.Utf8()), null));
+
+        VectorSchemaRoot root = VectorSchemaRoot.create(
+                new org.apache.arrow.vector.types.pojo.Schema(childrenBuilder.build(), null),
+                new RootAllocator(Integer.MAX_VALUE));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ArrowStreamWriter arrowStreamWriter = new ArrowStreamWriter(
+                root,
+                new DictionaryProvider.MapDictionaryProvider(),
+                outputStream);
+
+        arrowStreamWriter.start();
+        // two record batches in one scan batch result
+        for (int batch = 0; batch < 2; batch++) {
+            root.setRowCount(2);
+            IntVector intVector = (IntVector) root.getVector("k1");
+            intVector.setInitialCapacity(2);
+            intVector.allocateNew(2);
+            intVector.setSafe(0, batch * 2);
+            intVector.setNull(1);
+            intVector.setValueCount(2);
+
+            BigIntVector bigIntVector = (BigIntVector) root.getVector("k2");
+            bigIntVector.setInitialCapacity(2);
+            bigIntVector.allocateNew(2);
+            bigIntVector.setSafe(0, batch * 2L);
+            bigIntVector.setSafe(1, batch * 2L + 1);
+            bigIntVector.setValueCount(2);
+
+            VarCharVector varCharVector = (VarCharVector) root.getVector("k3");
+            varCharVector.setInitialCapacity(2);
+            varCharVector.allocateNew();
+            varCharVector.setSafe(0, ("doris" + batch).getBytes());
+            varCharVector.setNull(1);
+            varCharVector.setValueCount(2);
+
+            arrowStreamWriter.writeBatch();
+        }
+        arrowStreamWriter.end();
+        arrowStreamWriter.close();
+
+        TStatus status = new TStatus();
+        status.setStatus_code(TStatusCode.OK);
+        TScanBatchResult scanBatchResult = new TScanBatchResult();
+        scanBatchResult.setStatus(status);
+        scanBatchResult.setEos(false);
+        scanBatchResult.setRows(outputStream.toByteArray());
+        return scanBatchResult;
+    }
+
+    @Test
+    public void testColumnarRowBatch() throws Exception {
+        String schemaStr = "{\"properties\":[{\"type\":\"INT\",\"name\":\"k1\",\"comment\":\"\"},"
+                + "{\"type\":\"BIGINT\",\"name\":\"k2\",\"comment\":\"\"},"
+                + "{\"type\":\"VARCHAR\",\"name\":\"k3\",\"comment\":\"\"}], \"status\":200}";
+        Schema schema = RestService.parseSchema(schemaStr, logger);
+
+        ColumnarRowBatch rowBatch = new ColumnarRowBatch(createScanBatchResult(), schema);
+        Assert.assertEquals(4, rowBatch.getReadRowCount());
+
+        for (int batch = 0; batch < 2; batch++) {
+            Assert.assertTrue(rowBatch.hasNext());
+            ColumnarBatch columnarBatch = rowBatch.next();
+            Assert.assertEquals(2, columnarBatch.numRows());
+
+            InternalRow row0 = columnarBatch.getRow(0);
+            Assert.assertEquals(batch * 2, row0.getInt(0));
+            Assert.assertEquals(batch * 2L, row0.getLong(1));
+            Assert.assertEquals("doris" + batch, row0.getUTF8String(2).toString());
+
+            InternalRow row1 = columnarBatch.getRow(1);
+            Assert.assertTrue(row1.isNullAt(0));
+            Assert.assertEquals(batch * 2L + 1, row1.getLong(1));
+            Assert.assertTrue(row1.isNullAt(2));
+        }
+
+        Assert.assertFalse(rowBatch.hasNext());
+        rowBatch.close();
+        thrown.expect(NoSuchElementException.class);
+        thrown.expectMessage(startsWith("Get batch offset:"));
+        rowBatch.next();
+    }
+
+    @Test
+    public void testTypeMismatch() throws Exception {
+        String schemaStr = "{\"properties\":[{\"type\":\"BIGINT\",\"name\":\"k1\",\"comment\":\"\"},"
+                + "{\"type\":\"BIGINT\",\"name\":\"k2\",\"comment\":\"\"},"
+                + "{\"type\":\"VARCHAR\",\"name\":\"k3\",\"comment\":\"\"}], \"status\":200}";
+        Schema schema = RestService.parseSchema(schemaStr, logger);
+
+        thrown.expect(DorisException.class);
+        thrown.expectMessage(startsWith("Spark type is BIGINT, but arrow type is INT"));
+        new ColumnarRowBatch(createScanBatchResult(), schema);
+    }
+}
@@ -0,0 +1,96 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.spark.sql
+
+import java.nio.charset.StandardCharsets
+
+import scala.collection.JavaConverters._
+import scala.collection.mutable.ArrayBuffer
+
+import org.apache.doris.spark.cfg.ConfigurationOptions._
+import org.apache.doris.spark.cfg.PropertiesSettings
+import org.apache.doris.spark.exception.DorisException
+import org.apache.doris.spark.rest.DorisStreamLoad
+import org.apache.spark.sql.Row
+import org.apache.spark.sql.types._
+import org.hamcrest.core.StringStartsWith.startsWith
+import org.junit.Assert
+import org.junit.Test
+
+class TestDorisWriter extends ExpectedExceptionTest {
+  // write the rows by a stream load which records the labels and data of the batches instead of sending them
+  private def writePartition(rows: Seq[Row], batchSizeBytes: Long): Seq[(String, String)] = {
+    val settings = new PropertiesSettings()
+    settings.setProperty(DORIS_FENODES, "127.0.0.1:8030")
+    settings.setProperty(DORIS_TABLE_IDENTIFIER, "db.tbl")
+    val batches = ArrayBuffer[(String, String)]()
+    val streamLoad = new DorisStreamLoad(settings, List("k1", "k2").asJava) {
+      override protected def send(label: String, data: Array[Byte]): Unit = {
+        batches += ((label, new String(data, StandardCharsets.UTF_8)))
+      }
+    }
+    DorisWriter.writePartition(rows.iterator, streamLoad, "prefix_3", batchSizeBytes)
+    streamLoad.close()
+    batches
+  }
+
+  @Test
+  def testWritePartitionInBatches(): Unit = {
+    // each row is 24 bytes in json, eg. {"k1":10,"k2":"value10"}
+    val rows = (10 until 20).map(i => Row(i, s"value$i"))
+    val batches = writePartition(rows, 60)
+    // a batch is loaded once it reaches 60 bytes, so it has 3 rows
+    Assert.assertEquals(Seq("prefix_3_0", "prefix_3_1", "prefix_3_2", "prefix_3_3"), batches.map(_._1))
+    Assert.assertEquals("""[{"k1":10,"k2":"value10"},{"k1":11,"k2":"value11"},{"k1":12,"k2":"value12"}]""",
+      batches.head._2)
+    Assert.assertEquals("""[{"k1":19,"k2":"value19"}]""", batches.last._2)
+    // the labels and batches are the same when the partition is written again, eg. by a retried task
+    Assert.assertEquals(batches, writePartition(rows, 60))
+
+    // all rows are loaded by one stream load if they are not larger than a batch
+    Assert.assertEquals(Seq("prefix_3_0"), writePartition(rows, 1024).map(_._1))
+    Assert.assertEquals(Seq(), writePartition(Seq(), 1024))
+  }
+
+  @Test
+  def testCheckSchema(): Unit = {
+    DorisWriter.checkSchema(StructType(Seq(
+      StructField("k1", ByteType),
+      StructField("k2", LongType),
+      StructField("k3", DecimalType(27, 9)),
+      StructField("k4", StringType),
+      StructField("k5", DateType),
+      StructField("k6", TimestampType),
+      StructField("k7", BooleanType),
+      StructField("k8", DoubleType))))
+  }
+
+  @Test
+  def testCheckBinarySchema(): Unit = {
+    thrown.expect(classOf[DorisException])
+    thrown.expectMessage(startsWith("Column k2 of type binary"))
+    DorisWriter.checkSchema(StructType(Seq(StructField("k1", IntegerType), StructField("k2", BinaryType))))
+  }
+
+  @Test
+  def testCheckComplexSchema(): Unit = {
+    thrown.expect(classOf[DorisException])
+    thrown.expectMessage(startsWith("Column k1 of type array<int>"))
+    DorisWriter.checkSchema(StructType(Seq(StructField("k1", ArrayType(IntegerType)))))
+  }
+}
@@ -42,6 +42,8 @@ public class AbstractBackupStmt extends DdlStmt {
 
     private final static String PROP_TIMEOUT = "timeout";
     private final static long MIN_TIMEOUT_MS = 600 * 1000L; // 10 min
+    private final static String PROP_MAX_TASKS_PER_BACKEND = "max_tasks_per_backend";
+    private final static String PROP_MAX_BYTES_PER_SEC_PER_BACKEND = "max_bytes_per_sec_per_backend";
 
     protected LabelName labelName;
     protected String repoName;
@@ -49,6 +51,9 @@ public class AbstractBackupStmt extends DdlStmt {
     protected Map<String, String> properties;
 
     protected long timeoutMs;
+    protected int maxTasksPerBackend;
+    // 0 means no limit
+    protected long maxBytesPerSecPerBackend = 0;
 
     public AbstractBackupStmt(LabelName labelName, String repoName, List<TableRef> tableRefs,
             Map<String, String> properties) {
@@ -130,6 +135,40 @@ public class AbstractBackupStmt extends DdlStmt {
         } else {
             timeoutMs = Config.backup_job_default_timeout_ms;
         }
+
+        // max tasks per backend
+        if (properties.containsKey(PROP_MAX_TASKS_PER_BACKEND)) {
+            try {
+                maxTasksPerBackend = Integer.valueOf(properties.get(PROP_MAX_TASKS_PER_BACKEND));
+            } catch (NumberFormatException e) {
+                ErrorReport.reportAnalysisException(ErrorCode.ERR_COMMON_ERROR,
+                                                    "Invalid max tasks per backend format: "
+                                                            + properties.get(PROP_MAX_TASKS_PER_BACKEND));
+            }
+            if (maxTasksPerBackend <= 0) {
+                ErrorReport.reportAnalysisException(ErrorCode.ERR_COMMON_ERROR,
+                                                    PROP_MAX_TASKS_PER_BACKEND + " must be greater than 0");
+            }
+            properties.remove(PROP_MAX_TASKS_PER_BACKEND);
+        } else {
+            maxTasksPerBackend = Config.backup_job_max_tasks_per_backend;
+        }
+
+        // speed limit per backend
+        if (properties.containsKey(PROP_MAX_BYTES_PER_SEC_PER_BACKEND)) {
+            try {
+                maxBytesPerSecPerBackend = Long.valueOf(properties.get(PROP_MAX_BYTES_PER_SEC_PER_BACKEND));
+            } catch (NumberFormatException e) {
+                ErrorReport.reportAnalysisException(ErrorCode.ERR_COMMON_ERROR,
+                                                    "Invalid max bytes per second per backend format: "
+                                                            + properties.get(PROP_MAX_BYTES_PER_SEC_PER_BACKEND));
+            }
+            if (maxBytesPerSecPerBackend < 0) {
+                ErrorReport.reportAnalysisException(ErrorCode.ERR_COMMON_ERROR,
+                                                    PROP_MAX_BYTES_PER_SEC_PER_BACKEND + " can not be negative");
+            }
+            properties.remove(PROP_MAX_BYTES_PER_SEC_PER_BACKEND);
+        }
     }
 
     public String getDbName() {
@@ -159,5 +198,13 @@ public class AbstractBackupStmt extends DdlStmt {
     public long getTimeoutMs() {
         return timeoutMs;
     }
+
+    public int getMaxTasksPerBackend() {
+        return maxTasksPerBackend;
+    }
+
+    public long getMaxBytesPerSecPerBackend() {
+        return maxBytesPerSecPerBackend;
+    }
 }
 
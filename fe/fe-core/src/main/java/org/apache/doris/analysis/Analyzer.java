@@ -38,6 +38,7 @@ import org.apache.doris.qe.ConnectContext;
 import org.apache.doris.rewrite.BetweenToCompoundRule;
 import org.apache.doris.rewrite.ExprRewriteRule;
 import org.apache.doris.rewrite.ExprRewriter;
+import org.apache.doris.rewrite.ExtractCommonFactorsRule;
 import org.apache.doris.rewrite.FoldConstantsRule;
 import org.apache.doris.rewrite.NormalizeBinaryPredicatesRule;
 import org.apache.doris.rewrite.mvrewrite.CountDistinctToBitmap;
@@ -241,6 +242,9 @@ public class Analyzer {
         // Expr rewriter for normalizing and rewriting expressions.
         private final ExprRewriter exprRewriter_;
 
+        // the same rules without constant folding, for the stmts folded by BatchFoldConstantsRewriter
+        private final ExprRewriter exprRewriterWithoutFolding;
+
         private final ExprRewriter mvExprRewriter;
 
         public GlobalState(Catalog catalog, ConnectContext context) {
@@ -255,7 +259,13 @@ public class Analyzer {
             // pushdown and Parquet row group pruning based on min/max statistics.
             rules.add(NormalizeBinaryPredicatesRule.INSTANCE);
             rules.add(FoldConstantsRule.INSTANCE);
+            // Deduplicate AND/OR chains and extract the factors common to all disjuncts,
+            // so that they can be pushed down as separate conjuncts.
+            rules.add(ExtractCommonFactorsRule.INSTANCE);
             exprRewriter_ = new ExprRewriter(rules);
+            List<ExprRewriteRule> rulesWithoutFolding = Lists.newArrayList(rules);
+            rulesWithoutFolding.remove(FoldConstantsRule.INSTANCE);
+            exprRewriterWithoutFolding = new ExprRewriter(rulesWithoutFolding);
             // init mv rewriter
             List<ExprRewriteRule> mvRewriteRules = Lists.newArrayList();
             mvRewriteRules.add(ToBitmapToSlotRefRule.INSTANCE);
@@ -528,6 +538,8 @@ public class Analyzer {
 
     public ExprRewriter getExprRewriter() { return globalState.exprRewriter_; }
 
+    public ExprRewriter getExprRewriterWithoutFolding() { return globalState.exprRewriterWithoutFolding; }
+
     public ExprRewriter getMVExprRewriter() { return globalState.mvExprRewriter; }
 
     /**
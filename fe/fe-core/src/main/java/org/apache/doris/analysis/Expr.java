@@ -179,7 +179,6 @@ abstract public class Expr extends TreeNode<Expr> implements ParseNode, Cloneabl
                 public boolean apply(Expr arg) { return arg instanceof NullLiteral; }
             };
 
-    /* TODO(zc)
     public final static com.google.common.base.Predicate<Expr>
             IS_NONDETERMINISTIC_BUILTIN_FN_PREDICATE =
             new com.google.common.base.Predicate<Expr>() {
@@ -190,6 +189,7 @@ abstract public class Expr extends TreeNode<Expr> implements ParseNode, Cloneabl
                 }
             };
 
+    /* TODO(zc)
     public final static com.google.common.base.Predicate<Expr> IS_UDF_PREDICATE =
             new com.google.common.base.Predicate<Expr>() {
                 @Override
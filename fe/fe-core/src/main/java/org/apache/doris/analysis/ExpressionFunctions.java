@@ -29,19 +29,21 @@ import org.apache.doris.rewrite.FEFunctions;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -49,7 +51,9 @@ public enum ExpressionFunctions {
     INSTANCE;
 
     private static final Logger LOG = LogManager.getLogger(ExpressionFunctions.class);
-    private ImmutableMultimap<String, FEFunctionInvoker> functions;
+    // FE functions indexed by their full signature, so that resolving the invoker of a
+    // constant expr is a single hash lookup instead of a scan over all overloads.
+    private ImmutableMap<FEFunctionSignature, FEFunctionInvoker> functions;
 
     private ExpressionFunctions() {
         registerFunctions();
@@ -111,24 +115,7 @@ public enum ExpressionFunctions {
     }
 
     private FEFunctionInvoker getFunction(FEFunctionSignature signature) {
-        Collection<FEFunctionInvoker> functionInvokers = functions.get(signature.getName());
-        if (functionInvokers == null) {
-            return null;
-        }
-        for (FEFunctionInvoker invoker : functionInvokers) {
-            if (!invoker.getSignature().returnType.equals(signature.getReturnType())) {
-                continue;
-            }
-
-            ScalarType[] argTypes1 = invoker.getSignature().getArgTypes();
-            ScalarType[] argTypes2 = signature.getArgTypes();
-
-            if (!Arrays.equals(argTypes1, argTypes2)) {
-                continue;
-            }
-            return invoker;
-        }
-        return null;
+        return functions.get(signature);
     }
 
     private synchronized void registerFunctions() {
@@ -137,8 +124,7 @@ public enum ExpressionFunctions {
         if (functions != null) {
             return;
         }
-        ImmutableMultimap.Builder<String, FEFunctionInvoker> mapBuilder =
-                new ImmutableMultimap.Builder<String, FEFunctionInvoker>();
+        Map<FEFunctionSignature, FEFunctionInvoker> functionMap = Maps.newHashMap();
         Class clazz = FEFunctions.class;
         for (Method method : clazz.getDeclaredMethods()) {
             FEFunction annotation = method.getAnnotation(FEFunction.class);
@@ -151,18 +137,31 @@ public enum ExpressionFunctions {
                 }
                 FEFunctionSignature signature = new FEFunctionSignature(name,
                         argTypes.toArray(new ScalarType[argTypes.size()]), returnType);
-                mapBuilder.put(name, new FEFunctionInvoker(method, signature));
+                if (!functionMap.containsKey(signature)) {
+                    functionMap.put(signature, new FEFunctionInvoker(method, signature));
+                }
             }
         }
-        this.functions = mapBuilder.build();
+        this.functions = ImmutableMap.copyOf(functionMap);
     }
 
     public static class FEFunctionInvoker {
         private final Method method;
+        private final Class<?>[] parameterTypes;
+        // Spread method handle of 'method', resolved once so that each invocation
+        // does not pay the access check and boxing of Method.invoke().
+        private final MethodHandle methodHandle;
         private final FEFunctionSignature signature;
 
         public FEFunctionInvoker(Method method, FEFunctionSignature signature) {
             this.method = method;
+            this.parameterTypes = method.getParameterTypes();
+            try {
+                this.methodHandle = MethodHandles.publicLookup().unreflect(method).asFixedArity()
+                        .asSpreader(Object[].class, parameterTypes.length);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("failed to access FE function: " + method, e);
+            }
             this.signature = signature;
         }
 
@@ -179,18 +178,20 @@ public enum ExpressionFunctions {
         public LiteralExpr invoke(List<Expr> args) throws AnalysisException {
             final List<Object> invokeArgs = createInvokeArgs(args);
             try {
-                return (LiteralExpr)method.invoke(null, invokeArgs.toArray());
-            } catch (InvocationTargetException | IllegalAccessException | IllegalArgumentException e) {
-                throw new AnalysisException(e.getLocalizedMessage());
+                return (LiteralExpr) methodHandle.invoke(invokeArgs.toArray());
+            } catch (AnalysisException e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new AnalysisException(t.getLocalizedMessage());
             }
         }
 
         private List<Object> createInvokeArgs(List<Expr> args) throws AnalysisException {
             final List<Object> invokeArgs = Lists.newArrayList();
-            for (int typeIndex = 0; typeIndex < method.getParameterTypes().length; typeIndex++) {
-                final Class<?> argType = method.getParameterTypes()[typeIndex];
+            for (int typeIndex = 0; typeIndex < parameterTypes.length; typeIndex++) {
+                final Class<?> argType = parameterTypes[typeIndex];
                 if (argType.isArray()) {
-                    Preconditions.checkArgument(method.getParameterTypes().length == typeIndex + 1);
+                    Preconditions.checkArgument(parameterTypes.length == typeIndex + 1);
                     final List<Expr> variableLengthExprs = Lists.newArrayList();
                     for (int variableLengthArgIndex = typeIndex; variableLengthArgIndex < args.size(); variableLengthArgIndex++) {
                         variableLengthExprs.add(args.get(variableLengthArgIndex));
@@ -280,7 +281,7 @@ public enum ExpressionFunctions {
 
         @Override
         public int hashCode() {
-            return Objects.hash(name, argTypes, returnType);
+            return 31 * Objects.hash(name, returnType) + Arrays.hashCode(argTypes);
         }
     }
 }
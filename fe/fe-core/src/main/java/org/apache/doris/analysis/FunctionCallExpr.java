@@ -715,6 +715,10 @@ public class FunctionCallExpr extends Expr {
         return super.isConstantImpl();
     }
 
+    public boolean isNondeterministicBuiltinFn() {
+        return isNondeterministicBuiltinFnName(fnName.getFunction());
+    }
+
     private static boolean isNondeterministicBuiltinFnName(String fnName) {
         if (fnName.equalsIgnoreCase("rand") || fnName.equalsIgnoreCase("random")
                 || fnName.equalsIgnoreCase("uuid")) {
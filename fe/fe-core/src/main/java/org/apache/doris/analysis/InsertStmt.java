@@ -179,6 +179,18 @@ public class InsertStmt extends DdlStmt {
         return tblName.getDb();
     }
 
+    public TableName getTblName() {
+        return tblName;
+    }
+
+    public PartitionNames getTargetPartitionNames() {
+        return targetPartitionNames;
+    }
+
+    public List<String> getTargetColumnNames() {
+        return targetColumnNames;
+    }
+
     // TODO(zc): used to get all dbs for lock
     public void getDbs(Analyzer analyzer, Map<String, Database> dbs) throws AnalysisException {
         // get dbs of statement
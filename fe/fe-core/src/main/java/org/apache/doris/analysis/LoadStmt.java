@@ -81,6 +81,7 @@ public class LoadStmt extends DdlStmt {
     private static final String VERSION = "version";
     public static final String STRICT_MODE = "strict_mode";
     public static final String TIMEZONE = "timezone";
+    public static final String LOAD_PARALLELISM = "load_parallelism";
     
     // for load data from Baidu Object Store(BOS)
     public static final String BOS_ENDPOINT = "bos_endpoint";
@@ -116,6 +117,7 @@ public class LoadStmt extends DdlStmt {
             .add(STRICT_MODE)
             .add(VERSION)
             .add(TIMEZONE)
+            .add(LOAD_PARALLELISM)
             .build();
 
     public LoadStmt(LabelName label, List<DataDescription> dataDescriptions,
@@ -239,6 +241,19 @@ public class LoadStmt extends DdlStmt {
             }
         }
 
+        // load parallelism
+        final String loadParallelismProperty = properties.get(LOAD_PARALLELISM);
+        if (loadParallelismProperty != null) {
+            try {
+                final int loadParallelism = Integer.valueOf(loadParallelismProperty);
+                if (loadParallelism <= 0) {
+                    throw new DdlException(LOAD_PARALLELISM + " must be greater than 0");
+                }
+            } catch (NumberFormatException e) {
+                throw new DdlException(LOAD_PARALLELISM + " is not a number.");
+            }
+        }
+
         // time zone
         final String timezone = properties.get(TIMEZONE);
         if (timezone != null) {
@@ -18,9 +18,14 @@
 package org.apache.doris.backup;
 
 import org.apache.doris.catalog.Catalog;
+import org.apache.doris.common.Config;
+import org.apache.doris.common.FeConstants;
+import org.apache.doris.common.FeMetaVersion;
 import org.apache.doris.common.Pair;
 import org.apache.doris.common.io.Text;
 import org.apache.doris.common.io.Writable;
+import org.apache.doris.common.util.DebugUtil;
+import org.apache.doris.task.AgentTask;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Maps;
@@ -71,6 +76,18 @@ public abstract class AbstractJob implements Writable {
 
     // task signature -> <finished num / total num>
     protected Map<Long, Pair<Integer, Integer>> taskProgress = Maps.newConcurrentMap();
+    // task signature -> bytes uploaded or downloaded by the task.
+    // not persisted, only used to show the transfer throughput.
+    protected Map<Long, Long> taskFinishedBytes = Maps.newConcurrentMap();
+    // time when the upload or download tasks are sent
+    protected long transferStartTime = -1;
+
+    // max number of snapshot, upload or download tasks running on one backend at the same time
+    protected int maxTasksPerBackend = Config.backup_job_max_tasks_per_backend;
+    // speed limit of upload or download on one backend, shared by the running tasks. no limit if <= 0
+    protected long maxBytesPerSecPerBackend = 0;
+    // send the snapshot, upload and download tasks, created when the tasks are generated
+    protected BackendTaskScheduler taskScheduler = null;
 
     protected boolean isTypeRead = false;
 
@@ -109,6 +126,36 @@ public abstract class AbstractJob implements Writable {
         return dbId;
     }
 
+    public void setBackendTaskLimit(int maxTasksPerBackend, long maxBytesPerSecPerBackend) {
+        this.maxTasksPerBackend = maxTasksPerBackend;
+        this.maxBytesPerSecPerBackend = maxBytesPerSecPerBackend;
+    }
+
+    public int getMaxTasksPerBackend() {
+        return maxTasksPerBackend;
+    }
+
+    public long getMaxBytesPerSecPerBackend() {
+        return maxBytesPerSecPerBackend;
+    }
+
+    // the task is not running on backend any more, let the scheduler send the next task of the backend.
+    protected void releaseTaskSlot(AgentTask task) {
+        if (taskScheduler != null) {
+            taskScheduler.finishTask(task);
+        }
+    }
+
+    // resend the task within the per backend window, return false if the job has no scheduler to send it,
+    // eg. after FE restarts
+    public boolean resendTask(AgentTask task) {
+        if (taskScheduler == null) {
+            return false;
+        }
+        taskScheduler.resendTask(task);
+        return true;
+    }
+
     public String getDbName() {
         return dbName;
     }
@@ -155,6 +202,25 @@ public abstract class AbstractJob implements Writable {
 
     public abstract boolean isCancelled();
 
+    protected void resetTransferStat() {
+        taskFinishedBytes.clear();
+        transferStartTime = System.currentTimeMillis();
+    }
+
+    // eg. "12.345 MB/s (1.200 GB)", or "\\N" if the upload or download tasks are not sent in this FE
+    protected String getTransferThroughput(long transferFinishedTime) {
+        if (transferStartTime <= 0) {
+            return FeConstants.null_string;
+        }
+        long bytes = taskFinishedBytes.values().stream().mapToLong(Long::longValue).sum();
+        long endTime = transferFinishedTime > 0 ? transferFinishedTime : System.currentTimeMillis();
+        long costMs = Math.max(1, endTime - transferStartTime);
+        Pair<Double, String> throughput = DebugUtil.getByteUint(bytes * 1000 / costMs);
+        Pair<Double, String> total = DebugUtil.getByteUint(bytes);
+        return DebugUtil.DECIMAL_FORMAT_SCALE_3.format(throughput.first) + " " + throughput.second + "/s ("
+                + DebugUtil.DECIMAL_FORMAT_SCALE_3.format(total.first) + " " + total.second + ")";
+    }
+
     public static AbstractJob read(DataInput in) throws IOException {
         AbstractJob job = null;
         JobType type = JobType.valueOf(Text.readString(in));
@@ -203,6 +269,9 @@ public abstract class AbstractJob implements Writable {
         } else {
             out.writeBoolean(false);
         }
+
+        out.writeInt(maxTasksPerBackend);
+        out.writeLong(maxBytesPerSecPerBackend);
     }
 
     public void readFields(DataInput in) throws IOException {
@@ -229,6 +298,11 @@ public abstract class AbstractJob implements Writable {
                 taskErrMsg.put(taskId, msg);
             }
         }
+
+        if (Catalog.getCurrentCatalogJournalVersion() >= FeMetaVersion.VERSION_94) {
+            maxTasksPerBackend = in.readInt();
+            maxBytesPerSecPerBackend = in.readLong();
+        }
     }
 
     @Override
@@ -0,0 +1,144 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.backup;
+
+import org.apache.doris.task.AgentBatchTask;
+import org.apache.doris.task.AgentTask;
+import org.apache.doris.task.AgentTaskExecutor;
+import org.apache.doris.task.AgentTaskQueue;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/*
+ * Send the upload and download tasks of a backup or restore job to backends,
+ * with at most 'maxTasksPerBackend' running tasks on each backend.
+ * Tasks are queued when added, and the next task of a backend is sent as soon as one of its running tasks
+ * finishes, so that the tasks of different backends and tablets are executed in a pipeline.
+ *
+ * It is not persisted. The unsent tasks are re-generated when the job is redone after FE restarts.
+ */
+public class BackendTaskScheduler {
+    // upload or download task contains at most this number of tablets, so that the finished tasks
+    // of a backend can be followed by the remaining ones in time.
+    public static final int MAX_TABLETS_PER_TRANSFER_TASK = 10;
+
+    private final int maxTasksPerBackend;
+    // backend id -> tasks waiting to be sent
+    private final Map<Long, Queue<AgentTask>> pendingTasks = Maps.newHashMap();
+    // backend id -> signatures of the sent tasks which are not finished
+    private final Map<Long, Set<Long>> runningTasks = Maps.newHashMap();
+
+    public BackendTaskScheduler(int maxTasksPerBackend) {
+        Preconditions.checkArgument(maxTasksPerBackend > 0);
+        this.maxTasksPerBackend = maxTasksPerBackend;
+    }
+
+    public int getMaxTasksPerBackend() {
+        return maxTasksPerBackend;
+    }
+
+    public synchronized void addTask(AgentTask task) {
+        pendingTasks.computeIfAbsent(task.getBackendId(), k -> new LinkedList<>()).add(task);
+    }
+
+    public synchronized int getPendingTaskNum() {
+        return pendingTasks.values().stream().mapToInt(Queue::size).sum();
+    }
+
+    // send tasks to all backends which have free slots, return the number of sent tasks
+    public synchronized int sendTasks() {
+        AgentBatchTask batchTask = new AgentBatchTask();
+        for (long beId : pendingTasks.keySet()) {
+            pollTasks(beId, batchTask);
+        }
+        return submit(batchTask);
+    }
+
+    // the task is finished, send the next task of its backend
+    public synchronized void finishTask(AgentTask task) {
+        Set<Long> running = runningTasks.get(task.getBackendId());
+        if (running == null || !running.remove(task.getSignature())) {
+            return;
+        }
+        AgentBatchTask batchTask = new AgentBatchTask();
+        pollTasks(task.getBackendId(), batchTask);
+        submit(batchTask);
+    }
+
+    // the task is resent by the report of its backend, eg. it failed or the backend lost it.
+    // a task still holding its slot is sent at once, otherwise it is queued until its backend has a free slot.
+    public synchronized void resendTask(AgentTask task) {
+        AgentBatchTask batchTask = new AgentBatchTask();
+        Set<Long> running = runningTasks.get(task.getBackendId());
+        if (running != null && running.contains(task.getSignature())) {
+            batchTask.addTask(task);
+        } else {
+            Queue<AgentTask> pending = pendingTasks.computeIfAbsent(task.getBackendId(), k -> new LinkedList<>());
+            if (pending.stream().noneMatch(t -> t.getSignature() == task.getSignature())) {
+                pending.add(task);
+            }
+            pollTasks(task.getBackendId(), batchTask);
+        }
+        submit(batchTask);
+    }
+
+    // split the items of one backend to the transfer tasks
+    public <T> List<List<T>> splitTransferTasks(List<T> items) {
+        int itemNumPerTask = (items.size() + maxTasksPerBackend - 1) / maxTasksPerBackend;
+        itemNumPerTask = Math.max(1, Math.min(itemNumPerTask, MAX_TABLETS_PER_TRANSFER_TASK));
+        return Lists.partition(items, itemNumPerTask);
+    }
+
+    public synchronized void clear() {
+        pendingTasks.clear();
+        runningTasks.clear();
+    }
+
+    private void pollTasks(long beId, AgentBatchTask batchTask) {
+        Queue<AgentTask> pending = pendingTasks.get(beId);
+        if (pending == null) {
+            return;
+        }
+        Set<Long> running = runningTasks.computeIfAbsent(beId, k -> Sets.newHashSet());
+        while (running.size() < maxTasksPerBackend && !pending.isEmpty()) {
+            AgentTask task = pending.poll();
+            running.add(task.getSignature());
+            batchTask.addTask(task);
+        }
+    }
+
+    private int submit(AgentBatchTask batchTask) {
+        if (batchTask.getTaskNum() == 0) {
+            return 0;
+        }
+        for (AgentTask task : batchTask.getAllTasks()) {
+            AgentTaskQueue.addTask(task);
+        }
+        AgentTaskExecutor.submit(batchTask);
+        return batchTask.getTaskNum();
+    }
+}
@@ -44,6 +44,7 @@ import org.apache.doris.common.ErrorReport;
 import org.apache.doris.common.Pair;
 import org.apache.doris.common.io.Writable;
 import org.apache.doris.common.util.MasterDaemon;
+import org.apache.doris.task.AgentTask;
 import org.apache.doris.task.DirMoveTask;
 import org.apache.doris.task.DownloadTask;
 import org.apache.doris.task.SnapshotTask;
@@ -328,30 +329,42 @@ public class BackupHandler extends MasterDaemon implements Writable {
         if (!st.ok()) {
             ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR, st.getErrMsg());
         }
+        String baseTimestamp = null;
         if (existSnapshotNames.contains(stmt.getLabel())) {
             if (stmt.getType() == BackupType.FULL) {
                 ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR, "Snapshot with name '"
                         + stmt.getLabel() + "' already exist in repository");
             } else {
-                ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR, "Currently does not support "
-                        + "incremental backup");
-
-                // TODO:
-                // This is a incremental backup, the existing snapshot in repository will be treated
-                // as base snapshot.
-                // But first we need to check if the existing snapshot has same meta.
-                List<BackupMeta> backupMetas = Lists.newArrayList();
-                st = repository.getSnapshotMetaFile(stmt.getLabel(), backupMetas, -1);
+                // This is a incremental backup, the latest existing snapshot with same label in repository
+                // will be treated as base snapshot. Only the partitions changed since the base snapshot
+                // will be backed up, other partitions refer to the snapshot files of base snapshot.
+                List<String> timestamps = Lists.newArrayList();
+                st = repository.listJobInfoTimestamps(stmt.getLabel(), timestamps);
                 if (!st.ok()) {
                     ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR,
-                                                   "Failed to get existing meta info for repository: "
-                                                           + st.getErrMsg());
+                                                   "Failed to get existing snapshots of label " + stmt.getLabel()
+                                                           + ": " + st.getErrMsg());
+                }
+                if (timestamps.isEmpty()) {
+                    ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR,
+                                                   "Can not make incremental backup. No finished snapshot with name '"
+                                                           + stmt.getLabel() + "' in repository");
                 }
-                Preconditions.checkState(backupMetas.size() == 1);
+                baseTimestamp = timestamps.get(timestamps.size() - 1);
 
-                if (!curBackupMeta.compatibleWith(backupMetas.get(0))) {
+                List<BackupJobInfo> infos = Lists.newArrayList();
+                st = repository.getSnapshotInfoFile(stmt.getLabel(), baseTimestamp, infos);
+                if (!st.ok()) {
                     ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR,
-                                                   "Can not make incremental backup. Meta does not compatible");
+                                                   "Failed to get info of base snapshot " + baseTimestamp + ": "
+                                                           + st.getErrMsg());
+                }
+                Preconditions.checkState(infos.size() == 1);
+                if (infos.get(0).dbId != db.getId()) {
+                    ErrorReport.reportDdlException(ErrorCode.ERR_COMMON_ERROR,
+                                                   "Can not make incremental backup. Base snapshot "
+                                                           + baseTimestamp + " is not backed up from database "
+                                                           + db.getFullName());
                 }
             }
         }
@@ -360,7 +373,8 @@ public class BackupHandler extends MasterDaemon implements Writable {
         BackupJob backupJob = new BackupJob(stmt.getLabel(), db.getId(),
                 ClusterNamespace.getNameFromFullName(db.getFullName()),
                 tblRefs, stmt.getTimeoutMs(),
-                catalog, repository.getId());
+                catalog, repository.getId(), baseTimestamp);
+        backupJob.setBackendTaskLimit(stmt.getMaxTasksPerBackend(), stmt.getMaxBytesPerSecPerBackend());
         // write log
         catalog.getEditLog().logBackupJob(backupJob);
 
@@ -390,6 +404,7 @@ public class BackupHandler extends MasterDaemon implements Writable {
         RestoreJob restoreJob = new RestoreJob(stmt.getLabel(), stmt.getBackupTimestamp(),
                 db.getId(), db.getFullName(), jobInfo, stmt.allowLoad(), stmt.getReplicationNum(),
                 stmt.getTimeoutMs(), stmt.getMetaVersion(), catalog, repository.getId());
+        restoreJob.setBackendTaskLimit(stmt.getMaxTasksPerBackend(), stmt.getMaxBytesPerSecPerBackend());
         catalog.getEditLog().logRestoreJob(restoreJob);
 
         // must put to dbIdToBackupOrRestoreJob after edit log, otherwise the state of job may be changed.
@@ -512,6 +527,24 @@ public class BackupHandler extends MasterDaemon implements Writable {
         return ((RestoreJob) job).finishTabletDownloadTask(task, request);
     }
 
+    // resend the upload or download task by the scheduler of its job, so that it respects the per backend window.
+    // return false if the task should be resent directly.
+    public boolean resendTransferTask(AgentTask task) {
+        long jobId;
+        if (task instanceof UploadTask) {
+            jobId = ((UploadTask) task).getJobId();
+        } else if (task instanceof DownloadTask) {
+            jobId = ((DownloadTask) task).getJobId();
+        } else {
+            return false;
+        }
+        AbstractJob job = dbIdToBackupOrRestoreJob.get(task.getDbId());
+        if (job == null || job.getJobId() != jobId) {
+            return false;
+        }
+        return job.resendTask(task);
+    }
+
     public boolean handleDirMoveTask(DirMoveTask task, TFinishTaskRequest request) {
         AbstractJob job = dbIdToBackupOrRestoreJob.get(task.getDbId());
         if (job == null || !(job instanceof RestoreJob)) {
@@ -548,16 +581,19 @@ public class BackupHandler extends MasterDaemon implements Writable {
         dbIdToBackupOrRestoreJob.put(job.getDbId(), job);
     }
 
-    public boolean report(TTaskType type, long jobId, long taskId, int finishedNum, int totalNum) {
+    public boolean report(TTaskType type, long jobId, long taskId, int finishedNum, int totalNum,
+                          long finishedBytes) {
         for (AbstractJob job : dbIdToBackupOrRestoreJob.values()) {
             if (job.getType() == JobType.BACKUP) {
                 if (!job.isDone() && job.getJobId() == jobId && type == TTaskType.UPLOAD) {
                     job.taskProgress.put(taskId, Pair.create(finishedNum, totalNum));
+                    job.taskFinishedBytes.put(taskId, finishedBytes);
                     return true;
                 }
             } else if (job.getType() == JobType.RESTORE) {
                 if (!job.isDone() && job.getJobId() == jobId && type == TTaskType.DOWNLOAD) {
                     job.taskProgress.put(taskId, Pair.create(finishedNum, totalNum));
+                    job.taskFinishedBytes.put(taskId, finishedBytes);
                     return true;
                 }
             }
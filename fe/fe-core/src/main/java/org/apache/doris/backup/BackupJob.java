@@ -30,6 +30,7 @@ import org.apache.doris.catalog.Replica;
 import org.apache.doris.catalog.Table;
 import org.apache.doris.catalog.Table.TableType;
 import org.apache.doris.catalog.Tablet;
+import org.apache.doris.common.FeMetaVersion;
 import org.apache.doris.common.io.Text;
 import org.apache.doris.common.util.TimeUtils;
 import org.apache.doris.task.AgentBatchTask;
@@ -102,6 +103,12 @@ public class BackupJob extends AbstractJob {
     // job info file content
     private BackupJobInfo jobInfo;
 
+    // timestamp of the job info file of the base snapshot, set only for incremental backup.
+    // the partitions which are not changed since the base snapshot will not be backed up again.
+    private String baseTimestamp = null;
+    // job info of the base snapshot, it is downloaded from repository when needed, so no need to persist
+    private BackupJobInfo baseJobInfo = null;
+
     // save the local dir of this backup job
     // after job is done, this dir should be deleted
     private Path localJobDirPath = null;
@@ -120,6 +127,12 @@ public class BackupJob extends AbstractJob {
         this.state = BackupJobState.PENDING;
     }
 
+    public BackupJob(String label, long dbId, String dbName, List<TableRef> tableRefs, long timeoutMs,
+            Catalog catalog, long repoId, String baseTimestamp) {
+        this(label, dbId, dbName, tableRefs, timeoutMs, catalog, repoId);
+        this.baseTimestamp = baseTimestamp;
+    }
+
     public BackupJobState getState() {
         return state;
     }
@@ -140,6 +153,14 @@ public class BackupJob extends AbstractJob {
         return localMetaInfoFilePath;
     }
 
+    public String getBaseTimestamp() {
+        return baseTimestamp;
+    }
+
+    public boolean isIncremental() {
+        return baseTimestamp != null;
+    }
+
     public synchronized boolean finishTabletSnapshotTask(SnapshotTask task, TFinishTaskRequest request) {
         Preconditions.checkState(task.getJobId() == jobId);
         
@@ -179,6 +200,10 @@ public class BackupJob extends AbstractJob {
     public synchronized boolean finishSnapshotUploadTask(UploadTask task, TFinishTaskRequest request) {
         Preconditions.checkState(task.getJobId() == jobId);
 
+        // the task is not running on backend any more whether it succeeds or not, send the next one.
+        // a failed task is still in AgentTaskQueue and will be resent by ReportHandler.
+        releaseTaskSlot(task);
+
         if (request.getTaskStatus().getStatusCode() != TStatusCode.OK) {
             taskErrMsg.put(task.getSignature(), Joiner.on(",").join(request.getTaskStatus().getErrorMsgs()));
             return false;
@@ -339,6 +364,10 @@ public class BackupJob extends AbstractJob {
             return;
         }
 
+        if (!prepareBaseJobInfo()) {
+            return;
+        }
+
         // generate job id
         jobId = catalog.getNextId();
         AgentBatchTask batchTask = new AgentBatchTask();
@@ -389,6 +418,11 @@ public class BackupJob extends AbstractJob {
 
                 // snapshot partitions
                 for (Partition partition : partitions) {
+                    if (BackupJobInfo.getUnchangedBasePartition(baseJobInfo, dbId, tbl, partition) != null) {
+                        LOG.info("partition {} is not changed since base snapshot {}, skip it. {}",
+                                 partition.getId(), baseTimestamp, this);
+                        continue;
+                    }
                     long visibleVersion = partition.getVisibleVersion();
                     long visibleVersionHash = partition.getVisibleVersionHash();
                     List<MaterializedIndex> indexes = partition.getMaterializedIndices(IndexExtState.VISIBLE);
@@ -439,7 +473,8 @@ public class BackupJob extends AbstractJob {
             db.readUnlock();
         }
 
-        // send tasks
+        // send tasks. snapshot tasks are not limited by max_tasks_per_backend, because a snapshot which
+        // is made late may fail with OLAP_ERR_VERSION_ALREADY_MERGED after the versions are compacted.
         for (AgentTask task : batchTask.getAllTasks()) {
             AgentTaskQueue.addTask(task);
         }
@@ -449,7 +484,36 @@ public class BackupJob extends AbstractJob {
 
         // DO NOT write log here, state will be reset to PENDING after FE restart. Then all snapshot tasks
         // will be re-generated and be sent again
-        LOG.info("finished to send snapshot tasks to backend. {}", this);
+        LOG.info("finished to send {} snapshot tasks to backend. {}", batchTask.getTaskNum(), this);
+    }
+
+    // download the job info of base snapshot if this is an incremental backup
+    private boolean prepareBaseJobInfo() {
+        if (baseTimestamp == null || baseJobInfo != null) {
+            return true;
+        }
+        List<BackupJobInfo> infos = Lists.newArrayList();
+        Status st = repo.getSnapshotInfoFile(label, baseTimestamp, infos);
+        if (!st.ok()) {
+            status = new Status(ErrCode.COMMON_ERROR, "failed to get job info of base snapshot "
+                    + baseTimestamp + ": " + st.getErrMsg());
+            return false;
+        }
+        Preconditions.checkState(infos.size() == 1);
+        baseJobInfo = infos.get(0);
+        return true;
+    }
+
+    private String getCreateTimeStr() {
+        return TimeUtils.longToTimeString(createTime, new SimpleDateFormat("yyyy-MM-dd-HH-mm-ss"));
+    }
+
+    // the dir in repository where the snapshots of this job are uploaded to
+    private String getContentDir() {
+        if (baseTimestamp == null) {
+            return Repository.DIR_SNAPSHOT_CONTENT;
+        }
+        return Repository.PREFIX_INCR_CONTENT + getCreateTimeStr();
     }
 
     private void waitingAllSnapshotsFinished() {
@@ -471,6 +535,7 @@ public class BackupJob extends AbstractJob {
         unfinishedTaskIds.clear();
         taskProgress.clear();
         taskErrMsg.clear();
+        resetTransferStat();
 
         // We classify the snapshot info by backend
         ArrayListMultimap<Long, SnapshotInfo> beToSnapshots = ArrayListMultimap.create();
@@ -478,15 +543,13 @@ public class BackupJob extends AbstractJob {
             beToSnapshots.put(info.getBeId(), info);
         }
 
-        AgentBatchTask batchTask = new AgentBatchTask();
+        String contentDir = getContentDir();
+        BackendTaskScheduler scheduler = new BackendTaskScheduler(maxTasksPerBackend);
         for (Long beId : beToSnapshots.keySet()) {
             List<SnapshotInfo> infos = beToSnapshots.get(beId);
-            int totalNum = infos.size();
-            // each backend allot at most 3 tasks
-            int batchNum = Math.min(totalNum, 3);
             // each task contains several upload sub tasks
-            int taskNumPerBatch = Math.max(totalNum / batchNum, 1);
-            LOG.info("backend {} has {} batch, total {} tasks, {}", beId, batchNum, totalNum, this);
+            List<List<SnapshotInfo>> batches = scheduler.splitTransferTasks(infos);
+            LOG.info("backend {} has {} batch, total {} tasks, {}", beId, batches.size(), infos.size(), this);
 
             List<FsBroker> brokers = Lists.newArrayList();
             Status st = repo.getBrokerAddress(beId, catalog, brokers);
@@ -497,34 +560,31 @@ public class BackupJob extends AbstractJob {
             Preconditions.checkState(brokers.size() == 1);
             
             // allot tasks
-            int index = 0;
-            for (int batch = 0; batch < batchNum; batch++) {
+            for (List<SnapshotInfo> batch : batches) {
                 Map<String, String> srcToDest = Maps.newHashMap();
-                int currentBatchTaskNum = (batch == batchNum - 1) ? totalNum - index : taskNumPerBatch;
-                for (int j = 0; j < currentBatchTaskNum; j++) {
-                    SnapshotInfo info = infos.get(index++);
+                for (SnapshotInfo info : batch) {
                     String src = info.getTabletPath();
-                    String dest = repo.getRepoTabletPathBySnapshotInfo(label, info);
+                    String dest = repo.getRepoTabletPathBySnapshotInfo(label, contentDir, info);
                     srcToDest.put(src, dest);
                 }
                 long signature = catalog.getNextId();
                 UploadTask task = new UploadTask(null, beId, signature, jobId, dbId, srcToDest,
                         brokers.get(0), repo.getStorage().getProperties());
-                batchTask.addTask(task);
+                task.setMaxBytesPerSec(maxBytesPerSecPerBackend);
+                scheduler.addTask(task);
                 unfinishedTaskIds.put(signature, beId);
             }
         }
 
-        // send tasks
-        for (AgentTask task : batchTask.getAllTasks()) {
-            AgentTaskQueue.addTask(task);
-        }
-        AgentTaskExecutor.submit(batchTask);
+        // send tasks, the remaining tasks are sent when the running ones finish
+        taskScheduler = scheduler;
+        int sentNum = taskScheduler.sendTasks();
 
         state = BackupJobState.UPLOADING;
 
         // DO NOT write log here, upload tasks will be resend after FE crashed.
-        LOG.info("finished to send upload tasks. {}", this);
+        LOG.info("finished to send {} upload tasks, pending: {}. {}",
+                 sentNum, taskScheduler.getPendingTaskNum(), this);
     }
 
     private void waitingAllUploadingFinished() {
@@ -538,12 +598,17 @@ public class BackupJob extends AbstractJob {
             return;
         }
 
-        LOG.debug("waiting {} tablets to upload snapshot. {}", unfinishedTaskIds.size(), this);
+        LOG.debug("waiting {} tasks to upload snapshot, pending: {}. {}",
+                  unfinishedTaskIds.size(), taskScheduler == null ? 0 : taskScheduler.getPendingTaskNum(), this);
     }
 
     private void saveMetaInfo() {
-        String createTimeStr = TimeUtils.longToTimeString(createTime, new SimpleDateFormat(
-                "yyyy-MM-dd-HH-mm-ss"));
+        // base job info is lost if FE restarted after snapshots were made
+        if (!prepareBaseJobInfo()) {
+            return;
+        }
+
+        String createTimeStr = getCreateTimeStr();
         // local job dir: backup/label__createtime/
         localJobDirPath = Paths.get(BackupHandler.BACKUP_ROOT_DIR.toString(),
                                     label + "__" + createTimeStr).normalize();
@@ -573,7 +638,8 @@ public class BackupJob extends AbstractJob {
 
             // 3. save job info file
             jobInfo = BackupJobInfo.fromCatalog(createTime, label, dbName, dbId, backupMeta.getTables().values(),
-                                                snapshotInfos);
+                                                snapshotInfos, baseJobInfo, getContentDir());
+            jobInfo.baseTimestamp = baseTimestamp;
             LOG.debug("job info: {}. {}", jobInfo, this);
             File jobInfoFile = new File(jobDir, Repository.PREFIX_JOB_INFO + createTimeStr);
             if (!jobInfoFile.createNewFile()) {
@@ -592,6 +658,7 @@ public class BackupJob extends AbstractJob {
         // meta info and job info has been saved to local file, this can be cleaned to reduce log size
         backupMeta = null;
         jobInfo = null;
+        baseJobInfo = null;
 
         // release all snapshots before clearing the snapshotInfos.
         releaseSnapshots();
@@ -621,7 +688,9 @@ public class BackupJob extends AbstractJob {
     }
 
     private void uploadMetaAndJobInfoFile() {
-        String remoteMetaInfoFile = repo.assembleMetaInfoFilePath(label);
+        // the meta info file of base snapshot should be kept for restoring from it
+        String remoteMetaInfoFile = baseTimestamp == null ? repo.assembleMetaInfoFilePath(label)
+                : repo.assembleIncrMetaInfoFilePath(label, getCreateTimeStr());
         if (!uploadFile(localMetaInfoFilePath, remoteMetaInfoFile)) {
             return;
         }
@@ -682,6 +751,11 @@ public class BackupJob extends AbstractJob {
     }
 
     private void cancelInternal() {
+        // do not send the pending tasks any more
+        if (taskScheduler != null) {
+            taskScheduler.clear();
+        }
+
         // We need to clean the residual due to current state
         switch (state) {
             case SNAPSHOTING:
@@ -743,6 +817,7 @@ public class BackupJob extends AbstractJob {
                 + "]").collect(Collectors.toList())));
         info.add(status.toString());
         info.add(String.valueOf(timeoutMs / 1000));
+        info.add(getTransferThroughput(snapshopUploadFinishedTime));
         return info;
     }
 
@@ -804,6 +879,14 @@ public class BackupJob extends AbstractJob {
             out.writeBoolean(true);
             Text.writeString(out, localJobInfoFilePath);
         }
+
+        // base snapshot of incremental backup
+        if (baseTimestamp == null) {
+            out.writeBoolean(false);
+        } else {
+            out.writeBoolean(true);
+            Text.writeString(out, baseTimestamp);
+        }
     }
 
     public void readFields(DataInput in) throws IOException {
@@ -847,12 +930,21 @@ public class BackupJob extends AbstractJob {
         if (in.readBoolean()) {
             localJobInfoFilePath = Text.readString(in);
         }
+
+        if (Catalog.getCurrentCatalogJournalVersion() >= FeMetaVersion.VERSION_93) {
+            if (in.readBoolean()) {
+                baseTimestamp = Text.readString(in);
+            }
+        }
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder(super.toString());
         sb.append(", state: ").append(state.name());
+        if (baseTimestamp != null) {
+            sb.append(", base snapshot: ").append(baseTimestamp);
+        }
         return sb.toString();
     }
 }
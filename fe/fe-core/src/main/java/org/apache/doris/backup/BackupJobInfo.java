@@ -72,6 +72,10 @@ public class BackupJobInfo implements Writable {
 
     public int metaVersion;
 
+    // timestamp of the job info file which this incremental backup is based on.
+    // null if this is a full backup.
+    public String baseTimestamp;
+
     // This map is used to save the table alias mapping info when processing a restore job.
     // origin -> alias
     public Map<String, String> tblAlias = Maps.newHashMap();
@@ -150,6 +154,9 @@ public class BackupJobInfo implements Writable {
         public long id;
         public long version;
         public long versionHash;
+        // the dir where the snapshot of this partition is saved in repository.
+        // an unchanged partition of incremental backup refers to the content dir of its base backup.
+        public String contentDir = Repository.DIR_SNAPSHOT_CONTENT;
         public Map<String, BackupIndexInfo> indexes = Maps.newHashMap();
 
         public BackupIndexInfo getIdx(String idxName) {
@@ -225,8 +232,72 @@ public class BackupJobInfo implements Writable {
         return Joiner.on("/").join(pathSeg);
     }
 
+    // get the content dir of the partition which the tablet belongs to
+    public String getContentDir(IdChain ids) {
+        for (BackupTableInfo tblInfo : tables.values()) {
+            if (tblInfo.id != ids.getTblId()) {
+                continue;
+            }
+            for (BackupPartitionInfo partInfo : tblInfo.partitions.values()) {
+                if (partInfo.id == ids.getPartId()) {
+                    return partInfo.contentDir;
+                }
+            }
+        }
+        return Repository.DIR_SNAPSHOT_CONTENT;
+    }
+
+    /*
+     * Return the partition info in base job info if the partition has not been changed since the base backup,
+     * which means the same partition with same visible version, and the same indexes and tablets.
+     * Return null if base job info is null or the partition is changed.
+     */
+    public static BackupPartitionInfo getUnchangedBasePartition(BackupJobInfo baseJobInfo, long dbId,
+            OlapTable tbl, Partition partition) {
+        if (baseJobInfo == null || baseJobInfo.dbId != dbId) {
+            return null;
+        }
+        BackupTableInfo baseTblInfo = baseJobInfo.getTableInfo(tbl.getName());
+        if (baseTblInfo == null || baseTblInfo.id != tbl.getId()) {
+            return null;
+        }
+        BackupPartitionInfo basePartInfo = baseTblInfo.getPartInfo(partition.getName());
+        if (basePartInfo == null || basePartInfo.id != partition.getId()
+                || basePartInfo.version != partition.getVisibleVersion()
+                || basePartInfo.versionHash != partition.getVisibleVersionHash()) {
+            return null;
+        }
+
+        List<MaterializedIndex> indexes = partition.getMaterializedIndices(IndexExtState.VISIBLE);
+        if (indexes.size() != basePartInfo.indexes.size()) {
+            return null;
+        }
+        for (MaterializedIndex index : indexes) {
+            BackupIndexInfo baseIdxInfo = basePartInfo.getIdx(tbl.getIndexNameById(index.getId()));
+            if (baseIdxInfo == null || baseIdxInfo.id != index.getId()
+                    || baseIdxInfo.schemaHash != tbl.getSchemaHashByIndexId(index.getId())) {
+                return null;
+            }
+            List<Long> tabletIds = index.getTabletIdsInOrder();
+            List<Long> baseTabletIds = baseIdxInfo.tablets.stream().map(t -> t.id).collect(Collectors.toList());
+            if (!tabletIds.equals(baseTabletIds)) {
+                return null;
+            }
+        }
+        return basePartInfo;
+    }
+
     public static BackupJobInfo fromCatalog(long backupTime, String label, String dbName, long dbId,
             Collection<Table> tbls, Map<Long, SnapshotInfo> snapshotInfos) {
+        return fromCatalog(backupTime, label, dbName, dbId, tbls, snapshotInfos,
+                null /* full backup */, Repository.DIR_SNAPSHOT_CONTENT);
+    }
+
+    // the unchanged partitions are copied from base job info, and the snapshots of other partitions
+    // are saved in the given content dir.
+    public static BackupJobInfo fromCatalog(long backupTime, String label, String dbName, long dbId,
+            Collection<Table> tbls, Map<Long, SnapshotInfo> snapshotInfos, BackupJobInfo baseJobInfo,
+            String contentDir) {
 
         BackupJobInfo jobInfo = new BackupJobInfo();
         jobInfo.backupTime = backupTime;
@@ -245,11 +316,17 @@ public class BackupJobInfo implements Writable {
             jobInfo.tables.put(tableInfo.name, tableInfo);
             // partitions
             for (Partition partition : olapTbl.getPartitions()) {
+                BackupPartitionInfo basePartInfo = getUnchangedBasePartition(baseJobInfo, dbId, olapTbl, partition);
+                if (basePartInfo != null) {
+                    tableInfo.partitions.put(basePartInfo.name, basePartInfo);
+                    continue;
+                }
                 BackupPartitionInfo partitionInfo = new BackupPartitionInfo();
                 partitionInfo.id = partition.getId();
                 partitionInfo.name = partition.getName();
                 partitionInfo.version = partition.getVisibleVersion();
                 partitionInfo.versionHash = partition.getVisibleVersionHash();
+                partitionInfo.contentDir = contentDir;
                 tableInfo.partitions.put(partitionInfo.name, partitionInfo);
                 // indexes
                 for (MaterializedIndex index : partition.getMaterializedIndices(IndexExtState.VISIBLE)) {
@@ -289,6 +366,7 @@ public class BackupJobInfo implements Writable {
          *   "id": 10000
          *   "backup_result": "succeed",
          *   "meta_version" : 40 // this is optional
+         *   "base_timestamp" : "2018-01-01-08-00-00" // this is optional, only for incremental backup
          *   "backup_objects": {
          *       "table1": {
          *           "partitions": {
@@ -316,6 +394,7 @@ public class BackupJobInfo implements Writable {
          *                   "id": 10007
          *                   "version": 10
          *                   "version_hash": 1273047329538
+         *                   "content_dir": "__ss_content" // this is optional
          *               },
          *           },
          *           "id": 10001
@@ -335,6 +414,10 @@ public class BackupJobInfo implements Writable {
             // meta_version does not exist
             jobInfo.metaVersion = FeConstants.meta_version;
         }
+
+        if (root.has("base_timestamp")) {
+            jobInfo.baseTimestamp = root.getString("base_timestamp");
+        }
         
         JSONObject backupObjs = root.getJSONObject("backup_objects");
         String[] tblNames = JSONObject.getNames(backupObjs);
@@ -352,6 +435,9 @@ public class BackupJobInfo implements Writable {
                 partInfo.id = part.getLong("id");
                 partInfo.version = part.getLong("version");
                 partInfo.versionHash = part.getLong("version_hash");
+                if (part.has("content_dir")) {
+                    partInfo.contentDir = part.getString("content_dir");
+                }
                 JSONObject indexes = part.getJSONObject("indexes");
                 String[] indexNames = JSONObject.getNames(indexes);
                 for (String idxName : indexNames) {
@@ -432,6 +518,9 @@ public class BackupJobInfo implements Writable {
         JSONObject backupObj = new JSONObject();
         root.put("backup_objects", backupObj);
         root.put("meta_version", FeConstants.meta_version);
+        if (baseTimestamp != null) {
+            root.put("base_timestamp", baseTimestamp);
+        }
         
         for (BackupTableInfo tblInfo : tables.values()) {
             JSONObject tbl = new JSONObject();
@@ -446,6 +535,7 @@ public class BackupJobInfo implements Writable {
                     part.put("id", partInfo.id);
                     part.put("version", partInfo.version);
                     part.put("version_hash", partInfo.versionHash);
+                    part.put("content_dir", partInfo.contentDir);
                     JSONObject indexes = new JSONObject();
                     part.put("indexes", indexes);
                     for (BackupIndexInfo idxInfo : partInfo.indexes.values()) {
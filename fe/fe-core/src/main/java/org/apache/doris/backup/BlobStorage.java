@@ -24,8 +24,12 @@ import org.apache.doris.common.AnalysisException;
 import org.apache.doris.common.ClientPool;
 import org.apache.doris.common.Config;
 import org.apache.doris.common.Pair;
+import org.apache.doris.common.ThreadPoolManager;
 import org.apache.doris.common.io.Text;
 import org.apache.doris.common.io.Writable;
+import org.apache.doris.common.storage.ObjectStatus;
+import org.apache.doris.common.storage.ObjectStorage;
+import org.apache.doris.common.storage.ObjectStorageFactory;
 import org.apache.doris.common.util.BrokerUtil;
 import org.apache.doris.service.FrontendOptions;
 import org.apache.doris.thrift.TBrokerCheckPathExistRequest;
@@ -53,6 +57,7 @@ import org.apache.doris.thrift.TNetworkAddress;
 import org.apache.doris.thrift.TPaloBrokerService;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 import org.apache.logging.log4j.LogManager;
@@ -61,16 +66,18 @@ import org.apache.thrift.TException;
 import org.apache.thrift.transport.TTransportException;
 
 import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileVisitOption;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -78,10 +85,24 @@ import java.nio.file.Paths;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class BlobStorage implements Writable {
     private static final Logger LOG = LogManager.getLogger(BlobStorage.class);
 
+    // length of each pread and pwrite rpc
+    private static final long READ_BUF_SIZE = 1024 * 1024; // 1MB
+    private static final int WRITE_BUF_SIZE = 1024 * 1024; // 1MB
+
+    // shared by the downloads of all the files, the queue is unbounded because each download submits
+    // at most broker_transfer_parallelism - 1 readers, and the submitted readers must not be discarded.
+    private static final ThreadPoolExecutor DOWNLOAD_EXECUTOR = ThreadPoolManager.newDaemonFixedThreadPool(
+            Config.broker_transfer_thread_num, Integer.MAX_VALUE, "blob-storage-download-pool", true);
+
     private String brokerName;
     private Map<String, String> properties = Maps.newHashMap();
 
@@ -108,6 +129,97 @@ public class BlobStorage implements Writable {
 
         long start = System.currentTimeMillis();
 
+        // 1. delete local file if exist
+        File localFile = new File(localFilePath);
+        if (localFile.exists()) {
+            try {
+                Files.walk(Paths.get(localFilePath),
+                           FileVisitOption.FOLLOW_LINKS).sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            } catch (IOException e) {
+                return new Status(ErrCode.COMMON_ERROR, "failed to delete exist local file: " + localFilePath);
+            }
+        }
+
+        // 2. create local file
+        try {
+            if (!localFile.createNewFile()) {
+                return new Status(ErrCode.COMMON_ERROR, "failed to create local file: " + localFilePath);
+            }
+        } catch (IOException e) {
+            return new Status(ErrCode.COMMON_ERROR, "failed to create local file: "
+                    + localFilePath + ", msg: " + e.getMessage());
+        }
+
+        ObjectStorage objectStorage = ObjectStorageFactory.create(remoteFilePath, properties);
+        if (objectStorage != null) {
+            try {
+                objectStorage.download(remoteFilePath, localFile);
+            } catch (IOException e) {
+                return new Status(ErrCode.COMMON_ERROR, "failed to download file " + remoteFilePath
+                        + ". msg: " + e.getMessage());
+            }
+            if (localFile.length() != fileSize) {
+                return new Status(ErrCode.COMMON_ERROR, "the size of downloaded file " + localFilePath
+                        + " is " + localFile.length() + ", but expected " + fileSize);
+            }
+            LOG.info("finished to download from {} to {} with size: {} directly. cost {} ms",
+                    remoteFilePath, localFilePath, fileSize, System.currentTimeMillis() - start);
+            return Status.OK;
+        }
+
+        // 3. split the remote file into chunks, and read the chunks with different broker readers concurrently.
+        long chunkSize = Math.max(READ_BUF_SIZE, Config.broker_transfer_chunk_size_bytes);
+        int chunkNum = (int) Math.max(1, (fileSize + chunkSize - 1) / chunkSize);
+        int parallelism = Math.max(1, Math.min(Config.broker_transfer_parallelism, chunkNum));
+        Status status = Status.OK;
+        try (RandomAccessFile out = new RandomAccessFile(localFile, "rw")) {
+            FileChannel channel = out.getChannel();
+            if (parallelism == 1) {
+                status = downloadChunk(remoteFilePath, fileSize, channel, 0, fileSize);
+            } else {
+                // the readers take the chunks one by one until all the chunks are taken or one chunk fails.
+                // the current thread is one of the readers, so the download goes on even if the pool is busy.
+                AtomicInteger nextChunk = new AtomicInteger(0);
+                AtomicReference<Status> failStatus = new AtomicReference<>(Status.OK);
+                Runnable reader = () -> {
+                    int i;
+                    while (failStatus.get().ok() && (i = nextChunk.getAndIncrement()) < chunkNum) {
+                        long offset = i * chunkSize;
+                        long length = Math.min(chunkSize, fileSize - offset);
+                        Status chunkStatus = downloadChunk(remoteFilePath, fileSize, channel, offset, length);
+                        if (!chunkStatus.ok()) {
+                            failStatus.compareAndSet(Status.OK, chunkStatus);
+                        }
+                    }
+                };
+                List<Future<?>> futures = Lists.newArrayList();
+                for (int i = 1; i < parallelism; i++) {
+                    futures.add(DOWNLOAD_EXECUTOR.submit(reader));
+                }
+                reader.run();
+                for (Future<?> future : futures) {
+                    try {
+                        future.get();
+                    } catch (InterruptedException | ExecutionException e) {
+                        failStatus.compareAndSet(Status.OK, new Status(ErrCode.COMMON_ERROR,
+                                "failed to download file " + remoteFilePath + ". msg: " + e.getMessage()));
+                    }
+                }
+                status = failStatus.get();
+            }
+        } catch (IOException e) {
+            return new Status(ErrCode.COMMON_ERROR, "Got exception: " + e.getMessage() + ", file: " + localFilePath);
+        }
+
+        long costMs = Math.max(1, System.currentTimeMillis() - start);
+        LOG.info("finished to download from {} to {} with size: {} in {} chunks. cost {} ms, {} bytes/s",
+                remoteFilePath, localFilePath, fileSize, chunkNum, costMs, fileSize * 1000 / costMs);
+        return status;
+    }
+
+    // read [offset, offset + length) of the remote file with a new broker reader, and write it to the same
+    // position of the local file.
+    private Status downloadChunk(String remoteFilePath, long fileSize, FileChannel out, long offset, long length) {
         // 1. get a proper broker
         Pair<TPaloBrokerService.Client, TNetworkAddress> pair = new Pair<TPaloBrokerService.Client, TNetworkAddress>(
                 null, null);
@@ -122,55 +234,35 @@ public class BlobStorage implements Writable {
         TBrokerFD fd = null;
         try {
             TBrokerOpenReaderRequest req = new TBrokerOpenReaderRequest(TBrokerVersion.VERSION_ONE, remoteFilePath,
-                    0, clientId(), properties);
+                    offset, clientId(), properties);
             TBrokerOpenReaderResponse rep = client.openReader(req);
             TBrokerOperationStatus opst = rep.getOpStatus();
             if (opst.getStatusCode() != TBrokerOperationStatusCode.OK) {
+                ClientPool.brokerPool.returnObject(address, client);
                 return new Status(ErrCode.COMMON_ERROR,
                         "failed to open reader on broker " + BrokerUtil.printBroker(brokerName, address)
                                 + " for file: " + remoteFilePath + ". msg: " + opst.getMessage());
             }
 
             fd = rep.getFd();
-            LOG.info("finished to open reader. fd: {}. download {} to {}.",
-                     fd, remoteFilePath, localFilePath);
+            LOG.info("finished to open reader. fd: {}. download {} from offset {}, length {}.",
+                     fd, remoteFilePath, offset, length);
         } catch (TException e) {
+            ClientPool.brokerPool.invalidateObject(address, client);
             return new Status(ErrCode.COMMON_ERROR,
                     "failed to open reader on broker " + BrokerUtil.printBroker(brokerName, address)
                             + " for file: " + remoteFilePath + ". msg: " + e.getMessage());
         }
         Preconditions.checkNotNull(fd);
 
-        // 3. delete local file if exist
-        File localFile = new File(localFilePath);
-        if (localFile.exists()) {
-            try {
-                Files.walk(Paths.get(localFilePath),
-                           FileVisitOption.FOLLOW_LINKS).sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
-            } catch (IOException e) {
-                return new Status(ErrCode.COMMON_ERROR, "failed to delete exist local file: " + localFilePath);
-            }
-        }
-
-        // 4. create local file
+        // 3. read remote file with broker and write to local
         Status status = Status.OK;
-        try {
-            if (!localFile.createNewFile()) {
-                return new Status(ErrCode.COMMON_ERROR, "failed to create local file: " + localFilePath);
-            }
-        } catch (IOException e) {
-            return new Status(ErrCode.COMMON_ERROR, "failed to create local file: "
-                    + localFilePath + ", msg: " + e.getMessage());
-        }
-
-        // 5. read remote file with broker and write to local
         String lastErrMsg = null;
-        try (BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(localFile))) {
-            final long bufSize = 1024 * 1024; // 1MB
-            long leftSize = fileSize;
-            long readOffset = 0;
+        try {
+            long leftSize = length;
+            long readOffset = offset;
             while (leftSize > 0) {
-                long readLen = leftSize > bufSize ? bufSize : leftSize;
+                long readLen = leftSize > READ_BUF_SIZE ? READ_BUF_SIZE : leftSize;
                 TBrokerReadResponse rep = null;
                 // We only retry if we encounter a timeout thrift exception.
                 int tryTimes = 0;
@@ -241,8 +333,19 @@ public class BlobStorage implements Writable {
                                  rep.getData().length, readLen, remoteFilePath,
                                 BrokerUtil.printBroker(brokerName, address));
                     }
+                    if (rep.getData().length == 0) {
+                        lastErrMsg = String.format("failed to read via broker %s. unexpected end of file. "
+                                + "current read offset: %d, file size: %d, file: %s",
+                                BrokerUtil.printBroker(brokerName, address), readOffset, fileSize, remoteFilePath);
+                        status = new Status(ErrCode.COMMON_ERROR, lastErrMsg);
+                        break;
+                    }
 
-                    out.write(rep.getData());
+                    ByteBuffer data = ByteBuffer.wrap(rep.getData());
+                    long writeOffset = readOffset;
+                    while (data.hasRemaining()) {
+                        writeOffset += out.write(data, writeOffset);
+                    }
                     readOffset += rep.getData().length;
                     leftSize -= rep.getData().length;
                 } else {
@@ -251,8 +354,8 @@ public class BlobStorage implements Writable {
                 }
             } // end of reading remote file
         } catch (IOException e) {
-            return new Status(ErrCode.COMMON_ERROR, "Got exception: " + e.getMessage() + ", broker: " +
-                    BrokerUtil.printBroker(brokerName, address))  ;
+            status = new Status(ErrCode.COMMON_ERROR, "Got exception: " + e.getMessage() + ", broker: " +
+                    BrokerUtil.printBroker(brokerName, address));
         } finally {
             // close broker reader
             Status closeStatus = closeReader(client, address, fd);
@@ -267,14 +370,21 @@ public class BlobStorage implements Writable {
                 ClientPool.brokerPool.returnObject(address, client);
             }
         }
-
-        LOG.info("finished to download from {} to {} with size: {}. cost {} ms", remoteFilePath, localFilePath,
-                 fileSize, (System.currentTimeMillis() - start));
         return status;
     }
 
     // directly upload the content to remote file
     public Status directUpload(String content, String remoteFile) {
+        ObjectStorage objectStorage = ObjectStorageFactory.create(remoteFile, properties);
+        if (objectStorage != null) {
+            try {
+                objectStorage.upload(content.getBytes(StandardCharsets.UTF_8), remoteFile);
+                return Status.OK;
+            } catch (IOException e) {
+                return new Status(ErrCode.COMMON_ERROR, "failed to upload to " + remoteFile + ": " + e.getMessage());
+            }
+        }
+
         Status status = Status.OK;
 
         // 1. get a proper broker
@@ -326,6 +436,19 @@ public class BlobStorage implements Writable {
     public Status upload(String localPath, String remotePath) {
         long start = System.currentTimeMillis();
 
+        ObjectStorage objectStorage = ObjectStorageFactory.create(remotePath, properties);
+        if (objectStorage != null) {
+            try {
+                objectStorage.upload(new File(localPath), remotePath);
+            } catch (IOException e) {
+                return new Status(ErrCode.COMMON_ERROR, "failed to upload " + localPath + " to " + remotePath
+                        + ": " + e.getMessage());
+            }
+            LOG.info("finished to upload {} to remote path {} directly. cost: {} ms",
+                    localPath, remotePath, System.currentTimeMillis() - start);
+            return Status.OK;
+        }
+
         Status status = Status.OK;
 
         // 1. get a proper broker
@@ -347,7 +470,7 @@ public class BlobStorage implements Writable {
         // 3. read local file and write to remote with broker
         File localFile = new File(localPath);
         long fileLength = localFile.length();
-        byte[] readBuf = new byte[1024];
+        byte[] readBuf = new byte[WRITE_BUF_SIZE];
         try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(localFile))) {
             // save the last err msg
             String lastErrMsg = null;
@@ -355,7 +478,7 @@ public class BlobStorage implements Writable {
             long writeOffset = 0;
             // read local file, 1MB at a time
             int bytesRead = 0;
-            while ((bytesRead = in.read(readBuf)) != -1) {
+            while ((bytesRead = readFully(in, readBuf)) > 0) {
                 ByteBuffer bb = ByteBuffer.wrap(readBuf, 0, bytesRead);
                 
                 // We only retry if we encounter a timeout thrift exception.
@@ -441,14 +564,42 @@ public class BlobStorage implements Writable {
         }
 
         if (status.ok()) {
-            LOG.info("finished to upload {} to remote path {}. cost: {} ms",
-                     localPath, remotePath, (System.currentTimeMillis() - start));
+            long costMs = Math.max(1, System.currentTimeMillis() - start);
+            LOG.info("finished to upload {} to remote path {}. cost: {} ms, {} bytes/s",
+                     localPath, remotePath, costMs, fileLength * 1000 / costMs);
         }
         return status;
     }
 
+    // fill the buffer as much as possible, so that each pwrite rpc carries a full buffer.
+    // return the number of bytes read, 0 if the end of the stream is reached.
+    private static int readFully(InputStream in, byte[] buf) throws IOException {
+        int len = 0;
+        while (len < buf.length) {
+            int n = in.read(buf, len, buf.length - len);
+            if (n == -1) {
+                break;
+            }
+            len += n;
+        }
+        return len;
+    }
+
     public Status rename(String origFilePath, String destFilePath) {
         long start = System.currentTimeMillis();
+        ObjectStorage objectStorage = ObjectStorageFactory.create(origFilePath, properties);
+        if (objectStorage != null) {
+            try {
+                objectStorage.rename(origFilePath, destFilePath);
+            } catch (IOException e) {
+                return new Status(ErrCode.COMMON_ERROR, "failed to rename " + origFilePath + " to " + destFilePath
+                        + ", msg: " + e.getMessage());
+            }
+            LOG.info("finished to rename {} to {} directly. cost: {} ms",
+                    origFilePath, destFilePath, (System.currentTimeMillis() - start));
+            return Status.OK;
+        }
+
         Status status = Status.OK;
 
         // 1. get a proper broker
@@ -491,6 +642,18 @@ public class BlobStorage implements Writable {
     }
 
     public Status delete(String remotePath) {
+        ObjectStorage objectStorage = ObjectStorageFactory.create(remotePath, properties);
+        if (objectStorage != null) {
+            try {
+                objectStorage.delete(remotePath);
+            } catch (IOException e) {
+                return new Status(ErrCode.COMMON_ERROR,
+                        "failed to delete remote path: " + remotePath + ". msg: " + e.getMessage());
+            }
+            LOG.info("finished to delete remote path {} directly.", remotePath);
+            return Status.OK;
+        }
+
         // get a proper broker
         Pair<TPaloBrokerService.Client, TNetworkAddress> pair = new Pair<TPaloBrokerService.Client, TNetworkAddress>(
                 null, null);
@@ -533,6 +696,20 @@ public class BlobStorage implements Writable {
     // List files in remotePath
     // The remote file name will only contains file name only(Not full path)
     public Status list(String remotePath, List<RemoteFile> result) {
+        ObjectStorage objectStorage = ObjectStorageFactory.create(remotePath, properties);
+        if (objectStorage != null) {
+            try {
+                for (ObjectStatus objectStatus : objectStorage.list(remotePath)) {
+                    result.add(new RemoteFile(objectStatus.getName(), !objectStatus.isDir(), objectStatus.getSize()));
+                }
+            } catch (IOException e) {
+                return new Status(ErrCode.COMMON_ERROR,
+                        "failed to list remote path: " + remotePath + ". msg: " + e.getMessage());
+            }
+            LOG.info("finished to list remote path {} directly. get files: {}", remotePath, result);
+            return Status.OK;
+        }
+
         // get a proper broker
         Pair<TPaloBrokerService.Client, TNetworkAddress> pair = new Pair<TPaloBrokerService.Client, TNetworkAddress>(null, null);
         Status st = getBroker(pair);
@@ -579,6 +756,11 @@ public class BlobStorage implements Writable {
     }
 
     public Status makeDir(String remotePath) {
+        if (ObjectStorageFactory.isDirectAccess(remotePath, properties)) {
+            // there is no directory in object storage
+            return Status.OK;
+        }
+
         // 1. get a proper broker
         Pair<TPaloBrokerService.Client, TNetworkAddress> pair = new Pair<TPaloBrokerService.Client, TNetworkAddress>(
                 null, null);
@@ -594,6 +776,19 @@ public class BlobStorage implements Writable {
     }
 
     public Status checkPathExist(String remotePath) {
+        ObjectStorage objectStorage = ObjectStorageFactory.create(remotePath, properties);
+        if (objectStorage != null) {
+            try {
+                if (!objectStorage.exists(remotePath)) {
+                    return new Status(ErrCode.NOT_FOUND, "remote path does not exist: " + remotePath);
+                }
+                return Status.OK;
+            } catch (IOException e) {
+                return new Status(ErrCode.COMMON_ERROR,
+                        "failed to check remote path exist: " + remotePath + ". msg: " + e.getMessage());
+            }
+        }
+
         // 1. get a proper broker
         Pair<TPaloBrokerService.Client, TNetworkAddress> pair = new Pair<TPaloBrokerService.Client, TNetworkAddress>(
                 null, null);
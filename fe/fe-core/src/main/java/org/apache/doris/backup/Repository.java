@@ -48,6 +48,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
+import java.util.Collections;
 import java.util.List;
 
 /*
@@ -86,6 +87,9 @@ public class Repository implements Writable {
     public static final String PREFIX_IDX = "__idx_";
     public static final String PREFIX_COMMON = "__";
     public static final String PREFIX_JOB_INFO = "__info_";
+    // meta info file and snapshot content dir of incremental backup, suffixed with the backup timestamp
+    public static final String PREFIX_INCR_META = "__incr_meta_";
+    public static final String PREFIX_INCR_CONTENT = "__incr_content_";
 
     public static final String SUFFIX_TMP_FILE = "part";
 
@@ -220,6 +224,13 @@ public class Repository implements Writable {
                                               FILE_META_INFO);
     }
 
+    // eg: location/__palo_repository_repo_name/__my_sp1/__incr_meta_2018-01-01-08-00-00
+    public String assembleIncrMetaInfoFilePath(String label, String backupTimestamp) {
+        return Joiner.on(PATH_DELIMITER).join(location, joinPrefix(PREFIX_REPO, name),
+                                              joinPrefix(PREFIX_SNAPSHOT_DIR, label),
+                                              joinPrefix(PREFIX_INCR_META, backupTimestamp));
+    }
+
     // eg: location/__palo_repository_repo_name/__my_sp1/__info_2018-01-01-08-00-00
     public String assembleJobInfoFilePath(String label, long createTime) {
         return Joiner.on(PATH_DELIMITER).join(location, joinPrefix(PREFIX_REPO, name),
@@ -230,9 +241,17 @@ public class Repository implements Writable {
     // eg:
     // __palo_repository_repo_name/__ss_my_ss1/__ss_content/__db_10001/__tbl_10020/__part_10031/__idx_10020/__10022/
     public String getRepoTabletPathBySnapshotInfo(String label, SnapshotInfo info) {
+        return getRepoTabletPathBySnapshotInfo(label, DIR_SNAPSHOT_CONTENT, info);
+    }
+
+    // the content dir is DIR_SNAPSHOT_CONTENT for full backup, or PREFIX_INCR_CONTENT + timestamp
+    // for incremental backup.
+    // eg:
+    // __palo_repository_repo_name/__ss_my_ss1/__incr_content_2018-01-01-08-00-00/__db_10001/__tbl_10020/...
+    public String getRepoTabletPathBySnapshotInfo(String label, String contentDir, SnapshotInfo info) {
         return Joiner.on(PATH_DELIMITER).join(location, joinPrefix(PREFIX_REPO, name),
                                               joinPrefix(PREFIX_SNAPSHOT_DIR, label),
-                                              DIR_SNAPSHOT_CONTENT,
+                                              contentDir,
                                               joinPrefix(PREFIX_DB, info.getDbId()),
                                               joinPrefix(PREFIX_TBL, info.getTblId()),
                                               joinPrefix(PREFIX_PART, info.getPartitionId()),
@@ -241,9 +260,13 @@ public class Repository implements Writable {
     }
 
     public String getRepoPath(String label, String childPath) {
+        return getRepoPath(label, DIR_SNAPSHOT_CONTENT, childPath);
+    }
+
+    public String getRepoPath(String label, String contentDir, String childPath) {
         return Joiner.on(PATH_DELIMITER).join(location, joinPrefix(PREFIX_REPO, name),
                                               joinPrefix(PREFIX_SNAPSHOT_DIR, label),
-                                              DIR_SNAPSHOT_CONTENT,
+                                              contentDir,
                                               childPath);
     }
 
@@ -287,6 +310,28 @@ public class Repository implements Writable {
         return Status.OK;
     }
 
+    // list the timestamps of all job info files of the snapshot, sorted from the earliest to the latest.
+    // eg: 2018-01-01-08-00-00
+    public Status listJobInfoTimestamps(String label, List<String> timestamps) {
+        String infoFilePath = assembleJobInfoFilePath(label, -1);
+        List<RemoteFile> results = Lists.newArrayList();
+        Status st = storage.list(infoFilePath + "*", results);
+        if (!st.ok()) {
+            return st;
+        }
+        for (RemoteFile file : results) {
+            // skip the uploading tmp file, eg: __info_2018-04-18-20-11-00.part
+            Pair<String, String> pureFileName = decodeFileNameWithChecksum(file.getName());
+            if (pureFileName == null) {
+                continue;
+            }
+            timestamps.add(disjoinPrefix(PREFIX_JOB_INFO, pureFileName.first));
+        }
+        // the timestamp format is sortable
+        Collections.sort(timestamps);
+        return Status.OK;
+    }
+
     //
     public boolean prepareSnapshotInfo() {
         return false;
@@ -333,7 +378,16 @@ public class Repository implements Writable {
     }
 
     public Status getSnapshotMetaFile(String label, List<BackupMeta> backupMetas, int metaVersion) {
-        String remoteMetaFilePath = assembleMetaInfoFilePath(label);
+        return getSnapshotMetaFile(assembleMetaInfoFilePath(label), backupMetas, metaVersion);
+    }
+
+    // get the meta info file of an incremental backup
+    public Status getIncrSnapshotMetaFile(String label, String backupTimestamp, List<BackupMeta> backupMetas,
+            int metaVersion) {
+        return getSnapshotMetaFile(assembleIncrMetaInfoFilePath(label, backupTimestamp), backupMetas, metaVersion);
+    }
+
+    private Status getSnapshotMetaFile(String remoteMetaFilePath, List<BackupMeta> backupMetas, int metaVersion) {
         File localMetaFile = new File(BackupHandler.BACKUP_ROOT_DIR + PATH_DELIMITER
                 + "meta_" + System.currentTimeMillis());
 
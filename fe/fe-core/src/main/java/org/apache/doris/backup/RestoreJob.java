@@ -202,6 +202,9 @@ public class RestoreJob extends AbstractJob {
 
 
     public synchronized boolean finishTabletDownloadTask(DownloadTask task, TFinishTaskRequest request) {
+        // the task is not running on backend any more whether it succeeds or not, send the next one.
+        // a failed task is still in AgentTaskQueue and will be resent by ReportHandler.
+        releaseTaskSlot(task);
         if (checkTaskStatus(task, task.getJobId(), request)) {
             return false;
         }
@@ -727,7 +730,8 @@ public class RestoreJob extends AbstractJob {
             return;
         }
 
-        // send tasks
+        // send tasks. snapshot tasks are not limited by max_tasks_per_backend, because a snapshot which
+        // is made late may fail if the version is already merged.
         for (AgentTask task : batchTask.getAllTasks()) {
             AgentTaskQueue.addTask(task);
         }
@@ -880,8 +884,15 @@ public class RestoreJob extends AbstractJob {
 
     private boolean downloadAndDeserializeMetaInfo() {
         List<BackupMeta> backupMetas = Lists.newArrayList();
-        Status st = repo.getSnapshotMetaFile(jobInfo.name, backupMetas,
-                this.metaVersion == -1 ? jobInfo.metaVersion : this.metaVersion);
+        int backupMetaVersion = this.metaVersion == -1 ? jobInfo.metaVersion : this.metaVersion;
+        Status st;
+        if (jobInfo.baseTimestamp == null) {
+            st = repo.getSnapshotMetaFile(jobInfo.name, backupMetas, backupMetaVersion);
+        } else {
+            // restore from an incremental backup
+            st = repo.getIncrSnapshotMetaFile(jobInfo.name, backupTimestamp, backupMetas,
+                    backupMetaVersion);
+        }
         if (!st.ok()) {
             status = st;
             return false;
@@ -986,7 +997,8 @@ public class RestoreJob extends AbstractJob {
         unfinishedSignatureToId.clear();
         taskProgress.clear();
         taskErrMsg.clear();
-        AgentBatchTask batchTask = new AgentBatchTask();
+        resetTransferStat();
+        BackendTaskScheduler scheduler = new BackendTaskScheduler(maxTasksPerBackend);
         for (long dbId : dbToSnapshotInfos.keySet()) {
             List<SnapshotInfo> infos = dbToSnapshotInfos.get(dbId);
 
@@ -1006,13 +1018,10 @@ public class RestoreJob extends AbstractJob {
             try {
                 for (Long beId : beToSnapshots.keySet()) {
                     List<SnapshotInfo> beSnapshotInfos = beToSnapshots.get(beId);
-                    int totalNum = beSnapshotInfos.size();
-                    // each backend allot at most 3 tasks
-                    int batchNum = Math.min(totalNum, 3);
-                    // each task contains several upload sub tasks
-                    int taskNumPerBatch = Math.max(totalNum / batchNum, 1);
+                    // each task contains several download sub tasks
+                    List<List<SnapshotInfo>> batches = scheduler.splitTransferTasks(beSnapshotInfos);
                     LOG.debug("backend {} has {} batch, total {} tasks, {}",
-                              beId, batchNum, totalNum, this);
+                              beId, batches.size(), beSnapshotInfos.size(), this);
 
                     List<FsBroker> brokerAddrs = Lists.newArrayList();
                     Status st = repo.getBrokerAddress(beId, catalog, brokerAddrs);
@@ -1023,12 +1032,9 @@ public class RestoreJob extends AbstractJob {
                     Preconditions.checkState(brokerAddrs.size() == 1);
 
                     // allot tasks
-                    int index = 0;
-                    for (int batch = 0; batch < batchNum; batch++) {
+                    for (List<SnapshotInfo> batch : batches) {
                         Map<String, String> srcToDest = Maps.newHashMap();
-                        int currentBatchTaskNum = (batch == batchNum - 1) ? totalNum - index : taskNumPerBatch;
-                        for (int j = 0; j < currentBatchTaskNum; j++) {
-                            SnapshotInfo info = beSnapshotInfos.get(index++);
+                        for (SnapshotInfo info : batch) {
                             Table tbl = db.getTable(info.getTblId());
                             if (tbl == null) {
                                 status = new Status(ErrCode.NOT_FOUND, "restored table "
@@ -1085,7 +1091,8 @@ public class RestoreJob extends AbstractJob {
                             // eg:
                             // bos://location/__palo_repository_my_repo/_ss_my_ss/_ss_content/__db_10000/
                             // __tbl_10001/__part_10002/_idx_10001/__10003
-                            String src = repo.getRepoPath(label, repoTabletPath);
+                            // the content dir may be different for partitions of incremental backup
+                            String src = repo.getRepoPath(label, jobInfo.getContentDir(repoIds), repoTabletPath);
                             SnapshotInfo snapshotInfo = snapshotInfos.get(info.getTabletId(), info.getBeId());
                             Preconditions.checkNotNull(snapshotInfo, info.getTabletId() + "-" + info.getBeId());
                             // download to previous exist snapshot dir
@@ -1096,7 +1103,8 @@ public class RestoreJob extends AbstractJob {
                         long signature = catalog.getNextId();
                         DownloadTask task = new DownloadTask(null, beId, signature, jobId, dbId,
                                 srcToDest, brokerAddrs.get(0), repo.getStorage().getProperties());
-                        batchTask.addTask(task);
+                        task.setMaxBytesPerSec(maxBytesPerSecPerBackend);
+                        scheduler.addTask(task);
                         unfinishedSignatureToId.put(signature, beId);
                     }
                 }
@@ -1105,16 +1113,15 @@ public class RestoreJob extends AbstractJob {
             }
         }
 
-        // send task
-        for (AgentTask task : batchTask.getAllTasks()) {
-            AgentTaskQueue.addTask(task);
-        }
-        AgentTaskExecutor.submit(batchTask);
+        // send task, the remaining tasks are sent when the running ones finish
+        taskScheduler = scheduler;
+        int sentNum = taskScheduler.sendTasks();
 
         state = RestoreJobState.DOWNLOADING;
 
         // No edit log here
-        LOG.info("finished to send download tasks to BE. num: {}. {}", batchTask.getTaskNum(), this);
+        LOG.info("finished to send download tasks to BE. num: {}, pending: {}. {}",
+                 sentNum, taskScheduler.getPendingTaskNum(), this);
         return;
     }
 
@@ -1288,6 +1295,7 @@ public class RestoreJob extends AbstractJob {
                 + "]").collect(Collectors.toList())));
         info.add(status.toString());
         info.add(String.valueOf(timeoutMs / 1000));
+        info.add(getTransferThroughput(downloadFinishedTime));
         return info;
     }
 
@@ -1318,6 +1326,11 @@ public class RestoreJob extends AbstractJob {
     }
 
     public void cancelInternal(boolean isReplay) {
+        // do not send the pending tasks any more
+        if (taskScheduler != null) {
+            taskScheduler.clear();
+        }
+
         // We need to clean the residual due to current state
         if (!isReplay) {
             switch (state) {
@@ -142,6 +142,7 @@ import org.apache.doris.load.DeleteInfo;
 import org.apache.doris.load.ExportChecker;
 import org.apache.doris.load.ExportJob;
 import org.apache.doris.load.ExportMgr;
+import org.apache.doris.load.GroupCommitManager;
 import org.apache.doris.load.Load;
 import org.apache.doris.load.LoadChecker;
 import org.apache.doris.load.LoadErrorHub;
@@ -398,6 +399,8 @@ public class Catalog {
 
     private SmallFileMgr smallFileMgr;
 
+    private GroupCommitManager groupCommitManager;
+
     private DynamicPartitionScheduler dynamicPartitionScheduler;
     
     private PluginMgr pluginMgr;
@@ -544,6 +547,7 @@ public class Catalog {
         this.routineLoadTaskScheduler = new RoutineLoadTaskScheduler(routineLoadManager);
 
         this.smallFileMgr = new SmallFileMgr();
+        this.groupCommitManager = new GroupCommitManager();
 
         this.dynamicPartitionScheduler = new DynamicPartitionScheduler("DynamicPartitionScheduler",
                 Config.dynamic_partition_check_interval_seconds * 1000L);
@@ -4775,6 +4779,10 @@ public class Catalog {
         return this.smallFileMgr;
     }
 
+    public GroupCommitManager getGroupCommitManager() {
+        return this.groupCommitManager;
+    }
+
     public long getReplayedJournalId() {
         return this.replayedJournalId.get();
     }
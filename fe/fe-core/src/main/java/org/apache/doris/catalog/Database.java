@@ -86,6 +86,8 @@ public class Database extends MetaObject implements Writable {
 
     // user define function
     private ConcurrentMap<String, ImmutableList<Function>> name2Function = Maps.newConcurrentMap();
+    // Resolution results of getFunction(), invalidated when a function is created or dropped.
+    private FunctionLookupCache functionLookupCache = new FunctionLookupCache();
 
     private volatile long dataQuotaBytes;
 
@@ -584,6 +586,7 @@ public class Database extends MetaObject implements Writable {
         }
         builder.add(function);
         name2Function.put(functionName, builder.build());
+        functionLookupCache.invalidate();
     }
 
     public synchronized void dropFunction(FunctionSearchDesc function) throws UserException {
@@ -623,14 +626,17 @@ public class Database extends MetaObject implements Writable {
         } else {
             name2Function.put(functionName, newFunctions);
         }
+        functionLookupCache.invalidate();
     }
 
     public synchronized Function getFunction(Function desc, Function.CompareMode mode) {
-        List<Function> fns = name2Function.get(desc.getFunctionName().getFunction());
-        if (fns == null) {
-            return null;
-        }
-        return Function.getFunction(fns, desc, mode);
+        return functionLookupCache.getFunction(desc, mode, (searchDesc, compareMode) -> {
+            List<Function> fns = name2Function.get(searchDesc.getFunctionName().getFunction());
+            if (fns == null) {
+                return null;
+            }
+            return Function.getFunction(fns, searchDesc, compareMode);
+        });
     }
 
     public synchronized List<Function> getFunctions() {
@@ -0,0 +1,110 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.catalog;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+
+/*
+ * Caches the result of resolving a function by (name, arg types, var args, compare mode).
+ * Overloaded functions such as cast, if and the arithmetic operators have dozens of
+ * signatures, and resolving them means scanning all the signatures with Function.compare()
+ * for every FunctionCallExpr, ArithmeticExpr or CastExpr being analyzed.
+ *
+ * Negative results are cached too, because function calls of UDFs always look up the
+ * builtin functions first.
+ * The owner of the function list must call invalidate() whenever the list is changed.
+ */
+public class FunctionLookupCache {
+    private static final long MAX_CACHE_SIZE = 10000;
+
+    private final Cache<LookupKey, Optional<Function>> cache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHE_SIZE)
+            .build();
+
+    public interface Resolver {
+        Function resolve(Function desc, Function.CompareMode mode);
+    }
+
+    public Function getFunction(Function desc, Function.CompareMode mode, Resolver resolver) {
+        if (!isCacheable(desc)) {
+            return resolver.resolve(desc, mode);
+        }
+        LookupKey key = new LookupKey(desc, mode);
+        Optional<Function> fn = cache.getIfPresent(key);
+        if (fn == null) {
+            fn = Optional.ofNullable(resolver.resolve(desc, mode));
+            cache.put(key, fn);
+        }
+        return fn.orElse(null);
+    }
+
+    public void invalidate() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    // Only scalar types implement hashCode() consistently with equals().
+    private static boolean isCacheable(Function desc) {
+        for (Type type : desc.getArgs()) {
+            if (!(type instanceof ScalarType)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class LookupKey {
+        private final String name;
+        private final Type[] argTypes;
+        private final boolean hasVarArgs;
+        private final Function.CompareMode mode;
+
+        public LookupKey(Function desc, Function.CompareMode mode) {
+            this.name = desc.getFunctionName().toString();
+            this.argTypes = desc.getArgs().clone();
+            this.hasVarArgs = desc.hasVarArgs();
+            this.mode = mode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof LookupKey)) {
+                return false;
+            }
+            LookupKey other = (LookupKey) obj;
+            return name.equals(other.name) && hasVarArgs == other.hasVarArgs && mode == other.mode
+                    && Arrays.equals(argTypes, other.argTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hash(name, hasVarArgs, mode) + Arrays.hashCode(argTypes);
+        }
+    }
+}
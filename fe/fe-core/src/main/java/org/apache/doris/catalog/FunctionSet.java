@@ -59,6 +59,9 @@ public class FunctionSet {
     // cmy: This does not contain any user defined functions. All UDFs handle null values by themselves.
     private ImmutableSet<String> nonNullResultWithNullParamFunctions;
 
+    // Resolution results of getFunction(), invalidated when a function is added.
+    private final FunctionLookupCache lookupCache = new FunctionLookupCache();
+
     public FunctionSet() {
         functions = Maps.newHashMap();
     }
@@ -697,6 +700,11 @@ public class FunctionSet {
                     .build();
 
     public Function getFunction(Function desc, Function.CompareMode mode) {
+        return lookupCache.getFunction(desc, mode, this::resolveFunction);
+    }
+
+    // resolve without the cache, package private for FunctionLookupCacheBenchmark
+    Function resolveFunction(Function desc, Function.CompareMode mode) {
         List<Function> fns = functions.get(desc.functionName());
         if (fns == null) {
             return null;
@@ -787,6 +795,7 @@ public class FunctionSet {
             functions.put(fn.functionName(), fns);
         }
         if (fns.add(fn)) {
+            lookupCache.invalidate();
             return true;
         }
         return false;
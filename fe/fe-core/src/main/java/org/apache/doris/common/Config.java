@@ -501,6 +501,19 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true, masterOnly = true)
     public static int max_load_timeout_second = 259200; // 3days
 
+    /**
+     * If set to true, the plan of a stream load is cached as a template, and the following stream loads
+     * of the same table with the same load properties are planned by patching the template.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_stream_load_plan_cache = true;
+
+    /**
+     * Max number of the cached stream load plans.
+     */
+    @ConfField
+    public static long stream_load_plan_cache_capacity = 1024;
+
     /**
      * Max stream load and streaming mini load timeout
      */
@@ -531,6 +544,21 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true, masterOnly = true)
     public static int spark_load_default_timeout_second = 86400; // 1 day
 
+    /**
+     * Max times to resubmit a failed spark etl job of a spark load.
+     * The resubmitted etl job writes to the same output path, and skips the buckets
+     * which are already written by the previous attempts.
+     */
+    @ConfField(mutable = true, masterOnly = true)
+    public static int spark_load_etl_max_retry_times = 1;
+
+    /**
+     * If set to true, the output files of the finished buckets are pushed to BE
+     * while the spark etl job is still running, instead of after the whole etl job finished.
+     */
+    @ConfField(mutable = true, masterOnly = true)
+    public static boolean enable_spark_load_early_push = true;
+
     /**
      * Default spark home dir
      */
@@ -697,6 +725,14 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true, masterOnly = true)
     public static int max_broker_concurrency = 10;
 
+    /**
+     * Default number of broker scanners of a broker load on each backend,
+     * if 'load_parallelism' is not specified in the load properties.
+     * The max broker concurrency of the load is also multiplied by it.
+     */
+    @ConfField(mutable = true, masterOnly = true)
+    public static int default_load_parallelism = 1;
+
     /**
      * Export checker's running interval.
      */
@@ -718,6 +754,12 @@ public class Config extends ConfigBase {
      */
     @ConfField(mutable = true, masterOnly = true)
     public static int export_tablet_num_per_task = 5;
+    /**
+     * Max number of export query plans of one export job running at the same time.
+     * The query plans are executed one by one if it is set to 1.
+     */
+    @ConfField(mutable = true, masterOnly = true)
+    public static int export_task_parallelism = 3;
 
     // Configurations for consistency check
     /**
@@ -837,6 +879,43 @@ public class Config extends ConfigBase {
     // default timeout of backup job
     @ConfField(mutable = true, masterOnly = true)
     public static int backup_job_default_timeout_ms = 86400 * 1000; // 1 day
+
+    /**
+     * Default max number of upload or download tasks of a backup or restore job
+     * running on one backend at the same time. Other tasks are sent when the running ones finish.
+     * It can be overridden by the "max_tasks_per_backend" property of BACKUP and RESTORE stmt.
+     * It must be greater than 0.
+     */
+    @ConfField(mutable = true, masterOnly = true, min = 1)
+    public static int backup_job_max_tasks_per_backend = 5;
+
+    /**
+     * Files downloaded by FE from the remote storage via broker, eg. the meta files of backup,
+     * are split into chunks of this size, and the chunks are read by different broker readers concurrently.
+     * The snapshot files downloaded by BE are not split.
+     */
+    @ConfField(mutable = true)
+    public static long broker_transfer_chunk_size_bytes = 64 * 1024 * 1024L; // 64MB
+
+    /**
+     * Max number of broker readers to download one file concurrently.
+     */
+    @ConfField(mutable = true)
+    public static int broker_transfer_parallelism = 4;
+
+    /**
+     * Number of threads shared by all the files downloaded by FE via broker to read the chunks.
+     */
+    @ConfField
+    public static int broker_transfer_thread_num = 16;
+
+    /**
+     * If true, the S3 compatible storages are accessed directly instead of through the broker,
+     * when the path is s3:// or s3a:// and the "fs.s3a.endpoint" property is given.
+     * FE lists the files and transfers the meta files of backup directly, and BE reads the files of broker load directly.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_direct_object_storage_access = false;
     
     /**
      * 'storage_high_watermark_usage_percent' limit the max capacity usage percent of a Backend storage path.
@@ -1037,6 +1116,22 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true, masterOnly = true)
     public static int max_routine_load_task_num_per_be = 5;
 
+    /**
+     * The interval to fetch the latest offsets of the kafka partitions of a routine load job,
+     * which are used to calculate the lags of the partitions.
+     */
+    @ConfField(mutable = true, masterOnly = true)
+    public static int routine_load_lag_update_interval_second = 10;
+
+    /**
+     * If set to true, the next task of a routine load task is created and scheduled as soon as
+     * the txn of the task is COMMITTED, instead of VISIBLE, and it is scheduled to the same BE
+     * ahead of the other tasks waiting in queue. So the next batch is consumed while the
+     * previous txn is being published.
+     */
+    @ConfField(mutable = true, masterOnly = true)
+    public static boolean enable_routine_load_task_pipeline = false;
+
     /**
      * The max number of files store in SmallFileMgr 
      */
@@ -1250,4 +1345,24 @@ public class Config extends ConfigBase {
      */
     @ConfField(mutable = true, masterOnly = true)
     public static boolean enable_batch_delete_by_default = false;
+
+    /**
+     * The max time in milliseconds that an INSERT ... VALUES waits for other inserts of the same table
+     * before they are committed together in one transaction.
+     * Only valid when the session variable 'enable_insert_group_commit' is true.
+     */
+    @ConfField(mutable = true, masterOnly = true)
+    public static long group_commit_interval_ms = 200;
+
+    /**
+     * The inserts waiting for group commit are committed at once when their number of rows reaches this limit.
+     */
+    @ConfField(mutable = true, masterOnly = true)
+    public static long group_commit_max_rows = 10000;
+
+    /**
+     * Number of threads to commit the grouped inserts.
+     */
+    @ConfField(masterOnly = true)
+    public static int group_commit_thread_num = 4;
 }
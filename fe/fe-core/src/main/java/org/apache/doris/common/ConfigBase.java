@@ -45,6 +45,8 @@ public class ConfigBase {
         boolean mutable() default false;
         boolean masterOnly() default false;
         String comment() default "";
+        // min value of a short, int or long config, a smaller value is rejected
+        long min() default Long.MIN_VALUE;
     }   
     
     public static Properties props;
@@ -144,13 +146,13 @@ public class ConfigBase {
         // set config field
         switch (f.getType().getSimpleName()) {
             case "short":
-                f.setShort(null, Short.parseShort(confVal));
+                f.setShort(null, (short) checkMin(f, Short.parseShort(confVal)));
                 break;
             case "int":
-                f.setInt(null, Integer.parseInt(confVal));
+                f.setInt(null, (int) checkMin(f, Integer.parseInt(confVal)));
                 break;
             case "long":
-                f.setLong(null, Long.parseLong(confVal));
+                f.setLong(null, checkMin(f, Long.parseLong(confVal)));
                 break;
             case "double":
                 f.setDouble(null, Double.parseDouble(confVal));
@@ -204,6 +206,14 @@ public class ConfigBase {
         }
     }
 
+    private static long checkMin(Field f, long value) throws Exception {
+        ConfField anno = f.getAnnotation(ConfField.class);
+        if (anno != null && value < anno.min()) {
+            throw new Exception(f.getName() + " must be at least " + anno.min() + ", but it is " + value);
+        }
+        return value;
+    }
+
     public static Map<String, Field> getAllMutableConfigs() {
         Map<String, Field> mutableConfigs = Maps.newHashMap();
         Field fields[] = ConfigBase.confClass.getFields();
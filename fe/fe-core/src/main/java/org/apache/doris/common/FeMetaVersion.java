@@ -194,6 +194,12 @@ public final class FeMetaVersion {
     public static final int VERSION_90 = 90;
     // sparkLoadAppHandle
     public static final int VERSION_91 = 91;
+    // load parallelism of load job
+    public static final int VERSION_92 = 92;
+    // base snapshot of incremental backup job
+    public static final int VERSION_93 = 93;
+    // task concurrency and speed limit per backend of backup and restore job
+    public static final int VERSION_94 = 94;
     // note: when increment meta version, should assign the latest version to VERSION_CURRENT
-    public static final int VERSION_CURRENT = VERSION_91;
+    public static final int VERSION_CURRENT = VERSION_94;
 }
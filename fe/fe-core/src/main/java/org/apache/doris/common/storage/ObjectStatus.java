@@ -0,0 +1,54 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.common.storage;
+
+// status of an object or a directory in the object storage
+public class ObjectStatus {
+    // full path with scheme and bucket
+    private final String path;
+    private final boolean isDir;
+    private final long size;
+
+    public ObjectStatus(String path, boolean isDir, long size) {
+        this.path = path;
+        this.isDir = isDir;
+        this.size = size;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    // the last component of the path
+    public String getName() {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    public boolean isDir() {
+        return isDir;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "[path: " + path + ", is dir: " + isDir + ", size: " + size + "]";
+    }
+}
@@ -0,0 +1,51 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.common.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Client of an object storage, which is accessed by FE directly instead of through a broker.
+ * The paths are full paths with scheme and bucket, eg. s3://bucket/path/to/object.
+ * Implementations are registered to {@link ObjectStorageFactory} by the scheme of the paths.
+ */
+public interface ObjectStorage {
+
+    /**
+     * List the objects and the directories matching the path, which may have wildcards.
+     * The same as the glob status of hadoop file system, a path without wildcards returns itself if it exists.
+     */
+    List<ObjectStatus> list(String path) throws IOException;
+
+    /**
+     * Return true if the path is an object, or a directory which has objects under it.
+     */
+    boolean exists(String path) throws IOException;
+
+    void download(String path, File localFile) throws IOException;
+
+    void upload(File localFile, String path) throws IOException;
+
+    void upload(byte[] content, String path) throws IOException;
+
+    void delete(String path) throws IOException;
+
+    void rename(String srcPath, String destPath) throws IOException;
+}
@@ -0,0 +1,73 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.common.storage;
+
+import org.apache.doris.common.Config;
+
+import com.google.common.collect.Maps;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Create the object storage client for a path, if the path can be accessed without a broker.
+ * The clients are created by the scheme of the path, and other storages can be plugged in by {@link #register}.
+ */
+public class ObjectStorageFactory {
+    private static final Map<String, Function<Map<String, String>, ObjectStorage>> CREATORS = Maps.newConcurrentMap();
+
+    static {
+        register("s3", S3ObjectStorage::new);
+        register("s3a", S3ObjectStorage::new);
+    }
+
+    public static void register(String scheme, Function<Map<String, String>, ObjectStorage> creator) {
+        CREATORS.put(scheme.toLowerCase(), creator);
+    }
+
+    /**
+     * Return the object storage client of the path,
+     * or null if the path should be accessed through the broker.
+     */
+    public static ObjectStorage create(String path, Map<String, String> properties) {
+        if (!isDirectAccess(path, properties)) {
+            return null;
+        }
+        return CREATORS.get(getScheme(path)).apply(properties);
+    }
+
+    public static boolean isDirectAccess(String path, Map<String, String> properties) {
+        if (!Config.enable_direct_object_storage_access || path == null || properties == null) {
+            return false;
+        }
+        String scheme = getScheme(path);
+        if (scheme == null || !CREATORS.containsKey(scheme)) {
+            return false;
+        }
+        // the endpoint is necessary to access the storage directly, otherwise it is left to the broker
+        return properties.containsKey(S3ObjectStorage.ENDPOINT);
+    }
+
+    private static String getScheme(String path) {
+        int index = path.indexOf("://");
+        if (index <= 0) {
+            return null;
+        }
+        return path.substring(0, index).toLowerCase();
+    }
+}
@@ -0,0 +1,808 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.common.storage;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.SocketException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+/**
+ * Client of the S3 compatible object storages, which sends the requests of the S3 REST API
+ * signed by AWS signature version 4.
+ * The properties are the same as the s3a file system of the broker, so that a statement
+ * works whether the storage is accessed directly or through a broker.
+ */
+public class S3ObjectStorage implements ObjectStorage {
+    private static final Logger LOG = LogManager.getLogger(S3ObjectStorage.class);
+
+    public static final String ENDPOINT = "fs.s3a.endpoint";
+    public static final String ACCESS_KEY = "fs.s3a.access.key";
+    public static final String SECRET_KEY = "fs.s3a.secret.key";
+    // the session token of the temporary credentials
+    public static final String SESSION_TOKEN = "fs.s3a.session.token";
+    public static final String REGION = "fs.s3a.endpoint.region";
+    public static final String PATH_STYLE_ACCESS = "fs.s3a.path.style.access";
+
+    private static final String DEFAULT_REGION = "us-east-1";
+    private static final String AWS_DOMAIN = ".amazonaws.com";
+    private static final String AWS_CN_DOMAIN = ".amazonaws.com.cn";
+    private static final String SERVICE = "s3";
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    // the payload is not signed, so that the files can be uploaded by streaming
+    private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    private static final DateTimeFormatter AMZ_DATE_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final int TIMEOUT_MS = 60 * 1000;
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    // a failed request is retried at most this times, waiting 200ms, 400ms and 800ms before the retries
+    private static final int MAX_RETRY_TIMES = 3;
+    private static final long RETRY_BASE_DELAY_MS = 200;
+    // a single copy request is limited to 5GB, larger objects are copied by parts of a multipart upload
+    private static final long MAX_COPY_SIZE = 5L << 30;
+    private static final long COPY_PART_SIZE = 512L << 20;
+    private static final int MAX_PART_NUM = 10000;
+
+    private final String protocol;
+    private final String host;
+    private final String accessKey;
+    private final String secretKey;
+    private final String sessionToken;
+    private final String region;
+    private final boolean pathStyleAccess;
+    private long maxCopySize = MAX_COPY_SIZE;
+    private long copyPartSize = COPY_PART_SIZE;
+
+    public S3ObjectStorage(Map<String, String> properties) {
+        String endpoint = properties.get(ENDPOINT);
+        if (Strings.isNullOrEmpty(endpoint)) {
+            throw new IllegalArgumentException("Missing property " + ENDPOINT);
+        }
+        int index = endpoint.indexOf("://");
+        if (index > 0) {
+            this.protocol = endpoint.substring(0, index).toLowerCase();
+            endpoint = endpoint.substring(index + 3);
+        } else {
+            this.protocol = "https";
+        }
+        this.host = endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint;
+        this.accessKey = Strings.nullToEmpty(properties.get(ACCESS_KEY));
+        this.secretKey = Strings.nullToEmpty(properties.get(SECRET_KEY));
+        this.sessionToken = Strings.nullToEmpty(properties.get(SESSION_TOKEN));
+        String region = properties.get(REGION);
+        if (Strings.isNullOrEmpty(region)) {
+            region = getRegionOfEndpoint(this.host);
+        }
+        this.region = region;
+        this.pathStyleAccess = Boolean.parseBoolean(properties.getOrDefault(PATH_STYLE_ACCESS, "false"));
+    }
+
+    /**
+     * Return the region in the AWS endpoint, eg. s3.us-west-2.amazonaws.com,
+     * or us-east-1 if the endpoint is not an AWS one or has no region.
+     */
+    static String getRegionOfEndpoint(String host) {
+        int colon = host.indexOf(':');
+        String domain = (colon < 0 ? host : host.substring(0, colon)).toLowerCase();
+        if (domain.endsWith(AWS_CN_DOMAIN)) {
+            domain = domain.substring(0, domain.length() - AWS_CN_DOMAIN.length());
+        } else if (domain.endsWith(AWS_DOMAIN)) {
+            domain = domain.substring(0, domain.length() - AWS_DOMAIN.length());
+        } else {
+            return DEFAULT_REGION;
+        }
+        // s3.<region>, s3.dualstack.<region> or the legacy s3-<region>
+        String label = domain.substring(domain.lastIndexOf('.') + 1);
+        if (label.startsWith("s3-")) {
+            label = label.substring("s3-".length());
+        }
+        if (label.isEmpty() || label.equals("s3") || label.equals("external-1")) {
+            return DEFAULT_REGION;
+        }
+        return label;
+    }
+
+    @Override
+    public List<ObjectStatus> list(String path) throws IOException {
+        S3Path s3Path = S3Path.parse(path);
+        List<ObjectStatus> result = Lists.newArrayList();
+        int wildcardIndex = firstWildcard(s3Path.key);
+        if (wildcardIndex < 0) {
+            // the same as the glob status of hadoop, the path itself is returned
+            ObjectStatus status = s3Path.key.isEmpty() ? null : head(s3Path);
+            if (status != null) {
+                result.add(status);
+            } else if (exists(path)) {
+                result.add(new ObjectStatus(s3Path.toString(), true, 0));
+            }
+            return result;
+        }
+
+        // list the matched directories level by level with delimiter '/', like the globber of hadoop,
+        // instead of listing all the objects under the directory of the first wildcard.
+        String[] components = s3Path.key.split("/");
+        // the key prefixes of the directories matched so far, "" is the root of the bucket
+        List<String> dirs = Lists.newArrayList("");
+        for (int level = 0; level < components.length && !dirs.isEmpty(); level++) {
+            String component = components[level];
+            boolean isLast = level == components.length - 1;
+            if (!isLast && firstWildcard(component) < 0) {
+                List<String> children = Lists.newArrayList();
+                for (String dir : dirs) {
+                    children.add(dir + component + "/");
+                }
+                dirs = children;
+                continue;
+            }
+
+            Pattern pattern = Pattern.compile(globToRegex(component));
+            String literalPrefix = getLiteralPrefix(component);
+            List<String> matchedDirs = Lists.newArrayList();
+            for (String dir : dirs) {
+                List<ObjectStatus> files = Lists.newArrayList();
+                List<String> subDirs = Lists.newArrayList();
+                listLevel(s3Path, dir + literalPrefix, files, subDirs);
+                for (String subDir : subDirs) {
+                    // the sub dir ends with '/'
+                    String name = subDir.substring(dir.length(), subDir.length() - 1);
+                    if (pattern.matcher(name).matches()) {
+                        matchedDirs.add(subDir);
+                    }
+                }
+                if (isLast) {
+                    for (ObjectStatus file : files) {
+                        String name = file.getPath().substring(s3Path.prefix().length() + dir.length());
+                        if (pattern.matcher(name).matches()) {
+                            result.add(file);
+                        }
+                    }
+                }
+            }
+            if (isLast) {
+                for (String dir : matchedDirs) {
+                    result.add(new ObjectStatus(s3Path.prefix() + dir.substring(0, dir.length() - 1), true, 0));
+                }
+            }
+            dirs = matchedDirs;
+        }
+        return result;
+    }
+
+    // the part of the path component before the first wildcard or escape
+    private static String getLiteralPrefix(String component) {
+        int end = firstWildcard(component);
+        int escape = component.indexOf('\\');
+        if (end < 0 || (escape >= 0 && escape < end)) {
+            end = escape;
+        }
+        return end < 0 ? component : component.substring(0, end);
+    }
+
+    // list the objects and the sub directories right under the directory of the prefix, with delimiter '/'.
+    // the sub directories are the key prefixes ending with '/'.
+    private void listLevel(S3Path s3Path, String prefix, List<ObjectStatus> files, List<String> subDirs)
+            throws IOException {
+        String continuationToken = null;
+        do {
+            SortedMap<String, String> query = new TreeMap<>();
+            query.put("list-type", "2");
+            query.put("prefix", prefix);
+            query.put("delimiter", "/");
+            if (continuationToken != null) {
+                query.put("continuation-token", continuationToken);
+            }
+            Document doc = withRetry("list " + s3Path.prefix() + prefix, () -> {
+                HttpURLConnection conn = request("GET", s3Path.bucket, "", query, Maps.newTreeMap());
+                try (InputStream in = checkResponse(conn, "list " + s3Path.prefix() + prefix)) {
+                    return parseXml(in);
+                } finally {
+                    conn.disconnect();
+                }
+            });
+
+            NodeList contents = doc.getElementsByTagName("Contents");
+            for (int i = 0; i < contents.getLength(); i++) {
+                Element content = (Element) contents.item(i);
+                String key = getChildText(content, "Key");
+                if (key.endsWith("/")) {
+                    // the empty object created as a directory
+                    continue;
+                }
+                long size = Long.parseLong(getChildText(content, "Size"));
+                files.add(new ObjectStatus(s3Path.prefix() + key, false, size));
+            }
+            NodeList commonPrefixes = doc.getElementsByTagName("CommonPrefixes");
+            for (int i = 0; i < commonPrefixes.getLength(); i++) {
+                subDirs.add(getChildText((Element) commonPrefixes.item(i), "Prefix"));
+            }
+            continuationToken = "true".equals(getChildText(doc.getDocumentElement(), "IsTruncated"))
+                    ? getChildText(doc.getDocumentElement(), "NextContinuationToken") : null;
+        } while (!Strings.isNullOrEmpty(continuationToken));
+        LOG.debug("list {} with prefix {}, got {} objects and {} dirs",
+                s3Path.prefix(), prefix, files.size(), subDirs.size());
+    }
+
+    @Override
+    public boolean exists(String path) throws IOException {
+        S3Path s3Path = S3Path.parse(path);
+        if (!s3Path.key.isEmpty() && head(s3Path) != null) {
+            return true;
+        }
+        String prefix = s3Path.key.isEmpty() || s3Path.key.endsWith("/") ? s3Path.key : s3Path.key + "/";
+        SortedMap<String, String> query = new TreeMap<>();
+        query.put("list-type", "2");
+        query.put("prefix", prefix);
+        query.put("max-keys", "1");
+        return withRetry("list " + path, () -> {
+            HttpURLConnection conn = request("GET", s3Path.bucket, "", query, Maps.newTreeMap());
+            try (InputStream in = checkResponse(conn, "list " + path)) {
+                return parseXml(in).getElementsByTagName("Contents").getLength() > 0;
+            } finally {
+                conn.disconnect();
+            }
+        });
+    }
+
+    // return null if the object does not exist
+    private ObjectStatus head(S3Path s3Path) throws IOException {
+        return withRetry("head " + s3Path, () -> {
+            HttpURLConnection conn = request("HEAD", s3Path.bucket, s3Path.key, Maps.newTreeMap(),
+                    Maps.newTreeMap());
+            try {
+                if (conn.getResponseCode() == HttpURLConnection.HTTP_NOT_FOUND) {
+                    return null;
+                }
+                checkResponse(conn, "head " + s3Path).close();
+                return new ObjectStatus(s3Path.toString(), false, conn.getContentLengthLong());
+            } finally {
+                conn.disconnect();
+            }
+        });
+    }
+
+    @Override
+    public void download(String path, File localFile) throws IOException {
+        S3Path s3Path = S3Path.parse(path);
+        withRetry("download " + path, () -> {
+            HttpURLConnection conn = request("GET", s3Path.bucket, s3Path.key, Maps.newTreeMap(),
+                    Maps.newTreeMap());
+            // the local file is truncated for each retry
+            try (InputStream in = checkResponse(conn, "download " + path);
+                    OutputStream out = new FileOutputStream(localFile)) {
+                copy(in, out);
+                return null;
+            } finally {
+                conn.disconnect();
+            }
+        });
+    }
+
+    @Override
+    public void upload(File localFile, String path) throws IOException {
+        put(S3Path.parse(path), () -> new FileInputStream(localFile), localFile.length(), Maps.newTreeMap());
+    }
+
+    @Override
+    public void upload(byte[] content, String path) throws IOException {
+        put(S3Path.parse(path), () -> new ByteArrayInputStream(content), content.length, Maps.newTreeMap());
+    }
+
+    // the content is opened again for each retry
+    private void put(S3Path s3Path, Request<InputStream> content, long length, SortedMap<String, String> headers)
+            throws IOException {
+        withRetry("put " + s3Path, () -> {
+            HttpURLConnection conn = request("PUT", s3Path.bucket, s3Path.key, Maps.newTreeMap(), headers);
+            try (InputStream in = content.execute()) {
+                conn.setDoOutput(true);
+                conn.setFixedLengthStreamingMode(length);
+                try (OutputStream out = conn.getOutputStream()) {
+                    copy(in, out);
+                }
+                checkResponse(conn, "put " + s3Path).close();
+                return null;
+            } finally {
+                conn.disconnect();
+            }
+        });
+    }
+
+    @Override
+    public void delete(String path) throws IOException {
+        S3Path s3Path = S3Path.parse(path);
+        withRetry("delete " + path, () -> {
+            HttpURLConnection conn = request("DELETE", s3Path.bucket, s3Path.key, Maps.newTreeMap(),
+                    Maps.newTreeMap());
+            try {
+                checkResponse(conn, "delete " + path).close();
+                return null;
+            } finally {
+                conn.disconnect();
+            }
+        });
+    }
+
+    // S3 has no rename, so the object is copied to the dest path and then deleted
+    @Override
+    public void rename(String srcPath, String destPath) throws IOException {
+        S3Path src = S3Path.parse(srcPath);
+        S3Path dest = S3Path.parse(destPath);
+        ObjectStatus status = head(src);
+        if (status == null) {
+            throw new IOException("failed to rename " + srcPath + ", it does not exist");
+        }
+        if (status.getSize() > maxCopySize) {
+            copyByParts(src, dest, status.getSize());
+        } else {
+            send("PUT", dest, Maps.newTreeMap(), copySourceHeaders(src), new byte[0],
+                    "copy " + src + " to " + dest);
+        }
+        // the source is deleted only if the copy succeed
+        delete(srcPath);
+    }
+
+    private void copyByParts(S3Path src, S3Path dest, long size) throws IOException {
+        SortedMap<String, String> query = new TreeMap<>();
+        query.put("uploads", "");
+        byte[] created = send("POST", dest, query, Maps.newTreeMap(), new byte[0],
+                "create multipart upload of " + dest);
+        String uploadId = getChildText(parseXml(new ByteArrayInputStream(created)).getDocumentElement(), "UploadId");
+        if (uploadId.isEmpty()) {
+            throw new IOException("failed to create multipart upload of " + dest + ", no upload id");
+        }
+        query = new TreeMap<>();
+        query.put("uploadId", uploadId);
+        try {
+            long partSize = Math.max(copyPartSize, (size + MAX_PART_NUM - 1) / MAX_PART_NUM);
+            StringBuilder parts = new StringBuilder("<CompleteMultipartUpload>");
+            int partNumber = 1;
+            for (long start = 0; start < size; start += partSize, partNumber++) {
+                SortedMap<String, String> partQuery = new TreeMap<>(query);
+                partQuery.put("partNumber", String.valueOf(partNumber));
+                SortedMap<String, String> headers = copySourceHeaders(src);
+                headers.put("x-amz-copy-source-range", "bytes=" + start + "-" + (Math.min(size, start + partSize) - 1));
+                byte[] copied = send("PUT", dest, partQuery, headers, new byte[0],
+                        "copy part " + partNumber + " of " + src + " to " + dest);
+                String etag = getChildText(parseXml(new ByteArrayInputStream(copied)).getDocumentElement(), "ETag");
+                parts.append("<Part><PartNumber>").append(partNumber).append("</PartNumber><ETag>")
+                        .append(etag).append("</ETag></Part>");
+            }
+            parts.append("</CompleteMultipartUpload>");
+            send("POST", dest, query, Maps.newTreeMap(), parts.toString().getBytes(StandardCharsets.UTF_8),
+                    "complete multipart upload of " + dest);
+        } catch (IOException e) {
+            try {
+                send("DELETE", dest, query, Maps.newTreeMap(), null, "abort multipart upload of " + dest);
+            } catch (IOException abortException) {
+                LOG.warn("failed to abort multipart upload {} of {}", uploadId, dest, abortException);
+            }
+            throw e;
+        }
+    }
+
+    private static SortedMap<String, String> copySourceHeaders(S3Path src) {
+        SortedMap<String, String> headers = new TreeMap<>();
+        headers.put("x-amz-copy-source", "/" + src.bucket + "/" + uriEncode(src.key, false));
+        return headers;
+    }
+
+    // for test
+    void setCopySizes(long maxCopySize, long copyPartSize) {
+        this.maxCopySize = maxCopySize;
+        this.copyPartSize = copyPartSize;
+    }
+
+    // send the request with the body if it is not null, and return the response body.
+    // a copy request may fail after the 200 status is sent, then the error is in the response body.
+    private byte[] send(String method, S3Path s3Path, SortedMap<String, String> query,
+                        SortedMap<String, String> headers, byte[] body, String operation) throws IOException {
+        return withRetry(operation, () -> {
+            HttpURLConnection conn = request(method, s3Path.bucket, s3Path.key, query, headers);
+            try {
+                if (body != null) {
+                    conn.setDoOutput(true);
+                    conn.setFixedLengthStreamingMode(body.length);
+                    try (OutputStream out = conn.getOutputStream()) {
+                        out.write(body);
+                    }
+                }
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                try (InputStream in = checkResponse(conn, operation)) {
+                    copy(in, out);
+                }
+                byte[] response = out.toByteArray();
+                checkErrorBody(response, operation);
+                return response;
+            } finally {
+                conn.disconnect();
+            }
+        });
+    }
+
+    private static void checkErrorBody(byte[] response, String operation) throws IOException {
+        if (response.length == 0) {
+            return;
+        }
+        Element root = parseXml(new ByteArrayInputStream(response)).getDocumentElement();
+        if (!root.getNodeName().equals("Error")) {
+            return;
+        }
+        String code = getChildText(root, "Code");
+        // the server errors are retried as the 5xx status
+        int httpCode = code.equals("SlowDown") ? 503 : code.equals("InternalError") ? 500
+                : HttpURLConnection.HTTP_OK;
+        throw new HttpStatusException("failed to " + operation + ", http code: " + httpCode + ", msg: "
+                + new String(response, StandardCharsets.UTF_8), httpCode);
+    }
+
+    private HttpURLConnection request(String method, String bucket, String key, SortedMap<String, String> query,
+                                      SortedMap<String, String> headers) throws IOException {
+        String requestHost = pathStyleAccess ? host : bucket + "." + host;
+        String canonicalUri = "/" + (pathStyleAccess ? bucket + "/" : "") + uriEncode(key, false);
+        StringBuilder canonicalQuery = new StringBuilder();
+        for (Map.Entry<String, String> entry : query.entrySet()) {
+            if (canonicalQuery.length() > 0) {
+                canonicalQuery.append('&');
+            }
+            canonicalQuery.append(uriEncode(entry.getKey(), true)).append('=')
+                    .append(uriEncode(entry.getValue(), true));
+        }
+
+        SortedMap<String, String> signedHeaders = new TreeMap<>(headers);
+        signedHeaders.put("host", requestHost);
+        signedHeaders.put("x-amz-content-sha256", UNSIGNED_PAYLOAD);
+        signedHeaders.put("x-amz-date", AMZ_DATE_FORMATTER.format(ZonedDateTime.now(ZoneOffset.UTC)));
+        if (!sessionToken.isEmpty()) {
+            signedHeaders.put("x-amz-security-token", sessionToken);
+        }
+        String authorization = sign(method, canonicalUri, canonicalQuery.toString(), signedHeaders,
+                UNSIGNED_PAYLOAD, accessKey, secretKey, region);
+
+        String url = protocol + "://" + requestHost + canonicalUri
+                + (canonicalQuery.length() > 0 ? "?" + canonicalQuery : "");
+        HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+        conn.setRequestMethod(method);
+        conn.setConnectTimeout(TIMEOUT_MS);
+        conn.setReadTimeout(TIMEOUT_MS);
+        for (Map.Entry<String, String> entry : signedHeaders.entrySet()) {
+            if (!entry.getKey().equals("host")) {
+                conn.setRequestProperty(entry.getKey(), entry.getValue());
+            }
+        }
+        conn.setRequestProperty("Authorization", authorization);
+        return conn;
+    }
+
+    private interface Request<T> {
+        T execute() throws IOException;
+    }
+
+    // execute the request, and retry it with exponential backoff if it fails by a server error,
+    // eg. 503 SlowDown, or a broken connection.
+    private static <T> T withRetry(String operation, Request<T> request) throws IOException {
+        for (int retry = 0; ; retry++) {
+            try {
+                return request.execute();
+            } catch (IOException e) {
+                if (retry >= MAX_RETRY_TIMES || !isRetryable(e)) {
+                    throw e;
+                }
+                long delayMs = RETRY_BASE_DELAY_MS << retry;
+                LOG.warn("failed to {}, retry after {} ms", operation, delayMs, e);
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("interrupted while retrying to " + operation, ie);
+                }
+            }
+        }
+    }
+
+    private static boolean isRetryable(IOException e) {
+        if (e instanceof HttpStatusException) {
+            return ((HttpStatusException) e).getHttpCode() / 100 == 5;
+        }
+        // connection reset or refused
+        return e instanceof SocketException;
+    }
+
+    // the request is responded with an error status
+    private static class HttpStatusException extends IOException {
+        private final int httpCode;
+
+        HttpStatusException(String message, int httpCode) {
+            super(message);
+            this.httpCode = httpCode;
+        }
+
+        int getHttpCode() {
+            return httpCode;
+        }
+    }
+
+    // return the input stream of the response body if the request succeed
+    private static InputStream checkResponse(HttpURLConnection conn, String operation) throws IOException {
+        int code = conn.getResponseCode();
+        if (code / 100 == 2) {
+            return conn.getInputStream();
+        }
+        String message = "";
+        InputStream err = conn.getErrorStream();
+        if (err != null) {
+            try (InputStream in = err) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                copy(in, out);
+                message = out.toString(StandardCharsets.UTF_8.name());
+            }
+        }
+        throw new HttpStatusException("failed to " + operation + ", http code: " + code + ", msg: " + message, code);
+    }
+
+    /**
+     * Return the Authorization header of the request signed by AWS signature version 4.
+     * The headers must contain host and x-amz-date, and the names must be in lower case.
+     */
+    static String sign(String method, String canonicalUri, String canonicalQuery, SortedMap<String, String> headers,
+                       String payloadHash, String accessKey, String secretKey, String region) {
+        StringBuilder canonicalHeaders = new StringBuilder();
+        for (Map.Entry<String, String> entry : headers.entrySet()) {
+            canonicalHeaders.append(entry.getKey()).append(':').append(entry.getValue().trim()).append('\n');
+        }
+        String signedHeaders = String.join(";", headers.keySet());
+        String canonicalRequest = method + "\n" + canonicalUri + "\n" + canonicalQuery + "\n"
+                + canonicalHeaders + "\n" + signedHeaders + "\n" + payloadHash;
+
+        String amzDate = headers.get("x-amz-date");
+        String date = amzDate.substring(0, 8);
+        String scope = date + "/" + region + "/" + SERVICE + "/aws4_request";
+        String stringToSign = ALGORITHM + "\n" + amzDate + "\n" + scope + "\n"
+                + hex(sha256(canonicalRequest.getBytes(StandardCharsets.UTF_8)));
+
+        byte[] key = hmacSha256(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), date);
+        key = hmacSha256(key, region);
+        key = hmacSha256(key, SERVICE);
+        key = hmacSha256(key, "aws4_request");
+        String signature = hex(hmacSha256(key, stringToSign));
+        return ALGORITHM + " Credential=" + accessKey + "/" + scope + ", SignedHeaders=" + signedHeaders
+                + ", Signature=" + signature;
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] hmacSha256(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] data) {
+        StringBuilder sb = new StringBuilder(data.length * 2);
+        for (byte b : data) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    // encode as the canonical request of AWS. '/' is kept in the object key, but encoded in the query.
+    static String uriEncode(String value, boolean encodeSlash) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || (c == '/' && !encodeSlash)) {
+                sb.append(c);
+            } else {
+                sb.append('%').append(Character.toUpperCase(Character.forDigit((b >> 4) & 0xF, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(b & 0xF, 16)));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static int firstWildcard(String key) {
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == '{') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // convert the glob of hadoop file system to regex, the wildcards do not match '/'
+    static String globToRegex(String glob) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        boolean inBrace = false;
+        boolean inBracket = false;
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (inBracket) {
+                if (c == ']') {
+                    inBracket = false;
+                } else if (c == '\\') {
+                    if (i + 1 >= glob.length()) {
+                        break;
+                    }
+                    sb.append(c);
+                    c = glob.charAt(++i);
+                }
+                sb.append(c);
+                continue;
+            }
+            switch (c) {
+                case '*':
+                    sb.append("[^/]*");
+                    break;
+                case '?':
+                    sb.append("[^/]");
+                    break;
+                case '[':
+                    inBracket = true;
+                    sb.append('[');
+                    if (i + 1 < glob.length() && (glob.charAt(i + 1) == '!' || glob.charAt(i + 1) == '^')) {
+                        sb.append('^');
+                        i++;
+                    }
+                    break;
+                case '{':
+                    inBrace = true;
+                    sb.append("(?:");
+                    break;
+                case '}':
+                    if (inBrace) {
+                        inBrace = false;
+                        sb.append(')');
+                    } else {
+                        sb.append("\\}");
+                    }
+                    break;
+                case ',':
+                    sb.append(inBrace ? "|" : ",");
+                    break;
+                case '\\':
+                    if (i + 1 < glob.length()) {
+                        sb.append(Pattern.quote(String.valueOf(glob.charAt(++i))));
+                    }
+                    break;
+                default:
+                    if ("().+^$|".indexOf(c) >= 0) {
+                        sb.append('\\');
+                    }
+                    sb.append(c);
+                    break;
+            }
+        }
+        if (inBracket) {
+            throw new IOException("illegal file pattern, unclosed character class: " + glob);
+        }
+        return sb.toString();
+    }
+
+    private static Document parseXml(InputStream in) throws IOException {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            return builder.parse(in);
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("failed to parse the response: " + e.getMessage(), e);
+        }
+    }
+
+    private static String getChildText(Element element, String name) {
+        NodeList children = element.getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            if (children.item(i) instanceof Element && name.equals(children.item(i).getNodeName())) {
+                return children.item(i).getTextContent();
+            }
+        }
+        return "";
+    }
+
+    private static void copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buf = new byte[BUFFER_SIZE];
+        int n;
+        while ((n = in.read(buf)) != -1) {
+            out.write(buf, 0, n);
+        }
+    }
+
+    // path of an object, eg. s3://bucket/path/to/object
+    private static class S3Path {
+        private final String scheme;
+        private final String bucket;
+        private final String key;
+
+        private S3Path(String scheme, String bucket, String key) {
+            this.scheme = scheme;
+            this.bucket = bucket;
+            this.key = key;
+        }
+
+        // the path is not parsed by URI, because it may have wildcards which are illegal in URI
+        static S3Path parse(String path) throws IOException {
+            int index = path.indexOf("://");
+            if (index <= 0) {
+                throw new IOException("invalid path: " + path);
+            }
+            String scheme = path.substring(0, index);
+            String rest = path.substring(index + 3);
+            int slash = rest.indexOf('/');
+            String bucket = slash < 0 ? rest : rest.substring(0, slash);
+            String key = slash < 0 ? "" : rest.substring(slash + 1);
+            if (bucket.isEmpty()) {
+                throw new IOException("no bucket in path: " + path);
+            }
+            return new S3Path(scheme, bucket, key);
+        }
+
+        // the path of the bucket, the path of an object is the prefix followed by the key
+        String prefix() {
+            return scheme + "://" + bucket + "/";
+        }
+
+        @Override
+        public String toString() {
+            return prefix() + key;
+        }
+    }
+}
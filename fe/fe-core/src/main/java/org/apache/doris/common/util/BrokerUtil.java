@@ -25,6 +25,9 @@ import org.apache.doris.common.ClientPool;
 import org.apache.doris.common.Config;
 import org.apache.doris.common.Pair;
 import org.apache.doris.common.UserException;
+import org.apache.doris.common.storage.ObjectStatus;
+import org.apache.doris.common.storage.ObjectStorage;
+import org.apache.doris.common.storage.ObjectStorageFactory;
 import org.apache.doris.service.FrontendOptions;
 import org.apache.doris.thrift.TBrokerCheckPathExistRequest;
 import org.apache.doris.thrift.TBrokerCheckPathExistResponse;
@@ -77,6 +80,23 @@ public class BrokerUtil {
      */
     public static void parseFile(String path, BrokerDesc brokerDesc, List<TBrokerFileStatus> fileStatuses)
             throws UserException {
+        ObjectStorage objectStorage = ObjectStorageFactory.create(path, brokerDesc.getProperties());
+        if (objectStorage != null) {
+            try {
+                for (ObjectStatus objectStatus : objectStorage.list(path)) {
+                    if (objectStatus.isDir()) {
+                        continue;
+                    }
+                    fileStatuses.add(new TBrokerFileStatus(objectStatus.getPath(), false, objectStatus.getSize(),
+                            true));
+                }
+            } catch (IOException e) {
+                LOG.warn("List path exception, path={}", path, e);
+                throw new UserException("List path failed. path=" + path + ", msg=" + e.getMessage());
+            }
+            return;
+        }
+
         TNetworkAddress address = getAddress(brokerDesc);
         TPaloBrokerService.Client client = borrowClient(address);
         boolean failed = true;
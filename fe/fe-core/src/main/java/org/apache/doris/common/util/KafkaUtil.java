@@ -23,6 +23,7 @@ import org.apache.doris.common.LoadException;
 import org.apache.doris.common.UserException;
 import org.apache.doris.proto.PKafkaLoadInfo;
 import org.apache.doris.proto.PKafkaMetaProxyRequest;
+import org.apache.doris.proto.PKafkaOffsetProxyRequest;
 import org.apache.doris.proto.PProxyRequest;
 import org.apache.doris.proto.PProxyResult;
 import org.apache.doris.proto.PStringPair;
@@ -33,6 +34,7 @@ import org.apache.doris.thrift.TNetworkAddress;
 import org.apache.doris.thrift.TStatusCode;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -99,5 +101,55 @@ public class KafkaUtil {
             }
         }
     }
-}
 
+    // Get the latest offsets, which are the offsets of the next messages to be produced, of the partitions.
+    public static Map<Integer, Long> getLatestOffsets(String brokerList, String topic,
+            Map<String, String> convertedCustomProperties, List<Integer> partitionIds) throws UserException {
+        try {
+            List<Long> backendIds = Catalog.getCurrentSystemInfo().getBackendIds(true);
+            if (backendIds.isEmpty()) {
+                throw new LoadException("Failed to get latest offsets. No alive backends");
+            }
+            Collections.shuffle(backendIds);
+            Backend be = Catalog.getCurrentSystemInfo().getBackend(backendIds.get(0));
+            TNetworkAddress address = new TNetworkAddress(be.getHost(), be.getBrpcPort());
+
+            // create request
+            PKafkaLoadInfo kafkaLoadInfo = new PKafkaLoadInfo();
+            kafkaLoadInfo.brokers = brokerList;
+            kafkaLoadInfo.topic = topic;
+            for (Map.Entry<String, String> entry : convertedCustomProperties.entrySet()) {
+                PStringPair pair = new PStringPair();
+                pair.key = entry.getKey();
+                pair.val = entry.getValue();
+                if (kafkaLoadInfo.properties == null) {
+                    kafkaLoadInfo.properties = Lists.newArrayList();
+                }
+                kafkaLoadInfo.properties.add(pair);
+            }
+            PKafkaOffsetProxyRequest offsetRequest = new PKafkaOffsetProxyRequest();
+            offsetRequest.kafka_info = kafkaLoadInfo;
+            offsetRequest.partition_ids = Lists.newArrayList(partitionIds);
+            PProxyRequest request = new PProxyRequest();
+            request.kafka_offset_request = offsetRequest;
+
+            // get info
+            Future<PProxyResult> future = BackendServiceProxy.getInstance().getInfo(address, request);
+            PProxyResult result = future.get(5, TimeUnit.SECONDS);
+            TStatusCode code = TStatusCode.findByValue(result.status.status_code);
+            if (code != TStatusCode.OK) {
+                throw new UserException("failed to get kafka latest offsets: " + result.status.error_msgs);
+            }
+            Map<Integer, Long> partitionIdToLatestOffset = Maps.newHashMap();
+            for (int i = 0; i < result.kafka_offset_result.partition_ids.size(); i++) {
+                partitionIdToLatestOffset.put(result.kafka_offset_result.partition_ids.get(i),
+                        result.kafka_offset_result.latest_offsets.get(i));
+            }
+            return partitionIdToLatestOffset;
+        } catch (Exception e) {
+            LOG.warn("failed to get latest offsets.", e);
+            throw new LoadException(
+                    "Failed to get latest offsets of kafka topic: " + topic + ". error: " + e.getMessage());
+        }
+    }
+}
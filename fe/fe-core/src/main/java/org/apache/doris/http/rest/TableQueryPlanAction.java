@@ -24,6 +24,7 @@ import org.apache.doris.analysis.TableName;
 import org.apache.doris.analysis.TableRef;
 import org.apache.doris.catalog.Catalog;
 import org.apache.doris.catalog.Database;
+import org.apache.doris.catalog.Replica;
 import org.apache.doris.catalog.Table;
 import org.apache.doris.cluster.ClusterNamespace;
 import org.apache.doris.common.DdlException;
@@ -58,6 +59,7 @@ import org.apache.logging.log4j.Logger;
 import org.apache.thrift.TException;
 import org.apache.thrift.TSerializer;
 import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.annotate.JsonSerialize;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -79,6 +81,10 @@ public class TableQueryPlanAction extends RestBaseAction {
 
     public static final Logger LOG = LogManager.getLogger(TableQueryPlanAction.class);
 
+    // the data size and row count of the tablets are returned only if the request parameter is true,
+    // because the old clients fail on the unknown fields
+    private static final String WITH_TABLET_SIZE_KEY = "with_tablet_size";
+
     public TableQueryPlanAction(ActionController controller) {
         super(controller);
     }
@@ -100,6 +106,7 @@ public class TableQueryPlanAction extends RestBaseAction {
         String dbName = request.getSingleParameter(DB_KEY);
         String tableName = request.getSingleParameter(TABLE_KEY);
         String postContent = request.getContent();
+        boolean withTabletSize = Boolean.parseBoolean(request.getSingleParameter(WITH_TABLET_SIZE_KEY));
         try {
             // may be these common validate logic should be moved to one base class
             if (Strings.isNullOrEmpty(dbName)
@@ -147,7 +154,7 @@ public class TableQueryPlanAction extends RestBaseAction {
                                                     + "is not a OlapTable");
                 }
                 // parse/analysis/plan the sql and acquire tablet distributions
-                handleQuery(ConnectContext.get(), fullDbName, tableName, sql, resultMap);
+                handleQuery(ConnectContext.get(), fullDbName, tableName, sql, withTabletSize, resultMap);
             } finally {
                 db.readUnlock();
             }
@@ -177,12 +184,13 @@ public class TableQueryPlanAction extends RestBaseAction {
      *
      * @param context context for analyzer
      * @param sql     the single table select statement
+     * @param withTabletSize whether to return the data size and row count of the tablets
      * @param result  the acquired results
      * @return
      * @throws DorisHttpException
      */
     private void handleQuery(ConnectContext context, String requestDb, String requestTable, String sql,
-                             Map<String, Object> result) throws DorisHttpException {
+                             boolean withTabletSize, Map<String, Object> result) throws DorisHttpException {
         // use SE to resolve sql
         StmtExecutor stmtExecutor = new StmtExecutor(context, new OriginStatement(sql, 0), false);
         try {
@@ -258,7 +266,7 @@ public class TableQueryPlanAction extends RestBaseAction {
 
         Map<Long, TTabletVersionInfo> tablet_info = new HashMap<>();
         // acquire resolved tablet distribution
-        Map<String, Node> tabletRoutings = assemblePrunedPartitions(scanRangeLocations);
+        Map<String, Node> tabletRoutings = assemblePrunedPartitions(scanRangeLocations, withTabletSize);
         tabletRoutings.forEach((tabletId, node) -> {
             long tablet = Long.parseLong(tabletId);
             tablet_info.put(tablet, new TTabletVersionInfo(tablet, node.version, node.versionHash, node.schemaHash));
@@ -283,9 +291,11 @@ public class TableQueryPlanAction extends RestBaseAction {
      * acquire all involved (already pruned) tablet routing
      *
      * @param scanRangeLocationsList
+     * @param withTabletSize whether to set the data size and row count of the tablets
      * @return
      */
-    private Map<String, Node> assemblePrunedPartitions(List<TScanRangeLocations> scanRangeLocationsList) {
+    private Map<String, Node> assemblePrunedPartitions(List<TScanRangeLocations> scanRangeLocationsList,
+                                                       boolean withTabletSize) {
         Map<String, Node> result = new HashMap<>();
         for (TScanRangeLocations scanRangeLocations : scanRangeLocationsList) {
             // only process palo(doris) scan range
@@ -295,18 +305,32 @@ public class TableQueryPlanAction extends RestBaseAction {
             for (TNetworkAddress address : scanRange.hosts) {
                 tabletRouting.addRouting(address.hostname + ":" + address.port);
             }
+            // the size of the tablet is used by the client to balance the data read by each task
+            if (withTabletSize) {
+                long dataSize = 0;
+                long rowCount = 0;
+                for (Replica replica : Catalog.getCurrentInvertedIndex().getReplicasByTabletId(scanRange.tablet_id)) {
+                    dataSize = Math.max(dataSize, replica.getDataSize());
+                    rowCount = Math.max(rowCount, replica.getRowCount());
+                }
+                tabletRouting.dataSize = dataSize;
+                tabletRouting.rowCount = rowCount;
+            }
             result.put(String.valueOf(scanRange.tablet_id), tabletRouting);
         }
         return result;
     }
 
-    // helper class for json transformation
+    // helper class for json transformation, the null fields are not serialized
+    @JsonSerialize(include = JsonSerialize.Inclusion.NON_NULL)
     final class Node {
         // ["host1:port1", "host2:port2", "host3:port3"]
         public List<String> routings = new ArrayList<>();
         public long version;
         public long versionHash;
         public int schemaHash;
+        public Long dataSize;
+        public Long rowCount;
 
         public Node(long version, long versionHash, int schemaHash) {
             this.version = version;
@@ -137,6 +137,8 @@ public class ExportJob implements Writable {
     private Table exportTable;
 
     private List<Coordinator> coordList = Lists.newArrayList();
+    // number of tablets exported by each coordinator, in the same order of coordList
+    private List<Integer> coordTabletNums = Lists.newArrayList();
 
     private AtomicInteger nextId = new AtomicInteger(0);
 
@@ -247,6 +249,7 @@ public class ExportJob implements Writable {
             PlanFragment fragment = genPlanFragment(exportTable.getType(), scanNode);
             scanNodes.add(scanNode);
             fragments.add(fragment);
+            coordTabletNums.add(1);
         } else {
             for (TScanRangeLocations tablet : tabletLocations) {
                 List<TScanRangeLocation> locations = tablet.getLocations();
@@ -260,8 +263,10 @@ public class ExportJob implements Writable {
                 OlapScanNode olapScanNode = null;
                 if (i + tabletNum <= size) {
                     olapScanNode = genOlapScanNodeByLocation(tabletLocations.subList(i, i + tabletNum));
+                    coordTabletNums.add(tabletNum);
                 } else {
                     olapScanNode = genOlapScanNodeByLocation(tabletLocations.subList(i, size));
+                    coordTabletNums.add(size - i);
                 }
                 PlanFragment fragment = genPlanFragment(exportTable.getType(), olapScanNode);
 
@@ -484,6 +489,10 @@ public class ExportJob implements Writable {
         return coordList;
     }
 
+    public List<Integer> getCoordTabletNums() {
+        return coordTabletNums;
+    }
+
     public List<TScanRangeLocations> getTabletLocations() {
         return tabletLocations;
     }
@@ -0,0 +1,462 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.load;
+
+import org.apache.doris.analysis.Analyzer;
+import org.apache.doris.analysis.Expr;
+import org.apache.doris.analysis.InsertSource;
+import org.apache.doris.analysis.InsertStmt;
+import org.apache.doris.analysis.InsertTarget;
+import org.apache.doris.analysis.LiteralExpr;
+import org.apache.doris.analysis.QueryStmt;
+import org.apache.doris.analysis.SelectStmt;
+import org.apache.doris.analysis.TableName;
+import org.apache.doris.analysis.UserIdentity;
+import org.apache.doris.analysis.ValueList;
+import org.apache.doris.catalog.Catalog;
+import org.apache.doris.catalog.Database;
+import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.catalog.Table;
+import org.apache.doris.common.AnalysisException;
+import org.apache.doris.common.Config;
+import org.apache.doris.common.ErrorCode;
+import org.apache.doris.common.ErrorReport;
+import org.apache.doris.common.MetaNotFoundException;
+import org.apache.doris.common.ThreadPoolManager;
+import org.apache.doris.common.UserException;
+import org.apache.doris.common.util.DebugUtil;
+import org.apache.doris.mysql.MysqlCommand;
+import org.apache.doris.mysql.privilege.PrivPredicate;
+import org.apache.doris.qe.ConnectContext;
+import org.apache.doris.qe.OriginStatement;
+import org.apache.doris.qe.QueryState.MysqlStateType;
+import org.apache.doris.qe.SessionVariable;
+import org.apache.doris.qe.StmtExecutor;
+import org.apache.doris.thrift.TUniqueId;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Commits the small INSERT ... VALUES of the same table in one transaction.
+ *
+ * Each insert joins the pending group of its target table, column list, user and session settings, and waits
+ * until the group is committed. A group is committed by one INSERT of all the rows of the group when
+ * Config.group_commit_interval_ms elapsed since the group was created, or when the rows of the group
+ * reach Config.group_commit_max_rows. So thousands of tiny inserts per second only begin and publish
+ * a few transactions, and the BE creates a few rowsets instead of thousands.
+ *
+ * Only inserts in strict mode are grouped, so the shared transaction either loads all the rows of the group
+ * or fails, and each insert can report its own rows as loaded. Each insert has its own label, which is
+ * recorded as a finished insert load so that it can be shown by SHOW LOAD. The info of the shared transaction
+ * is reported under 'groupCommit', because its label and txn id belong to the group rather than to the statement.
+ * If the shared transaction fails, each insert of the group is committed alone by its own thread, so that
+ * an insert with bad values does not fail the others, and does not wait for their commits.
+ *
+ * An insert which is not committed before its timeout is removed from its group, unless the group is
+ * already being committed. In that case it waits for the result of the commit instead of reporting a timeout.
+ */
+public class GroupCommitManager {
+    private static final Logger LOG = LogManager.getLogger(GroupCommitManager.class);
+
+    // group key -> the group which is waiting for more inserts
+    private final Map<GroupKey, Group> pendingGroups = Maps.newHashMap();
+
+    private ScheduledThreadPoolExecutor commitExecutor;
+
+    // Whether the insert can be committed together with others.
+    // Only inserts of literal values into an olap table in strict mode, without label, partitions,
+    // or ORDER BY and LIMIT of the values specified, are supported.
+    public boolean canGroupCommit(ConnectContext context, InsertStmt insertStmt) {
+        // rows filtered in non-strict mode can not be told apart between the inserts of a group
+        if (!context.getSessionVariable().getEnableInsertStrict()) {
+            return false;
+        }
+        if (insertStmt.isUserSpecifiedLabel() || insertStmt.getTargetPartitionNames() != null) {
+            return false;
+        }
+        QueryStmt queryStmt = insertStmt.getQueryStmt();
+        if (!(queryStmt instanceof SelectStmt) || queryStmt.isExplain()
+                || ((SelectStmt) queryStmt).getValueList() == null) {
+            return false;
+        }
+        if (queryStmt.hasWithClause() || queryStmt.hasOrderByClause() || queryStmt.hasLimit()
+                || queryStmt.hasOffset()) {
+            return false;
+        }
+        for (List<Expr> row : ((SelectStmt) queryStmt).getValueList().getRows()) {
+            for (Expr expr : row) {
+                if (!(expr instanceof LiteralExpr)) {
+                    return false;
+                }
+            }
+        }
+        try {
+            return getTargetTable(context, insertStmt) instanceof OlapTable;
+        } catch (AnalysisException e) {
+            // let the normal insert report the error
+            return false;
+        }
+    }
+
+    // Add the rows of the insert to the pending group and wait until the group is committed.
+    // The state of 'context' is set to the result of the shared transaction.
+    public void insert(ConnectContext context, InsertStmt insertStmt) throws UserException, InterruptedException {
+        Table table = getTargetTable(context, insertStmt);
+        String dbName = getFullDbName(context, insertStmt);
+        if (!Catalog.getCurrentCatalog().getAuth().checkTblPriv(context, dbName, table.getName(),
+                PrivPredicate.LOAD)) {
+            ErrorReport.reportAnalysisException(ErrorCode.ERR_TABLEACCESS_DENIED_ERROR, "LOAD",
+                    context.getQualifiedUser(), context.getRemoteIP(), table.getName());
+        }
+
+        PendingInsert pendingInsert = new PendingInsert(context,
+                ((SelectStmt) insertStmt.getQueryStmt()).getValueList().getRows());
+        GroupKey key = new GroupKey(context, dbName, table.getName(), insertStmt.getTargetColumnNames());
+        addToGroup(key, pendingInsert);
+
+        if (!awaitOrCancel(pendingInsert, getWaitTimeoutMs(context))) {
+            // the rows are removed from the group, they will not be committed
+            ErrorReport.reportDdlException(ErrorCode.ERR_EXECUTE_TIMEOUT);
+        }
+        if (pendingInsert.needRetry) {
+            // the group failed, commit the rows of this insert alone
+            commitInserts(key, Lists.newArrayList(pendingInsert));
+        }
+        if (pendingInsert.errMsg != null) {
+            context.getState().setError(pendingInsert.errMsg);
+            return;
+        }
+        String info = pendingInsert.info;
+        if (pendingInsert.isGrouped) {
+            // the label of the insert is not the one of the shared transaction, record it for SHOW LOAD
+            StringBuilder sb = new StringBuilder();
+            sb.append("{'label':'").append(pendingInsert.label).append("', 'groupCommit':").append(info);
+            sb.append(", 'groupedInserts':'").append(pendingInsert.numGroupedInserts).append("'");
+            try {
+                context.getCatalog().getLoadManager().recordFinishedLoadJob(pendingInsert.label, dbName,
+                        table.getId(), EtlJobType.INSERT, pendingInsert.createTime, "", null);
+            } catch (MetaNotFoundException e) {
+                LOG.warn("Record info of insert load with error {}", e.getMessage(), e);
+                sb.append(", 'err':'Record info of insert load with error ").append(e.getMessage()).append("'");
+            }
+            sb.append("}");
+            info = sb.toString();
+        }
+        // the insert is in strict mode, so all of its rows are loaded if the transaction succeeded
+        context.getState().setOk(pendingInsert.rows.size(), 0, info);
+    }
+
+    // The max time to wait for the group of an insert to be committed.
+    long getWaitTimeoutMs(ConnectContext context) {
+        return context.getSessionVariable().getQueryTimeoutS() * 1000L + Config.group_commit_interval_ms;
+    }
+
+    // Wait until the group of the insert is committed. Returns false if the insert is not committed within
+    // 'timeoutMs' and is removed from its group.
+    // If the group is already being committed, the insert can not be removed any more, so it waits until the
+    // commit finishes, which is bounded by the query timeout of the commit.
+    private boolean awaitOrCancel(PendingInsert pendingInsert, long timeoutMs) throws InterruptedException {
+        boolean interrupted = false;
+        try {
+            if (pendingInsert.done.await(timeoutMs, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+        if (cancel(pendingInsert)) {
+            if (interrupted) {
+                throw new InterruptedException("insert is interrupted before it is committed");
+            }
+            return false;
+        }
+        Uninterruptibles.awaitUninterruptibly(pendingInsert.done);
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return true;
+    }
+
+    // Remove the insert from its group if the group is not being committed yet.
+    private synchronized boolean cancel(PendingInsert pendingInsert) {
+        Group group = pendingInsert.group;
+        if (group.isCommitted) {
+            return false;
+        }
+        group.inserts.remove(pendingInsert);
+        group.numRows -= pendingInsert.rows.size();
+        if (group.inserts.isEmpty()) {
+            // nothing left to commit, the scheduled commit will skip the group
+            group.isCommitted = true;
+            if (pendingGroups.get(group.key) == group) {
+                pendingGroups.remove(group.key);
+            }
+        }
+        return true;
+    }
+
+    private synchronized void addToGroup(GroupKey key, PendingInsert pendingInsert) {
+        if (commitExecutor == null) {
+            commitExecutor = ThreadPoolManager.newDaemonScheduledThreadPool(Config.group_commit_thread_num,
+                    "group-commit-executor", false);
+        }
+        Group group = pendingGroups.get(key);
+        if (group == null) {
+            group = new Group(key);
+            pendingGroups.put(key, group);
+            Group newGroup = group;
+            commitExecutor.schedule(() -> commit(newGroup), Config.group_commit_interval_ms, TimeUnit.MILLISECONDS);
+        }
+        group.inserts.add(pendingInsert);
+        pendingInsert.group = group;
+        group.numRows += pendingInsert.rows.size();
+        if (group.numRows >= Config.group_commit_max_rows) {
+            // commit it now, the scheduled commit will find the group already committed
+            pendingGroups.remove(key);
+            Group fullGroup = group;
+            commitExecutor.execute(() -> commit(fullGroup));
+        }
+    }
+
+    private void commit(Group group) {
+        synchronized (this) {
+            if (group.isCommitted) {
+                return;
+            }
+            group.isCommitted = true;
+            if (pendingGroups.get(group.key) == group) {
+                pendingGroups.remove(group.key);
+            }
+        }
+
+        if (!commitInserts(group.key, group.inserts) && group.inserts.size() > 1) {
+            // each insert commits its rows alone in its own thread, so that the retries run concurrently
+            // and an insert does not wait for the retries of the others
+            LOG.info("failed to commit {} inserts of table {}.{} together, commit them one by one",
+                    group.inserts.size(), group.key.dbName, group.key.tblName);
+            for (PendingInsert pendingInsert : group.inserts) {
+                pendingInsert.needRetry = true;
+            }
+        }
+        for (PendingInsert pendingInsert : group.inserts) {
+            pendingInsert.done.countDown();
+        }
+    }
+
+    // Insert the rows of all 'inserts' in one transaction, and set the result to each insert.
+    // Returns false if the transaction failed.
+    private boolean commitInserts(GroupKey key, List<PendingInsert> inserts) {
+        PendingInsert first = inserts.get(0);
+        List<ArrayList<Expr>> rows = Lists.newArrayList();
+        for (PendingInsert pendingInsert : inserts) {
+            for (ArrayList<Expr> row : pendingInsert.rows) {
+                ArrayList<Expr> clonedRow = Lists.newArrayListWithCapacity(row.size());
+                for (Expr expr : row) {
+                    clonedRow.add(expr.clone());
+                }
+                rows.add(clonedRow);
+            }
+        }
+
+        ConnectContext context = new ConnectContext(null);
+        context.setCatalog(Catalog.getCurrentCatalog());
+        context.setCluster(key.cluster);
+        context.setDatabase(key.dbName);
+        context.setQualifiedUser(key.qualifiedUser);
+        context.setCurrentUserIdentity(key.userIdentity);
+        context.setCommand(MysqlCommand.COM_QUERY);
+        context.getSessionVariable().setEnableInsertStrict(true);
+        context.getSessionVariable().setTimeZone(key.timeZone);
+        context.getSessionVariable().setQueryTimeoutS(key.queryTimeoutS);
+        context.getSessionVariable().setMaxExecMemByte(key.maxExecMemByte);
+        context.getSessionVariable().setLoadMemLimit(key.loadMemLimit);
+        context.getSessionVariable().setResourceGroup(key.resourceGroup);
+        context.getState().reset();
+        // the insert committed alone is executed by the thread of its own connection
+        ConnectContext origContext = ConnectContext.get();
+        context.setThreadLocalInfo();
+
+        // an insert committed alone uses its own label
+        String label = inserts.size() == 1 ? first.label : null;
+        InsertStmt insertStmt = new InsertStmt(new InsertTarget(new TableName(null, key.tblName), null),
+                label, key.columnNames, new InsertSource(new SelectStmt(new ValueList(rows), null, null)), null);
+        insertStmt.setOrigStmt(new OriginStatement("INSERT INTO " + key.tblName + " VALUES "
+                + rows.size() + " rows of " + inserts.size() + " grouped inserts", 0));
+        String errMsg = null;
+        try {
+            executeInsert(context, insertStmt);
+            if (context.getState().getStateType() == MysqlStateType.ERR) {
+                errMsg = context.getState().getErrorMessage();
+            }
+        } catch (Throwable t) {
+            LOG.warn("failed to commit grouped inserts of table {}.{}", key.dbName, key.tblName, t);
+            errMsg = t.getMessage() == null ? "unknown reason" : t.getMessage();
+        } finally {
+            if (origContext != null) {
+                origContext.setThreadLocalInfo();
+            } else {
+                ConnectContext.remove();
+            }
+        }
+
+        if (errMsg != null && inserts.size() > 1) {
+            return false;
+        }
+        for (PendingInsert pendingInsert : inserts) {
+            pendingInsert.errMsg = errMsg;
+            // the label and txn id are the ones of the group if there are more than one insert
+            pendingInsert.info = context.getState().getInfoMessage();
+            pendingInsert.isGrouped = inserts.size() > 1;
+            pendingInsert.numGroupedInserts = inserts.size();
+        }
+        LOG.debug("commit {} grouped inserts of table {}.{}, label: {}, err: {}",
+                inserts.size(), key.dbName, key.tblName, insertStmt.getLabel(), errMsg);
+        return errMsg == null;
+    }
+
+    // Execute the insert of the grouped rows, the result is set to the state of 'context'.
+    void executeInsert(ConnectContext context, InsertStmt insertStmt) throws Exception {
+        new StmtExecutor(context, insertStmt).execute();
+    }
+
+    private static String getFullDbName(ConnectContext context, InsertStmt insertStmt) throws AnalysisException {
+        // do not analyze the table name of the insert, which is analyzed again if it is not group committed
+        TableName tableName = new TableName(insertStmt.getTblName().getDb(), insertStmt.getTblName().getTbl());
+        tableName.analyze(new Analyzer(context.getCatalog(), context));
+        return tableName.getDb();
+    }
+
+    private static Table getTargetTable(ConnectContext context, InsertStmt insertStmt) throws AnalysisException {
+        String dbName = getFullDbName(context, insertStmt);
+        Database db = context.getCatalog().getDb(dbName);
+        if (db == null) {
+            ErrorReport.reportAnalysisException(ErrorCode.ERR_BAD_DB_ERROR, dbName);
+        }
+        Table table = db.getTable(insertStmt.getTblName().getTbl());
+        if (table == null) {
+            ErrorReport.reportAnalysisException(ErrorCode.ERR_BAD_TABLE_ERROR, insertStmt.getTblName().getTbl());
+        }
+        return table;
+    }
+
+    private static class PendingInsert {
+        private final List<ArrayList<Expr>> rows;
+        private final String label;
+        private final long createTime = System.currentTimeMillis();
+        private final CountDownLatch done = new CountDownLatch(1);
+        // the group which the insert is added to, protected by the lock of GroupCommitManager
+        private Group group;
+        // set if the group failed, then the insert is committed alone
+        private volatile boolean needRetry = false;
+        // the result of the transaction which the rows are committed in
+        private volatile String info;
+        private volatile String errMsg;
+        private volatile boolean isGrouped = false;
+        private volatile int numGroupedInserts = 1;
+
+        public PendingInsert(ConnectContext context, List<ArrayList<Expr>> rows) {
+            this.rows = rows;
+            TUniqueId queryId = context.queryId();
+            this.label = "insert_" + (queryId != null ? DebugUtil.printId(queryId) : UUID.randomUUID().toString());
+        }
+    }
+
+    private static class Group {
+        private final GroupKey key;
+        private final List<PendingInsert> inserts = Lists.newArrayList();
+        private long numRows = 0;
+        private boolean isCommitted = false;
+
+        public Group(GroupKey key) {
+            this.key = key;
+        }
+    }
+
+    // The inserts of a group are executed as one statement, so they must have the same user, for the privileges
+    // and the audit, and the same session variables which the execution of an insert depends on.
+    private static class GroupKey {
+        private final String dbName;
+        private final String tblName;
+        // null if the columns are not specified
+        private final List<String> columnNames;
+        private final String cluster;
+        private final String qualifiedUser;
+        private final UserIdentity userIdentity;
+        private final String timeZone;
+        private final int queryTimeoutS;
+        private final long maxExecMemByte;
+        private final long loadMemLimit;
+        private final String resourceGroup;
+
+        public GroupKey(ConnectContext context, String dbName, String tblName, List<String> columnNames) {
+            this.dbName = dbName;
+            this.tblName = tblName;
+            this.columnNames = columnNames;
+            this.cluster = context.getClusterName();
+            this.qualifiedUser = context.getQualifiedUser();
+            this.userIdentity = context.getCurrentUserIdentity();
+            SessionVariable sessionVariable = context.getSessionVariable();
+            this.timeZone = sessionVariable.getTimeZone();
+            this.queryTimeoutS = sessionVariable.getQueryTimeoutS();
+            this.maxExecMemByte = sessionVariable.getMaxExecMemByte();
+            this.loadMemLimit = sessionVariable.getLoadMemLimit();
+            this.resourceGroup = sessionVariable.getResourceGroup();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof GroupKey)) {
+                return false;
+            }
+            GroupKey other = (GroupKey) obj;
+            return dbName.equals(other.dbName) && tblName.equals(other.tblName)
+                    && Objects.equals(columnNames, other.columnNames)
+                    && Objects.equals(cluster, other.cluster)
+                    && Objects.equals(qualifiedUser, other.qualifiedUser)
+                    && Objects.equals(userIdentity, other.userIdentity)
+                    && Objects.equals(timeZone, other.timeZone)
+                    && queryTimeoutS == other.queryTimeoutS
+                    && maxExecMemByte == other.maxExecMemByte
+                    && loadMemLimit == other.loadMemLimit
+                    && Objects.equals(resourceGroup, other.resourceGroup);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dbName, tblName, columnNames, cluster, qualifiedUser, userIdentity, timeZone,
+                    queryTimeoutS, maxExecMemByte, loadMemLimit, resourceGroup);
+        }
+    }
+}
@@ -102,6 +102,8 @@ public abstract class LoadJob extends AbstractTxnStateChangeCallback implements
     protected double maxFilterRatio = 0;
     protected boolean strictMode = false; // default is false
     protected String timezone = TimeUtils.DEFAULT_TIME_ZONE;
+    // number of broker scanners on each backend
+    protected int loadParallelism = Config.default_load_parallelism;
     @Deprecated
     protected boolean deleteFlag = false;
 
@@ -369,6 +371,14 @@ public abstract class LoadJob extends AbstractTxnStateChangeCallback implements
                 strictMode = Boolean.valueOf(properties.get(LoadStmt.STRICT_MODE));
             }
 
+            if (properties.containsKey(LoadStmt.LOAD_PARALLELISM)) {
+                try {
+                    loadParallelism = Integer.parseInt(properties.get(LoadStmt.LOAD_PARALLELISM));
+                } catch (NumberFormatException e) {
+                    throw new DdlException("Load parallelism is not INT", e);
+                }
+            }
+
             if (properties.containsKey(LoadStmt.TIMEZONE)) {
                 timezone = properties.get(LoadStmt.TIMEZONE);
             } else if (ConnectContext.get() != null) {
@@ -992,6 +1002,7 @@ public abstract class LoadJob extends AbstractTxnStateChangeCallback implements
             authorizationInfo.write(out);
         }
         Text.writeString(out, timezone);
+        out.writeInt(loadParallelism);
     }
 
     public void readFields(DataInput in) throws IOException {
@@ -1034,6 +1045,11 @@ public abstract class LoadJob extends AbstractTxnStateChangeCallback implements
         if (Catalog.getCurrentCatalogJournalVersion() >= FeMetaVersion.VERSION_61) {
             timezone = Text.readString(in);
         }
+        if (Catalog.getCurrentCatalogJournalVersion() >= FeMetaVersion.VERSION_92) {
+            loadParallelism = in.readInt();
+        } else {
+            loadParallelism = 1;
+        }
     }
 
     public void replayUpdateStateInfo(LoadJobStateUpdateInfo info) {
@@ -60,6 +60,7 @@ public class LoadLoadingTask extends LoadTask {
     private final String timezone;
     // timeout of load job, in seconds
     private final long timeoutS;
+    private final int loadParallelism;
 
     private LoadingTaskPlanner planner;
 
@@ -67,7 +68,7 @@ public class LoadLoadingTask extends LoadTask {
                            BrokerDesc brokerDesc, List<BrokerFileGroup> fileGroups,
                            long jobDeadlineMs, long execMemLimit, boolean strictMode,
                            long txnId, LoadTaskCallback callback, String timezone,
-                           long timeoutS) {
+                           long timeoutS, int loadParallelism) {
         super(callback);
         this.db = db;
         this.table = table;
@@ -81,11 +82,13 @@ public class LoadLoadingTask extends LoadTask {
         this.retryTime = 2; // 2 times is enough
         this.timezone = timezone;
         this.timeoutS = timeoutS;
+        this.loadParallelism = loadParallelism;
     }
 
     public void init(TUniqueId loadId, List<List<TBrokerFileStatus>> fileStatusList, int fileNum) throws UserException {
         this.loadId = loadId;
-        planner = new LoadingTaskPlanner(callback.getCallbackId(), txnId, db.getId(), table, brokerDesc, fileGroups, strictMode, timezone, this.timeoutS);
+        planner = new LoadingTaskPlanner(callback.getCallbackId(), txnId, db.getId(), table, brokerDesc, fileGroups,
+                strictMode, timezone, this.timeoutS, this.loadParallelism);
         planner.plan(loadId, fileStatusList, fileNum);
     }
 
@@ -70,6 +70,7 @@ import org.apache.doris.thrift.TBrokerRangeDesc;
 import org.apache.doris.thrift.TBrokerScanRange;
 import org.apache.doris.thrift.TBrokerScanRangeParams;
 import org.apache.doris.thrift.TDescriptorTable;
+import org.apache.doris.thrift.TEtlState;
 import org.apache.doris.thrift.TFileFormatType;
 import org.apache.doris.thrift.TFileType;
 import org.apache.doris.thrift.TNetworkAddress;
@@ -138,6 +139,8 @@ public class SparkLoadJob extends BulkLoadJob {
     private Set<Long> finishedReplicas = Sets.newHashSet();
     private Set<Long> quorumTablets = Sets.newHashSet();
     private Set<Long> fullTablets = Sets.newHashSet();
+    // times of resubmitting the failed etl job
+    private int etlRetryTimes = 0;
 
     // only for log replay
     public SparkLoadJob() {
@@ -191,9 +194,14 @@ public class SparkLoadJob extends BulkLoadJob {
 
     @Override
     protected void unprotectedExecuteJob() throws LoadException {
+        unprotectedSubmitPendingTask(null);
+    }
+
+    // resumeOutputPath is the output path of the failed etl job to resume, or null for a new etl job
+    private void unprotectedSubmitPendingTask(String resumeOutputPath) throws LoadException {
         // create pending task
         LoadTask task = new SparkLoadPendingTask(this, fileGroupAggInfo.getAggKeyToFileGroups(),
-                                                 sparkResource, brokerDesc);
+                                                 sparkResource, brokerDesc, resumeOutputPath);
         task.init();
         idToTasks.put(task.getSignature(), task);
         Catalog.getCurrentCatalog().getLoadTaskScheduler().submit(task);
@@ -265,11 +273,11 @@ public class SparkLoadJob extends BulkLoadJob {
 
     /**
      * Check the status of etl job regularly
-     * 1. RUNNING, update etl job progress
-     * 2. CANCELLED, cancel load job
+     * 1. RUNNING, update etl job progress and get the output files of the finished buckets
+     * 2. CANCELLED, resubmit the etl job to the same output path, or cancel load job if retried too many times
      * 3. FINISHED, get the etl output file paths, update job state to LOADING and log job update info
      *
-     * Send push tasks if job state changed to LOADING
+     * Send push tasks if job state changed to LOADING, or some buckets are finished during etl
      */
     public void updateEtlStatus() throws Exception {
         if (!checkState(JobState.ETL)) {
@@ -279,17 +287,28 @@ public class SparkLoadJob extends BulkLoadJob {
         // get etl status
         SparkEtlJobHandler handler = new SparkEtlJobHandler();
         EtlStatus status = handler.getEtlJobStatus(sparkLoadAppHandle, appId, id, etlOutputPath, sparkResource, brokerDesc);
+        // list the output files without holding the job lock
+        Map<String, Long> finishedFilePathToSize = null;
+        if (status.getState() == TEtlState.RUNNING && Config.enable_spark_load_early_push) {
+            finishedFilePathToSize = getFinishedEtlFilePaths(handler);
+        }
+        boolean hasNewFinishedBuckets = false;
         writeLock();
         try {
             switch (status.getState()) {
                 case RUNNING:
                     unprotectedUpdateEtlStatusInternal(status);
+                    hasNewFinishedBuckets = unprotectedUpdateFinishedBuckets(finishedFilePathToSize);
                     break;
                 case FINISHED:
                     unprotectedProcessEtlFinish(status, handler);
                     break;
                 case CANCELLED:
-                    throw new LoadException("spark etl job failed. msg: " + status.getFailMsg());
+                    if (etlRetryTimes >= Config.spark_load_etl_max_retry_times) {
+                        throw new LoadException("spark etl job failed. msg: " + status.getFailMsg());
+                    }
+                    unprotectedRetryEtl(status);
+                    break;
                 default:
                     LOG.warn("unknown etl state: {}", status.getState().name());
                     break;
@@ -298,12 +317,63 @@ public class SparkLoadJob extends BulkLoadJob {
             writeUnlock();
         }
 
+        if (hasNewFinishedBuckets && checkState(JobState.ETL)) {
+            // push the finished buckets while the other buckets are still running
+            submitPushTasks();
+        }
+
         if (checkState(JobState.LOADING)) {
             // create and send push tasks
             submitPushTasks();
         }
     }
 
+    private Map<String, Long> getFinishedEtlFilePaths(SparkEtlJobHandler handler) {
+        try {
+            return handler.getEtlFilePaths(etlOutputPath, brokerDesc);
+        } catch (Exception e) {
+            // the output path may not be created yet
+            LOG.debug("get finished etl files failed. job id: {}, output path: {}", id, etlOutputPath, e);
+            return null;
+        }
+    }
+
+    // An output file is renamed from a temporary file after all data of the bucket is written, and is
+    // never changed later, even if the etl job is resubmitted. So it can be pushed before the etl job finishes.
+    // Returns true if there are new finished buckets.
+    private boolean unprotectedUpdateFinishedBuckets(Map<String, Long> filePathToSize) throws Exception {
+        if (filePathToSize == null) {
+            return false;
+        }
+        int oldFileNum = tabletMetaToFileInfo.size();
+        unprotectedAddEtlOutputFiles(filePathToSize);
+        if (tabletMetaToFileInfo.size() == oldFileNum) {
+            return false;
+        }
+        unprotectedPrepareLoadingInfos();
+        LOG.info("spark etl job has {} finished buckets. job id: {}", tabletMetaToFileInfo.size(), id);
+        return true;
+    }
+
+    /**
+     * Resubmit the failed etl job with the same output path.
+     * The new etl job skips the buckets whose output files are already written by the failed one.
+     */
+    private void unprotectedRetryEtl(EtlStatus etlStatus) throws LoadException {
+        ++etlRetryTimes;
+        LOG.info(new LogBuilder(LogKey.LOAD_JOB, id)
+                         .add("app_id", appId)
+                         .add("retry_times", etlRetryTimes)
+                         .add("msg", "spark etl job failed and will be resubmitted. fail msg: "
+                                 + etlStatus.getFailMsg())
+                         .build());
+        // the failed etl job is not checked any more, and the state is changed to ETL again
+        // when the new etl job is submitted
+        state = JobState.PENDING;
+        sparkLoadAppHandle = new SparkLoadAppHandle();
+        unprotectedSubmitPendingTask(etlOutputPath);
+    }
+
     private void unprotectedUpdateEtlStatusInternal(EtlStatus etlStatus) {
         loadingStatus = etlStatus;
         progress = etlStatus.getProgress();
@@ -346,14 +416,7 @@ public class SparkLoadJob extends BulkLoadJob {
 
     private void unprotectedUpdateToLoadingState(EtlStatus etlStatus, Map<String, Long> filePathToSize) throws LoadException {
         try {
-            for (Map.Entry<String, Long> entry : filePathToSize.entrySet()) {
-                String filePath = entry.getKey();
-                if (!filePath.endsWith(EtlJobConfig.ETL_OUTPUT_FILE_FORMAT)) {
-                    continue;
-                }
-                String tabletMetaStr = EtlJobConfig.getTabletMetaStr(filePath);
-                tabletMetaToFileInfo.put(tabletMetaStr, Pair.create(filePath, entry.getValue()));
-            }
+            unprotectedAddEtlOutputFiles(filePathToSize);
 
             loadingStatus = etlStatus;
             progress = 0;
@@ -365,6 +428,17 @@ public class SparkLoadJob extends BulkLoadJob {
         }
     }
 
+    private void unprotectedAddEtlOutputFiles(Map<String, Long> filePathToSize) throws Exception {
+        for (Map.Entry<String, Long> entry : filePathToSize.entrySet()) {
+            String filePath = entry.getKey();
+            if (!filePath.endsWith(EtlJobConfig.ETL_OUTPUT_FILE_FORMAT)) {
+                continue;
+            }
+            String tabletMetaStr = EtlJobConfig.getTabletMetaStr(filePath);
+            tabletMetaToFileInfo.put(tabletMetaStr, Pair.create(filePath, entry.getValue()));
+        }
+    }
+
     private void unprotectedPrepareLoadingInfos() {
         for (String tabletMetaStr : tabletMetaToFileInfo.keySet()) {
             String[] fileNameArr = tabletMetaStr.split("\\.");
@@ -417,7 +491,9 @@ public class SparkLoadJob extends BulkLoadJob {
                 // check state is still loading. If state is cancelled or finished, return.
                 // if state is cancelled or finished and not return, this would throw all partitions have no load data exception,
                 // because tableToLoadPartitions was already cleaned up,
-                if (state != JobState.LOADING) {
+                // in etl state, only the tablets whose buckets are finished are pushed.
+                boolean isEtl = state == JobState.ETL;
+                if (state != JobState.LOADING && !isEtl) {
                     LOG.warn("job state is not loading. job id: {}, state: {}", id, state);
                     return totalTablets;
                 }
@@ -444,14 +520,20 @@ public class SparkLoadJob extends BulkLoadJob {
                         List<MaterializedIndex> indexes = partition.getMaterializedIndices(IndexExtState.ALL);
                         for (MaterializedIndex index : indexes) {
                             long indexId = index.getId();
+                            if (isEtl && !indexToSchemaHash.containsKey(indexId)) {
+                                continue;
+                            }
                             int schemaHash = indexToSchemaHash.get(indexId);
 
                             int bucket = 0;
                             for (Tablet tablet : index.getTablets()) {
                                 long tabletId = tablet.getId();
-                                totalTablets.add(tabletId);
                                 String tabletMetaStr = String.format("%d.%d.%d.%d.%d", tableId, partitionId,
                                                                      indexId, bucket++, schemaHash);
+                                if (isEtl && !tabletMetaToFileInfo.containsKey(tabletMetaStr)) {
+                                    continue;
+                                }
+                                totalTablets.add(tabletId);
                                 Set<Long> tabletAllReplicas = Sets.newHashSet();
                                 Set<Long> tabletFinishedReplicas = Sets.newHashSet();
                                 for (Replica replica : tablet.getReplicas()) {
@@ -528,7 +610,7 @@ public class SparkLoadJob extends BulkLoadJob {
                     AgentTaskExecutor.submit(batchTask);
                 }
 
-                if (!hasLoadPartitions) {
+                if (!hasLoadPartitions && !isEtl) {
                     String errMsg = new LogBuilder(LogKey.LOAD_JOB, id)
                             .add("database_id", dbId)
                             .add("label", label)
@@ -84,10 +84,18 @@ public class SparkLoadPendingTask extends LoadTask {
     private final long transactionId;
     private EtlJobConfig etlJobConfig;
     private SparkLoadAppHandle sparkLoadAppHandle;
+    // output path of the failed etl job to resume, null if this is the first etl job of the load job
+    private final String resumeOutputPath;
 
     public SparkLoadPendingTask(SparkLoadJob loadTaskCallback,
                                 Map<FileGroupAggKey, List<BrokerFileGroup>> aggKeyToBrokerFileGroups,
                                 SparkResource resource, BrokerDesc brokerDesc) {
+        this(loadTaskCallback, aggKeyToBrokerFileGroups, resource, brokerDesc, null);
+    }
+
+    public SparkLoadPendingTask(SparkLoadJob loadTaskCallback,
+                                Map<FileGroupAggKey, List<BrokerFileGroup>> aggKeyToBrokerFileGroups,
+                                SparkResource resource, BrokerDesc brokerDesc, String resumeOutputPath) {
         super(loadTaskCallback);
         this.retryTime = 3;
         this.attachment = new SparkPendingTaskAttachment(signature);
@@ -100,6 +108,7 @@ public class SparkLoadPendingTask extends LoadTask {
         this.transactionId = loadTaskCallback.getTransactionId();
         this.sparkLoadAppHandle = loadTaskCallback.getHandle();
         this.failMsg = new FailMsg(FailMsg.CancelType.ETL_SUBMIT_FAIL);
+        this.resumeOutputPath = resumeOutputPath;
     }
 
     @Override
@@ -110,8 +119,13 @@ public class SparkLoadPendingTask extends LoadTask {
 
     private void submitEtlJob() throws LoadException {
         SparkPendingTaskAttachment sparkAttachment = (SparkPendingTaskAttachment) attachment;
-        // retry different output path
-        etlJobConfig.outputPath = EtlJobConfig.getOutputPath(resource.getWorkingDir(), dbId, loadLabel, signature);
+        if (resumeOutputPath == null) {
+            // retry different output path
+            etlJobConfig.outputPath = EtlJobConfig.getOutputPath(resource.getWorkingDir(), dbId, loadLabel, signature);
+        } else {
+            // keep the output path, so that the buckets finished by the failed etl job are skipped
+            etlJobConfig.outputPath = resumeOutputPath;
+        }
         sparkAttachment.setOutputPath(etlJobConfig.outputPath);
 
         // handler submit etl job
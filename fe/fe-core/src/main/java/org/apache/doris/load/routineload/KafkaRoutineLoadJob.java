@@ -83,6 +83,15 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
     private Map<String, String> customProperties = Maps.newHashMap();
     private Map<String, String> convertedCustomProperties = Maps.newHashMap();
 
+    // the following are not persisted, they are collected again after FE restarts.
+    // partition id -> number of messages not consumed yet (latest offset - next offset to be consumed)
+    // it is replaced as a whole by updateSchedulingInfo(), which fetches the latest offsets without the job lock.
+    private volatile Map<Integer, Long> partitionIdToLag = Maps.newConcurrentMap();
+    // partition id -> messages consumed per second by the last committed task
+    private Map<Integer, Double> partitionIdToConsumeRate = Maps.newConcurrentMap();
+    // only accessed by the thread which updates the jobs
+    private long lastLagUpdateTimeMs = 0;
+
     public KafkaRoutineLoadJob() {
         // for serialization, id is dummy
         super(-1, LoadDataSourceType.KAFKA);
@@ -153,14 +162,11 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
         try {
             if (state == JobState.NEED_SCHEDULE) {
                 // divide kafkaPartitions into tasks
-                for (int i = 0; i < currentConcurrentTaskNum; i++) {
+                for (List<Integer> taskPartitions : assignPartitions(currentConcurrentTaskNum)) {
                     Map<Integer, Long> taskKafkaProgress = Maps.newHashMap();
-                    for (int j = 0; j < currentKafkaPartitions.size(); j++) {
-                        if (j % currentConcurrentTaskNum == i) {
-                            int kafkaPartition = currentKafkaPartitions.get(j);
-                            taskKafkaProgress.put(kafkaPartition,
-                                    ((KafkaProgress) progress).getOffsetByPartition(kafkaPartition));
-                        }
+                    for (int kafkaPartition : taskPartitions) {
+                        taskKafkaProgress.put(kafkaPartition,
+                                ((KafkaProgress) progress).getOffsetByPartition(kafkaPartition));
                     }
                     KafkaTaskInfo kafkaTaskInfo = new KafkaTaskInfo(UUID.randomUUID(), id, clusterName,
                             maxBatchIntervalS * 2 * 1000, taskKafkaProgress);
@@ -181,6 +187,70 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
         }
     }
 
+    // Assign the current kafka partitions to 'taskNum' tasks.
+    // If the lags of all partitions are known, the partitions are assigned in descending order of their lags,
+    // each to the task with the least total lag (and then the fewest partitions), so that the tasks
+    // have similar amount of messages to consume. Otherwise the partitions are assigned round-robin.
+    private List<List<Integer>> assignPartitions(int taskNum) {
+        List<List<Integer>> tasksPartitions = Lists.newArrayListWithCapacity(taskNum);
+        for (int i = 0; i < taskNum; i++) {
+            tasksPartitions.add(Lists.newArrayList());
+        }
+        Map<Integer, Long> lags = getPartitionLags();
+        if (lags == null) {
+            for (int j = 0; j < currentKafkaPartitions.size(); j++) {
+                tasksPartitions.get(j % taskNum).add(currentKafkaPartitions.get(j));
+            }
+            return tasksPartitions;
+        }
+
+        List<Integer> sortedPartitions = Lists.newArrayList(currentKafkaPartitions);
+        sortedPartitions.sort((p1, p2) -> Long.compare(lags.get(p2), lags.get(p1)));
+        long[] taskLags = new long[taskNum];
+        for (int kafkaPartition : sortedPartitions) {
+            int minIdx = 0;
+            for (int i = 1; i < taskNum; i++) {
+                if (taskLags[i] < taskLags[minIdx] || (taskLags[i] == taskLags[minIdx]
+                        && tasksPartitions.get(i).size() < tasksPartitions.get(minIdx).size())) {
+                    minIdx = i;
+                }
+            }
+            tasksPartitions.get(minIdx).add(kafkaPartition);
+            taskLags[minIdx] += lags.get(kafkaPartition);
+        }
+        return tasksPartitions;
+    }
+
+    // Return the lags of the current kafka partitions, or null if the lag of any partition is unknown.
+    private Map<Integer, Long> getPartitionLags() {
+        Map<Integer, Long> lags = Maps.newHashMap();
+        for (int kafkaPartition : currentKafkaPartitions) {
+            Long lag = partitionIdToLag.get(kafkaPartition);
+            if (lag == null) {
+                return null;
+            }
+            lags.put(kafkaPartition, lag);
+        }
+        return lags;
+    }
+
+    // Return the lags of the kafka partitions which are known, for the metrics.
+    public Map<Integer, Long> getPartitionIdToLag() {
+        return Collections.unmodifiableMap(partitionIdToLag);
+    }
+
+    // Return the total lag of the current kafka partitions, or -1 if it is unknown.
+    public long getTotalLag() {
+        Map<Integer, Long> lags = getPartitionLags();
+        if (lags == null) {
+            return -1;
+        }
+        return lags.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    // The lags only decide how the partitions are assigned to the tasks, not the number of tasks.
+    // Otherwise the number of tasks would follow the lags up and down, and each change would
+    // reschedule the job and abort the running tasks.
     @Override
     public int calculateCurrentConcurrentTaskNum() throws MetaNotFoundException {
         SystemInfoService systemInfoService = Catalog.getCurrentSystemInfo();
@@ -231,9 +301,30 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
     @Override
     protected void updateProgress(RLTaskTxnCommitAttachment attachment) throws UserException {
         super.updateProgress(attachment);
+        updateConsumeRate(attachment);
         this.progress.update(attachment.getProgress());
     }
 
+    // Calculate the consume rate of the partitions of the committed task, and deduct the consumed
+    // messages from the lags, so that the lags are roughly correct until they are fetched from kafka again.
+    // Must be called before the progress is updated.
+    private void updateConsumeRate(RLTaskTxnCommitAttachment attachment) {
+        KafkaProgress committedProgress = (KafkaProgress) attachment.getProgress();
+        long executionTimeMs = attachment.getTaskExecutionTimeMs();
+        for (int kafkaPartition : currentKafkaPartitions) {
+            Long committedOffset = committedProgress.getOffsetByPartition(kafkaPartition);
+            Long nextOffset = ((KafkaProgress) progress).getOffsetByPartition(kafkaPartition);
+            if (committedOffset == null || nextOffset == null || nextOffset < 0) {
+                continue;
+            }
+            long consumed = Math.max(0, committedOffset + 1 - nextOffset);
+            if (executionTimeMs > 0) {
+                partitionIdToConsumeRate.put(kafkaPartition, consumed * 1000.0 / executionTimeMs);
+            }
+            partitionIdToLag.computeIfPresent(kafkaPartition, (k, lag) -> Math.max(0, lag - consumed));
+        }
+    }
+
     @Override
     protected void replayUpdateProgress(RLTaskTxnCommitAttachment attachment) {
         super.replayUpdateProgress(attachment);
@@ -317,6 +408,68 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
         }
     }
 
+    // Fetch the latest offsets of the current kafka partitions to update their lags,
+    // at most once every routine_load_lag_update_interval_second.
+    // The offsets are fetched by RPC without holding the lock of the job, and the lags are published at once.
+    @Override
+    protected void updateSchedulingInfo() {
+        long now = System.currentTimeMillis();
+        if (now - lastLagUpdateTimeMs < Config.routine_load_lag_update_interval_second * 1000L) {
+            return;
+        }
+        lastLagUpdateTimeMs = now;
+
+        List<Integer> kafkaPartitions;
+        Map<String, String> kafkaProperties;
+        // the write lock is needed because the converted properties may be built here
+        writeLock();
+        try {
+            if (state != JobState.RUNNING && state != JobState.NEED_SCHEDULE) {
+                return;
+            }
+            kafkaPartitions = Lists.newArrayList(currentKafkaPartitions);
+            convertCustomProperties(false);
+            kafkaProperties = Maps.newHashMap(convertedCustomProperties);
+        } catch (DdlException e) {
+            LOG.warn(new LogBuilder(LogKey.ROUTINE_LOAD_JOB, id)
+                    .add("error_msg", "failed to convert kafka properties: " + e.getMessage())
+                    .build());
+            return;
+        } finally {
+            writeUnlock();
+        }
+
+        Map<Integer, Long> latestOffsets;
+        try {
+            latestOffsets = KafkaUtil.getLatestOffsets(brokerList, topic, kafkaProperties, kafkaPartitions);
+        } catch (UserException e) {
+            LOG.warn(new LogBuilder(LogKey.ROUTINE_LOAD_JOB, id)
+                    .add("error_msg", "failed to get latest offsets of kafka partitions: " + e.getMessage())
+                    .build());
+            return;
+        }
+
+        Map<Integer, Long> lags = Maps.newConcurrentMap();
+        readLock();
+        try {
+            for (Map.Entry<Integer, Long> entry : latestOffsets.entrySet()) {
+                Long nextOffset = ((KafkaProgress) progress).getOffsetByPartition(entry.getKey());
+                long lag;
+                if (nextOffset == null || nextOffset == KafkaProgress.OFFSET_END_VAL) {
+                    lag = 0;
+                } else if (nextOffset == KafkaProgress.OFFSET_BEGINNING_VAL) {
+                    lag = entry.getValue();
+                } else {
+                    lag = Math.max(0, entry.getValue() - nextOffset);
+                }
+                lags.put(entry.getKey(), lag);
+            }
+        } finally {
+            readUnlock();
+        }
+        partitionIdToLag = lags;
+    }
+
     @Override
     protected String getStatistic() {
         Map<String, Object> summary = Maps.newHashMap();
@@ -330,6 +483,8 @@ public class KafkaRoutineLoadJob extends RoutineLoadJob {
         summary.put("loadRowsRate", Long.valueOf((totalRows - errorRows - unselectedRows) / totalTaskExcutionTimeMs * 1000));
         summary.put("committedTaskNum", Long.valueOf(committedTaskNum));
         summary.put("abortedTaskNum", Long.valueOf(abortedTaskNum));
+        summary.put("partitionLag", partitionIdToLag);
+        summary.put("partitionConsumeRate", partitionIdToConsumeRate);
         Gson gson = new GsonBuilder().disableHtmlEscaping().create();
         return gson.toJson(summary);
     }
@@ -66,6 +66,7 @@ import org.apache.doris.thrift.TFileFormatType;
 import org.apache.doris.thrift.TFileType;
 import org.apache.doris.thrift.TUniqueId;
 import org.apache.doris.transaction.AbstractTxnStateChangeCallback;
+import org.apache.doris.transaction.GlobalTransactionMgr;
 import org.apache.doris.transaction.TransactionException;
 import org.apache.doris.transaction.TransactionState;
 import org.apache.doris.transaction.TransactionStatus;
@@ -75,6 +76,7 @@ import com.google.common.base.Strings;
 import com.google.common.collect.EvictingQueue;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import org.apache.logging.log4j.LogManager;
@@ -89,6 +91,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -232,6 +235,9 @@ public abstract class RoutineLoadJob extends AbstractTxnStateChangeCallback impl
 
     // The tasks belong to this job
     protected List<RoutineLoadTaskInfo> routineLoadTaskInfoList = Lists.newArrayList();
+    // the COMMITTED txns whose tasks have been renewed before they are VISIBLE, in pipelined mode.
+    // not persisted. an id is removed when the txn is VISIBLE or aborted, or by unprotectPrunePipelinedTxns().
+    private Set<Long> pipelinedTxnIds = Sets.newHashSet();
 
     // stream load planer will be initialized during job schedule
     protected StreamLoadPlanner planner;
@@ -908,6 +914,11 @@ public abstract class RoutineLoadJob extends AbstractTxnStateChangeCallback impl
         
         writeLock();
         try {
+            if (pipelinedTxnIds.remove(txnState.getTransactionId())) {
+                // the task has been renewed when the txn was COMMITTED
+                return;
+            }
+
             if (state != JobState.RUNNING) {
                 // job is not running, nothing need to be done
                 return;
@@ -960,6 +971,7 @@ public abstract class RoutineLoadJob extends AbstractTxnStateChangeCallback impl
         long taskBeId = -1L;
         try {
             if (txnOperated) {
+                pipelinedTxnIds.remove(txnState.getTransactionId());
                 // step0: find task in job
                 Optional<RoutineLoadTaskInfo> routineLoadTaskInfoOptional = routineLoadTaskInfoList.stream().filter(
                         entity -> entity.getTxnId() == txnState.getTransactionId()).findFirst();
@@ -1055,10 +1067,35 @@ public abstract class RoutineLoadJob extends AbstractTxnStateChangeCallback impl
             } else if (txnStatus == TransactionStatus.COMMITTED) {
                 // this txn is just COMMITTED, create new task when the this txn is VISIBLE
                 // or if publish version task has some error, there will be lots of COMMITTED txns in GlobalTransactionMgr
+                //
+                // in pipelined mode, the new task is created right now, so that it consumes while this txn
+                // is being published. But the txns waiting to be VISIBLE are no more than the tasks,
+                // otherwise the new task still waits for this txn to be VISIBLE.
+                if (Config.enable_routine_load_task_pipeline) {
+                    unprotectPrunePipelinedTxns();
+                }
+                if (Config.enable_routine_load_task_pipeline
+                        && pipelinedTxnIds.size() < routineLoadTaskInfoList.size()) {
+                    pipelinedTxnIds.add(txnState.getTransactionId());
+                    RoutineLoadTaskInfo newRoutineLoadTaskInfo = unprotectRenewTask(routineLoadTaskInfo);
+                    Catalog.getCurrentCatalog().getRoutineLoadTaskScheduler()
+                            .addPipelinedTaskInQueue(newRoutineLoadTaskInfo);
+                }
             }
         }
     }
 
+    // Remove the pipelined txns which are not COMMITTED any more but were not seen by afterVisible() or
+    // afterAborted(), such as the ones removed from the txn manager. Otherwise they would be counted forever
+    // and the pipeline would be disabled.
+    private void unprotectPrunePipelinedTxns() {
+        GlobalTransactionMgr globalTransactionMgr = Catalog.getCurrentGlobalTransactionMgr();
+        pipelinedTxnIds.removeIf(txnId -> {
+            TransactionState txnState = globalTransactionMgr.getTransactionState(dbId, txnId);
+            return txnState == null || txnState.getTransactionStatus() != TransactionStatus.COMMITTED;
+        });
+    }
+
     protected static void unprotectedCheckMeta(Database db, String tblName, RoutineLoadDesc routineLoadDesc)
             throws UserException {
         Table table = db.getTable(tblName);
@@ -1216,6 +1253,8 @@ public abstract class RoutineLoadJob extends AbstractTxnStateChangeCallback impl
             }
         }
 
+        updateSchedulingInfo();
+
         // check if partition has been changed
         writeLock();
         try {
@@ -1234,6 +1273,11 @@ public abstract class RoutineLoadJob extends AbstractTxnStateChangeCallback impl
     protected void unprotectUpdateProgress() {
     }
 
+    // Update the info used to schedule the tasks, such as the lags of the data source.
+    // It is called without the lock of the job, so it may fetch the info by RPC.
+    protected void updateSchedulingInfo() {
+    }
+
     protected boolean unprotectNeedReschedule() throws UserException {
         return false;
     }
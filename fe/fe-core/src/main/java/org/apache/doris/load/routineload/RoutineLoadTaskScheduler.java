@@ -44,7 +44,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.List;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.LinkedBlockingDeque;
 
 /**
  * Routine load task scheduler is a function which allocate task to be.
@@ -53,6 +53,9 @@ import java.util.concurrent.LinkedBlockingQueue;
  * Step3: take a task from queue and schedule this task
  *
  * The scheduler will be blocked in step3 till the queue receive a new task
+ *
+ * The pipelined tasks, which are renewed when the txns of their previous tasks are COMMITTED,
+ * are put at the head of the queue, so that they are scheduled before the others.
  */
 public class RoutineLoadTaskScheduler extends MasterDaemon {
 
@@ -62,7 +65,9 @@ public class RoutineLoadTaskScheduler extends MasterDaemon {
     private static final long SLOT_FULL_SLEEP_MS = 10000; // 10s
 
     private RoutineLoadManager routineLoadManager;
-    private LinkedBlockingQueue<RoutineLoadTaskInfo> needScheduleTasksQueue = Queues.newLinkedBlockingQueue();
+    private LinkedBlockingDeque<RoutineLoadTaskInfo> needScheduleTasksQueue = Queues.newLinkedBlockingDeque();
+    // notified when a pipelined task is added, to wake up the scheduler waiting for idle slots
+    private final Object slotWaitLock = new Object();
 
     private long lastBackendSlotUpdateTime = -1;
 
@@ -93,7 +98,9 @@ public class RoutineLoadTaskScheduler extends MasterDaemon {
         int idleSlotNum = routineLoadManager.getClusterIdleSlotNum();
         // scheduler will be blocked when there is no slot for task in cluster
         if (idleSlotNum == 0) {
-            Thread.sleep(SLOT_FULL_SLEEP_MS);
+            synchronized (slotWaitLock) {
+                slotWaitLock.wait(SLOT_FULL_SLEEP_MS);
+            }
             return;
         }
 
@@ -235,6 +242,17 @@ public class RoutineLoadTaskScheduler extends MasterDaemon {
         LOG.debug("total tasks num in routine load task queue: {}", needScheduleTasksQueue.size());
     }
 
+    // Add a task renewed before the txn of its previous task is VISIBLE.
+    // The slot of the previous task is released already, so the task is scheduled at once,
+    // and most likely to the BE of its previous task.
+    public void addPipelinedTaskInQueue(RoutineLoadTaskInfo routineLoadTaskInfo) {
+        needScheduleTasksQueue.addFirst(routineLoadTaskInfo);
+        synchronized (slotWaitLock) {
+            slotWaitLock.notifyAll();
+        }
+        LOG.debug("add pipelined task {} in routine load task queue", DebugUtil.printId(routineLoadTaskInfo.getId()));
+    }
+
     private void submitTask(long beId, TRoutineLoadTask tTask) throws LoadException {
         Backend backend = Catalog.getCurrentSystemInfo().getBackend(beId);
         if (backend == null) {
@@ -346,6 +346,11 @@ public class ReportHandler extends Daemon {
 
             // to escape sending duplicate agent task to be
             if (task.shouldResend(taskReportTime)) {
+                // the upload and download tasks of backup and restore jobs are resent within the per backend window
+                if ((task.getTaskType() == TTaskType.UPLOAD || task.getTaskType() == TTaskType.DOWNLOAD)
+                        && Catalog.getCurrentCatalog().getBackupHandler().resendTransferTask(task)) {
+                    continue;
+                }
                 batchTask.addTask(task);
             }
 
@@ -26,6 +26,8 @@ import org.apache.doris.common.ThreadPoolManager;
 import org.apache.doris.load.EtlJobType;
 import org.apache.doris.load.loadv2.JobState;
 import org.apache.doris.load.loadv2.LoadManager;
+import org.apache.doris.load.routineload.KafkaRoutineLoadJob;
+import org.apache.doris.load.routineload.RoutineLoadJob;
 import org.apache.doris.metric.Metric.MetricUnit;
 import org.apache.doris.monitor.jvm.JvmService;
 import org.apache.doris.monitor.jvm.JvmStats;
@@ -36,6 +38,7 @@ import org.apache.doris.system.SystemInfoService;
 
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.Sets;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -57,6 +60,7 @@ public final class MetricRepo {
 
     public static final String TABLET_NUM = "tablet_num";
     public static final String TABLET_MAX_COMPACTION_SCORE = "tablet_max_compaction_score";
+    public static final String ROUTINE_LOAD_PARTITION_LAG = "routine_load_partition_lag";
 
     public static LongCounterMetric COUNTER_REQUEST_ALL;
     public static LongCounterMetric COUNTER_QUERY_ALL;
@@ -83,6 +87,11 @@ public final class MetricRepo {
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_ROWS;
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_RECEIVED_BYTES;
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_ERROR_ROWS;
+    public static LongCounterMetric COUNTER_STREAM_LOAD_PLAN_CACHE_HIT;
+    public static LongCounterMetric COUNTER_STREAM_LOAD_PLAN_CACHE_MISS;
+    public static LongCounterMetric COUNTER_STREAM_LOAD_PLAN_SAVED_US;
+    public static LongCounterMetric COUNTER_EXPORT_BYTES;
+    public static LongCounterMetric COUNTER_EXPORT_ROWS;
 
     public static Histogram HISTO_QUERY_LATENCY;
     public static Histogram HISTO_EDIT_LOG_WRITE_LATENCY;
@@ -190,6 +199,26 @@ public final class MetricRepo {
         };
         PALO_METRIC_REGISTER.addPaloMetrics(scheduledTabletNum);
 
+        // routine load lag
+        GaugeMetric<Long> routineLoadLag = (GaugeMetric<Long>) new GaugeMetric<Long>(
+                "routine_load_lag", MetricUnit.NOUNIT, "total lag of kafka partitions of running routine load jobs") {
+            @Override
+            public Long getValue() {
+                if (!Catalog.getCurrentCatalog().isMaster()) {
+                    return 0L;
+                }
+                long totalLag = 0;
+                for (RoutineLoadJob job : Catalog.getCurrentCatalog().getRoutineLoadManager()
+                        .getRoutineLoadJobByState(Sets.newHashSet(RoutineLoadJob.JobState.RUNNING))) {
+                    if (job instanceof KafkaRoutineLoadJob) {
+                        totalLag += Math.max(0, ((KafkaRoutineLoadJob) job).getTotalLag());
+                    }
+                }
+                return totalLag;
+            }
+        };
+        PALO_METRIC_REGISTER.addPaloMetrics(routineLoadLag);
+
         // qps, rps and error rate
         // these metrics should be set an init value, in case that metric calculator is not running
         GAUGE_QUERY_PER_SECOND = new GaugeMetricImpl<>("qps", MetricUnit.NOUNIT, "query per second");
@@ -269,6 +298,22 @@ public final class MetricRepo {
                 "total error rows of routine load");
         PALO_METRIC_REGISTER.addPaloMetrics(COUNTER_ROUTINE_LOAD_ERROR_ROWS);
 
+        COUNTER_STREAM_LOAD_PLAN_CACHE_HIT = new LongCounterMetric("stream_load_plan_cache_hit", MetricUnit.REQUESTS,
+                "total stream loads planned from the cached plans");
+        PALO_METRIC_REGISTER.addPaloMetrics(COUNTER_STREAM_LOAD_PLAN_CACHE_HIT);
+        COUNTER_STREAM_LOAD_PLAN_CACHE_MISS = new LongCounterMetric("stream_load_plan_cache_miss", MetricUnit.REQUESTS,
+                "total stream loads planned without the cached plans");
+        PALO_METRIC_REGISTER.addPaloMetrics(COUNTER_STREAM_LOAD_PLAN_CACHE_MISS);
+        COUNTER_STREAM_LOAD_PLAN_SAVED_US = new LongCounterMetric("stream_load_plan_saved_us", MetricUnit.MICROSECONDS,
+                "total planning time saved by the cached stream load plans");
+        PALO_METRIC_REGISTER.addPaloMetrics(COUNTER_STREAM_LOAD_PLAN_SAVED_US);
+        COUNTER_EXPORT_BYTES = new LongCounterMetric("export_bytes", MetricUnit.BYTES,
+                "total bytes written by export jobs");
+        PALO_METRIC_REGISTER.addPaloMetrics(COUNTER_EXPORT_BYTES);
+        COUNTER_EXPORT_ROWS = new LongCounterMetric("export_rows", MetricUnit.ROWS,
+                "total rows written by export jobs");
+        PALO_METRIC_REGISTER.addPaloMetrics(COUNTER_EXPORT_ROWS);
+
         // 3. histogram
         HISTO_QUERY_LATENCY = METRIC_REGISTER.histogram(MetricRegistry.name("query", "latency", "ms"));
         HISTO_EDIT_LOG_WRITE_LATENCY = METRIC_REGISTER.histogram(MetricRegistry.name("editlog", "write", "latency", "ms"));
@@ -379,6 +424,30 @@ public final class MetricRepo {
         } // end for backends
     }
 
+    // to generate the lag metrics of each kafka partition of the running routine load jobs.
+    // the jobs and their partitions change at runtime, so the metrics are generated again before being visited.
+    public static void generateRoutineLoadPartitionLagMetrics() {
+        PALO_METRIC_REGISTER.removeMetrics(ROUTINE_LOAD_PARTITION_LAG);
+        if (!Catalog.getCurrentCatalog().isMaster()) {
+            return;
+        }
+        for (RoutineLoadJob job : Catalog.getCurrentCatalog().getRoutineLoadManager()
+                .getRoutineLoadJobByState(Sets.newHashSet(RoutineLoadJob.JobState.RUNNING))) {
+            if (!(job instanceof KafkaRoutineLoadJob)) {
+                continue;
+            }
+            for (Map.Entry<Integer, Long> entry : ((KafkaRoutineLoadJob) job).getPartitionIdToLag().entrySet()) {
+                GaugeMetricImpl<Long> partitionLag = new GaugeMetricImpl<>(ROUTINE_LOAD_PARTITION_LAG,
+                        MetricUnit.NOUNIT, "lag of a kafka partition of a running routine load job");
+                partitionLag.setValue(entry.getValue());
+                partitionLag.addLabel(new MetricLabel("job", job.getName()))
+                        .addLabel(new MetricLabel("job_id", String.valueOf(job.getId())))
+                        .addLabel(new MetricLabel("partition", String.valueOf(entry.getKey())));
+                PALO_METRIC_REGISTER.addPaloMetrics(partitionLag);
+            }
+        }
+    }
+
     public static synchronized String getMetric(MetricVisitor visitor) {
         if (!isInit) {
             return "";
@@ -414,6 +483,7 @@ public final class MetricRepo {
     // update some metrics to make a ready to be visited
     private static void updateMetrics() {
         SYSTEM_METRICS.update();
+        generateRoutineLoadPartitionLagMetrics();
     }
 
     public static synchronized List<Metric> getMetricsByName(String name) {
@@ -33,6 +33,7 @@ import org.apache.doris.catalog.Table;
 import org.apache.doris.common.AnalysisException;
 import org.apache.doris.common.Config;
 import org.apache.doris.common.UserException;
+import org.apache.doris.common.storage.ObjectStorageFactory;
 import org.apache.doris.common.util.BrokerUtil;
 import org.apache.doris.load.BrokerFileGroup;
 import org.apache.doris.load.Load;
@@ -99,6 +100,8 @@ public class BrokerScanNode extends LoadScanNode {
     private BrokerDesc brokerDesc;
     private List<BrokerFileGroup> fileGroups;
     private boolean strictMode = true;
+    // number of broker scanners on each backend
+    private int loadParallelism = 1;
 
     private List<List<TBrokerFileStatus>> fileStatusesList;
     // file num
@@ -110,6 +113,13 @@ public class BrokerScanNode extends LoadScanNode {
 
     private Analyzer analyzer;
 
+    // statistics of the scan ranges, for explain and log
+    // number of files which are split into more than one scan range
+    private int splitFileNum = 0;
+    // number of scan ranges which contain more than one file
+    private int coalescedRangeNum = 0;
+    private long maxRangeBytes = 0;
+
     private static class ParamCreateContext {
         public BrokerFileGroup fileGroup;
         public TBrokerScanRangeParams params;
@@ -176,13 +186,15 @@ public class BrokerScanNode extends LoadScanNode {
                             Table targetTable,
                             BrokerDesc brokerDesc,
                             List<BrokerFileGroup> fileGroups,
-                            boolean strictMode) {
+                            boolean strictMode,
+                            int loadParallelism) {
         this.loadJobId = loadJobId;
         this.txnId = txnId;
         this.targetTable = targetTable;
         this.brokerDesc = brokerDesc;
         this.fileGroups = fileGroups;
         this.strictMode = strictMode;
+        this.loadParallelism = Math.max(1, loadParallelism);
     }
 
     // Called from init, construct source tuple information
@@ -239,7 +251,8 @@ public class BrokerScanNode extends LoadScanNode {
                 context.tupleDescriptor, context.slotDescByName, context.params);
     }
 
-    private TScanRangeLocations newLocations(TBrokerScanRangeParams params, String brokerName)
+    // the broker is not necessary if the files are read by BE directly
+    private TScanRangeLocations newLocations(TBrokerScanRangeParams params, String brokerName, boolean directAccess)
             throws UserException {
         Backend selectedBackend = backends.get(nextBe++);
         nextBe = nextBe % backends.size();
@@ -252,9 +265,15 @@ public class BrokerScanNode extends LoadScanNode {
         try {
             broker = Catalog.getCurrentCatalog().getBrokerMgr().getBroker(brokerName, selectedBackend.getHost());
         } catch (AnalysisException e) {
-            throw new UserException(e.getMessage());
+            if (!directAccess) {
+                throw new UserException(e.getMessage());
+            }
+        }
+        if (broker != null) {
+            brokerScanRange.addToBrokerAddresses(new TNetworkAddress(broker.ip, broker.port));
+        } else {
+            brokerScanRange.setBrokerAddresses(Lists.newArrayList());
         }
-        brokerScanRange.addToBrokerAddresses(new TNetworkAddress(broker.ip, broker.port));
 
         // Scan range
         TScanRange scanRange = new TScanRange();
@@ -310,9 +329,10 @@ public class BrokerScanNode extends LoadScanNode {
             }
         }
 
+        // each backend runs at most 'loadParallelism' broker scanners
         numInstances = (int) (totalBytes / Config.min_bytes_per_broker_scanner);
-        numInstances = Math.min(backends.size(), numInstances);
-        numInstances = Math.min(numInstances, Config.max_broker_concurrency);
+        numInstances = Math.min(backends.size() * loadParallelism, numInstances);
+        numInstances = Math.min(numInstances, Config.max_broker_concurrency * loadParallelism);
         numInstances = Math.max(1, numInstances);
 
         bytesPerInstance = totalBytes / numInstances + 1;
@@ -372,7 +392,9 @@ public class BrokerScanNode extends LoadScanNode {
             return;
         }
 
-        TScanRangeLocations curLocations = newLocations(context.params, brokerDesc.getName());
+        boolean directAccess = ObjectStorageFactory.isDirectAccess(fileStatuses.get(0).path,
+                brokerDesc.getProperties());
+        TScanRangeLocations curLocations = newLocations(context.params, brokerDesc.getName(), directAccess);
         long curInstanceBytes = 0;
         long curFileOffset = 0;
         for (int i = 0; i < fileStatuses.size(); ) {
@@ -384,13 +406,18 @@ public class BrokerScanNode extends LoadScanNode {
                     context.fileGroup.getColumnsFromPath());
             int numberOfColumnsFromFile = context.slotDescByName.size() - columnsFromPath.size();
             if (tmpBytes > bytesPerInstance) {
-                // Now only support split plain text
-                if (formatType == TFileFormatType.FORMAT_CSV_PLAIN && fileStatus.isSplitable) {
+                if (isSplittable(formatType, fileStatus)) {
                     long rangeBytes = bytesPerInstance - curInstanceBytes;
-                    TBrokerRangeDesc rangeDesc = createBrokerRangeDesc(curFileOffset, fileStatus, formatType,
-                            rangeBytes, columnsFromPath, numberOfColumnsFromFile);
-                    brokerScanRange(curLocations).addToRanges(rangeDesc);
-                    curFileOffset += rangeBytes;
+                    // the current instance may be full already, and an empty range means the whole file on BE
+                    if (rangeBytes > 0) {
+                        if (curFileOffset == 0) {
+                            splitFileNum++;
+                        }
+                        TBrokerRangeDesc rangeDesc = createBrokerRangeDesc(curFileOffset, fileStatus, formatType,
+                                rangeBytes, columnsFromPath, numberOfColumnsFromFile);
+                        brokerScanRange(curLocations).addToRanges(rangeDesc);
+                        curFileOffset += rangeBytes;
+                    }
                 } else {
                     TBrokerRangeDesc rangeDesc = createBrokerRangeDesc(curFileOffset, fileStatus, formatType,
                             leftBytes, columnsFromPath, numberOfColumnsFromFile);
@@ -401,7 +428,7 @@ public class BrokerScanNode extends LoadScanNode {
 
                 // New one scan
                 locationsList.add(curLocations);
-                curLocations = newLocations(context.params, brokerDesc.getName());
+                curLocations = newLocations(context.params, brokerDesc.getName(), directAccess);
                 curInstanceBytes = 0;
 
             } else {
@@ -420,11 +447,30 @@ public class BrokerScanNode extends LoadScanNode {
         }
     }
 
+    // Plain text files are split by lines.
+    // Parquet and orc files are split by row groups and stripes, BE reads the row groups (stripes)
+    // which begin in the range, with the footer of the file.
+    private boolean isSplittable(TFileFormatType formatType, TBrokerFileStatus fileStatus) {
+        switch (formatType) {
+            case FORMAT_CSV_PLAIN:
+                return fileStatus.isSplitable;
+            case FORMAT_PARQUET:
+            case FORMAT_ORC:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     private TBrokerRangeDesc createBrokerRangeDesc(long curFileOffset, TBrokerFileStatus fileStatus,
                                                    TFileFormatType formatType, long rangeBytes,
                                                    List<String> columnsFromPath, int numberOfColumnsFromFile) {
         TBrokerRangeDesc rangeDesc = new TBrokerRangeDesc();
-        rangeDesc.setFileType(TFileType.FILE_BROKER);
+        if (ObjectStorageFactory.isDirectAccess(fileStatus.path, brokerDesc.getProperties())) {
+            rangeDesc.setFileType(TFileType.FILE_S3);
+        } else {
+            rangeDesc.setFileType(TFileType.FILE_BROKER);
+        }
         rangeDesc.setFormatType(formatType);
         rangeDesc.setPath(fileStatus.path);
         rangeDesc.setSplittable(fileStatus.isSplitable);
@@ -454,6 +500,7 @@ public class BrokerScanNode extends LoadScanNode {
             }
             processFileGroup(context, fileStatuses);
         }
+        computeScanRangeStats();
         if (LOG.isDebugEnabled()) {
             for (TScanRangeLocations locations : locationsList) {
                 LOG.debug("Scan range is {}", locations);
@@ -461,12 +508,34 @@ public class BrokerScanNode extends LoadScanNode {
         }
 
         if (loadJobId != -1) {
-            LOG.info("broker load job {} with txn {} has {} scan range: {}",
+            LOG.info("broker load job {} with txn {} has {} scan range: {}, split files: {}, coalesced ranges: {},"
+                            + " max range bytes: {}, avg range bytes: {}",
                     loadJobId, txnId, locationsList.size(),
-                    locationsList.stream().map(loc -> loc.locations.get(0).backend_id).toArray());
+                    locationsList.stream().map(loc -> loc.locations.get(0).backend_id).toArray(),
+                    splitFileNum, coalescedRangeNum, maxRangeBytes, getAvgRangeBytes());
+        }
+    }
+
+    private void computeScanRangeStats() {
+        coalescedRangeNum = 0;
+        maxRangeBytes = 0;
+        for (TScanRangeLocations locations : locationsList) {
+            List<TBrokerRangeDesc> ranges = brokerScanRange(locations).getRanges();
+            if (ranges.size() > 1) {
+                coalescedRangeNum++;
+            }
+            long rangeBytes = 0;
+            for (TBrokerRangeDesc range : ranges) {
+                rangeBytes += range.getSize();
+            }
+            maxRangeBytes = Math.max(maxRangeBytes, rangeBytes);
         }
     }
 
+    private long getAvgRangeBytes() {
+        return locationsList.isEmpty() ? 0 : totalBytes / locationsList.size();
+    }
+
     @Override
     public List<TScanRangeLocations> getScanRangeLocations(long maxScanRangeLength) {
         return locationsList;
@@ -484,6 +553,13 @@ public class BrokerScanNode extends LoadScanNode {
         if (brokerDesc != null) {
             output.append(prefix).append("BROKER: ").append(brokerDesc.getName()).append("\n");
         }
+        if (locationsList != null) {
+            output.append(prefix).append("SCAN RANGES: ").append(locationsList.size())
+                    .append(", SPLIT FILES: ").append(splitFileNum)
+                    .append(", COALESCED RANGES: ").append(coalescedRangeNum).append("\n");
+            output.append(prefix).append("RANGE BYTES: max=").append(maxRangeBytes)
+                    .append(", avg=").append(getAvgRangeBytes()).append("\n");
+        }
         return output.toString();
     }
 
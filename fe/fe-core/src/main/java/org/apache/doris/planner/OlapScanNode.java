@@ -26,6 +26,7 @@ import org.apache.doris.analysis.InPredicate;
 import org.apache.doris.analysis.PartitionNames;
 import org.apache.doris.analysis.SlotDescriptor;
 import org.apache.doris.analysis.SlotRef;
+import org.apache.doris.analysis.SortInfo;
 import org.apache.doris.analysis.TupleDescriptor;
 import org.apache.doris.analysis.TupleId;
 import org.apache.doris.catalog.Catalog;
@@ -123,6 +124,10 @@ public class OlapScanNode extends ScanNode {
 
     private HashSet<Long> scanBackendIds = new HashSet<>();
 
+    // The sort info and limit(including offset) of the top-n sort node directly on top of this node.
+    private SortInfo topnSortInfo = null;
+    private long topnLimit = -1;
+
     private Map<Long, Integer> tabletId2BucketSeq = Maps.newHashMap();
     // a bucket seq may map to many tablets, and each tablet has a TScanRangeLocations.
     public ArrayListMultimap<Integer, TScanRangeLocations> bucketSeq2locations= ArrayListMultimap.create();
@@ -142,6 +147,51 @@ public class OlapScanNode extends ScanNode {
         return isPreAggregation;
     }
 
+    public void setTopnInfo(SortInfo sortInfo, long limit) {
+        this.topnSortInfo = sortInfo;
+        this.topnLimit = limit;
+    }
+
+    /**
+     * Returns the number of rows each scanner needs to return for the top-n sort on top of this node,
+     * or -1 if the scanners have to read all the rows.
+     * The storage engine returns the rows of a tablet ordered by the key columns only when it merges
+     * the rowsets, that is, pre-aggregation is off and the index is not a duplicate keys index.
+     * In that case, if the ordering exprs are an ascending prefix of the key columns, the first 'limit'
+     * rows of each scanner already contain the top-n rows of the scanned key ranges.
+     */
+    public long getSortLimit() {
+        if (topnSortInfo == null || topnLimit <= 0 || isPreAggregation || selectedIndexId == -1) {
+            return -1;
+        }
+        if (olapTable.getKeysTypeByIndexId(selectedIndexId) == KeysType.DUP_KEYS) {
+            return -1;
+        }
+        List<Expr> orderingExprs = topnSortInfo.getMaterializedOrderingExprs();
+        List<Boolean> isAscOrder = topnSortInfo.getIsAscOrder();
+        List<Boolean> nullsFirst = topnSortInfo.getNullsFirst();
+        List<Column> indexSchema = olapTable.getSchemaByIndexId(selectedIndexId);
+        if (orderingExprs.isEmpty() || orderingExprs.size() > indexSchema.size()) {
+            return -1;
+        }
+        for (int i = 0; i < orderingExprs.size(); i++) {
+            // nulls are stored before all the other values
+            if (!isAscOrder.get(i) || !nullsFirst.get(i)) {
+                return -1;
+            }
+            if (!(orderingExprs.get(i) instanceof SlotRef)) {
+                return -1;
+            }
+            SlotDescriptor slotDesc = ((SlotRef) orderingExprs.get(i)).getDesc();
+            Column keyColumn = indexSchema.get(i);
+            if (slotDesc.getParent() != desc || slotDesc.getColumn() == null || !keyColumn.isKey()
+                    || !keyColumn.getName().equalsIgnoreCase(slotDesc.getColumn().getName())) {
+                return -1;
+            }
+        }
+        return topnLimit;
+    }
+
     public boolean getCanTurnOnPreAggr() {
         return canTurnOnPreAggr;
     }
@@ -562,6 +612,10 @@ public class OlapScanNode extends ScanNode {
             output.append(prefix).append("PREDICATES: ").append(
                     getExplainString(conjuncts)).append("\n");
         }
+        long sortLimit = getSortLimit();
+        if (sortLimit > 0) {
+            output.append(prefix).append("SORT LIMIT: ").append(sortLimit).append("\n");
+        }
 
         output.append(prefix).append(String.format(
                     "partitions=%s/%s",
@@ -626,6 +680,10 @@ public class OlapScanNode extends ScanNode {
         if (null != sortColumn) {
             msg.olap_scan_node.setSortColumn(sortColumn);
         }
+        long sortLimit = getSortLimit();
+        if (sortLimit > 0) {
+            msg.olap_scan_node.setSortLimit(sortLimit);
+        }
     }
 
     // export some tablets
@@ -195,6 +195,10 @@ public class PlanFragment extends TreeNode<PlanFragment> {
         return parallelExecNum;
     }
 
+    public void setParallelExecNum(int parallelExecNum) {
+        this.parallelExecNum = parallelExecNum;
+    }
+
     public TPlanFragment toThrift() {
         TPlanFragment result = new TPlanFragment();
         if (planRoot != null) {
@@ -261,6 +261,10 @@ public class SingleNodePlanner {
             if (limit == -1 && analyzer.getContext().getSessionVariable().enableSpilling) {
                 useTopN = false;
             }
+            if (useTopN && limit != -1 && root instanceof OlapScanNode) {
+                // the scan may stop early if it returns rows in the order of the sort keys
+                ((OlapScanNode) root).setTopnInfo(stmt.getSortInfo(), limit + stmt.getOffset());
+            }
             root = new SortNode(ctx_.getNextNodeId(), root, stmt.getSortInfo(),
                     useTopN, limit == -1, stmt.getOffset());
             if (useTopN) {
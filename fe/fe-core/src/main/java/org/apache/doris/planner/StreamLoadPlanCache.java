@@ -0,0 +1,173 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.planner;
+
+import org.apache.doris.catalog.Database;
+import org.apache.doris.catalog.MaterializedIndexMeta;
+import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.common.Config;
+import org.apache.doris.common.UserException;
+import org.apache.doris.metric.MetricRepo;
+import org.apache.doris.task.StreamLoadTask;
+import org.apache.doris.thrift.TExecPlanFragmentParams;
+import org.apache.doris.thrift.TStreamLoadPutRequest;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Caches the plans of stream loads.
+ * Stream loads of the same table with the same load properties (columns, where, format, ...)
+ * get the same plan except for the load id, the txn id and the olap table sink. So the first
+ * plan is saved as a template, and the following loads only patch the template instead of
+ * parsing and analyzing the columns and the where clause, and computing the descriptor table again.
+ *
+ * The key contains the signature of the schemas of the dest table, so that the template is not used
+ * any more once the schema is changed, or a rollup is being added or dropped.
+ * The sink is always created again, because the tablets and partitions of the table may be changed
+ * without changing the schema.
+ */
+public class StreamLoadPlanCache {
+    private static final Logger LOG = LogManager.getLogger(StreamLoadPlanCache.class);
+
+    private static final long EXPIRE_AFTER_ACCESS_MINUTES = 10;
+
+    private final Cache<PlanKey, PlanTemplate> cache = CacheBuilder.newBuilder()
+            .maximumSize(Config.stream_load_plan_cache_capacity)
+            .expireAfterAccess(EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+            .build();
+
+    // Get the plan of the stream load described by 'request'.
+    // Must be called with the read lock of 'db' held.
+    public TExecPlanFragmentParams plan(TStreamLoadPutRequest request, Database db, OlapTable table)
+            throws UserException {
+        if (!Config.enable_stream_load_plan_cache) {
+            StreamLoadTask streamLoadTask = StreamLoadTask.fromTStreamLoadPutRequest(request, db);
+            return new StreamLoadPlanner(db, table, streamLoadTask).plan(streamLoadTask.getId());
+        }
+
+        long startTime = System.nanoTime();
+        PlanKey key = new PlanKey(request, table.getId(), getSchemaSignature(table));
+        PlanTemplate template = cache.getIfPresent(key);
+        // the table may be replaced by another one with the same id, eg. by restore
+        if (template != null && template.planner.getDestTable() == table) {
+            TExecPlanFragmentParams params = template.planner.replan(template.params,
+                    request.getLoadId(), request.getTxnId());
+            if (MetricRepo.isInit) {
+                long savedUs = (template.planCostNs - (System.nanoTime() - startTime)) / 1000;
+                MetricRepo.COUNTER_STREAM_LOAD_PLAN_CACHE_HIT.increase(1L);
+                MetricRepo.COUNTER_STREAM_LOAD_PLAN_SAVED_US.increase(Math.max(savedUs, 0L));
+            }
+            return params;
+        }
+
+        StreamLoadTask streamLoadTask = StreamLoadTask.fromTStreamLoadPutRequest(request, db);
+        StreamLoadPlanner planner = new StreamLoadPlanner(db, table, streamLoadTask);
+        TExecPlanFragmentParams params = planner.plan(streamLoadTask.getId());
+        // params is returned to the caller and may be modified by it, so the template keeps a copy
+        cache.put(key, new PlanTemplate(planner, new TExecPlanFragmentParams(params), System.nanoTime() - startTime));
+        if (MetricRepo.isInit) {
+            MetricRepo.COUNTER_STREAM_LOAD_PLAN_CACHE_MISS.increase(1L);
+        }
+        LOG.debug("cache the stream load plan of table {}, load id: {}", table.getId(), request.getLoadId());
+        return params;
+    }
+
+    public void invalidate() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    // The (index id, schema version, schema hash) of all indexes of the table, ordered by index id.
+    // Schema change and rollup jobs always create new indexes or new schema hashes.
+    static List<Long> getSchemaSignature(OlapTable table) {
+        Map<Long, MaterializedIndexMeta> sortedIndexMetas = Maps.newTreeMap();
+        sortedIndexMetas.putAll(table.getIndexIdToMeta());
+        List<Long> signature = Lists.newArrayListWithCapacity(sortedIndexMetas.size() * 3 + 1);
+        signature.add(table.getBaseIndexId());
+        for (MaterializedIndexMeta indexMeta : sortedIndexMetas.values()) {
+            signature.add(indexMeta.getIndexId());
+            signature.add((long) indexMeta.getSchemaVersion());
+            signature.add((long) indexMeta.getSchemaHash());
+        }
+        return signature;
+    }
+
+    private static class PlanTemplate {
+        private final StreamLoadPlanner planner;
+        private final TExecPlanFragmentParams params;
+        private final long planCostNs;
+
+        public PlanTemplate(StreamLoadPlanner planner, TExecPlanFragmentParams params, long planCostNs) {
+            this.planner = planner;
+            this.params = params;
+            this.planCostNs = planCostNs;
+        }
+    }
+
+    static class PlanKey {
+        private final TStreamLoadPutRequest loadProperties;
+        private final long tableId;
+        private final List<Long> schemaSignature;
+
+        public PlanKey(TStreamLoadPutRequest request, long tableId, List<Long> schemaSignature) {
+            // remove the fields which are different for each load or have nothing to do with the plan
+            loadProperties = new TStreamLoadPutRequest(request);
+            loadProperties.unsetUser();
+            loadProperties.unsetPasswd();
+            loadProperties.unsetUserIp();
+            loadProperties.unsetAuthCode();
+            loadProperties.unsetLoadId();
+            loadProperties.unsetTxnId();
+            loadProperties.unsetThriftRpcTimeoutMs();
+            this.tableId = tableId;
+            this.schemaSignature = schemaSignature;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof PlanKey)) {
+                return false;
+            }
+            PlanKey other = (PlanKey) obj;
+            return tableId == other.tableId && schemaSignature.equals(other.schemaSignature)
+                    && loadProperties.equals(other.loadProperties);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tableId, schemaSignature, loadProperties);
+        }
+    }
+}
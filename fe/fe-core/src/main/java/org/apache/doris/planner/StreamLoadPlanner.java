@@ -38,6 +38,7 @@ import org.apache.doris.load.LoadErrorHub;
 import org.apache.doris.load.loadv2.LoadTask;
 import org.apache.doris.task.LoadTaskInfo;
 import org.apache.doris.thrift.PaloInternalServiceVersion;
+import org.apache.doris.thrift.TBrokerRangeDesc;
 import org.apache.doris.thrift.TExecPlanFragmentParams;
 import org.apache.doris.thrift.TLoadErrorHubInfo;
 import org.apache.doris.thrift.TPlanFragmentExecParams;
@@ -75,6 +76,8 @@ public class StreamLoadPlanner {
 
     private Analyzer analyzer;
     private DescriptorTable descTable;
+    // the tuple of the dest table, it is kept to create the sink again in replan()
+    private TupleDescriptor tupleDesc;
 
     public StreamLoadPlanner(Database db, OlapTable destTable, LoadTaskInfo taskInfo) {
         this.db = db;
@@ -114,7 +117,7 @@ public class StreamLoadPlanner {
         }
         resetAnalyzer();
         // construct tuple descriptor, used for scanNode and dataSink
-        TupleDescriptor tupleDesc = descTable.createTupleDescriptor("DstTableTuple");
+        tupleDesc = descTable.createTupleDescriptor("DstTableTuple");
         boolean negative = taskInfo.getNegative();
         // here we should be full schema to fill the descriptor table
         for (Column col : destTable.getFullSchema()) {
@@ -134,10 +137,7 @@ public class StreamLoadPlanner {
         scanNode.finalize(analyzer);
 
         // create dest sink
-        List<Long> partitionIds = getAllPartitionIds();
-        OlapTableSink olapTableSink = new OlapTableSink(destTable, tupleDesc, partitionIds);
-        olapTableSink.init(loadId, taskInfo.getTxnId(), db.getId(), taskInfo.getTimeout());
-        olapTableSink.complete();
+        OlapTableSink olapTableSink = createSink(loadId, taskInfo.getTxnId());
 
         // for stream load, we only need one fragment, ScanNode -> DataSink.
         // OlapTableSink can dispatch data to corresponding node.
@@ -176,6 +176,47 @@ public class StreamLoadPlanner {
         // for stream load, we use exec_mem_limit to limit the memory usage of load channel.
         queryOptions.setLoadMemLimit(taskInfo.getMemLimit());
         params.setQueryOptions(queryOptions);
+        setQueryGlobalsAndErrorHub(params);
+
+        // LOG.debug("stream load txn id: {}, plan: {}", streamLoadTask.getTxnId(), params);
+        return params;
+    }
+
+    // Create the plan of another load from 'template', which is a plan returned by plan().
+    // The other load must have the same load properties, and the schema of the dest table must
+    // not be changed since 'template' was planned.
+    // Only the load id, the txn id and the parts depending on the current tablets and partitions
+    // of the dest table are generated again, the template is left unchanged.
+    public TExecPlanFragmentParams replan(TExecPlanFragmentParams template, TUniqueId loadId, long txnId)
+            throws UserException {
+        TExecPlanFragmentParams params = new TExecPlanFragmentParams(template);
+        params.getFragment().setOutputSink(createSink(loadId, txnId).toThrift());
+
+        TPlanFragmentExecParams execParams = params.getParams();
+        execParams.setQueryId(loadId);
+        execParams.setFragmentInstanceId(new TUniqueId(loadId.hi, loadId.lo + 1));
+        for (List<TScanRangeParams> scanRangeParams : execParams.getPerNodeScanRanges().values()) {
+            for (TScanRangeParams scanRangeParam : scanRangeParams) {
+                for (TBrokerRangeDesc rangeDesc : scanRangeParam.getScanRange().getBrokerScanRange().getRanges()) {
+                    if (rangeDesc.isSetLoadId()) {
+                        rangeDesc.setLoadId(loadId);
+                    }
+                }
+            }
+        }
+        setQueryGlobalsAndErrorHub(params);
+        return params;
+    }
+
+    private OlapTableSink createSink(TUniqueId loadId, long txnId) throws UserException {
+        List<Long> partitionIds = getAllPartitionIds();
+        OlapTableSink olapTableSink = new OlapTableSink(destTable, tupleDesc, partitionIds);
+        olapTableSink.init(loadId, txnId, db.getId(), taskInfo.getTimeout());
+        olapTableSink.complete();
+        return olapTableSink;
+    }
+
+    private void setQueryGlobalsAndErrorHub(TExecPlanFragmentParams params) {
         TQueryGlobals queryGlobals = new TQueryGlobals();
         queryGlobals.setNowString(DATE_FORMAT.format(new Date()));
         queryGlobals.setTimestampMs(new Date().getTime());
@@ -190,9 +231,6 @@ public class StreamLoadPlanner {
                 params.setLoadErrorHubInfo(info);
             }
         }
-
-        // LOG.debug("stream load txn id: {}, plan: {}", streamLoadTask.getTxnId(), params);
-        return params;
     }
 
     // get all specified partition ids.
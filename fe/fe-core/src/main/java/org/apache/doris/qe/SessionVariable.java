@@ -78,6 +78,7 @@ public class SessionVariable implements Serializable, Writable {
     
     public static final String ENABLE_SQL_CACHE = "enable_sql_cache";
     public static final String ENABLE_PARTITION_CACHE = "enable_partition_cache";
+    public static final String ENABLE_INSERT_GROUP_COMMIT = "enable_insert_group_commit";
 
     public static final int MIN_EXEC_INSTANCE_NUM = 1;
     public static final int MAX_EXEC_INSTANCE_NUM = 32;
@@ -233,6 +234,11 @@ public class SessionVariable implements Serializable, Writable {
     @VariableMgr.VarAttr(name = ENABLE_PARTITION_CACHE)
     private boolean enablePartitionCache = false;
 
+    // If true, INSERT ... VALUES of literals in strict mode are committed together with other inserts
+    // of the same table in one transaction, see GroupCommitManager.
+    @VariableMgr.VarAttr(name = ENABLE_INSERT_GROUP_COMMIT)
+    private boolean enableInsertGroupCommit = false;
+
     @VariableMgr.VarAttr(name = FORWARD_TO_MASTER)
     private boolean forwardToMaster = false;
 
@@ -444,6 +450,14 @@ public class SessionVariable implements Serializable, Writable {
     public void setEnablePartitionCache(boolean enablePartitionCache) {
         this.enablePartitionCache = enablePartitionCache;
     }
+
+    public boolean isEnableInsertGroupCommit() {
+        return enableInsertGroupCommit;
+    }
+
+    public void setEnableInsertGroupCommit(boolean enableInsertGroupCommit) {
+        this.enableInsertGroupCommit = enableInsertGroupCommit;
+    }
     
     // Serialize to thrift object
     public boolean getForwardToMaster() {
@@ -72,6 +72,7 @@ import org.apache.doris.qe.cache.CacheAnalyzer;
 import org.apache.doris.qe.cache.CacheAnalyzer.CacheMode;
 import org.apache.doris.qe.cache.CacheBeProxy;
 import org.apache.doris.qe.cache.CacheProxy;
+import org.apache.doris.rewrite.BatchFoldConstantsRewriter;
 import org.apache.doris.rewrite.ExprRewriter;
 import org.apache.doris.rewrite.mvrewrite.MVSelectFailedException;
 import org.apache.doris.rpc.RpcException;
@@ -119,6 +120,8 @@ public class StmtExecutor {
     private RedirectStatus redirectStatus = null;
     private Planner planner;
     private boolean isProxy;
+    // true if the rows of this insert are committed by GroupCommitManager
+    private boolean isGroupCommitInsert = false;
     private ShowResultSet proxyResultSet = null;
     private PQueryStatistics statisticsForAuditLog;
     private boolean isCached;
@@ -297,6 +300,8 @@ public class StmtExecutor {
                 handleUseStmt();
             } else if (parsedStmt instanceof CreateTableAsSelectStmt) {
                 handleInsertStmt();
+            } else if (isGroupCommitInsert) {
+                handleGroupCommitInsertStmt();
             } else if (parsedStmt instanceof InsertStmt) { // Must ahead of DdlStmt because InserStmt is its subclass
                 try {
                     handleInsertStmt();
@@ -434,6 +439,13 @@ public class StmtExecutor {
         if (isForwardToMaster()) {
             return;
         }
+
+        // the insert is analyzed by GroupCommitManager when its rows are committed with other inserts
+        if (parsedStmt instanceof InsertStmt && context.getSessionVariable().isEnableInsertGroupCommit()
+                && context.getCatalog().getGroupCommitManager().canGroupCommit(context, (InsertStmt) parsedStmt)) {
+            isGroupCommitInsert = true;
+            return;
+        }
         
         analyzer = new Analyzer(context.getCatalog(), context);
         // Convert show statement to select statement here
@@ -501,10 +513,17 @@ public class StmtExecutor {
             // Apply expr and subquery rewrites.
             boolean reAnalyze = false;
 
-            ExprRewriter rewriter = analyzer.getExprRewriter();
+            // Fold the constant exprs of the whole stmt at once before the rewrite rules are applied,
+            // so the rules need not fold them again.
+            int numFolded = new BatchFoldConstantsRewriter().fold(parsedStmt);
+            ExprRewriter rewriter = analyzer.getExprRewriterWithoutFolding();
             rewriter.reset();
             parsedStmt.rewriteExprs(rewriter);
-            reAnalyze = rewriter.changed();
+            if (rewriter.changed()) {
+                // the rules may make new constant exprs, e.g. the compound predicate of a constant BETWEEN
+                numFolded += new BatchFoldConstantsRewriter().fold(parsedStmt);
+            }
+            reAnalyze = rewriter.changed() || numFolded > 0;
             if (analyzer.containSubquery()) {
                 parsedStmt = StmtRewriter.rewrite(analyzer, parsedStmt);
                 reAnalyze = true;
@@ -940,6 +959,12 @@ public class StmtExecutor {
         context.getState().setOk(loadedRows, filteredRows, sb.toString());
     }
 
+    private void handleGroupCommitInsertStmt() throws Exception {
+        // Every time set no send flag and clean all data in buffer
+        context.getMysqlChannel().reset();
+        context.getCatalog().getGroupCommitManager().insert(context, (InsertStmt) parsedStmt);
+    }
+
     private void handleUnsupportedStmt() {
         context.getMysqlChannel().reset();
         // do nothing
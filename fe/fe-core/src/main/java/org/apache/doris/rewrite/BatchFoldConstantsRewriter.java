@@ -0,0 +1,160 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.rewrite;
+
+import org.apache.doris.analysis.Analyzer;
+import org.apache.doris.analysis.Expr;
+import org.apache.doris.analysis.LiteralExpr;
+import org.apache.doris.analysis.StatementBase;
+import org.apache.doris.analysis.Subquery;
+import org.apache.doris.common.AnalysisException;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds the constant exprs of a statement in a batch, before the rules of ExprRewriter are applied.
+ *
+ * The exprs of the statement are visited twice by rewriteExprs(). The first visit collects the maximal
+ * constant subtrees which are not literals. They are then folded in one pass, and the subtrees of the
+ * same sql are folded only once, e.g. the repeated str_to_date() of a large IN list. The second visit
+ * replaces the subtrees by the folded exprs.
+ *
+ * So the rule list of ExprRewriter runs without FoldConstantsRule, instead of folding the constants one by
+ * one while it applies all the rules repeatedly until nothing changes. The statement is re-analyzed if any
+ * expr is replaced, so that the folded literals are used by partition pruning.
+ *
+ * The functions which can not be evaluated by FE are left unfolded, BE has no constant folding service
+ * to delegate them to.
+ */
+public class BatchFoldConstantsRewriter extends ExprRewriter {
+    private enum Phase {
+        COLLECT,
+        REPLACE
+    }
+
+    private Phase phase = Phase.COLLECT;
+    // the foldable subtrees and the analyzers to fold them
+    private final Map<Expr, Analyzer> foldableExprs = new IdentityHashMap<>();
+    private final Map<Expr, Expr> foldedExprs = new IdentityHashMap<>();
+    private int numFolded = 0;
+
+    public BatchFoldConstantsRewriter() {
+        super(Lists.newArrayList());
+    }
+
+    /**
+     * Fold the constant exprs of the analyzed statement.
+     * Return the number of replaced exprs, including the children folded under a parent which is not folded.
+     */
+    public int fold(StatementBase stmt) throws AnalysisException {
+        phase = Phase.COLLECT;
+        stmt.rewriteExprs(this);
+        if (foldableExprs.isEmpty()) {
+            return 0;
+        }
+        foldAll();
+        phase = Phase.REPLACE;
+        stmt.rewriteExprs(this);
+        return numFolded;
+    }
+
+    @Override
+    public Expr rewrite(Expr expr, Analyzer analyzer) throws AnalysisException {
+        if (phase == Phase.COLLECT) {
+            collect(expr, analyzer);
+            return expr;
+        }
+        return replace(expr);
+    }
+
+    private void collect(Expr expr, Analyzer analyzer) {
+        if (expr.isLiteral()) {
+            return;
+        }
+        if (expr.isConstant() && !expr.contains(Subquery.class)) {
+            foldableExprs.put(expr, analyzer);
+            return;
+        }
+        for (Expr child : expr.getChildren()) {
+            collect(child, analyzer);
+        }
+    }
+
+    private void foldAll() throws AnalysisException {
+        // folded literals of the subtrees with the same sql
+        Map<String, LiteralExpr> literals = Maps.newHashMap();
+        for (Map.Entry<Expr, Analyzer> entry : foldableExprs.entrySet()) {
+            Expr expr = entry.getKey();
+            String key = expr.getType() + ":" + expr.toSql();
+            LiteralExpr literal = literals.get(key);
+            Expr folded;
+            if (literal != null) {
+                folded = literal.clone();
+            } else {
+                folded = foldBottomUp(expr, entry.getValue());
+                if (folded instanceof LiteralExpr) {
+                    literals.put(key, (LiteralExpr) folded);
+                }
+            }
+            if (folded != expr) {
+                foldedExprs.put(expr, folded);
+                numFolded++;
+            }
+        }
+    }
+
+    // the children are folded before the parent, so a single pass is enough
+    private Expr foldBottomUp(Expr expr, Analyzer analyzer) throws AnalysisException {
+        for (int i = 0; i < expr.getChildren().size(); ++i) {
+            Expr child = expr.getChild(i);
+            Expr folded = foldBottomUp(child, analyzer);
+            if (folded != child) {
+                // the tree is changed even if the parent can not be folded
+                expr.setChild(i, folded);
+                numFolded++;
+            }
+        }
+        return FoldConstantsRule.INSTANCE.apply(expr, analyzer);
+    }
+
+    private Expr replace(Expr expr) {
+        Expr folded = foldedExprs.get(expr);
+        if (folded != null) {
+            return folded;
+        }
+        if (foldableExprs.containsKey(expr)) {
+            return expr;
+        }
+        for (int i = 0; i < expr.getChildren().size(); ++i) {
+            expr.setChild(i, replace(expr.getChild(i)));
+        }
+        return expr;
+    }
+
+    @Override
+    public void rewriteList(List<Expr> exprs, Analyzer analyzer) throws AnalysisException {
+        for (int i = 0; i < exprs.size(); ++i) {
+            exprs.set(i, rewrite(exprs.get(i), analyzer));
+        }
+    }
+}
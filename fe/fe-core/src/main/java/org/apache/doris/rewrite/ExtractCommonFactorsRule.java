@@ -0,0 +1,181 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.rewrite;
+
+import org.apache.doris.analysis.Analyzer;
+import org.apache.doris.analysis.CompoundPredicate;
+import org.apache.doris.analysis.Expr;
+import org.apache.doris.common.AnalysisException;
+
+import com.google.common.collect.Lists;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Removes duplicated terms of AND/OR chains and extracts the conjuncts that are
+ * common to all disjuncts of an OR chain. The extracted conjuncts become top-level
+ * conjuncts after re-analysis, so they can be pushed down to the scan nodes and be
+ * used for partition and tablet pruning.
+ * Terms that contain non-deterministic functions (e.g. rand()) are never treated
+ * as duplicates.
+ * It can be applied to pre-analysis expr trees and therefore does not reanalyze
+ * the transformation output itself.
+ *
+ * Examples:
+ * a AND b AND a ==> a AND b
+ * a OR b OR a ==> a OR b
+ * (a AND b) OR (a AND c) ==> a AND (b OR c)
+ * (a AND b) OR a ==> a
+ */
+public class ExtractCommonFactorsRule implements ExprRewriteRule {
+    public static ExprRewriteRule INSTANCE = new ExtractCommonFactorsRule();
+
+    @Override
+    public Expr apply(Expr expr, Analyzer analyzer) throws AnalysisException {
+        if (!(expr instanceof CompoundPredicate)) {
+            return expr;
+        }
+        CompoundPredicate.Operator op = ((CompoundPredicate) expr).getOp();
+        if (op == CompoundPredicate.Operator.AND) {
+            List<Expr> conjuncts = expr.getConjuncts();
+            if (!removeDuplicates(conjuncts)) {
+                return expr;
+            }
+            return CompoundPredicate.createConjunctivePredicate(conjuncts);
+        } else if (op == CompoundPredicate.Operator.OR) {
+            return extractCommonFactors(expr);
+        }
+        return expr;
+    }
+
+    private Expr extractCommonFactors(Expr expr) {
+        List<Expr> disjuncts = getDisjuncts(expr);
+        boolean changed = removeDuplicates(disjuncts);
+
+        List<List<Expr>> conjunctsOfDisjuncts = Lists.newArrayList();
+        for (Expr disjunct : disjuncts) {
+            conjunctsOfDisjuncts.add(disjunct.getConjuncts());
+        }
+
+        // The common factors are the conjuncts of the first disjunct which appear in all
+        // the other disjuncts.
+        List<Expr> commonFactors = Lists.newArrayList();
+        for (Expr candidate : conjunctsOfDisjuncts.get(0)) {
+            if (!isDeterministic(candidate) || containsEqual(commonFactors, candidate)) {
+                continue;
+            }
+            boolean isCommon = true;
+            for (int i = 1; i < conjunctsOfDisjuncts.size(); ++i) {
+                if (!containsEqual(conjunctsOfDisjuncts.get(i), candidate)) {
+                    isCommon = false;
+                    break;
+                }
+            }
+            if (isCommon) {
+                commonFactors.add(candidate);
+            }
+        }
+
+        if (commonFactors.isEmpty()) {
+            if (!changed) {
+                return expr;
+            }
+            return createDisjunctivePredicate(disjuncts);
+        }
+
+        List<Expr> remainingDisjuncts = Lists.newArrayList();
+        for (List<Expr> conjuncts : conjunctsOfDisjuncts) {
+            Iterator<Expr> iter = conjuncts.iterator();
+            while (iter.hasNext()) {
+                if (containsEqual(commonFactors, iter.next())) {
+                    iter.remove();
+                }
+            }
+            if (conjuncts.isEmpty()) {
+                // One of the disjuncts consists of the common factors only,
+                // e.g. (a AND b) OR a ==> a, so the disjunction is implied by them.
+                return CompoundPredicate.createConjunctivePredicate(commonFactors);
+            }
+            remainingDisjuncts.add(CompoundPredicate.createConjunctivePredicate(conjuncts));
+        }
+        return CompoundPredicate.createConjunction(createDisjunctivePredicate(remainingDisjuncts),
+                CompoundPredicate.createConjunctivePredicate(commonFactors));
+    }
+
+    /**
+     * Removes the duplicated deterministic exprs of 'exprs' in place.
+     * Returns true if any expr was removed.
+     */
+    private static boolean removeDuplicates(List<Expr> exprs) {
+        List<Expr> distinctExprs = Lists.newArrayListWithCapacity(exprs.size());
+        for (Expr expr : exprs) {
+            if (isDeterministic(expr) && containsEqual(distinctExprs, expr)) {
+                continue;
+            }
+            distinctExprs.add(expr);
+        }
+        if (distinctExprs.size() == exprs.size()) {
+            return false;
+        }
+        exprs.clear();
+        exprs.addAll(distinctExprs);
+        return true;
+    }
+
+    // Expr.hashCode() is based on the expr id once the expr is registered, so equal
+    // exprs must be looked up by equals() instead of using hash based collections.
+    private static boolean containsEqual(List<Expr> exprs, Expr target) {
+        for (Expr expr : exprs) {
+            if (expr.equals(target)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isDeterministic(Expr expr) {
+        return !expr.contains(Expr.IS_NONDETERMINISTIC_BUILTIN_FN_PREDICATE);
+    }
+
+    private static List<Expr> getDisjuncts(Expr expr) {
+        List<Expr> disjuncts = Lists.newArrayList();
+        if (expr instanceof CompoundPredicate
+                && ((CompoundPredicate) expr).getOp() == CompoundPredicate.Operator.OR) {
+            disjuncts.addAll(getDisjuncts(expr.getChild(0)));
+            disjuncts.addAll(getDisjuncts(expr.getChild(1)));
+        } else {
+            disjuncts.add(expr);
+        }
+        return disjuncts;
+    }
+
+    private static Expr createDisjunctivePredicate(List<Expr> disjuncts) {
+        Expr disjunctivePred = null;
+        for (Expr expr : disjuncts) {
+            if (disjunctivePred == null) {
+                disjunctivePred = expr;
+                continue;
+            }
+            disjunctivePred = new CompoundPredicate(CompoundPredicate.Operator.OR, disjunctivePred, expr);
+        }
+        return disjunctivePred;
+    }
+
+    private ExtractCommonFactorsRule() {}
+}
@@ -31,6 +31,8 @@ public class DownloadTask extends AgentTask {
     private Map<String, String> srcToDestPath;
     private FsBroker brokerAddr;
     private Map<String, String> brokerProperties;
+    // speed limit of this task, no limit if <= 0
+    private long maxBytesPerSec = 0;
 
     public DownloadTask(TResourceInfo resourceInfo, long backendId, long signature, long jobId, long dbId,
             Map<String, String> srcToDestPath, FsBroker brokerAddr, Map<String, String> brokerProperties) {
@@ -57,10 +59,21 @@ public class DownloadTask extends AgentTask {
         return brokerProperties;
     }
 
+    public long getMaxBytesPerSec() {
+        return maxBytesPerSec;
+    }
+
+    public void setMaxBytesPerSec(long maxBytesPerSec) {
+        this.maxBytesPerSec = maxBytesPerSec;
+    }
+
     public TDownloadReq toThrift() {
         TNetworkAddress address = new TNetworkAddress(brokerAddr.ip, brokerAddr.port);
         TDownloadReq req = new TDownloadReq(jobId, srcToDestPath, address);
         req.setBrokerProp(brokerProperties);
+        if (maxBytesPerSec > 0) {
+            req.setMaxBytesPerSec(maxBytesPerSec);
+        }
         return req;
     }
 }
@@ -21,15 +21,20 @@ import org.apache.doris.catalog.Catalog;
 import org.apache.doris.catalog.FsBroker;
 import org.apache.doris.common.AnalysisException;
 import org.apache.doris.common.ClientPool;
+import org.apache.doris.common.Config;
+import org.apache.doris.common.Pair;
 import org.apache.doris.common.Status;
+import org.apache.doris.common.ThreadPoolManager;
 import org.apache.doris.common.UserException;
 import org.apache.doris.common.Version;
+import org.apache.doris.common.util.Counter;
 import org.apache.doris.common.util.DebugUtil;
 import org.apache.doris.common.util.ProfileManager;
 import org.apache.doris.common.util.RuntimeProfile;
 import org.apache.doris.common.util.TimeUtils;
 import org.apache.doris.load.ExportFailMsg;
 import org.apache.doris.load.ExportJob;
+import org.apache.doris.metric.MetricRepo;
 import org.apache.doris.qe.Coordinator;
 import org.apache.doris.qe.QeProcessorImpl;
 import org.apache.doris.service.FrontendOptions;
@@ -43,6 +48,7 @@ import org.apache.doris.thrift.TStatusCode;
 import org.apache.doris.thrift.TUniqueId;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -51,6 +57,9 @@ import org.apache.thrift.TException;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 
 public class ExportExportingTask extends MasterTask {
     private static final Logger LOG = LogManager.getLogger(ExportExportingTask.class);
@@ -58,13 +67,17 @@ public class ExportExportingTask extends MasterTask {
 
     protected final ExportJob job;
 
-    private boolean isCancelled = false;
+    private volatile boolean isCancelled = false;
     private Status failStatus = Status.OK;
     private ExportFailMsg.CancelType cancelType = ExportFailMsg.CancelType.UNKNOWN;
 
     private RuntimeProfile profile = new RuntimeProfile("Export");
     private List<RuntimeProfile> fragmentProfiles = Lists.newArrayList();
 
+    private Set<Coordinator> runningCoords = Sets.newHashSet();
+    private int totalTabletNum = 0;
+    private int finishedTabletNum = 0;
+
     public ExportExportingTask(ExportJob job) {
         this.job = job;
         this.signature = job.getId();
@@ -93,51 +106,44 @@ public class ExportExportingTask extends MasterTask {
             return;
         }
 
-        // if one instance finished, we send request to BE to exec next instance
+        // run the coordinators of the job on different backends at the same time,
+        // at most export_task_parallelism coordinators are running.
         List<Coordinator> coords = job.getCoordList();
         int coordSize = coords.size();
-        for (int i = 0; i < coordSize; i++) {
-            if (isCancelled) {
-                break;
+        for (int tabletNum : job.getCoordTabletNums()) {
+            totalTabletNum += tabletNum;
+        }
+        int parallelism = Math.max(1, Math.min(Config.export_task_parallelism, coordSize));
+        ThreadPoolExecutor executor = ThreadPoolManager.newDaemonFixedThreadPool(parallelism, Math.max(1, coordSize),
+                "export-exporting-pool-" + job.getId(), false);
+        List<Future<Boolean>> futures = Lists.newArrayList();
+        try {
+            for (int i = 0; i < coordSize; i++) {
+                Coordinator coord = coords.get(i);
+                int tabletNum = job.getCoordTabletNums().get(i);
+                futures.add(executor.submit(() -> execCoordWithRetry(coord, tabletNum)));
             }
-            Coordinator coord = coords.get(i);
-            for (int j = 0; j < RETRY_NUM; ++j) {
-                execOneCoord(coord);
-                if (coord.getExecStatus().ok()) {
-                    break;
+            for (int i = 0; i < coordSize; i++) {
+                boolean executed = false;
+                try {
+                    executed = futures.get(i).get();
+                } catch (InterruptedException | ExecutionException e) {
+                    LOG.warn("export coordinator {} failed. job: {}", i, job.getId(), e);
+                    onFailed(new Status(TStatusCode.INTERNAL_ERROR, e.getMessage()),
+                            coords.get(i).getQueryId());
                 }
-                if (j < RETRY_NUM - 1) {
-                    TUniqueId queryId = coord.getQueryId();
-                    coord.clearExportStatus();
-
-                    // generate one new queryId here, to avoid being rejected by BE,
-                    // because the request is considered as a repeat request.
-                    // we make the high part of query id unchanged to facilitate tracing problem by log.
-                    UUID uuid = UUID.randomUUID();
-                    TUniqueId newQueryId = new TUniqueId(queryId.hi, uuid.getLeastSignificantBits());
-                    coord.setQueryId(newQueryId);
-                    LOG.warn("export exporting job fail. err: {}. query_id: {}, job: {}. retry. {}, new query id: {}",
-                            coord.getExecStatus().getErrorMsg(), DebugUtil.printId(queryId), job.getId(), j,
-                            DebugUtil.printId(newQueryId));
+                if (executed) {
+                    Coordinator coord = coords.get(i);
+                    coord.getQueryProfile().getCounterTotalTime().setValue(
+                            TimeUtils.getEstimatedTime(job.getStartTimeMs()));
+                    coord.endProfile();
+                    fragmentProfiles.add(coord.getQueryProfile());
                 }
             }
-
-            if (!coord.getExecStatus().ok()) {
-                onFailed(coord);
-            } else {
-                int progress = (int) (i + 1) * 100 / coordSize;
-                if (progress >= 100) {
-                    progress = 99;
-                }
-                job.setProgress(progress);
-                LOG.info("finish coordinator with query id {}, export job: {}. progress: {}",
-                        DebugUtil.printId(coord.getQueryId()), job.getId(), progress);
-            }
-
-            coord.getQueryProfile().getCounterTotalTime().setValue(TimeUtils.getEstimatedTime(job.getStartTimeMs()));
-            coord.endProfile();
-            fragmentProfiles.add(coord.getQueryProfile());
+        } finally {
+            executor.shutdownNow();
         }
+        updateExportMetrics();
 
         if (isCancelled) {
             job.cancel(cancelType, null /* error msg is already set */);
@@ -175,6 +181,91 @@ public class ExportExportingTask extends MasterTask {
         }
     }
 
+    // return false if the coordinator is not executed because the job is cancelled
+    private boolean execCoordWithRetry(Coordinator coord, int tabletNum) {
+        // check and add under the same lock as cancelRunningCoords(),
+        // so that the coordinator is cancelled if the job is cancelled after it is added.
+        synchronized (this) {
+            if (isCancelled) {
+                return false;
+            }
+            runningCoords.add(coord);
+        }
+        try {
+            for (int j = 0; j < RETRY_NUM; ++j) {
+                execOneCoord(coord);
+                if (coord.getExecStatus().ok() || isCancelled) {
+                    break;
+                }
+                if (j < RETRY_NUM - 1) {
+                    TUniqueId queryId = coord.getQueryId();
+                    coord.clearExportStatus();
+
+                    // generate one new queryId here, to avoid being rejected by BE,
+                    // because the request is considered as a repeat request.
+                    // we make the high part of query id unchanged to facilitate tracing problem by log.
+                    UUID uuid = UUID.randomUUID();
+                    TUniqueId newQueryId = new TUniqueId(queryId.hi, uuid.getLeastSignificantBits());
+                    coord.setQueryId(newQueryId);
+                    LOG.warn("export exporting job fail. err: {}. query_id: {}, job: {}. retry. {}, new query id: {}",
+                            coord.getExecStatus().getErrorMsg(), DebugUtil.printId(queryId), job.getId(), j,
+                            DebugUtil.printId(newQueryId));
+                }
+            }
+        } finally {
+            synchronized (this) {
+                runningCoords.remove(coord);
+            }
+        }
+
+        if (!coord.getExecStatus().ok()) {
+            onFailed(coord.getExecStatus(), coord.getQueryId());
+        } else if (!isCancelled) {
+            onCoordFinished(coord, tabletNum);
+        }
+        return true;
+    }
+
+    private synchronized void onCoordFinished(Coordinator coord, int tabletNum) {
+        finishedTabletNum += tabletNum;
+        int progress = totalTabletNum == 0 ? 99 : (int) (finishedTabletNum * 100L / totalTabletNum);
+        if (progress >= 100) {
+            progress = 99;
+        }
+        job.setProgress(progress);
+        LOG.info("finish coordinator with query id {}, export job: {}. finished tablets: {}/{}, progress: {}",
+                DebugUtil.printId(coord.getQueryId()), job.getId(), finishedTabletNum, totalTabletNum, progress);
+    }
+
+    // sum the bytes and rows written by the export sinks of all finished coordinators
+    private void updateExportMetrics() {
+        long bytes = 0;
+        long rows = 0;
+        for (RuntimeProfile fragmentProfile : fragmentProfiles) {
+            bytes += sumCounter(fragmentProfile, "BytesExported");
+            rows += sumCounter(fragmentProfile, "RowsExported");
+        }
+        if (MetricRepo.isInit) {
+            MetricRepo.COUNTER_EXPORT_BYTES.increase(bytes);
+            MetricRepo.COUNTER_EXPORT_ROWS.increase(rows);
+        }
+        long costMs = Math.max(1, System.currentTimeMillis() - job.getStartTimeMs());
+        LOG.info("export job {} exported {} rows, {} bytes in {} ms, throughput: {} bytes/s",
+                job.getId(), rows, bytes, costMs, bytes * 1000 / costMs);
+    }
+
+    private static long sumCounter(RuntimeProfile profile, String name) {
+        long value = 0;
+        Counter counter = profile.getCounterMap().get(name);
+        if (counter != null) {
+            value += counter.getValue();
+        }
+        for (Pair<RuntimeProfile, Boolean> child : profile.getChildList()) {
+            value += sumCounter(child.first, name);
+        }
+        return value;
+    }
+
     private Status execOneCoord(Coordinator coord) {
         TUniqueId queryId = coord.getQueryId();
         boolean needUnregister = false;
@@ -200,11 +291,18 @@ public class ExportExportingTask extends MasterTask {
             return;
         }
         
-        try {
-            coord.setTimeout(leftTimeSecond);
-            coord.exec();
-        } catch (Exception e) {
-            LOG.warn("export Coordinator execute failed. job: {}", job.getId(), e);
+        // cancelling a coordinator which is not started does not stop the fragments sent by exec() later,
+        // so check again after the coordinator is added, and start it under the lock of cancelRunningCoords().
+        synchronized (this) {
+            if (isCancelled) {
+                return;
+            }
+            try {
+                coord.setTimeout(leftTimeSecond);
+                coord.exec();
+            } catch (Exception e) {
+                LOG.warn("export Coordinator execute failed. job: {}", job.getId(), e);
+            }
         }
 
         if (coord.join(leftTimeSecond)) {
@@ -225,22 +323,37 @@ public class ExportExportingTask extends MasterTask {
         job.addExportedFiles(exportFiles);
     }
 
-    private synchronized void onFailed(Coordinator coordinator) {
+    private synchronized void onFailed(Status status, TUniqueId queryId) {
+        if (isCancelled) {
+            // the job is already failed, the other coordinators are failed because they are cancelled
+            return;
+        }
         isCancelled = true;
-        this.failStatus = coordinator.getExecStatus();
+        this.failStatus = status;
         cancelType = ExportFailMsg.CancelType.RUN_FAIL;
-        String failMsg = "export exporting job fail. query id: " + DebugUtil.printId(coordinator.getQueryId())
-                + ", ";
+        String failMsg = "export exporting job fail. query id: " + DebugUtil.printId(queryId) + ", ";
         failMsg += failStatus.getErrorMsg();
         job.setFailMsg(new ExportFailMsg(cancelType, failMsg));
         LOG.warn("export exporting job fail. err: {}. job: {}", failMsg, job);
+        cancelRunningCoords();
     }
 
     public synchronized void onTimeout() {
+        if (isCancelled) {
+            return;
+        }
         isCancelled = true;
         this.failStatus = new Status(TStatusCode.TIMEOUT, "timeout");
         cancelType = ExportFailMsg.CancelType.TIMEOUT;
         LOG.warn("export exporting job timeout. job: {}", job);
+        cancelRunningCoords();
+    }
+
+    // no need to wait for the other coordinators if the job is failed
+    private synchronized void cancelRunningCoords() {
+        for (Coordinator coord : runningCoords) {
+            coord.cancel();
+        }
     }
 
     private void initProfile() {
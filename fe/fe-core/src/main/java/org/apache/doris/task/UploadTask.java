@@ -32,6 +32,8 @@ public class UploadTask extends AgentTask {
     private Map<String, String> srcToDestPath;
     private FsBroker broker;
     private Map<String, String> brokerProperties;
+    // speed limit of this task, no limit if <= 0
+    private long maxBytesPerSec = 0;
 
     public UploadTask(TResourceInfo resourceInfo, long backendId, long signature, long jobId, Long dbId,
             Map<String, String> srcToDestPath, FsBroker broker, Map<String, String> brokerProperties) {
@@ -58,10 +60,21 @@ public class UploadTask extends AgentTask {
         return brokerProperties;
     }
 
+    public long getMaxBytesPerSec() {
+        return maxBytesPerSec;
+    }
+
+    public void setMaxBytesPerSec(long maxBytesPerSec) {
+        this.maxBytesPerSec = maxBytesPerSec;
+    }
+
     public TUploadReq toThrift() {
         TNetworkAddress address = new TNetworkAddress(broker.ip, broker.port);
         TUploadReq request = new TUploadReq(jobId, srcToDestPath, address);
         request.setBrokerProp(brokerProperties);
+        if (maxBytesPerSec > 0) {
+            request.setMaxBytesPerSec(maxBytesPerSec);
+        }
         return request;
     }
 }
@@ -0,0 +1,58 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.analysis;
+
+import org.apache.doris.analysis.ExpressionFunctions.FEFunctionInvoker;
+import org.apache.doris.analysis.ExpressionFunctions.FEFunctionSignature;
+import org.apache.doris.catalog.ScalarType;
+import org.apache.doris.catalog.Type;
+import org.apache.doris.rewrite.FEFunctions;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+
+public class ExpressionFunctionsTest {
+
+    @Test
+    public void testSignatureHashCode() {
+        FEFunctionSignature signature1 = new FEFunctionSignature("datediff",
+                new ScalarType[] { ScalarType.createType("DATETIME"), ScalarType.createType("DATETIME") },
+                ScalarType.createType("INT"));
+        FEFunctionSignature signature2 = new FEFunctionSignature("datediff",
+                new ScalarType[] { ScalarType.createType("DATETIME"), ScalarType.createType("DATETIME") },
+                ScalarType.createType("INT"));
+        Assert.assertEquals(signature1, signature2);
+        Assert.assertEquals(signature1.hashCode(), signature2.hashCode());
+    }
+
+    @Test
+    public void testInvoke() throws Exception {
+        Method method = FEFunctions.class.getMethod("dateDiff", LiteralExpr.class, LiteralExpr.class);
+        FEFunctionSignature signature = new FEFunctionSignature("datediff",
+                new ScalarType[] { ScalarType.createType("DATETIME"), ScalarType.createType("DATETIME") },
+                ScalarType.createType("INT"));
+        FEFunctionInvoker invoker = new FEFunctionInvoker(method, signature);
+        LiteralExpr result = invoker.invoke(Lists.newArrayList(
+                new DateLiteral("2018-08-08", Type.DATE), new DateLiteral("1970-01-01", Type.DATE)));
+        Assert.assertEquals(17751, ((IntLiteral) result).getValue());
+    }
+}
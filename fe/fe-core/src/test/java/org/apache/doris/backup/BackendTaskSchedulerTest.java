@@ -0,0 +1,162 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.backup;
+
+import org.apache.doris.common.Config;
+import org.apache.doris.common.ConfigBase;
+import org.apache.doris.task.AgentBatchTask;
+import org.apache.doris.task.AgentTask;
+import org.apache.doris.task.AgentTaskExecutor;
+import org.apache.doris.task.AgentTaskQueue;
+import org.apache.doris.task.UploadTask;
+import org.apache.doris.thrift.TTaskType;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import mockit.Mock;
+import mockit.MockUp;
+
+public class BackendTaskSchedulerTest {
+    private List<AgentTask> submittedTasks = Lists.newArrayList();
+
+    @Before
+    public void setUp() {
+        new MockUp<AgentTaskExecutor>() {
+            @Mock
+            public void submit(AgentBatchTask task) {
+                submittedTasks.addAll(task.getAllTasks());
+            }
+        };
+        AgentTaskQueue.clearAllTasks();
+    }
+
+    @After
+    public void tearDown() {
+        AgentTaskQueue.clearAllTasks();
+    }
+
+    private UploadTask createTask(long backendId, long signature) {
+        return new UploadTask(null, backendId, signature, 1L, 1L, Maps.newHashMap(), null, Maps.newHashMap());
+    }
+
+    @Test
+    public void testSendTasks() {
+        BackendTaskScheduler scheduler = new BackendTaskScheduler(2);
+        // 3 tasks on backend 10001, 1 task on backend 10002
+        List<UploadTask> tasks = Lists.newArrayList(createTask(10001L, 1L), createTask(10001L, 2L),
+                createTask(10001L, 3L), createTask(10002L, 4L));
+        for (UploadTask task : tasks) {
+            scheduler.addTask(task);
+        }
+
+        Assert.assertEquals(3, scheduler.sendTasks());
+        Assert.assertEquals(1, scheduler.getPendingTaskNum());
+        Assert.assertNull(AgentTaskQueue.getTask(10001L, TTaskType.UPLOAD, 3L));
+
+        // no free slot
+        Assert.assertEquals(0, scheduler.sendTasks());
+
+        // finished task of another backend does not send the pending task
+        scheduler.finishTask(tasks.get(3));
+        Assert.assertEquals(1, scheduler.getPendingTaskNum());
+
+        scheduler.finishTask(tasks.get(0));
+        Assert.assertEquals(0, scheduler.getPendingTaskNum());
+        Assert.assertNotNull(AgentTaskQueue.getTask(10001L, TTaskType.UPLOAD, 3L));
+
+        // finish the same task again
+        scheduler.finishTask(tasks.get(0));
+        Assert.assertEquals(4, AgentTaskQueue.getTaskNum());
+    }
+
+    @Test
+    public void testResendTasks() {
+        BackendTaskScheduler scheduler = new BackendTaskScheduler(1);
+        UploadTask task1 = createTask(10001L, 1L);
+        UploadTask task2 = createTask(10001L, 2L);
+        scheduler.addTask(task1);
+        scheduler.addTask(task2);
+        Assert.assertEquals(1, scheduler.sendTasks());
+
+        // the backend lost the running task, it is resent in its own slot
+        submittedTasks.clear();
+        scheduler.resendTask(task1);
+        Assert.assertEquals(Lists.newArrayList(task1), submittedTasks);
+        Assert.assertEquals(1, scheduler.getPendingTaskNum());
+
+        // the task failed and freed its slot for the next one, it waits for a free slot to be resent
+        submittedTasks.clear();
+        scheduler.finishTask(task1);
+        Assert.assertEquals(Lists.newArrayList(task2), submittedTasks);
+        scheduler.resendTask(task1);
+        scheduler.resendTask(task1);
+        Assert.assertEquals(Lists.newArrayList(task2), submittedTasks);
+        Assert.assertEquals(1, scheduler.getPendingTaskNum());
+
+        scheduler.finishTask(task2);
+        Assert.assertEquals(Lists.newArrayList(task2, task1), submittedTasks);
+        Assert.assertEquals(0, scheduler.getPendingTaskNum());
+    }
+
+    @Test
+    public void testMaxTasksPerBackendConfig() throws Exception {
+        Field field = Config.class.getField("backup_job_max_tasks_per_backend");
+        int origin = Config.backup_job_max_tasks_per_backend;
+        try {
+            for (String value : new String[] {"0", "-1"}) {
+                try {
+                    ConfigBase.setConfigField(field, value);
+                    Assert.fail();
+                } catch (Exception e) {
+                    Assert.assertTrue(e.getMessage(), e.getMessage().contains("must be at least 1"));
+                }
+                Assert.assertEquals(origin, Config.backup_job_max_tasks_per_backend);
+            }
+            ConfigBase.setConfigField(field, "3");
+            Assert.assertEquals(3, Config.backup_job_max_tasks_per_backend);
+        } finally {
+            Config.backup_job_max_tasks_per_backend = origin;
+        }
+    }
+
+    @Test
+    public void testSplitTransferTasks() {
+        BackendTaskScheduler scheduler = new BackendTaskScheduler(3);
+        List<Integer> items = Lists.newArrayList(1, 2, 3, 4, 5, 6, 7);
+        List<List<Integer>> batches = scheduler.splitTransferTasks(items);
+        Assert.assertEquals(3, batches.size());
+        Assert.assertEquals(3, batches.get(0).size());
+        Assert.assertEquals(1, batches.get(2).size());
+
+        items = Lists.newArrayList();
+        for (int i = 0; i < 100; i++) {
+            items.add(i);
+        }
+        batches = scheduler.splitTransferTasks(items);
+        Assert.assertEquals(100 / BackendTaskScheduler.MAX_TABLETS_PER_TRANSFER_TASK, batches.size());
+    }
+}
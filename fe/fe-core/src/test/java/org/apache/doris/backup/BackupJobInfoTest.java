@@ -17,6 +17,8 @@
 
 package org.apache.doris.backup;
 
+import org.apache.doris.backup.RestoreFileMapping.IdChain;
+
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -181,4 +183,38 @@ public class BackupJobInfoTest {
             tmpFile.delete();
         }
     }
+
+    @Test
+    public void testIncrementalReadWrite() throws IOException {
+        BackupJobInfo jobInfo = BackupJobInfo.fromFile(fileName);
+        Assert.assertNull(jobInfo.baseTimestamp);
+        Assert.assertEquals(Repository.DIR_SNAPSHOT_CONTENT,
+                            jobInfo.getTableInfo("table1").getPartInfo("partition1").contentDir);
+
+        jobInfo.baseTimestamp = "2018-03-28-18-11-04";
+        jobInfo.getTableInfo("table1").getPartInfo("partition1").contentDir =
+                Repository.PREFIX_INCR_CONTENT + "2018-03-29-18-11-04";
+
+        File tmpFile = new File("./tmp_incr");
+        try {
+            DataOutputStream out = new DataOutputStream(new FileOutputStream(tmpFile));
+            jobInfo.write(out);
+            out.flush();
+            out.close();
+
+            DataInputStream in = new DataInputStream(new FileInputStream(tmpFile));
+            BackupJobInfo newInfo = BackupJobInfo.read(in);
+            in.close();
+
+            Assert.assertEquals("2018-03-28-18-11-04", newInfo.baseTimestamp);
+            // partition1 of table1
+            Assert.assertEquals(Repository.PREFIX_INCR_CONTENT + "2018-03-29-18-11-04",
+                                newInfo.getContentDir(new IdChain(10001L, 10002L, 10009L, 10008L, -1L)));
+            // partition2 of table1
+            Assert.assertEquals(Repository.DIR_SNAPSHOT_CONTENT,
+                                newInfo.getContentDir(new IdChain(10001L, 10007L, 10009L, 10008L, -1L)));
+        } finally {
+            tmpFile.delete();
+        }
+    }
 }
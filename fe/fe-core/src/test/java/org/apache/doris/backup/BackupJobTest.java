@@ -20,10 +20,16 @@ package org.apache.doris.backup;
 import org.apache.doris.analysis.TableName;
 import org.apache.doris.analysis.TableRef;
 import org.apache.doris.backup.BackupJob.BackupJobState;
+import org.apache.doris.backup.BackupJobInfo.BackupPartitionInfo;
 import org.apache.doris.catalog.Catalog;
 import org.apache.doris.catalog.Database;
 import org.apache.doris.catalog.FsBroker;
+import org.apache.doris.catalog.MaterializedIndex;
 import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.catalog.Replica;
+import org.apache.doris.catalog.Replica.ReplicaState;
+import org.apache.doris.catalog.Tablet;
+import org.apache.doris.catalog.TabletMeta;
 import org.apache.doris.common.Config;
 import org.apache.doris.common.FeConstants;
 import org.apache.doris.common.jmockit.Deencapsulation;
@@ -39,6 +45,7 @@ import org.apache.doris.thrift.TBackend;
 import org.apache.doris.thrift.TFinishTaskRequest;
 import org.apache.doris.thrift.TStatus;
 import org.apache.doris.thrift.TStatusCode;
+import org.apache.doris.thrift.TStorageMedium;
 import org.apache.doris.thrift.TTaskType;
 
 import com.google.common.collect.Lists;
@@ -158,7 +165,11 @@ public class BackupJobTest {
 
                 catalog.getNextId();
                 minTimes = 0;
-                result = id.getAndIncrement();
+                result = new Delegate() {
+                    long getNextId() {
+                        return id.getAndIncrement();
+                    }
+                };
 
                 catalog.getEditLog();
                 minTimes = 0;
@@ -327,6 +338,214 @@ public class BackupJobTest {
         Assert.assertEquals(BackupJobState.FINISHED, job.getState());
     }
 
+    @Test
+    public void testRunWithTaskLimit() {
+        // 11 tablets on one backend, which are uploaded by 2 tasks
+        MaterializedIndex index = ((OlapTable) db.getTable(tblId)).getPartition(partId).getIndex(idxId);
+        for (long extraTabletId = 100; extraTabletId < 110; extraTabletId++) {
+            Tablet tablet = new Tablet(extraTabletId);
+            index.addTablet(tablet, new TabletMeta(dbId, tblId, partId, idxId, 0, TStorageMedium.HDD));
+            tablet.addReplica(new Replica(extraTabletId, backendId, ReplicaState.NORMAL, version, versionHash, 0));
+        }
+        AgentTaskQueue.clearAllTasks();
+        job.setBackendTaskLimit(1, 1024 * 1024);
+
+        // 1. snapshot tasks are not limited
+        job.run();
+        Assert.assertEquals(Status.OK, job.getStatus());
+        Assert.assertEquals(BackupJobState.SNAPSHOTING, job.getState());
+        Assert.assertEquals(11, AgentTaskQueue.getTaskNum());
+        TBackend tBackend = new TBackend("", 0, 1);
+        for (Tablet tablet : index.getTablets()) {
+            SnapshotTask snapshotTask = (SnapshotTask) AgentTaskQueue.getTask(backendId, TTaskType.MAKE_SNAPSHOT,
+                    tablet.getId());
+            Assert.assertNotNull(snapshotTask);
+            TFinishTaskRequest request = new TFinishTaskRequest(tBackend, TTaskType.MAKE_SNAPSHOT,
+                    snapshotTask.getSignature(), new TStatus(TStatusCode.OK));
+            request.setSnapshotFiles(Lists.newArrayList("1.dat", "1.idx", "1.hdr"));
+            request.setSnapshotPath("/path/to/snapshot");
+            Assert.assertTrue(job.finishTabletSnapshotTask(snapshotTask, request));
+        }
+        job.run();
+        Assert.assertEquals(BackupJobState.UPLOAD_SNAPSHOT, job.getState());
+
+        // 2. only one upload task is sent, with the whole speed limit of the backend
+        AgentTaskQueue.clearAllTasks();
+        job.run();
+        Assert.assertEquals(Status.OK, job.getStatus());
+        Assert.assertEquals(BackupJobState.UPLOADING, job.getState());
+        Assert.assertEquals(1, AgentTaskQueue.getTaskNum());
+        UploadTask firstTask = (UploadTask) AgentTaskQueue.getTask(backendId, TTaskType.UPLOAD, id.get() - 2);
+        Assert.assertNotNull(firstTask);
+        Assert.assertEquals(BackendTaskScheduler.MAX_TABLETS_PER_TRANSFER_TASK, firstTask.getSrcToDestPath().size());
+        Assert.assertEquals(1024 * 1024, firstTask.getMaxBytesPerSec());
+
+        // 3. the next task is sent when the running one fails, the failed one is kept to be resent
+        TFinishTaskRequest request = new TFinishTaskRequest(tBackend, TTaskType.UPLOAD,
+                firstTask.getSignature(), new TStatus(TStatusCode.INTERNAL_ERROR));
+        request.getTaskStatus().setErrorMsgs(Lists.newArrayList("broker is down"));
+        Assert.assertFalse(job.finishSnapshotUploadTask(firstTask, request));
+        Assert.assertEquals(2, AgentTaskQueue.getTaskNum());
+        UploadTask secondTask = (UploadTask) AgentTaskQueue.getTask(backendId, TTaskType.UPLOAD, id.get() - 1);
+        Assert.assertNotNull(secondTask);
+        Assert.assertEquals(1, secondTask.getSrcToDestPath().size());
+
+        // 4. finish both tasks
+        Assert.assertTrue(job.finishSnapshotUploadTask(secondTask, createUploadFinishRequest(secondTask)));
+        Assert.assertTrue(job.finishSnapshotUploadTask(firstTask, createUploadFinishRequest(firstTask)));
+        job.run();
+        Assert.assertEquals(Status.OK, job.getStatus());
+        Assert.assertEquals(BackupJobState.SAVE_META, job.getState());
+    }
+
+    private TFinishTaskRequest createUploadFinishRequest(UploadTask task) {
+        Map<Long, SnapshotInfo> snapshotInfos = Deencapsulation.getField(job, "snapshotInfos");
+        Map<Long, List<String>> tabletFileMap = Maps.newHashMap();
+        for (SnapshotInfo info : snapshotInfos.values()) {
+            if (task.getSrcToDestPath().containsKey(info.getTabletPath())) {
+                tabletFileMap.put(info.getTabletId(), Lists.newArrayList("1.dat.4f158689243a3d6030352fec3cfd3798",
+                        "1.idx.4f158689243a3d6030352fec3cfd3798", "1.hdr.4f158689243a3d6030352fec3cfd3798"));
+            }
+        }
+        TFinishTaskRequest request = new TFinishTaskRequest(new TBackend("", 0, 1), TTaskType.UPLOAD,
+                task.getSignature(), new TStatus(TStatusCode.OK));
+        request.setTabletFiles(tabletFileMap);
+        return request;
+    }
+
+    // job info of a previous backup of the same label, with the given version and content dir of the partition
+    private BackupJobInfo createBaseJobInfo(long baseVersion, String contentDir) {
+        Map<Long, SnapshotInfo> snapshotInfos = Maps.newHashMap();
+        snapshotInfos.put(tabletId, new SnapshotInfo(dbId, tblId, partId, idxId, tabletId, backendId, 0,
+                "/path/to/base/snapshot", Lists.newArrayList("1.dat", "1.idx", "1.hdr")));
+        BackupJobInfo baseJobInfo = BackupJobInfo.fromCatalog(System.currentTimeMillis() - 3600 * 1000, "label",
+                UnitTestUtil.DB_NAME, dbId, Lists.newArrayList(db.getTable(tblId)), snapshotInfos);
+        BackupPartitionInfo partInfo = baseJobInfo.getTableInfo(UnitTestUtil.TABLE_NAME)
+                .getPartInfo(UnitTestUtil.PARTITION_NAME);
+        partInfo.version = baseVersion;
+        partInfo.contentDir = contentDir;
+        return baseJobInfo;
+    }
+
+    // mock the job info file of base snapshot in repository, and record the uploaded remote files
+    private void mockBaseSnapshot(BackupJobInfo baseJobInfo, List<String> uploadedFiles) {
+        new MockUp<Repository>() {
+            @Mock
+            Status upload(String localFilePath, String remoteFilePath) {
+                uploadedFiles.add(remoteFilePath);
+                return Status.OK;
+            }
+
+            @Mock
+            Status getBrokerAddress(Long beId, Catalog catalog, List<FsBroker> brokerAddrs) {
+                brokerAddrs.add(new FsBroker());
+                return Status.OK;
+            }
+
+            @Mock
+            Status getSnapshotInfoFile(String label, String backupTimestamp, List<BackupJobInfo> infos) {
+                infos.add(baseJobInfo);
+                return Status.OK;
+            }
+        };
+    }
+
+    @Test
+    public void testIncrementalBackupWithUnchangedPartition() throws IOException {
+        // the partition is not changed since it was backed up by an earlier incremental backup
+        String baseContentDir = Repository.PREFIX_INCR_CONTENT + "2020-01-01-00-00-00";
+        BackupJobInfo baseJobInfo = createBaseJobInfo(version, baseContentDir);
+        List<String> uploadedFiles = Lists.newArrayList();
+        mockBaseSnapshot(baseJobInfo, uploadedFiles);
+
+        AgentTaskQueue.clearAllTasks();
+        List<TableRef> tableRefs = Lists.newArrayList();
+        tableRefs.add(new TableRef(new TableName(UnitTestUtil.DB_NAME, UnitTestUtil.TABLE_NAME), null));
+        job = new BackupJob("label", dbId, UnitTestUtil.DB_NAME, tableRefs, 13600 * 1000, catalog, repo.getId(),
+                "2020-01-02-00-00-00");
+        Assert.assertTrue(job.isIncremental());
+
+        // 1. no snapshot task for the unchanged partition
+        job.run();
+        Assert.assertEquals(Status.OK, job.getStatus());
+        Assert.assertEquals(BackupJobState.SNAPSHOTING, job.getState());
+        Assert.assertEquals(0, AgentTaskQueue.getTaskNum());
+
+        // 2. nothing to upload
+        job.run();
+        Assert.assertEquals(BackupJobState.UPLOAD_SNAPSHOT, job.getState());
+        job.run();
+        Assert.assertEquals(BackupJobState.UPLOADING, job.getState());
+        Assert.assertEquals(0, AgentTaskQueue.getTaskNum());
+        job.run();
+        Assert.assertEquals(BackupJobState.SAVE_META, job.getState());
+
+        // 3. the partition in job info refers to the content dir of base snapshot
+        job.run();
+        Assert.assertEquals(Status.OK, job.getStatus());
+        Assert.assertEquals(BackupJobState.UPLOAD_INFO, job.getState());
+        BackupJobInfo jobInfo = BackupJobInfo.fromFile(job.getLocalJobInfoFilePath());
+        Assert.assertEquals("2020-01-02-00-00-00", jobInfo.baseTimestamp);
+        BackupPartitionInfo partInfo = jobInfo.getTableInfo(UnitTestUtil.TABLE_NAME)
+                .getPartInfo(UnitTestUtil.PARTITION_NAME);
+        Assert.assertEquals(partId, partInfo.id);
+        Assert.assertEquals(version, partInfo.version);
+        Assert.assertEquals(baseContentDir, partInfo.contentDir);
+        Assert.assertEquals(Lists.newArrayList("1.dat", "1.idx", "1.hdr"),
+                partInfo.getIdx(UnitTestUtil.TABLE_NAME).getTablet(tabletId).files);
+
+        // 4. the meta info file of base snapshot is not overwritten
+        job.run();
+        Assert.assertEquals(Status.OK, job.getStatus());
+        Assert.assertEquals(BackupJobState.FINISHED, job.getState());
+        Assert.assertEquals(2, uploadedFiles.size());
+        Assert.assertTrue(uploadedFiles.get(0).contains(Repository.PREFIX_INCR_META));
+        Assert.assertTrue(uploadedFiles.get(1).contains(Repository.PREFIX_JOB_INFO));
+    }
+
+    @Test
+    public void testIncrementalBackupWithChangedPartition() {
+        // the partition has new versions since the base snapshot
+        BackupJobInfo baseJobInfo = createBaseJobInfo(version - 1, Repository.DIR_SNAPSHOT_CONTENT);
+        mockBaseSnapshot(baseJobInfo, Lists.newArrayList());
+
+        AgentTaskQueue.clearAllTasks();
+        List<TableRef> tableRefs = Lists.newArrayList();
+        tableRefs.add(new TableRef(new TableName(UnitTestUtil.DB_NAME, UnitTestUtil.TABLE_NAME), null));
+        job = new BackupJob("label", dbId, UnitTestUtil.DB_NAME, tableRefs, 13600 * 1000, catalog, repo.getId(),
+                "2020-01-02-00-00-00");
+
+        // 1. the changed partition is snapshotted again
+        job.run();
+        Assert.assertEquals(Status.OK, job.getStatus());
+        Assert.assertEquals(BackupJobState.SNAPSHOTING, job.getState());
+        Assert.assertEquals(1, AgentTaskQueue.getTaskNum());
+        SnapshotTask snapshotTask = (SnapshotTask) AgentTaskQueue.getTask(backendId, TTaskType.MAKE_SNAPSHOT,
+                tabletId);
+        Assert.assertNotNull(snapshotTask);
+
+        String snapshotPath = "/path/to/snapshot";
+        TFinishTaskRequest request = new TFinishTaskRequest(new TBackend("", 0, 1), TTaskType.MAKE_SNAPSHOT,
+                snapshotTask.getSignature(), new TStatus(TStatusCode.OK));
+        request.setSnapshotFiles(Lists.newArrayList("1.dat", "1.idx", "1.hdr"));
+        request.setSnapshotPath(snapshotPath);
+        Assert.assertTrue(job.finishTabletSnapshotTask(snapshotTask, request));
+        job.run();
+        Assert.assertEquals(BackupJobState.UPLOAD_SNAPSHOT, job.getState());
+
+        // 2. and uploaded to the content dir of this backup instead of the content dir of full backup
+        AgentTaskQueue.clearAllTasks();
+        job.run();
+        Assert.assertEquals(Status.OK, job.getStatus());
+        Assert.assertEquals(BackupJobState.UPLOADING, job.getState());
+        UploadTask upTask = (UploadTask) AgentTaskQueue.getTask(backendId, TTaskType.UPLOAD, id.get() - 1);
+        Assert.assertNotNull(upTask);
+        String dest = upTask.getSrcToDestPath().get(snapshotPath + "/" + tabletId + "/" + 0);
+        Assert.assertNotNull(dest);
+        Assert.assertTrue(dest.contains("/" + Repository.PREFIX_INCR_CONTENT));
+        Assert.assertFalse(dest.contains("/" + Repository.DIR_SNAPSHOT_CONTENT + "/"));
+    }
+
     @Test
     public void testRunAbnormal() {
         // 1.pending
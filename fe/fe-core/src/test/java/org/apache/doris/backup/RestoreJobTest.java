@@ -21,13 +21,16 @@ import org.apache.doris.backup.BackupJobInfo.BackupIndexInfo;
 import org.apache.doris.backup.BackupJobInfo.BackupPartitionInfo;
 import org.apache.doris.backup.BackupJobInfo.BackupTableInfo;
 import org.apache.doris.backup.BackupJobInfo.BackupTabletInfo;
+import org.apache.doris.backup.RestoreFileMapping.IdChain;
 import org.apache.doris.backup.RestoreJob.RestoreJobState;
 import org.apache.doris.catalog.Catalog;
 import org.apache.doris.catalog.Database;
+import org.apache.doris.catalog.FsBroker;
 import org.apache.doris.catalog.MaterializedIndex;
 import org.apache.doris.catalog.MaterializedIndex.IndexExtState;
 import org.apache.doris.catalog.OlapTable;
 import org.apache.doris.catalog.Partition;
+import org.apache.doris.catalog.Replica;
 import org.apache.doris.catalog.Table;
 import org.apache.doris.catalog.Tablet;
 import org.apache.doris.common.AnalysisException;
@@ -36,7 +39,9 @@ import org.apache.doris.common.MarkedCountDownLatch;
 import org.apache.doris.common.jmockit.Deencapsulation;
 import org.apache.doris.persist.EditLog;
 import org.apache.doris.system.SystemInfoService;
+import org.apache.doris.task.AgentBatchTask;
 import org.apache.doris.task.AgentTask;
+import org.apache.doris.task.AgentTaskExecutor;
 import org.apache.doris.task.AgentTaskQueue;
 import org.apache.doris.task.DirMoveTask;
 import org.apache.doris.task.DownloadTask;
@@ -47,8 +52,10 @@ import org.apache.doris.thrift.TStatus;
 import org.apache.doris.thrift.TStatusCode;
 import org.apache.doris.thrift.TTaskType;
 
+import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -364,6 +371,105 @@ public class RestoreJobTest {
         Assert.assertEquals(RestoreJobState.FINISHED, job.getState());
     }
 
+    @Test
+    public void testRestoreFromIncrementalBackup() {
+        // p1 is changed after the full backup and saved in the content dir of the incremental backup,
+        // p2 is not changed and still refers to the content dir of the full backup.
+        String incrContentDir = Repository.PREFIX_INCR_CONTENT + "2018-01-01-01-01-01";
+        jobInfo.baseTimestamp = "2018-01-01-00-00-00";
+        BackupTableInfo tblInfo = jobInfo.getTableInfo(CatalogMocker.TEST_TBL2_NAME);
+        tblInfo.getPartInfo(CatalogMocker.TEST_PARTITION1_NAME).contentDir = incrContentDir;
+        Assert.assertEquals(Repository.DIR_SNAPSHOT_CONTENT,
+                tblInfo.getPartInfo(CatalogMocker.TEST_PARTITION2_NAME).contentDir);
+
+        List<AgentTask> submittedTasks = Lists.newArrayList();
+        new MockUp<AgentTaskExecutor>() {
+            @Mock
+            public void submit(AgentBatchTask task) {
+                submittedTasks.addAll(task.getAllTasks());
+            }
+        };
+
+        new Expectations() {
+            {
+                repo.getIncrSnapshotMetaFile(label, anyString, (List<BackupMeta>) any, anyInt);
+                result = new Delegate() {
+                    public Status getIncrSnapshotMetaFile(String label, String backupTimestamp,
+                            List<BackupMeta> backupMetas, int metaVersion) {
+                        backupMetas.add(backupMeta);
+                        return Status.OK;
+                    }
+                };
+
+                repo.getBrokerAddress((Long) any, (Catalog) any, (List<FsBroker>) any);
+                minTimes = 0;
+                result = new Delegate() {
+                    public Status getBrokerAddress(Long beId, Catalog catalog, List<FsBroker> brokerAddrs) {
+                        brokerAddrs.add(new FsBroker());
+                        return Status.OK;
+                    }
+                };
+
+                repo.getRepoPath(label, anyString, anyString);
+                minTimes = 0;
+                result = new Delegate() {
+                    public String getRepoPath(String label, String contentDir, String childPath) {
+                        return contentDir + "/" + childPath;
+                    }
+                };
+            }
+        };
+
+        // 1. the meta info is downloaded from the incremental backup
+        Deencapsulation.setField(job, "repo", repo);
+        boolean downloaded = Deencapsulation.invoke(job, "downloadAndDeserializeMetaInfo");
+        Assert.assertTrue(downloaded);
+
+        // 2. prepare the restored table as if the snapshots of its replicas were made
+        db.createTable(expectedRestoreTbl);
+        RestoreFileMapping fileMapping = job.getFileMapping();
+        com.google.common.collect.Table<Long, Long, SnapshotInfo> snapshotInfos = HashBasedTable.create();
+        Map<Long, String> tabletToContentDir = Maps.newHashMap();
+        for (Partition partition : expectedRestoreTbl.getPartitions()) {
+            for (MaterializedIndex index : partition.getMaterializedIndices(IndexExtState.VISIBLE)) {
+                for (Tablet tablet : index.getTablets()) {
+                    tabletToContentDir.put(tablet.getId(),
+                            tblInfo.getPartInfo(partition.getName()).contentDir);
+                    for (Replica replica : tablet.getReplicas()) {
+                        IdChain ids = new IdChain(expectedRestoreTbl.getId(), partition.getId(), index.getId(),
+                                tablet.getId(), replica.getId());
+                        fileMapping.putMapping(ids, ids, true);
+                        snapshotInfos.put(tablet.getId(), replica.getBackendId(),
+                                new SnapshotInfo(db.getId(), expectedRestoreTbl.getId(), partition.getId(),
+                                        index.getId(), tablet.getId(), replica.getBackendId(),
+                                        CatalogMocker.SCHEMA_HASH, "/path/to/snapshot",
+                                        Lists.newArrayList()));
+                    }
+                }
+            }
+        }
+        Deencapsulation.setField(job, "snapshotInfos", snapshotInfos);
+
+        // 3. each tablet is downloaded from the content dir of its partition
+        Deencapsulation.invoke(job, "downloadSnapshots");
+        Assert.assertEquals(Status.OK, job.getStatus());
+        Assert.assertEquals(RestoreJobState.DOWNLOADING, job.getState());
+        int downloadNum = 0;
+        Set<String> contentDirs = Sets.newHashSet();
+        for (AgentTask agentTask : submittedTasks) {
+            DownloadTask downloadTask = (DownloadTask) agentTask;
+            for (Map.Entry<String, String> entry : downloadTask.getSrcToDestPath().entrySet()) {
+                long tabletId = Long.parseLong(entry.getKey().substring(entry.getKey().lastIndexOf("__") + 2));
+                String contentDir = entry.getKey().substring(0, entry.getKey().indexOf("/"));
+                Assert.assertEquals(tabletToContentDir.get(tabletId), contentDir);
+                contentDirs.add(contentDir);
+                downloadNum++;
+            }
+        }
+        Assert.assertEquals(snapshotInfos.size(), downloadNum);
+        Assert.assertEquals(Sets.newHashSet(incrContentDir, Repository.DIR_SNAPSHOT_CONTENT), contentDirs);
+    }
+
     @Test
     public void testSignature() {
         Adler32 sig1 = new Adler32();
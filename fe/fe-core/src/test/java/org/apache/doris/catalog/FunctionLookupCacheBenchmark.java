@@ -0,0 +1,67 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.catalog;
+
+import org.apache.doris.analysis.FunctionName;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/*
+ * Resolve the functions of a typical query by FunctionSet with and without the lookup cache,
+ * and log the time of each lookup.
+ * It is not a unit test, run it by its main method.
+ */
+public class FunctionLookupCacheBenchmark {
+    private static final Logger LOG = LogManager.getLogger(FunctionLookupCacheBenchmark.class);
+
+    private static final int LOOKUPS = 1000000;
+
+    public static void main(String[] args) {
+        FunctionSet functionSet = new FunctionSet();
+        functionSet.init();
+        // the arg types are not the exact ones of the builtins, so they are resolved by the supertype
+        Function[] descs = {
+                new Function(new FunctionName("add"), new Type[] { Type.INT, Type.SMALLINT }, Type.INVALID, false),
+                new Function(new FunctionName("multiply"), new Type[] { Type.INT, Type.DOUBLE }, Type.INVALID, false),
+                new Function(new FunctionName("if"), new Type[] { Type.BOOLEAN, Type.INT, Type.BIGINT },
+                        Type.INVALID, false),
+                new Function(new FunctionName("substr"), new Type[] { Type.VARCHAR, Type.TINYINT, Type.TINYINT },
+                        Type.INVALID, false),
+                new Function(new FunctionName("concat"), new Type[] { Type.VARCHAR, Type.CHAR, Type.VARCHAR },
+                        Type.INVALID, false),
+                new Function(new FunctionName("abs"), new Type[] { Type.SMALLINT }, Type.INVALID, false),
+        };
+        for (int round = 0; round < 3; round++) {
+            benchmark("resolve", descs, (desc, mode) -> functionSet.resolveFunction(desc, mode));
+            benchmark("cached", descs, (desc, mode) -> functionSet.getFunction(desc, mode));
+        }
+    }
+
+    private static void benchmark(String name, Function[] descs, FunctionLookupCache.Resolver resolver) {
+        long startNs = System.nanoTime();
+        int found = 0;
+        for (int i = 0; i < LOOKUPS; i++) {
+            if (resolver.resolve(descs[i % descs.length], Function.CompareMode.IS_NONSTRICT_SUPERTYPE_OF) != null) {
+                found++;
+            }
+        }
+        long costNs = System.nanoTime() - startNs;
+        LOG.info("{}: {} lookups, {} found, {} ns per lookup", name, LOOKUPS, found, costNs / LOOKUPS);
+    }
+}
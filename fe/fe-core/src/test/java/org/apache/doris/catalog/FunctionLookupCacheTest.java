@@ -0,0 +1,78 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.catalog;
+
+import org.apache.doris.analysis.FunctionName;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class FunctionLookupCacheTest {
+
+    @Test
+    public void testCacheAndInvalidate() {
+        FunctionLookupCache cache = new FunctionLookupCache();
+        Function fn = new Function(new FunctionName("add"), new Type[] { Type.BIGINT, Type.BIGINT },
+                Type.BIGINT, false);
+        AtomicInteger resolveTimes = new AtomicInteger(0);
+        FunctionLookupCache.Resolver resolver = (desc, mode) -> {
+            resolveTimes.incrementAndGet();
+            return desc.getArgs().length == 2 ? fn : null;
+        };
+
+        Function desc = new Function(new FunctionName("add"), new Type[] { Type.INT, Type.INT },
+                Type.INVALID, false);
+        Assert.assertSame(fn, cache.getFunction(desc, Function.CompareMode.IS_SUPERTYPE_OF, resolver));
+        Function sameDesc = new Function(new FunctionName("add"), new Type[] { Type.INT, Type.INT },
+                Type.INVALID, false);
+        Assert.assertSame(fn, cache.getFunction(sameDesc, Function.CompareMode.IS_SUPERTYPE_OF, resolver));
+        Assert.assertEquals(1, resolveTimes.get());
+
+        // different compare mode or arg types are resolved separately
+        cache.getFunction(desc, Function.CompareMode.IS_IDENTICAL, resolver);
+        Assert.assertEquals(2, resolveTimes.get());
+        Function otherDesc = new Function(new FunctionName("add"), new Type[] { Type.INT, Type.DOUBLE },
+                Type.INVALID, false);
+        cache.getFunction(otherDesc, Function.CompareMode.IS_SUPERTYPE_OF, resolver);
+        Assert.assertEquals(3, resolveTimes.get());
+
+        // negative results are cached
+        Function missingDesc = new Function(new FunctionName("add"), new Type[] { Type.INT },
+                Type.INVALID, false);
+        Assert.assertNull(cache.getFunction(missingDesc, Function.CompareMode.IS_SUPERTYPE_OF, resolver));
+        Assert.assertNull(cache.getFunction(missingDesc, Function.CompareMode.IS_SUPERTYPE_OF, resolver));
+        Assert.assertEquals(4, resolveTimes.get());
+
+        cache.invalidate();
+        Assert.assertEquals(0, cache.size());
+        cache.getFunction(desc, Function.CompareMode.IS_SUPERTYPE_OF, resolver);
+        Assert.assertEquals(5, resolveTimes.get());
+    }
+
+    @Test
+    public void testFunctionSetLookup() {
+        FunctionSet functionSet = new FunctionSet();
+        functionSet.init();
+        Function desc = new Function(new FunctionName("abs"), new Type[] { Type.INT }, Type.INVALID, false);
+        Function fn = functionSet.getFunction(desc, Function.CompareMode.IS_NONSTRICT_SUPERTYPE_OF);
+        Assert.assertNotNull(fn);
+        Assert.assertSame(fn, functionSet.getFunction(desc, Function.CompareMode.IS_NONSTRICT_SUPERTYPE_OF));
+    }
+}
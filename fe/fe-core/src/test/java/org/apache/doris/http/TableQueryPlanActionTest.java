@@ -67,7 +67,9 @@ public class TableQueryPlanActionTest extends DorisHttpTestCase {
             Assert.assertEquals(testStartVersion, tabletObject.getLong("version"));
             Assert.assertEquals(testStartVersionHash, tabletObject.getLong("versionHash"));
             Assert.assertEquals(testSchemaHash, tabletObject.getLong("schemaHash"));
-
+            // the old clients fail on the unknown fields, so they are not returned by default
+            Assert.assertFalse(tabletObject.has("dataSize"));
+            Assert.assertFalse(tabletObject.has("rowCount"));
         }
         String queryPlan = jsonObject.getString("opaqued_query_plan");
         Assert.assertNotNull(queryPlan);
@@ -79,6 +81,28 @@ public class TableQueryPlanActionTest extends DorisHttpTestCase {
         System.out.println(tQueryPlanInfo);
     }
 
+    @Test
+    public void testQueryPlanActionWithTabletSize() throws IOException {
+        RequestBody body = RequestBody.create(JSON, "{ \"sql\" :  \" select k1,k2 from " + DB_NAME + "." + TABLE_NAME + " \" }");
+        Request request = new Request.Builder()
+                .post(body)
+                .addHeader("Authorization", rootAuth)
+                .url(URI + PATH_URI + "?with_tablet_size=true")
+                .build();
+        Response response = networkClient.newCall(request).execute();
+        String respStr = response.body().string();
+        JSONObject jsonObject = new JSONObject(respStr);
+        Assert.assertEquals(200, jsonObject.getInt("status"));
+
+        JSONObject partitionsObject = jsonObject.getJSONObject("partitions");
+        Assert.assertNotNull(partitionsObject);
+        for (String tabletKey : partitionsObject.keySet()) {
+            JSONObject tabletObject = partitionsObject.getJSONObject(tabletKey);
+            Assert.assertTrue(tabletObject.getLong("dataSize") >= 0);
+            Assert.assertTrue(tabletObject.getLong("rowCount") >= 0);
+        }
+    }
+
     @Test
     public void testInconsistentResource() throws IOException {
         RequestBody body = RequestBody.create(JSON, "{ \"sql\" :  \" select k1,k2 from " + DB_NAME + "." + TABLE_NAME + 1 + " \" }");
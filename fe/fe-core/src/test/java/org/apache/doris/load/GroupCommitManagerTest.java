@@ -0,0 +1,332 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.load;
+
+import org.apache.doris.analysis.CreateDbStmt;
+import org.apache.doris.analysis.CreateTableStmt;
+import org.apache.doris.analysis.Expr;
+import org.apache.doris.analysis.InsertStmt;
+import org.apache.doris.analysis.IntLiteral;
+import org.apache.doris.analysis.SelectStmt;
+import org.apache.doris.analysis.SqlParser;
+import org.apache.doris.analysis.SqlScanner;
+import org.apache.doris.analysis.StringLiteral;
+import org.apache.doris.catalog.Catalog;
+import org.apache.doris.common.Config;
+import org.apache.doris.common.DdlException;
+import org.apache.doris.common.util.SqlParserUtils;
+import org.apache.doris.qe.ConnectContext;
+import org.apache.doris.qe.QueryState.MysqlStateType;
+import org.apache.doris.utframe.UtFrameUtils;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class GroupCommitManagerTest {
+    // use a unique dir so that it won't be conflict with other unit test which
+    // may also start a Mocked Frontend
+    private static String runningDir = "fe/mocked/GroupCommitManagerTest/" + UUID.randomUUID().toString() + "/";
+
+    private static ConnectContext connectContext;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        UtFrameUtils.createMinDorisCluster(runningDir);
+        connectContext = UtFrameUtils.createDefaultCtx();
+        connectContext.getSessionVariable().setEnableInsertStrict(true);
+        String createDbStmtStr = "create database test;";
+        CreateDbStmt createDbStmt = (CreateDbStmt) UtFrameUtils.parseAndAnalyzeStmt(createDbStmtStr, connectContext);
+        Catalog.getCurrentCatalog().createDb(createDbStmt);
+
+        String createTableStr = "create table test.tbl1 (k1 int, k2 varchar(10), v1 int sum) "
+                + "aggregate key(k1, k2) distributed by hash(k1) buckets 3 properties('replication_num' = '1');";
+        CreateTableStmt createTableStmt = (CreateTableStmt) UtFrameUtils.parseAndAnalyzeStmt(createTableStr, connectContext);
+        Catalog.getCurrentCatalog().createTable(createTableStmt);
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        File file = new File(runningDir);
+        file.delete();
+    }
+
+    private long groupCommitIntervalMs;
+    private long groupCommitMaxRows;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        groupCommitIntervalMs = Config.group_commit_interval_ms;
+        groupCommitMaxRows = Config.group_commit_max_rows;
+        // groups are only committed when they are full in the following tests
+        Config.group_commit_interval_ms = 600000;
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void after() {
+        Config.group_commit_interval_ms = groupCommitIntervalMs;
+        Config.group_commit_max_rows = groupCommitMaxRows;
+        executor.shutdownNow();
+    }
+
+    // Records the k1 of the grouped inserts instead of executing them.
+    // An insert fails if any of its k2 is 'bad'.
+    private static class MockGroupCommitManager extends GroupCommitManager {
+        private final List<Set<Long>> executedKeys = Collections.synchronizedList(Lists.newArrayList());
+        private volatile long waitTimeoutMs = 600000;
+        private volatile CountDownLatch executeLatch = new CountDownLatch(0);
+        // the insert of only this key waits for blockedLatch
+        private volatile long blockedKey = -1;
+        private final CountDownLatch blockedLatch = new CountDownLatch(1);
+
+        @Override
+        long getWaitTimeoutMs(ConnectContext context) {
+            return waitTimeoutMs;
+        }
+
+        @Override
+        void executeInsert(ConnectContext context, InsertStmt insertStmt) throws Exception {
+            executeLatch.await();
+            Set<Long> keys = Sets.newHashSet();
+            boolean hasBadValue = false;
+            for (ArrayList<Expr> row : ((SelectStmt) insertStmt.getQueryStmt()).getValueList().getRows()) {
+                keys.add(((IntLiteral) row.get(0)).getLongValue());
+                hasBadValue |= ((StringLiteral) row.get(1)).getStringValue().equals("bad");
+            }
+            if (keys.equals(Sets.newHashSet(blockedKey))) {
+                blockedLatch.await();
+            }
+            executedKeys.add(keys);
+            if (hasBadValue) {
+                context.getState().setError("bad value");
+                return;
+            }
+            context.getState().setOk(keys.size(), 0,
+                    "{'label':'label_" + executedKeys.size() + "', 'status':'VISIBLE', 'txnId':'1'}");
+        }
+    }
+
+    private Future<ConnectContext> submitInsert(GroupCommitManager groupCommitManager, String sql) {
+        return submitInsert(groupCommitManager, sql, connectContext.getSessionVariable().getQueryTimeoutS());
+    }
+
+    private Future<ConnectContext> submitInsert(GroupCommitManager groupCommitManager, String sql,
+                                                int queryTimeoutS) {
+        return executor.submit(() -> {
+            ConnectContext context = UtFrameUtils.createDefaultCtx();
+            context.getSessionVariable().setEnableInsertStrict(true);
+            context.getSessionVariable().setQueryTimeoutS(queryTimeoutS);
+            groupCommitManager.insert(context, parse(sql));
+            return context;
+        });
+    }
+
+    private static void assertOk(ConnectContext context, long affectedRows) {
+        Assert.assertEquals(context.getState().getErrorMessage(), MysqlStateType.OK,
+                context.getState().getStateType());
+        Assert.assertEquals(affectedRows, context.getState().getAffectedRows());
+    }
+
+    private static InsertStmt parse(String sql) throws Exception {
+        SqlParser parser = new SqlParser(new SqlScanner(new StringReader(sql)));
+        return (InsertStmt) SqlParserUtils.getFirstStmt(parser);
+    }
+
+    @Test
+    public void testCanGroupCommit() throws Exception {
+        GroupCommitManager groupCommitManager = Catalog.getCurrentCatalog().getGroupCommitManager();
+        Assert.assertTrue(groupCommitManager.canGroupCommit(connectContext,
+                parse("insert into test.tbl1 values (1, 'a', 1)")));
+        Assert.assertTrue(groupCommitManager.canGroupCommit(connectContext,
+                parse("insert into test.tbl1 (k1, k2, v1) values (1, 'a', -1), (2, 'b', 2)")));
+
+        // order by or limit of the values
+        Assert.assertFalse(groupCommitManager.canGroupCommit(connectContext,
+                parse("insert into test.tbl1 values (1, 'a', 1), (2, 'b', 2) order by 1 limit 1")));
+        Assert.assertFalse(groupCommitManager.canGroupCommit(connectContext,
+                parse("insert into test.tbl1 values (1, 'a', 1), (2, 'b', 2) limit 1")));
+        // not in strict mode
+        connectContext.getSessionVariable().setEnableInsertStrict(false);
+        try {
+            Assert.assertFalse(groupCommitManager.canGroupCommit(connectContext,
+                    parse("insert into test.tbl1 values (1, 'a', 1)")));
+        } finally {
+            connectContext.getSessionVariable().setEnableInsertStrict(true);
+        }
+        // user specified label
+        Assert.assertFalse(groupCommitManager.canGroupCommit(connectContext,
+                parse("insert into test.tbl1 with label l1 values (1, 'a', 1)")));
+        // not literal values
+        Assert.assertFalse(groupCommitManager.canGroupCommit(connectContext,
+                parse("insert into test.tbl1 values (1, concat('a', 'b'), 1)")));
+        Assert.assertFalse(groupCommitManager.canGroupCommit(connectContext,
+                parse("insert into test.tbl1 select * from test.tbl1")));
+        // unknown table
+        Assert.assertFalse(groupCommitManager.canGroupCommit(connectContext,
+                parse("insert into test.tbl2 values (1, 'a', 1)")));
+    }
+
+    @Test
+    public void testGroupCommit() throws Exception {
+        MockGroupCommitManager groupCommitManager = new MockGroupCommitManager();
+        // the group is full only after all the 3 inserts are added
+        Config.group_commit_max_rows = 4;
+        Future<ConnectContext> insert1 = submitInsert(groupCommitManager, "insert into test.tbl1 values (1, 'a', 1)");
+        Future<ConnectContext> insert2 = submitInsert(groupCommitManager, "insert into test.tbl1 values (2, 'b', 1)");
+        Future<ConnectContext> insert3 = submitInsert(groupCommitManager,
+                "insert into test.tbl1 values (3, 'c', 1), (4, 'd', 1)");
+
+        assertOk(insert1.get(), 1);
+        assertOk(insert2.get(), 1);
+        assertOk(insert3.get(), 2);
+        Assert.assertEquals(Lists.newArrayList(Sets.newHashSet(1L, 2L, 3L, 4L)), groupCommitManager.executedKeys);
+        // each insert reports its own label, which can be shown by SHOW LOAD,
+        // and the label of the shared transaction is reported under 'groupCommit'
+        long dbId = Catalog.getCurrentCatalog().getDb("default_cluster:test").getId();
+        Set<String> labels = Sets.newHashSet();
+        for (Future<ConnectContext> insert : Lists.newArrayList(insert1, insert2, insert3)) {
+            String info = insert.get().getState().getInfoMessage();
+            Assert.assertTrue(info, info.startsWith("{'label':'insert_"));
+            Assert.assertTrue(info, info.contains("'groupCommit':{'label':'label_1'"));
+            Assert.assertTrue(info, info.endsWith("'groupedInserts':'3'}"));
+            String label = info.substring("{'label':'".length(), info.indexOf("', "));
+            labels.add(label);
+            Assert.assertEquals(1, Catalog.getCurrentCatalog().getLoadManager()
+                    .getLoadJobInfosByDb(dbId, label, true, null).size());
+        }
+        Assert.assertEquals(3, labels.size());
+    }
+
+    @Test
+    public void testGroupByUserAndSession() throws Exception {
+        MockGroupCommitManager groupCommitManager = new MockGroupCommitManager();
+        Config.group_commit_max_rows = 2;
+        // the inserts with different query timeouts are not committed together
+        Future<ConnectContext> insert1 = submitInsert(groupCommitManager,
+                "insert into test.tbl1 values (1, 'a', 1)", 100);
+        Future<ConnectContext> insert2 = submitInsert(groupCommitManager,
+                "insert into test.tbl1 values (2, 'b', 1)", 200);
+        Future<ConnectContext> insert3 = submitInsert(groupCommitManager,
+                "insert into test.tbl1 values (3, 'c', 1)", 100);
+        assertOk(insert1.get(), 1);
+        assertOk(insert3.get(), 1);
+        Assert.assertFalse(insert2.isDone());
+
+        Future<ConnectContext> insert4 = submitInsert(groupCommitManager,
+                "insert into test.tbl1 values (4, 'd', 1)", 200);
+        assertOk(insert2.get(), 1);
+        assertOk(insert4.get(), 1);
+        Assert.assertEquals(Lists.newArrayList(Sets.newHashSet(1L, 3L), Sets.newHashSet(2L, 4L)),
+                groupCommitManager.executedKeys);
+    }
+
+    @Test
+    public void testCommitOneByOneOnError() throws Exception {
+        MockGroupCommitManager groupCommitManager = new MockGroupCommitManager();
+        Config.group_commit_max_rows = 3;
+        Future<ConnectContext> insert1 = submitInsert(groupCommitManager, "insert into test.tbl1 values (1, 'a', 1)");
+        Future<ConnectContext> insert2 = submitInsert(groupCommitManager, "insert into test.tbl1 values (2, 'bad', 1)");
+        Future<ConnectContext> insert3 = submitInsert(groupCommitManager, "insert into test.tbl1 values (3, 'c', 1)");
+
+        assertOk(insert1.get(), 1);
+        Assert.assertEquals(MysqlStateType.ERR, insert2.get().getState().getStateType());
+        Assert.assertEquals("bad value", insert2.get().getState().getErrorMessage());
+        assertOk(insert3.get(), 1);
+        // the group, then each insert alone
+        Assert.assertEquals(4, groupCommitManager.executedKeys.size());
+        Assert.assertEquals(Sets.newHashSet(1L, 2L, 3L), groupCommitManager.executedKeys.get(0));
+        // each insert committed alone reports its own transaction
+        Assert.assertTrue(insert1.get().getState().getInfoMessage().startsWith("{'label':"));
+        Assert.assertTrue(insert3.get().getState().getInfoMessage().startsWith("{'label':"));
+    }
+
+    @Test
+    public void testCommitOneByOneConcurrently() throws Exception {
+        MockGroupCommitManager groupCommitManager = new MockGroupCommitManager();
+        Config.group_commit_max_rows = 3;
+        groupCommitManager.blockedKey = 2;
+        Future<ConnectContext> insert1 = submitInsert(groupCommitManager, "insert into test.tbl1 values (1, 'a', 1)");
+        Future<ConnectContext> insert2 = submitInsert(groupCommitManager, "insert into test.tbl1 values (2, 'bad', 1)");
+        Future<ConnectContext> insert3 = submitInsert(groupCommitManager, "insert into test.tbl1 values (3, 'c', 1)");
+
+        // the inserts committed alone do not wait for the blocked one
+        assertOk(insert1.get(), 1);
+        assertOk(insert3.get(), 1);
+        Assert.assertFalse(insert2.isDone());
+        groupCommitManager.blockedLatch.countDown();
+        Assert.assertEquals("bad value", insert2.get().getState().getErrorMessage());
+    }
+
+    @Test
+    public void testTimeoutBeforeCommit() throws Exception {
+        MockGroupCommitManager groupCommitManager = new MockGroupCommitManager();
+        Config.group_commit_max_rows = 2;
+        groupCommitManager.waitTimeoutMs = 100;
+        try {
+            submitInsert(groupCommitManager, "insert into test.tbl1 values (1, 'a', 1)").get();
+            Assert.fail("insert should be timeout");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof DdlException);
+        }
+
+        // the timed out insert is removed from the group, so it is not committed with the following ones
+        groupCommitManager.waitTimeoutMs = 600000;
+        Future<ConnectContext> insert2 = submitInsert(groupCommitManager, "insert into test.tbl1 values (2, 'b', 1)");
+        Future<ConnectContext> insert3 = submitInsert(groupCommitManager, "insert into test.tbl1 values (3, 'c', 1)");
+        assertOk(insert2.get(), 1);
+        assertOk(insert3.get(), 1);
+        Assert.assertEquals(Lists.newArrayList(Sets.newHashSet(2L, 3L)), groupCommitManager.executedKeys);
+    }
+
+    @Test
+    public void testTimeoutWhileCommitting() throws Exception {
+        MockGroupCommitManager groupCommitManager = new MockGroupCommitManager();
+        Config.group_commit_max_rows = 1;
+        groupCommitManager.waitTimeoutMs = 100;
+        groupCommitManager.executeLatch = new CountDownLatch(1);
+        Future<ConnectContext> insert = submitInsert(groupCommitManager, "insert into test.tbl1 values (1, 'a', 1)");
+
+        // the group is being committed, so the insert waits for the result instead of being timeout
+        Thread.sleep(500);
+        Assert.assertFalse(insert.isDone());
+        groupCommitManager.executeLatch.countDown();
+        assertOk(insert.get(), 1);
+        Assert.assertEquals(Lists.newArrayList(Sets.newHashSet(1L)), groupCommitManager.executedKeys);
+    }
+}
@@ -95,6 +95,7 @@ public class LoadJobTest {
         jobProperties.put(LoadStmt.MAX_FILTER_RATIO_PROPERTY, "0.1");
         jobProperties.put(LoadStmt.EXEC_MEM_LIMIT, "1024");
         jobProperties.put(LoadStmt.STRICT_MODE, "True");
+        jobProperties.put(LoadStmt.LOAD_PARALLELISM, "4");
 
         LoadJob loadJob = new BrokerLoadJob();
         try {
@@ -103,6 +104,7 @@ public class LoadJobTest {
             Assert.assertEquals(0.1, Deencapsulation.getField(loadJob, "maxFilterRatio"), 0);
             Assert.assertEquals(1024, (long) Deencapsulation.getField(loadJob, "execMemLimit"));
             Assert.assertTrue(Deencapsulation.getField(loadJob, "strictMode"));
+            Assert.assertEquals(4, (int) Deencapsulation.getField(loadJob, "loadParallelism"));
         } catch (DdlException e) {
             Assert.fail(e.getMessage());
         }
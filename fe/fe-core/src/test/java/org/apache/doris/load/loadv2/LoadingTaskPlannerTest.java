@@ -0,0 +1,146 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.load.loadv2;
+
+import org.apache.doris.analysis.CreateDbStmt;
+import org.apache.doris.analysis.CreateTableStmt;
+import org.apache.doris.analysis.LoadStmt;
+import org.apache.doris.catalog.Catalog;
+import org.apache.doris.catalog.Database;
+import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.common.Config;
+import org.apache.doris.common.Pair;
+import org.apache.doris.load.BrokerFileGroup;
+import org.apache.doris.planner.PlanFragment;
+import org.apache.doris.planner.ScanNode;
+import org.apache.doris.qe.ConnectContext;
+import org.apache.doris.thrift.TBrokerFileStatus;
+import org.apache.doris.thrift.TExplainLevel;
+import org.apache.doris.thrift.TScanRangeLocations;
+import org.apache.doris.thrift.TUniqueId;
+import org.apache.doris.utframe.UtFrameUtils;
+
+import com.google.common.collect.Lists;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+import java.util.UUID;
+
+public class LoadingTaskPlannerTest {
+    // use a unique dir so that it won't be conflict with other unit test which
+    // may also start a Mocked Frontend
+    private static String runningDir = "fe/mocked/LoadingTaskPlannerTest/" + UUID.randomUUID().toString() + "/";
+
+    private static ConnectContext connectContext;
+    private static Database db;
+    private static OlapTable table;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        UtFrameUtils.createMinDorisCluster(runningDir);
+        connectContext = UtFrameUtils.createDefaultCtx();
+        String createDbStmtStr = "create database db1;";
+        CreateDbStmt createDbStmt = (CreateDbStmt) UtFrameUtils.parseAndAnalyzeStmt(createDbStmtStr, connectContext);
+        Catalog.getCurrentCatalog().createDb(createDbStmt);
+
+        String createTableStr = "create table db1.tbl1 (k1 int, k2 int, v1 int sum) "
+                + "aggregate key(k1, k2) distributed by hash(k2) buckets 3 properties('replication_num' = '1');";
+        CreateTableStmt createTableStmt = (CreateTableStmt) UtFrameUtils.parseAndAnalyzeStmt(createTableStr,
+                connectContext);
+        Catalog.getCurrentCatalog().createTable(createTableStmt);
+        Catalog.getCurrentCatalog().getBrokerMgr().addBrokers("broker",
+                Lists.newArrayList(new Pair<>("127.0.0.1", 8000)));
+
+        db = Catalog.getCurrentCatalog().getDb("default_cluster:db1");
+        table = (OlapTable) db.getTable("tbl1");
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        File file = new File(runningDir);
+        file.delete();
+    }
+
+    // plan the broker load as the loading task of the job does, with the given files
+    private LoadingTaskPlanner plan(String label, int loadParallelism, List<TBrokerFileStatus> fileStatuses)
+            throws Exception {
+        String loadStr = "load label db1." + label + " (data infile('hdfs://127.0.0.1:9000/user/data/*') "
+                + "into table tbl1 columns terminated by ',') with broker 'broker' "
+                + "properties('load_parallelism' = '" + loadParallelism + "');";
+        LoadStmt loadStmt = (LoadStmt) UtFrameUtils.parseAndAnalyzeStmt(loadStr, connectContext);
+        BrokerLoadJob job = (BrokerLoadJob) BulkLoadJob.fromLoadStmt(loadStmt);
+        Assert.assertEquals(loadParallelism, job.loadParallelism);
+
+        List<BrokerFileGroup> fileGroups = job.fileGroupAggInfo.getAggKeyToFileGroups().values().iterator().next();
+        LoadingTaskPlanner planner = new LoadingTaskPlanner(job.getId(), 1000L, db.getId(), table, job.brokerDesc,
+                fileGroups, job.strictMode, job.timezone, job.timeoutSecond, job.loadParallelism);
+        List<List<TBrokerFileStatus>> fileStatusesList = Lists.newArrayList();
+        fileStatusesList.add(fileStatuses);
+        UUID uuid = UUID.randomUUID();
+        planner.plan(new TUniqueId(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()),
+                fileStatusesList, fileStatuses.size());
+        return planner;
+    }
+
+    @Test
+    public void testSplitLargeFiles() throws Exception {
+        long fileSize = 3 * Config.min_bytes_per_broker_scanner;
+        List<TBrokerFileStatus> fileStatuses = Lists.newArrayList(
+                new TBrokerFileStatus("hdfs://127.0.0.1:9000/user/data/file1.csv", false, fileSize, true),
+                new TBrokerFileStatus("hdfs://127.0.0.1:9000/user/data/file2.csv", false, fileSize, true));
+        LoadingTaskPlanner planner = plan("label_large_files", 4, fileStatuses);
+
+        // the only backend runs 4 scanners, each of them reads 1.5 files, so both files are split
+        Assert.assertEquals(1, planner.getFragments().size());
+        PlanFragment fragment = planner.getFragments().get(0);
+        Assert.assertEquals(4, fragment.getParallelExecNum());
+        Assert.assertEquals(1, planner.getScanNodes().size());
+        ScanNode scanNode = planner.getScanNodes().get(0);
+        List<TScanRangeLocations> locationsList = scanNode.getScanRangeLocations(0);
+        Assert.assertEquals(4, locationsList.size());
+        for (TScanRangeLocations locations : locationsList) {
+            Assert.assertEquals(10001, locations.getLocations().get(0).getBackendId());
+        }
+        String explain = fragment.getExplainString(TExplainLevel.NORMAL);
+        Assert.assertTrue(explain, explain.contains("SCAN RANGES: 4, SPLIT FILES: 2, COALESCED RANGES: 1"));
+        Assert.assertTrue(explain, explain.contains("RANGE BYTES: max=" + (fileSize / 2 + 1)));
+    }
+
+    @Test
+    public void testCoalesceSmallFiles() throws Exception {
+        List<TBrokerFileStatus> fileStatuses = Lists.newArrayList();
+        for (int i = 0; i < 20; i++) {
+            fileStatuses.add(new TBrokerFileStatus("hdfs://127.0.0.1:9000/user/data/file" + i + ".csv", false,
+                    1024 * 1024, true));
+        }
+        LoadingTaskPlanner planner = plan("label_small_files", 4, fileStatuses);
+
+        // the files are too small to be worth more than one scanner, whatever the load parallelism is
+        PlanFragment fragment = planner.getFragments().get(0);
+        Assert.assertEquals(4, fragment.getParallelExecNum());
+        List<TScanRangeLocations> locationsList = planner.getScanNodes().get(0).getScanRangeLocations(0);
+        Assert.assertEquals(1, locationsList.size());
+        Assert.assertEquals(20, locationsList.get(0).getScanRange().getBrokerScanRange().getRangesSize());
+        String explain = fragment.getExplainString(TExplainLevel.NORMAL);
+        Assert.assertTrue(explain, explain.contains("SCAN RANGES: 1, SPLIT FILES: 0, COALESCED RANGES: 1"));
+    }
+}
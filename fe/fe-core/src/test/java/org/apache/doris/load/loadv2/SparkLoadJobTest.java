@@ -40,6 +40,7 @@ import org.apache.doris.catalog.ResourceMgr;
 import org.apache.doris.catalog.SparkResource;
 import org.apache.doris.catalog.Tablet;
 import org.apache.doris.common.AnalysisException;
+import org.apache.doris.common.Config;
 import org.apache.doris.common.DataQualityException;
 import org.apache.doris.common.DdlException;
 import org.apache.doris.common.LoadException;
@@ -286,6 +287,49 @@ public class SparkLoadJobTest {
         Assert.assertEquals(trackingUrl, job.loadingStatus.getTrackingUrl());
     }
 
+    @Test
+    public void testUpdateEtlStatusRunningWithFinishedBuckets(@Mocked Catalog catalog, @Injectable String originStmt,
+                                                              @Mocked SparkEtlJobHandler handler,
+                                                              @Injectable Database db) throws Exception {
+        EtlStatus status = new EtlStatus();
+        status.setState(TEtlState.RUNNING);
+        String filePath = String.format("%s/V1.%s.%d.%d.%d.%d.%d.parquet", etlOutputPath, label, tableId,
+                                        partitionId, indexId, 0, schemaHash);
+        Map<String, Long> filePathToSize = Maps.newHashMap();
+        filePathToSize.put(filePath, 10L);
+        filePathToSize.put(etlOutputPath + "/dpp_result.json", 1L);
+
+        new Expectations() {
+            {
+                handler.getEtlJobStatus((SparkLoadAppHandle) any, appId, anyLong, etlOutputPath,
+                                        (SparkResource) any, (BrokerDesc) any);
+                result = status;
+                handler.getEtlFilePaths(etlOutputPath, (BrokerDesc) any);
+                result = filePathToSize;
+                catalog.getDb(dbId);
+                result = db;
+                db.getTable(tableId);
+                result = null;
+            }
+        };
+
+        boolean enableEarlyPush = Config.enable_spark_load_early_push;
+        Config.enable_spark_load_early_push = true;
+        try {
+            SparkLoadJob job = getEtlStateJob(originStmt);
+            job.updateEtlStatus();
+
+            // the finished bucket is ready to push, but the job is still in etl state
+            Assert.assertEquals(JobState.ETL, job.getState());
+            Map<String, Pair<String, Long>> tabletMetaToFileInfo = Deencapsulation.getField(job, "tabletMetaToFileInfo");
+            Assert.assertEquals(1, tabletMetaToFileInfo.size());
+            String tabletMetaStr = EtlJobConfig.getTabletMetaStr(filePath);
+            Assert.assertEquals(filePath, tabletMetaToFileInfo.get(tabletMetaStr).first);
+        } finally {
+            Config.enable_spark_load_early_push = enableEarlyPush;
+        }
+    }
+
     @Test(expected = LoadException.class)
     public void testUpdateEtlStatusCancelled(@Mocked Catalog catalog, @Injectable String originStmt,
                                              @Mocked SparkEtlJobHandler handler) throws Exception {
@@ -300,8 +344,55 @@ public class SparkLoadJobTest {
             }
         };
 
-        SparkLoadJob job = getEtlStateJob(originStmt);
-        job.updateEtlStatus();
+        int maxRetryTimes = Config.spark_load_etl_max_retry_times;
+        Config.spark_load_etl_max_retry_times = 0;
+        try {
+            SparkLoadJob job = getEtlStateJob(originStmt);
+            job.updateEtlStatus();
+        } finally {
+            Config.spark_load_etl_max_retry_times = maxRetryTimes;
+        }
+    }
+
+    @Test
+    public void testUpdateEtlStatusCancelledAndRetry(@Mocked Catalog catalog, @Injectable String originStmt,
+                                                     @Mocked SparkEtlJobHandler handler,
+                                                     @Mocked SparkLoadPendingTask pendingTask,
+                                                     @Injectable MasterTaskExecutor executor) throws Exception {
+        EtlStatus status = new EtlStatus();
+        status.setState(TEtlState.CANCELLED);
+
+        new Expectations() {
+            {
+                handler.getEtlJobStatus((SparkLoadAppHandle) any, appId, anyLong, etlOutputPath,
+                                        (SparkResource) any, (BrokerDesc) any);
+                result = status;
+                new SparkLoadPendingTask((SparkLoadJob) any, (Map) any, (SparkResource) any, (BrokerDesc) any,
+                                         etlOutputPath);
+                pendingTask.init();
+                pendingTask.getSignature();
+                result = pendingTaskId;
+                catalog.getLoadTaskScheduler();
+                result = executor;
+                executor.submit((SparkLoadPendingTask) any);
+                result = true;
+            }
+        };
+
+        int maxRetryTimes = Config.spark_load_etl_max_retry_times;
+        Config.spark_load_etl_max_retry_times = 1;
+        try {
+            SparkLoadJob job = getEtlStateJob(originStmt);
+            job.updateEtlStatus();
+
+            // the etl job is resubmitted with the same output path
+            Assert.assertEquals(JobState.PENDING, job.getState());
+            int etlRetryTimes = Deencapsulation.getField(job, "etlRetryTimes");
+            Assert.assertEquals(1, etlRetryTimes);
+            Assert.assertTrue(job.idToTasks.containsKey(pendingTaskId));
+        } finally {
+            Config.spark_load_etl_max_retry_times = maxRetryTimes;
+        }
     }
 
     @Test(expected = DataQualityException.class)
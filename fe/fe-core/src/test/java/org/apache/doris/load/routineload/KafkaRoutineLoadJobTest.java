@@ -37,6 +37,9 @@ import org.apache.doris.common.jmockit.Deencapsulation;
 import org.apache.doris.common.util.KafkaUtil;
 import org.apache.doris.load.RoutineLoadDesc;
 import org.apache.doris.load.loadv2.LoadTask;
+import org.apache.doris.metric.Metric;
+import org.apache.doris.metric.MetricLabel;
+import org.apache.doris.metric.MetricRepo;
 import org.apache.doris.qe.ConnectContext;
 import org.apache.doris.system.SystemInfoService;
 import org.apache.doris.thrift.TResourceInfo;
@@ -58,7 +61,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import mockit.Expectations;
 import mockit.Injectable;
@@ -197,6 +202,172 @@ public class KafkaRoutineLoadJobTest {
         }
     }
 
+    @Test
+    public void testDivideRoutineLoadJobByLag(@Injectable RoutineLoadManager routineLoadManager,
+                                              @Mocked RoutineLoadDesc routineLoadDesc)
+            throws UserException {
+
+        Catalog catalog = Deencapsulation.newInstance(Catalog.class);
+
+        RoutineLoadJob routineLoadJob =
+                new KafkaRoutineLoadJob(1L, "kafka_routine_load_job", "default", 1L,
+                        1L, "127.0.0.1:9020", "topic1");
+
+        new Expectations(catalog) {
+            {
+                catalog.getRoutineLoadManager();
+                minTimes = 0;
+                result = routineLoadManager;
+            }
+        };
+
+        RoutineLoadTaskScheduler routineLoadTaskScheduler = new RoutineLoadTaskScheduler(routineLoadManager);
+        Deencapsulation.setField(catalog, "routineLoadTaskScheduler", routineLoadTaskScheduler);
+
+        Deencapsulation.setField(routineLoadJob, "currentKafkaPartitions", Arrays.asList(1, 2, 3, 4));
+        Map<Integer, Long> partitionIdToLag = Maps.newConcurrentMap();
+        partitionIdToLag.put(1, 1000L);
+        partitionIdToLag.put(2, 100L);
+        partitionIdToLag.put(3, 800L);
+        partitionIdToLag.put(4, 300L);
+        Deencapsulation.setField(routineLoadJob, "partitionIdToLag", partitionIdToLag);
+        Assert.assertEquals(2200L, ((KafkaRoutineLoadJob) routineLoadJob).getTotalLag());
+
+        routineLoadJob.divideRoutineLoadJob(2);
+
+        // the partitions are assigned to the tasks by lag: {1, 2} -> 1100, {3, 4} -> 1100
+        List<RoutineLoadTaskInfo> routineLoadTaskInfoList = Deencapsulation.getField(routineLoadJob, "routineLoadTaskInfoList");
+        Assert.assertEquals(2, routineLoadTaskInfoList.size());
+        for (RoutineLoadTaskInfo routineLoadTaskInfo : routineLoadTaskInfoList) {
+            KafkaTaskInfo kafkaTaskInfo = (KafkaTaskInfo) routineLoadTaskInfo;
+            Assert.assertEquals(2, kafkaTaskInfo.getPartitions().size());
+            if (kafkaTaskInfo.getPartitions().contains(1)) {
+                Assert.assertTrue(kafkaTaskInfo.getPartitions().contains(2));
+            } else {
+                Assert.assertTrue(kafkaTaskInfo.getPartitions().contains(3));
+                Assert.assertTrue(kafkaTaskInfo.getPartitions().contains(4));
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentTaskNumByLag(@Mocked Catalog catalog,
+                                           @Mocked SystemInfoService systemInfoService,
+                                           @Mocked RoutineLoadDesc routineLoadDesc) throws MetaNotFoundException {
+        List<Long> beIds = Lists.newArrayList(1L, 2L, 3L, 4L);
+        new Expectations() {
+            {
+                Catalog.getCurrentSystemInfo();
+                minTimes = 0;
+                result = systemInfoService;
+                systemInfoService.getClusterBackendIds("default", true);
+                minTimes = 0;
+                result = beIds;
+            }
+        };
+
+        RoutineLoadJob routineLoadJob =
+                new KafkaRoutineLoadJob(1L, "kafka_routine_load_job", "default", 1L,
+                        1L, "127.0.0.1:9020", "topic1");
+        Deencapsulation.setField(routineLoadJob, "currentKafkaPartitions", Arrays.asList(1, 2, 3, 4));
+        // lag unknown
+        Assert.assertEquals(4, routineLoadJob.calculateCurrentConcurrentTaskNum());
+
+        // the lags do not change the number of tasks, even if the job has nothing to consume
+        Map<Integer, Long> partitionIdToLag = Maps.newConcurrentMap();
+        partitionIdToLag.put(1, 0L);
+        partitionIdToLag.put(2, 500L);
+        partitionIdToLag.put(3, 1000L);
+        partitionIdToLag.put(4, 0L);
+        Deencapsulation.setField(routineLoadJob, "partitionIdToLag", partitionIdToLag);
+        Assert.assertEquals(4, routineLoadJob.calculateCurrentConcurrentTaskNum());
+
+        partitionIdToLag.put(3, 0L);
+        partitionIdToLag.put(2, 0L);
+        Assert.assertEquals(4, routineLoadJob.calculateCurrentConcurrentTaskNum());
+    }
+
+    @Test
+    public void testPartitionLagMetrics(@Mocked Catalog catalog,
+                                        @Mocked RoutineLoadManager routineLoadManager,
+                                        @Mocked RoutineLoadDesc routineLoadDesc) {
+        KafkaRoutineLoadJob routineLoadJob =
+                new KafkaRoutineLoadJob(1L, "kafka_routine_load_job", "default", 1L,
+                        1L, "127.0.0.1:9020", "topic1");
+        Map<Integer, Long> partitionIdToLag = Maps.newConcurrentMap();
+        partitionIdToLag.put(1, 10L);
+        partitionIdToLag.put(2, 20L);
+        Deencapsulation.setField(routineLoadJob, "partitionIdToLag", partitionIdToLag);
+        new Expectations() {
+            {
+                Catalog.getCurrentCatalog();
+                minTimes = 0;
+                result = catalog;
+                catalog.isMaster();
+                minTimes = 0;
+                result = true;
+                catalog.getRoutineLoadManager();
+                minTimes = 0;
+                result = routineLoadManager;
+                routineLoadManager.getRoutineLoadJobByState((Set<RoutineLoadJob.JobState>) any);
+                minTimes = 0;
+                result = Lists.newArrayList(routineLoadJob);
+            }
+        };
+
+        MetricRepo.generateRoutineLoadPartitionLagMetrics();
+        List<Metric> metrics = MetricRepo.getMetricsByName(MetricRepo.ROUTINE_LOAD_PARTITION_LAG);
+        Assert.assertEquals(2, metrics.size());
+        Map<String, Long> lags = Maps.newHashMap();
+        for (Metric metric : metrics) {
+            List<MetricLabel> labels = metric.getLabels();
+            Assert.assertEquals("kafka_routine_load_job", labels.get(0).getValue());
+            lags.put(labels.get(2).getValue(), (Long) metric.getValue());
+        }
+        Assert.assertEquals(Long.valueOf(10L), lags.get("1"));
+        Assert.assertEquals(Long.valueOf(20L), lags.get("2"));
+
+        // the metrics of a partition are removed with the partition
+        partitionIdToLag.remove(2);
+        MetricRepo.generateRoutineLoadPartitionLagMetrics();
+        Assert.assertEquals(1, MetricRepo.getMetricsByName(MetricRepo.ROUTINE_LOAD_PARTITION_LAG).size());
+    }
+
+    @Test
+    public void testUpdateLagsWithoutLock(@Mocked RoutineLoadDesc routineLoadDesc) throws UserException {
+        KafkaRoutineLoadJob routineLoadJob =
+                new KafkaRoutineLoadJob(1L, "kafka_routine_load_job", "default", 1L,
+                        1L, "127.0.0.1:9020", "topic1");
+        Deencapsulation.setField(routineLoadJob, "state", RoutineLoadJob.JobState.RUNNING);
+        Deencapsulation.setField(routineLoadJob, "currentKafkaPartitions", Arrays.asList(1, 2));
+        KafkaProgress kafkaProgress = new KafkaProgress();
+        Map<Integer, Long> partitionIdToOffset = Maps.newConcurrentMap();
+        partitionIdToOffset.put(1, 100L);
+        partitionIdToOffset.put(2, KafkaProgress.OFFSET_BEGINNING_VAL);
+        Deencapsulation.setField(kafkaProgress, "partitionIdToOffset", partitionIdToOffset);
+        Deencapsulation.setField(routineLoadJob, "progress", kafkaProgress);
+        ReentrantReadWriteLock lock = Deencapsulation.getField(routineLoadJob, "lock");
+
+        new MockUp<KafkaUtil>() {
+            @Mock
+            public Map<Integer, Long> getLatestOffsets(String brokerList, String topic,
+                    Map<String, String> convertedCustomProperties, List<Integer> partitionIds) throws UserException {
+                // the offsets are fetched without holding the lock of the job
+                Assert.assertFalse(lock.isWriteLocked());
+                Assert.assertEquals(0, lock.getReadLockCount());
+                Map<Integer, Long> latestOffsets = Maps.newHashMap();
+                latestOffsets.put(1, 150L);
+                latestOffsets.put(2, 30L);
+                return latestOffsets;
+            }
+        };
+
+        Assert.assertEquals(-1L, routineLoadJob.getTotalLag());
+        routineLoadJob.updateSchedulingInfo();
+        // 150 - 100 of partition 1, and all the 30 messages of partition 2
+        Assert.assertEquals(80L, routineLoadJob.getTotalLag());
+    }
+
     @Test
     public void testProcessTimeOutTasks(@Injectable GlobalTransactionMgr globalTransactionMgr,
                                         @Injectable RoutineLoadManager routineLoadManager,
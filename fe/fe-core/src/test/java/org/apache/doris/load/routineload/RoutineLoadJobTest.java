@@ -23,16 +23,21 @@ import org.apache.doris.analysis.SqlParser;
 import org.apache.doris.catalog.Catalog;
 import org.apache.doris.catalog.Database;
 import org.apache.doris.catalog.Table;
+import org.apache.doris.common.Config;
 import org.apache.doris.common.InternalErrorCode;
 import org.apache.doris.common.UserException;
 import org.apache.doris.common.jmockit.Deencapsulation;
 import org.apache.doris.common.util.KafkaUtil;
 import org.apache.doris.persist.EditLog;
+import org.apache.doris.transaction.GlobalTransactionMgr;
 import org.apache.doris.transaction.TransactionException;
 import org.apache.doris.transaction.TransactionState;
+import org.apache.doris.transaction.TransactionStatus;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 import org.apache.kafka.common.PartitionInfo;
 import org.junit.Assert;
@@ -40,6 +45,8 @@ import org.junit.Test;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 import java_cup.runtime.Symbol;
 import mockit.Expectations;
@@ -47,6 +54,7 @@ import mockit.Injectable;
 import mockit.Mock;
 import mockit.MockUp;
 import mockit.Mocked;
+import mockit.Verifications;
 
 public class RoutineLoadJobTest {
 
@@ -170,6 +178,204 @@ public class RoutineLoadJobTest {
         }
     }
 
+    @Test
+    public void testPipelinedTask(@Mocked Catalog catalog,
+                                  @Injectable RoutineLoadManager routineLoadManager,
+                                  @Injectable RoutineLoadTaskScheduler routineLoadTaskScheduler,
+                                  @Injectable TransactionState transactionState,
+                                  @Injectable TransactionState nextTransactionState) throws UserException {
+        new Expectations() {
+            {
+                Catalog.getCurrentCatalog();
+                minTimes = 0;
+                result = catalog;
+                catalog.getRoutineLoadManager();
+                minTimes = 0;
+                result = routineLoadManager;
+                catalog.getRoutineLoadTaskScheduler();
+                minTimes = 0;
+                result = routineLoadTaskScheduler;
+            }
+        };
+
+        boolean enablePipeline = Config.enable_routine_load_task_pipeline;
+        Config.enable_routine_load_task_pipeline = true;
+        try {
+            RoutineLoadJob routineLoadJob = new KafkaRoutineLoadJob(1L, "kafka_routine_load_job", "default", 1L,
+                    1L, "127.0.0.1:9020", "topic1");
+            Deencapsulation.setField(routineLoadJob, "state", RoutineLoadJob.JobState.RUNNING);
+            // the next offset to consume of partition 0 is 100
+            KafkaProgress progress = new KafkaProgress();
+            Map<Integer, Long> partitionIdToOffset = Maps.newConcurrentMap();
+            partitionIdToOffset.put(0, 100L);
+            Deencapsulation.setField(progress, "partitionIdToOffset", partitionIdToOffset);
+            Deencapsulation.setField(routineLoadJob, "progress", progress);
+            Map<Integer, Long> taskOffsets = Maps.newHashMap();
+            taskOffsets.put(0, 100L);
+            KafkaTaskInfo task = new KafkaTaskInfo(UUID.randomUUID(), 1L, "default", 20000, taskOffsets);
+            Deencapsulation.setField(task, "txnId", 1L);
+            List<RoutineLoadTaskInfo> routineLoadTaskInfoList = Lists.newArrayList(task);
+            Deencapsulation.setField(routineLoadJob, "routineLoadTaskInfoList", routineLoadTaskInfoList);
+
+            // the task consumed the messages 100 ~ 199
+            RLTaskTxnCommitAttachment attachment = new RLTaskTxnCommitAttachment();
+            KafkaProgress committedProgress = new KafkaProgress();
+            Map<Integer, Long> committedOffsets = Maps.newConcurrentMap();
+            committedOffsets.put(0, 199L);
+            Deencapsulation.setField(committedProgress, "partitionIdToOffset", committedOffsets);
+            Deencapsulation.setField(attachment, "progress", committedProgress);
+            Deencapsulation.setField(attachment, "loadedRows", 100L);
+            new Expectations() {
+                {
+                    transactionState.getTransactionId();
+                    minTimes = 0;
+                    result = 1L;
+                    transactionState.getTxnCommitAttachment();
+                    minTimes = 0;
+                    result = attachment;
+                    transactionState.getTransactionStatus();
+                    minTimes = 0;
+                    result = TransactionStatus.COMMITTED;
+                }
+            };
+
+            // the next task is scheduled once the txn is COMMITTED, before it is VISIBLE
+            routineLoadJob.beforeCommitted(transactionState);
+            routineLoadJob.afterCommitted(transactionState, true);
+            Assert.assertEquals(1, routineLoadTaskInfoList.size());
+            KafkaTaskInfo nextTask = (KafkaTaskInfo) routineLoadTaskInfoList.get(0);
+            Assert.assertNotEquals(task.getId(), nextTask.getId());
+            Map<Integer, Long> nextTaskOffsets = Deencapsulation.getField(nextTask, "partitionIdToOffset");
+            Assert.assertEquals(Long.valueOf(200L), nextTaskOffsets.get(0));
+            new Verifications() {
+                {
+                    routineLoadTaskScheduler.addPipelinedTaskInQueue(nextTask);
+                    times = 1;
+                }
+            };
+
+            // the txn of the next task is aborted while the previous txn is still not VISIBLE,
+            // the task is renewed from the same offsets, so no message is lost or loaded twice
+            Deencapsulation.setField(nextTask, "txnId", 2L);
+            new Expectations() {
+                {
+                    nextTransactionState.getTransactionId();
+                    minTimes = 0;
+                    result = 2L;
+                    nextTransactionState.getTxnCommitAttachment();
+                    minTimes = 0;
+                    result = null;
+                    nextTransactionState.getTransactionStatus();
+                    minTimes = 0;
+                    result = TransactionStatus.ABORTED;
+                }
+            };
+            routineLoadJob.beforeAborted(nextTransactionState);
+            routineLoadJob.afterAborted(nextTransactionState, true, "timeout");
+            Assert.assertEquals(RoutineLoadJob.JobState.RUNNING, routineLoadJob.getState());
+            Assert.assertEquals(1, routineLoadTaskInfoList.size());
+            KafkaTaskInfo retryTask = (KafkaTaskInfo) routineLoadTaskInfoList.get(0);
+            Assert.assertNotEquals(nextTask.getId(), retryTask.getId());
+            Map<Integer, Long> retryTaskOffsets = Deencapsulation.getField(retryTask, "partitionIdToOffset");
+            Assert.assertEquals(Long.valueOf(200L), retryTaskOffsets.get(0));
+            Assert.assertEquals(Long.valueOf(200L), progress.getOffsetByPartition(0));
+
+            // the previous txn becomes VISIBLE, its task has been renewed already
+            routineLoadJob.afterVisible(transactionState, true);
+            Assert.assertEquals(1, routineLoadTaskInfoList.size());
+            Assert.assertSame(retryTask, routineLoadTaskInfoList.get(0));
+            new Verifications() {
+                {
+                    // only for the aborted task
+                    routineLoadTaskScheduler.addTaskInQueue((RoutineLoadTaskInfo) any);
+                    times = 1;
+                }
+            };
+        } finally {
+            Config.enable_routine_load_task_pipeline = enablePipeline;
+        }
+    }
+
+    @Test
+    public void testPipelineWithStaleTxns(@Mocked Catalog catalog,
+                                          @Injectable RoutineLoadManager routineLoadManager,
+                                          @Injectable RoutineLoadTaskScheduler routineLoadTaskScheduler,
+                                          @Injectable GlobalTransactionMgr globalTransactionMgr,
+                                          @Injectable TransactionState transactionState) throws UserException {
+        new Expectations() {
+            {
+                Catalog.getCurrentCatalog();
+                minTimes = 0;
+                result = catalog;
+                catalog.getRoutineLoadManager();
+                minTimes = 0;
+                result = routineLoadManager;
+                catalog.getRoutineLoadTaskScheduler();
+                minTimes = 0;
+                result = routineLoadTaskScheduler;
+                Catalog.getCurrentGlobalTransactionMgr();
+                minTimes = 0;
+                result = globalTransactionMgr;
+                // the txn 5 is removed from the txn manager without being seen by the job
+                globalTransactionMgr.getTransactionState(anyLong, 5L);
+                minTimes = 0;
+                result = null;
+            }
+        };
+
+        boolean enablePipeline = Config.enable_routine_load_task_pipeline;
+        Config.enable_routine_load_task_pipeline = true;
+        try {
+            RoutineLoadJob routineLoadJob = new KafkaRoutineLoadJob(1L, "kafka_routine_load_job", "default", 1L,
+                    1L, "127.0.0.1:9020", "topic1");
+            Deencapsulation.setField(routineLoadJob, "state", RoutineLoadJob.JobState.RUNNING);
+            KafkaProgress progress = new KafkaProgress();
+            Map<Integer, Long> partitionIdToOffset = Maps.newConcurrentMap();
+            partitionIdToOffset.put(0, 100L);
+            Deencapsulation.setField(progress, "partitionIdToOffset", partitionIdToOffset);
+            Deencapsulation.setField(routineLoadJob, "progress", progress);
+            Map<Integer, Long> taskOffsets = Maps.newHashMap();
+            taskOffsets.put(0, 100L);
+            KafkaTaskInfo task = new KafkaTaskInfo(UUID.randomUUID(), 1L, "default", 20000, taskOffsets);
+            Deencapsulation.setField(task, "txnId", 1L);
+            List<RoutineLoadTaskInfo> routineLoadTaskInfoList = Lists.newArrayList(task);
+            Deencapsulation.setField(routineLoadJob, "routineLoadTaskInfoList", routineLoadTaskInfoList);
+            Set<Long> pipelinedTxnIds = Deencapsulation.getField(routineLoadJob, "pipelinedTxnIds");
+            pipelinedTxnIds.add(5L);
+            new Expectations() {
+                {
+                    transactionState.getTransactionId();
+                    minTimes = 0;
+                    result = 1L;
+                    transactionState.getTxnCommitAttachment();
+                    minTimes = 0;
+                    result = null;
+                    transactionState.getTransactionStatus();
+                    minTimes = 0;
+                    result = TransactionStatus.COMMITTED;
+                }
+            };
+
+            // the stale txn does not disable the pipeline
+            routineLoadJob.beforeCommitted(transactionState);
+            routineLoadJob.afterCommitted(transactionState, true);
+            Assert.assertEquals(Sets.newHashSet(1L), pipelinedTxnIds);
+            new Verifications() {
+                {
+                    routineLoadTaskScheduler.addPipelinedTaskInQueue((RoutineLoadTaskInfo) any);
+                    times = 1;
+                }
+            };
+
+            // a pipelined txn which is aborted is removed too
+            routineLoadJob.beforeAborted(transactionState);
+            routineLoadJob.afterAborted(transactionState, true, "timeout");
+            Assert.assertTrue(pipelinedTxnIds.isEmpty());
+        } finally {
+            Config.enable_routine_load_task_pipeline = enablePipeline;
+        }
+    }
+
     @Test
     public void testGetShowInfo(@Mocked KafkaProgress kafkaProgress) {
         RoutineLoadJob routineLoadJob = new KafkaRoutineLoadJob();
@@ -34,11 +34,13 @@ import org.apache.doris.transaction.GlobalTransactionMgr;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
 
+import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.Map;
 import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.LinkedBlockingDeque;
 
 import mockit.Expectations;
 import mockit.Injectable;
@@ -70,7 +72,7 @@ public class RoutineLoadTaskSchedulerTest {
         KafkaProgress kafkaProgress = new KafkaProgress();
         Deencapsulation.setField(kafkaProgress, "partitionIdToOffset", partitionIdToOffset);
 
-        Queue<RoutineLoadTaskInfo> routineLoadTaskInfoQueue = Queues.newLinkedBlockingQueue();
+        Queue<RoutineLoadTaskInfo> routineLoadTaskInfoQueue = Queues.newLinkedBlockingDeque();
         KafkaTaskInfo routineLoadTaskInfo1 = new KafkaTaskInfo(new UUID(1, 1), 1l, "default_cluster", 20000,
                 partitionIdToOffset);
         routineLoadTaskInfoQueue.add(routineLoadTaskInfo1);
@@ -121,4 +123,23 @@ public class RoutineLoadTaskSchedulerTest {
         Deencapsulation.setField(routineLoadTaskScheduler, "needScheduleTasksQueue", routineLoadTaskInfoQueue);
         routineLoadTaskScheduler.runAfterCatalogReady();
     }
+
+    @Test
+    public void testPipelinedTaskScheduledFirst() {
+        Map<Integer, Long> partitionIdToOffset = Maps.newHashMap();
+        partitionIdToOffset.put(1, 100L);
+        KafkaTaskInfo taskInfo1 = new KafkaTaskInfo(new UUID(1, 1), 1L, "default_cluster", 20000,
+                partitionIdToOffset);
+        KafkaTaskInfo taskInfo2 = new KafkaTaskInfo(new UUID(2, 2), 2L, "default_cluster", 20000,
+                partitionIdToOffset);
+
+        RoutineLoadTaskScheduler routineLoadTaskScheduler = new RoutineLoadTaskScheduler(routineLoadManager);
+        routineLoadTaskScheduler.addTaskInQueue(taskInfo1);
+        routineLoadTaskScheduler.addPipelinedTaskInQueue(taskInfo2);
+
+        LinkedBlockingDeque<RoutineLoadTaskInfo> queue =
+                Deencapsulation.getField(routineLoadTaskScheduler, "needScheduleTasksQueue");
+        Assert.assertEquals(2, queue.size());
+        Assert.assertSame(taskInfo2, queue.peekFirst());
+    }
 }
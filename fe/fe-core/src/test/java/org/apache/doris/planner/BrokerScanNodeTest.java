@@ -0,0 +1,142 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.planner;
+
+import org.apache.doris.analysis.BrokerDesc;
+import org.apache.doris.analysis.TupleDescriptor;
+import org.apache.doris.analysis.TupleId;
+import org.apache.doris.catalog.BrokerMgr;
+import org.apache.doris.catalog.Catalog;
+import org.apache.doris.catalog.FsBroker;
+import org.apache.doris.common.jmockit.Deencapsulation;
+import org.apache.doris.load.BrokerFileGroup;
+import org.apache.doris.system.Backend;
+import org.apache.doris.thrift.TBrokerFileStatus;
+import org.apache.doris.thrift.TBrokerRangeDesc;
+import org.apache.doris.thrift.TBrokerScanRangeParams;
+import org.apache.doris.thrift.TFileFormatType;
+import org.apache.doris.thrift.TScanRangeLocations;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import mockit.Expectations;
+import mockit.Mocked;
+
+public class BrokerScanNodeTest {
+    @Mocked
+    Catalog catalog;
+    @Mocked
+    BrokerMgr brokerMgr;
+    @Mocked
+    BrokerFileGroup fileGroup;
+
+    // split the files into scan ranges of 'bytesPerInstance' bytes, and return the ranges of each file
+    private Map<String, List<TBrokerRangeDesc>> splitFiles(List<TBrokerFileStatus> fileStatuses,
+                                                           long bytesPerInstance) throws Exception {
+        BrokerScanNode scanNode = new BrokerScanNode(new PlanNodeId(0), new TupleDescriptor(new TupleId(0)),
+                "BrokerScanNode", null, 0);
+        Backend backend = new Backend(1, "127.0.0.1", 9050);
+        backend.setBePort(9060);
+        Deencapsulation.setField(scanNode, "backends", Lists.newArrayList(backend));
+        Deencapsulation.setField(scanNode, "brokerDesc", new BrokerDesc("broker", Maps.newHashMap()));
+        Deencapsulation.setField(scanNode, "bytesPerInstance", bytesPerInstance);
+        Deencapsulation.setField(scanNode, "locationsList", Lists.newArrayList());
+
+        Object context = Deencapsulation.newInstance(
+                Class.forName("org.apache.doris.planner.BrokerScanNode$ParamCreateContext"));
+        Deencapsulation.setField(context, "fileGroup", fileGroup);
+        Deencapsulation.setField(context, "params", new TBrokerScanRangeParams());
+        Deencapsulation.setField(context, "slotDescByName", Maps.newHashMap());
+        Deencapsulation.invoke(scanNode, "processFileGroup", context, fileStatuses);
+
+        Map<String, List<TBrokerRangeDesc>> fileToRanges = Maps.newHashMap();
+        List<TScanRangeLocations> locationsList = Deencapsulation.getField(scanNode, "locationsList");
+        for (TScanRangeLocations locations : locationsList) {
+            for (TBrokerRangeDesc range : locations.getScanRange().getBrokerScanRange().getRanges()) {
+                fileToRanges.computeIfAbsent(range.getPath(), k -> Lists.newArrayList()).add(range);
+            }
+        }
+        return fileToRanges;
+    }
+
+    // the ranges of a file must cover [0, file size) exactly, so that each row group is read once
+    private void assertCoverFile(TBrokerFileStatus fileStatus, List<TBrokerRangeDesc> ranges) {
+        ranges.sort(Comparator.comparingLong(TBrokerRangeDesc::getStartOffset));
+        long nextOffset = 0;
+        for (TBrokerRangeDesc range : ranges) {
+            Assert.assertEquals(nextOffset, range.getStartOffset());
+            Assert.assertTrue(range.getSize() > 0);
+            Assert.assertEquals(fileStatus.getSize(), range.getFileSize());
+            nextOffset += range.getSize();
+        }
+        Assert.assertEquals(fileStatus.getSize(), nextOffset);
+    }
+
+    @Test
+    public void testSplitColumnarFiles() throws Exception {
+        new Expectations() {
+            {
+                Catalog.getCurrentCatalog();
+                minTimes = 0;
+                result = catalog;
+                catalog.getBrokerMgr();
+                minTimes = 0;
+                result = brokerMgr;
+                brokerMgr.getBroker(anyString, anyString);
+                minTimes = 0;
+                result = new FsBroker("127.0.0.1", 8000);
+                fileGroup.getFileFormat();
+                minTimes = 0;
+                result = null;
+                fileGroup.getColumnsFromPath();
+                minTimes = 0;
+                result = null;
+            }
+        };
+
+        List<TBrokerFileStatus> fileStatuses = Lists.newArrayList(
+                new TBrokerFileStatus("hdfs://host/path/file1.parquet", false, 1000, false),
+                new TBrokerFileStatus("hdfs://host/path/file2.orc", false, 777, false),
+                new TBrokerFileStatus("hdfs://host/path/file3.parquet", false, 250, false),
+                new TBrokerFileStatus("hdfs://host/path/file4.gz", false, 500, false));
+
+        for (long bytesPerInstance : new long[] {100, 300, 333, 1000, 3000}) {
+            Map<String, List<TBrokerRangeDesc>> fileToRanges = splitFiles(fileStatuses, bytesPerInstance);
+            Assert.assertEquals(fileStatuses.size(), fileToRanges.size());
+            for (TBrokerFileStatus fileStatus : fileStatuses) {
+                List<TBrokerRangeDesc> ranges = fileToRanges.get(fileStatus.getPath());
+                assertCoverFile(fileStatus, ranges);
+                if (fileStatus.getPath().endsWith(".gz")) {
+                    // compressed files are not split
+                    Assert.assertEquals(1, ranges.size());
+                    Assert.assertEquals(TFileFormatType.FORMAT_CSV_GZ, ranges.get(0).getFormatType());
+                } else if (fileStatus.getSize() > bytesPerInstance) {
+                    Assert.assertTrue(ranges.size() > 1);
+                }
+            }
+        }
+    }
+}
@@ -334,6 +334,18 @@ public class QueryPlanTest {
                 "\"replication_num\" = \"1\"\n" +
                 ");");
 
+        createTable("CREATE TABLE test.`topn_unique` (\n" +
+                "  `k1` int(11) NOT NULL COMMENT \"\",\n" +
+                "  `k2` int(11) NOT NULL COMMENT \"\",\n" +
+                "  `v1` varchar(20) NOT NULL COMMENT \"\"\n" +
+                ") ENGINE=OLAP\n" +
+                "UNIQUE KEY(`k1`, `k2`)\n" +
+                "COMMENT \"OLAP\"\n" +
+                "DISTRIBUTED BY HASH(`k1`) BUCKETS 2\n" +
+                "PROPERTIES (\n" +
+                "\"replication_num\" = \"1\"\n" +
+                ");");
+
         Config.enable_odbc_table = true;
         createTable("create external table test.odbc_mysql\n" +
                 "(k1 int, k2 int)\n" +
@@ -1156,6 +1168,31 @@ public class QueryPlanTest {
         System.out.println(explainString);
         Assert.assertTrue(explainString.contains("AGGREGATE (update finalize)"));
     }
-}
 
+    @Test
+    public void testTopnPushDownToOlapScanNode() throws Exception {
+        connectContext.setDatabase("default_cluster:test");
+        String sql = "select * from topn_unique order by k1, k2 limit 10";
+        String explainString = UtFrameUtils.getSQLPlanOrErrorMsg(connectContext, "EXPLAIN " + sql);
+        Assert.assertTrue(explainString.contains("SORT LIMIT: 10"));
 
+        sql = "select * from topn_unique order by k1 limit 10 offset 5";
+        explainString = UtFrameUtils.getSQLPlanOrErrorMsg(connectContext, "EXPLAIN " + sql);
+        Assert.assertTrue(explainString.contains("SORT LIMIT: 15"));
+
+        // not a prefix of the key columns
+        sql = "select * from topn_unique order by k2 limit 10";
+        explainString = UtFrameUtils.getSQLPlanOrErrorMsg(connectContext, "EXPLAIN " + sql);
+        Assert.assertFalse(explainString.contains("SORT LIMIT"));
+
+        // descending order
+        sql = "select * from topn_unique order by k1 desc limit 10";
+        explainString = UtFrameUtils.getSQLPlanOrErrorMsg(connectContext, "EXPLAIN " + sql);
+        Assert.assertFalse(explainString.contains("SORT LIMIT"));
+
+        // rows of duplicate keys table are not merged by storage engine
+        sql = "select * from table_unpartitioned order by dt limit 10";
+        explainString = UtFrameUtils.getSQLPlanOrErrorMsg(connectContext, "EXPLAIN " + sql);
+        Assert.assertFalse(explainString.contains("SORT LIMIT"));
+    }
+}
@@ -0,0 +1,222 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.planner;
+
+import org.apache.doris.analysis.CreateDbStmt;
+import org.apache.doris.analysis.CreateTableStmt;
+import org.apache.doris.catalog.Catalog;
+import org.apache.doris.catalog.Database;
+import org.apache.doris.catalog.OlapTable;
+import org.apache.doris.common.Config;
+import org.apache.doris.planner.StreamLoadPlanCache.PlanKey;
+import org.apache.doris.qe.ConnectContext;
+import org.apache.doris.thrift.TBrokerRangeDesc;
+import org.apache.doris.thrift.TExecPlanFragmentParams;
+import org.apache.doris.thrift.TFileFormatType;
+import org.apache.doris.thrift.TFileType;
+import org.apache.doris.thrift.TOlapTableSink;
+import org.apache.doris.thrift.TScanRangeParams;
+import org.apache.doris.thrift.TStreamLoadPutRequest;
+import org.apache.doris.thrift.TUniqueId;
+import org.apache.doris.utframe.UtFrameUtils;
+
+import com.google.common.collect.Lists;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class StreamLoadPlanCacheTest {
+    // use a unique dir so that it won't be conflict with other unit test which
+    // may also start a Mocked Frontend
+    private static String runningDir = "fe/mocked/StreamLoadPlanCacheTest/" + UUID.randomUUID().toString() + "/";
+
+    private static Database db;
+    private static OlapTable table;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        UtFrameUtils.createMinDorisCluster(runningDir);
+        ConnectContext connectContext = UtFrameUtils.createDefaultCtx();
+        String createDbStmtStr = "create database db1;";
+        CreateDbStmt createDbStmt = (CreateDbStmt) UtFrameUtils.parseAndAnalyzeStmt(createDbStmtStr, connectContext);
+        Catalog.getCurrentCatalog().createDb(createDbStmt);
+
+        String createTableStr = "create table db1.tbl1 (k1 int, k2 int, v1 int sum) "
+                + "aggregate key(k1, k2) partition by range(k1) ("
+                + "partition p1 values less than ('10'), "
+                + "partition p2 values less than ('20')) "
+                + "distributed by hash(k2) buckets 3 properties('replication_num' = '1');";
+        CreateTableStmt createTableStmt = (CreateTableStmt) UtFrameUtils.parseAndAnalyzeStmt(createTableStr, connectContext);
+        Catalog.getCurrentCatalog().createTable(createTableStmt);
+
+        db = Catalog.getCurrentCatalog().getDb("default_cluster:db1");
+        table = (OlapTable) db.getTable("tbl1");
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        File file = new File(runningDir);
+        file.delete();
+    }
+
+    private TStreamLoadPutRequest createRequest(long txnId, TUniqueId loadId) {
+        TStreamLoadPutRequest request = new TStreamLoadPutRequest();
+        request.setUser("root");
+        request.setPasswd("");
+        request.setDb("db1");
+        request.setTbl("tbl1");
+        request.setTxnId(txnId);
+        request.setLoadId(loadId);
+        request.setFileType(TFileType.FILE_STREAM);
+        request.setFormatType(TFileFormatType.FORMAT_CSV_PLAIN);
+        request.setColumns("k1, k2, v1=k1+k2");
+        return request;
+    }
+
+    @Test
+    public void testPlanKey() {
+        List<Long> signature = Lists.newArrayList(10L, 10L, 1L, 12345L);
+        TStreamLoadPutRequest request1 = createRequest(1, new TUniqueId(2, 3));
+        TStreamLoadPutRequest request2 = createRequest(4, new TUniqueId(5, 6));
+        request2.setAuthCode(7);
+        request2.setThriftRpcTimeoutMs(8000);
+
+        // the load id, txn id and auth info are not a part of the key
+        PlanKey key1 = new PlanKey(request1, 100, signature);
+        PlanKey key2 = new PlanKey(request2, 100, Lists.newArrayList(signature));
+        Assert.assertEquals(key1, key2);
+        Assert.assertEquals(key1.hashCode(), key2.hashCode());
+        // the request is not modified
+        Assert.assertEquals(new TUniqueId(5, 6), request2.getLoadId());
+
+        // different load properties
+        request2.setWhere("k1 > 1");
+        Assert.assertNotEquals(key1, new PlanKey(request2, 100, signature));
+        // different table or schema
+        Assert.assertNotEquals(key1, new PlanKey(request1, 101, signature));
+        Assert.assertNotEquals(key1, new PlanKey(request1, 100, Lists.newArrayList(10L, 10L, 2L, 54321L)));
+    }
+
+    private TExecPlanFragmentParams plan(StreamLoadPlanCache cache, TStreamLoadPutRequest request) throws Exception {
+        db.readLock();
+        try {
+            return cache.plan(request, db, table);
+        } finally {
+            db.readUnlock();
+        }
+    }
+
+    // check that all ids of 'params' are the ones of the load
+    private void assertLoadIds(TExecPlanFragmentParams params, long txnId, TUniqueId loadId) {
+        Assert.assertEquals(loadId, params.getParams().getQueryId());
+        Assert.assertEquals(new TUniqueId(loadId.hi, loadId.lo + 1), params.getParams().getFragmentInstanceId());
+        TOlapTableSink sink = params.getFragment().getOutputSink().getOlapTableSink();
+        Assert.assertEquals(loadId, sink.getLoadId());
+        Assert.assertEquals(txnId, sink.getTxnId());
+        Assert.assertEquals(db.getId(), sink.getDbId());
+        for (List<TScanRangeParams> scanRangeParams : params.getParams().getPerNodeScanRanges().values()) {
+            for (TScanRangeParams scanRangeParam : scanRangeParams) {
+                for (TBrokerRangeDesc rangeDesc : scanRangeParam.getScanRange().getBrokerScanRange().getRanges()) {
+                    Assert.assertEquals(loadId, rangeDesc.getLoadId());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReplan() throws Exception {
+        StreamLoadPlanCache cache = new StreamLoadPlanCache();
+        TExecPlanFragmentParams params1 = plan(cache, createRequest(1, new TUniqueId(2, 3)));
+        Assert.assertEquals(1, cache.size());
+        TExecPlanFragmentParams params2 = plan(cache, createRequest(4, new TUniqueId(5, 6)));
+        Assert.assertEquals(1, cache.size());
+
+        assertLoadIds(params1, 1, new TUniqueId(2, 3));
+        assertLoadIds(params2, 4, new TUniqueId(5, 6));
+        // modifying the returned plan does not change the cached template
+        params2.getFragment().getOutputSink().getOlapTableSink().setTxnId(100);
+        TExecPlanFragmentParams params3 = plan(cache, createRequest(7, new TUniqueId(8, 9)));
+        assertLoadIds(params3, 7, new TUniqueId(8, 9));
+
+        // the patched plan is the same as the one planned without the cache
+        TExecPlanFragmentParams fresh;
+        boolean enableCache = Config.enable_stream_load_plan_cache;
+        Config.enable_stream_load_plan_cache = false;
+        try {
+            fresh = plan(cache, createRequest(7, new TUniqueId(8, 9)));
+        } finally {
+            Config.enable_stream_load_plan_cache = enableCache;
+        }
+        // the query globals contain the current time
+        fresh.setQueryGlobals(params3.getQueryGlobals());
+        Assert.assertEquals(fresh, params3);
+    }
+
+    @Test
+    public void testConcurrentLoads() throws Exception {
+        StreamLoadPlanCache cache = new StreamLoadPlanCache();
+        plan(cache, createRequest(1, new TUniqueId(1, 1)));
+
+        int numLoads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<TExecPlanFragmentParams>> futures = Lists.newArrayList();
+            for (int i = 0; i < numLoads; i++) {
+                TStreamLoadPutRequest request = createRequest(100 + i, new TUniqueId(100 + i, 200 + i));
+                futures.add(executor.submit((Callable<TExecPlanFragmentParams>) () -> plan(cache, request)));
+            }
+            List<TExecPlanFragmentParams> plans = Lists.newArrayList();
+            for (Future<TExecPlanFragmentParams> future : futures) {
+                plans.add(future.get());
+            }
+            Assert.assertEquals(1, cache.size());
+
+            for (int i = 0; i < numLoads; i++) {
+                assertLoadIds(plans.get(i), 100 + i, new TUniqueId(100 + i, 200 + i));
+            }
+
+            // change the ids of the first plan in place, the other plans must not share them
+            TExecPlanFragmentParams first = plans.get(0);
+            first.getParams().getQueryId().setHi(-1);
+            first.getParams().getFragmentInstanceId().setHi(-1);
+            first.getFragment().getOutputSink().getOlapTableSink().getLoadId().setHi(-1);
+            for (List<TScanRangeParams> scanRangeParams : first.getParams().getPerNodeScanRanges().values()) {
+                for (TScanRangeParams scanRangeParam : scanRangeParams) {
+                    for (TBrokerRangeDesc rangeDesc : scanRangeParam.getScanRange().getBrokerScanRange().getRanges()) {
+                        rangeDesc.getLoadId().setHi(-1);
+                    }
+                }
+            }
+            for (int i = 1; i < numLoads; i++) {
+                assertLoadIds(plans.get(i), 100 + i, new TUniqueId(100 + i, 200 + i));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.rewrite;
+
+import org.apache.doris.analysis.CreateDbStmt;
+import org.apache.doris.analysis.CreateTableStmt;
+import org.apache.doris.analysis.Expr;
+import org.apache.doris.analysis.LiteralExpr;
+import org.apache.doris.analysis.SelectStmt;
+import org.apache.doris.catalog.Catalog;
+import org.apache.doris.qe.ConnectContext;
+import org.apache.doris.utframe.UtFrameUtils;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.UUID;
+
+public class BatchFoldConstantsRewriterTest {
+    // use a unique dir so that it won't be conflict with other unit test which
+    // may also start a Mocked Frontend
+    private static String runningDir = "fe/mocked/BatchFoldConstantsRewriterTest/" + UUID.randomUUID().toString() + "/";
+
+    private static ConnectContext connectContext;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        UtFrameUtils.createMinDorisCluster(runningDir);
+        connectContext = UtFrameUtils.createDefaultCtx();
+        String createDbStmtStr = "create database test;";
+        CreateDbStmt createDbStmt = (CreateDbStmt) UtFrameUtils.parseAndAnalyzeStmt(createDbStmtStr, connectContext);
+        Catalog.getCurrentCatalog().createDb(createDbStmt);
+
+        String createTableStr = "create table test.tb1 (k1 datetime, k2 int, v1 int sum) "
+                + "aggregate key(k1, k2) partition by range(k1) ("
+                + "partition p1 values less than ('2020-01-01 00:00:00'), "
+                + "partition p2 values less than ('2020-02-01 00:00:00'), "
+                + "partition p3 values less than ('2020-03-01 00:00:00')) "
+                + "distributed by hash(k2) buckets 3 properties('replication_num' = '1');";
+        CreateTableStmt createTableStmt = (CreateTableStmt) UtFrameUtils.parseAndAnalyzeStmt(createTableStr, connectContext);
+        Catalog.getCurrentCatalog().createTable(createTableStmt);
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        File file = new File(runningDir);
+        file.delete();
+    }
+
+    @Test
+    public void testFold() throws Exception {
+        String query = "select k2, str_to_date('2020-01-05', '%Y-%m-%d') from test.tb1 "
+                + "where k1 in (str_to_date('2020-01-05', '%Y-%m-%d'), str_to_date('2020-01-06', '%Y-%m-%d'), "
+                + "str_to_date('2020-01-05', '%Y-%m-%d'))";
+        SelectStmt stmt = (SelectStmt) UtFrameUtils.parseAndAnalyzeStmt(query, connectContext);
+        // the str_to_date() in the select list and the 3 in the IN list
+        Assert.assertEquals(4, new BatchFoldConstantsRewriter().fold(stmt));
+
+        Assert.assertTrue(stmt.getSelectList().getItems().get(1).getExpr() instanceof LiteralExpr);
+        Expr where = stmt.getWhereClause();
+        for (int i = 1; i < where.getChildren().size(); i++) {
+            Assert.assertTrue(where.getChild(i) instanceof LiteralExpr);
+        }
+
+        // nothing to fold again
+        Assert.assertEquals(0, new BatchFoldConstantsRewriter().fold(stmt));
+    }
+
+    @Test
+    public void testFoldChildrenOfUnfoldedParent() throws Exception {
+        // upper() can not be evaluated by FE, but its argument is folded
+        String query = "select upper(concat('a', 'b')) from test.tb1";
+        SelectStmt stmt = (SelectStmt) UtFrameUtils.parseAndAnalyzeStmt(query, connectContext);
+        Assert.assertEquals(1, new BatchFoldConstantsRewriter().fold(stmt));
+
+        Expr upper = stmt.getSelectList().getItems().get(0).getExpr();
+        Assert.assertFalse(upper instanceof LiteralExpr);
+        Assert.assertTrue(upper.getChild(0) instanceof LiteralExpr);
+    }
+
+    @Test
+    public void testPartitionPruneByFoldedLiterals() throws Exception {
+        String query = "explain select * from test.tb1 where k1 in (str_to_date('2020-01-05', '%Y-%m-%d'), "
+                + "str_to_date('2020-01-06', '%Y-%m-%d'))";
+        String planString = UtFrameUtils.getSQLPlanOrErrorMsg(connectContext, query);
+        Assert.assertTrue(planString, planString.contains("partitions=1/3"));
+    }
+}
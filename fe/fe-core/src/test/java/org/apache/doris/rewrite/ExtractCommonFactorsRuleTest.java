@@ -0,0 +1,95 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.rewrite;
+
+import org.apache.doris.analysis.CreateDbStmt;
+import org.apache.doris.analysis.CreateTableStmt;
+import org.apache.doris.catalog.Catalog;
+import org.apache.doris.qe.ConnectContext;
+import org.apache.doris.utframe.UtFrameUtils;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.UUID;
+
+public class ExtractCommonFactorsRuleTest {
+    // use a unique dir so that it won't be conflict with other unit test which
+    // may also start a Mocked Frontend
+    private static String runningDir = "fe/mocked/ExtractCommonFactorsRuleTest/" + UUID.randomUUID().toString() + "/";
+
+    private static ConnectContext connectContext;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        UtFrameUtils.createMinDorisCluster(runningDir);
+        connectContext = UtFrameUtils.createDefaultCtx();
+        String createDbStmtStr = "create database test;";
+        CreateDbStmt createDbStmt = (CreateDbStmt) UtFrameUtils.parseAndAnalyzeStmt(createDbStmtStr, connectContext);
+        Catalog.getCurrentCatalog().createDb(createDbStmt);
+
+        String createTableStr = "create table test.tb1 (k1 int, k2 int, k3 int, v1 int sum) "
+                + "aggregate key(k1, k2, k3) distributed by hash(k1) buckets 3 properties('replication_num' = '1');";
+        CreateTableStmt createTableStmt = (CreateTableStmt) UtFrameUtils.parseAndAnalyzeStmt(createTableStr, connectContext);
+        Catalog.getCurrentCatalog().createTable(createTableStmt);
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        File file = new File(runningDir);
+        file.delete();
+    }
+
+    @Test
+    public void testExtractCommonFactors() throws Exception {
+        String query = "explain select * from test.tb1 where (k1 = 1 and k2 = 2) or (k1 = 1 and k3 = 3)";
+        String planString = UtFrameUtils.getSQLPlanOrErrorMsg(connectContext, query);
+        Assert.assertTrue(planString.contains("`k1` = 1"));
+        Assert.assertTrue(planString.contains("(`k2` = 2 OR `k3` = 3)"));
+        Assert.assertFalse(planString.contains("`k1` = 1 AND"));
+    }
+
+    @Test
+    public void testDisjunctImpliedByCommonFactors() throws Exception {
+        String query = "explain select * from test.tb1 where (k1 = 1 and k2 = 2) or k1 = 1";
+        String planString = UtFrameUtils.getSQLPlanOrErrorMsg(connectContext, query);
+        Assert.assertTrue(planString.contains("PREDICATES: `k1` = 1\n"));
+    }
+
+    @Test
+    public void testRemoveDuplicatedConjuncts() throws Exception {
+        String query = "explain select * from test.tb1 where k1 = 1 and k2 = 2 and k1 = 1";
+        String planString = UtFrameUtils.getSQLPlanOrErrorMsg(connectContext, query);
+        Assert.assertEquals(1, planString.split("`k1` = 1", -1).length - 1);
+
+        query = "explain select * from test.tb1 where k2 = 2 or k3 = 3 or k2 = 2";
+        planString = UtFrameUtils.getSQLPlanOrErrorMsg(connectContext, query);
+        Assert.assertTrue(planString.contains("`k2` = 2 OR `k3` = 3"));
+        Assert.assertFalse(planString.contains("`k3` = 3 OR `k2` = 2"));
+    }
+
+    @Test
+    public void testNondeterministicNotExtracted() throws Exception {
+        String query = "explain select * from test.tb1 where (rand() < 0.5 and k2 = 2) or (rand() < 0.5 and k3 = 3)";
+        String planString = UtFrameUtils.getSQLPlanOrErrorMsg(connectContext, query);
+        Assert.assertEquals(2, planString.split("rand\\(\\) < 0.5", -1).length - 1);
+    }
+}
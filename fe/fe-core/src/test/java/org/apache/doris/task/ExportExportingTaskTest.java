@@ -0,0 +1,319 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.task;
+
+import org.apache.doris.catalog.BrokerMgr;
+import org.apache.doris.catalog.Catalog;
+import org.apache.doris.catalog.FsBroker;
+import org.apache.doris.common.Config;
+import org.apache.doris.common.GenericPool;
+import org.apache.doris.common.Status;
+import org.apache.doris.common.jmockit.Deencapsulation;
+import org.apache.doris.common.util.ProfileManager;
+import org.apache.doris.load.ExportFailMsg;
+import org.apache.doris.load.ExportJob;
+import org.apache.doris.qe.Coordinator;
+import org.apache.doris.service.FrontendOptions;
+import org.apache.doris.thrift.TBrokerOperationStatus;
+import org.apache.doris.thrift.TBrokerOperationStatusCode;
+import org.apache.doris.thrift.TBrokerRenamePathRequest;
+import org.apache.doris.thrift.TNetworkAddress;
+import org.apache.doris.thrift.TPaloBrokerService;
+import org.apache.doris.thrift.TStatusCode;
+import org.apache.doris.thrift.TUniqueId;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import mockit.Delegate;
+import mockit.Expectations;
+import mockit.Injectable;
+import mockit.Mock;
+import mockit.MockUp;
+import mockit.Mocked;
+import mockit.Verifications;
+
+public class ExportExportingTaskTest {
+    @Mocked
+    private ExportJob job;
+    @Mocked
+    private ProfileManager profileManager;
+    @Injectable
+    private Coordinator coord1;
+    @Injectable
+    private Coordinator coord2;
+    @Injectable
+    private Coordinator coord3;
+
+    private int exportTaskParallelism;
+
+    @Before
+    public void setUp() {
+        exportTaskParallelism = Config.export_task_parallelism;
+        Config.export_task_parallelism = 3;
+        long now = System.currentTimeMillis();
+        new Expectations() {
+            {
+                job.getId();
+                minTimes = 0;
+                result = 1L;
+                job.getState();
+                minTimes = 0;
+                result = ExportJob.JobState.EXPORTING;
+                job.getDoExportingThread();
+                minTimes = 0;
+                result = null;
+                job.isReplayed();
+                minTimes = 0;
+                result = false;
+                job.getCoordList();
+                minTimes = 0;
+                result = Lists.newArrayList(coord1, coord2, coord3);
+                job.getCoordTabletNums();
+                minTimes = 0;
+                result = Lists.newArrayList(1, 1, 1);
+                job.getTimeoutSecond();
+                minTimes = 0;
+                result = 3600;
+                job.getCreateTimeMs();
+                minTimes = 0;
+                result = now;
+                job.getStartTimeMs();
+                minTimes = 0;
+                result = now;
+                job.getSql();
+                minTimes = 0;
+                result = "EXPORT TABLE tbl TO 'hdfs://path'";
+                coord1.getQueryId();
+                minTimes = 0;
+                result = new TUniqueId(1, 1);
+                coord2.getQueryId();
+                minTimes = 0;
+                result = new TUniqueId(1, 2);
+                coord3.getQueryId();
+                minTimes = 0;
+                result = new TUniqueId(1, 3);
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        Config.export_task_parallelism = exportTaskParallelism;
+    }
+
+    @Test
+    public void testExecCoordsInParallel(@Mocked Catalog catalog, @Injectable BrokerMgr brokerMgr,
+                                         @Mocked TPaloBrokerService.Client client,
+                                         @Mocked FrontendOptions frontendOptions) throws Exception {
+        // each coordinator waits in join() until all of them are started
+        CountDownLatch started = new CountDownLatch(3);
+        AtomicBoolean allStarted = new AtomicBoolean(true);
+        Delegate exec = new Delegate() {
+            void exec() {
+                started.countDown();
+            }
+        };
+        Delegate join = new Delegate() {
+            boolean join(int timeoutS) throws InterruptedException {
+                if (!started.await(10, TimeUnit.SECONDS)) {
+                    allStarted.set(false);
+                }
+                return true;
+            }
+        };
+
+        TBrokerOperationStatus renameStatus = new TBrokerOperationStatus();
+        renameStatus.statusCode = TBrokerOperationStatusCode.OK;
+        new MockUp<GenericPool<TPaloBrokerService.Client>>() {
+            @Mock
+            public TPaloBrokerService.Client borrowObject(TNetworkAddress address) throws Exception {
+                return client;
+            }
+
+            @Mock
+            public void returnObject(TNetworkAddress address, TPaloBrokerService.Client object) {
+                return;
+            }
+
+            @Mock
+            public void invalidateObject(TNetworkAddress address, TPaloBrokerService.Client object) {
+                return;
+            }
+        };
+
+        new Expectations() {
+            {
+                coord1.exec();
+                result = exec;
+                coord2.exec();
+                result = exec;
+                coord3.exec();
+                result = exec;
+                coord1.join(anyInt);
+                result = join;
+                coord2.join(anyInt);
+                result = join;
+                coord3.join(anyInt);
+                result = join;
+                coord1.getExecStatus();
+                minTimes = 0;
+                result = Status.OK;
+                coord2.getExecStatus();
+                minTimes = 0;
+                result = Status.OK;
+                coord3.getExecStatus();
+                minTimes = 0;
+                result = Status.OK;
+                job.getExportedFiles();
+                minTimes = 0;
+                result = Sets.newHashSet("hdfs://path/__doris_export_tmp_1/file1");
+                job.getExportPath();
+                minTimes = 0;
+                result = "hdfs://path";
+                catalog.getBrokerMgr();
+                minTimes = 0;
+                result = brokerMgr;
+                brokerMgr.getBroker(anyString, (String) any);
+                minTimes = 0;
+                result = new FsBroker("127.0.0.1", 99999);
+                client.renamePath((TBrokerRenamePathRequest) any);
+                minTimes = 0;
+                result = renameStatus;
+                job.releaseSnapshotPaths();
+                minTimes = 0;
+                result = Status.OK;
+                job.updateState(ExportJob.JobState.FINISHED);
+                result = true;
+            }
+        };
+
+        ExportExportingTask task = new ExportExportingTask(job);
+        task.exec();
+        Assert.assertTrue(allStarted.get());
+        Assert.assertEquals(0, started.getCount());
+
+        new Verifications() {
+            {
+                job.cancel((ExportFailMsg.CancelType) any, (String) any);
+                times = 0;
+                job.setProgress(anyInt);
+                times = 3;
+            }
+        };
+    }
+
+    @Test
+    public void testCancelRunningCoordsOnFailure() throws Exception {
+        // coord1 fails after the others are started, the others are blocked until they are cancelled
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch cancelled = new CountDownLatch(2);
+        Delegate exec = new Delegate() {
+            void exec() {
+                started.countDown();
+            }
+        };
+        Delegate join = new Delegate() {
+            boolean join(int timeoutS) throws InterruptedException {
+                return cancelled.await(10, TimeUnit.SECONDS);
+            }
+        };
+        Delegate cancel = new Delegate() {
+            void cancel() {
+                cancelled.countDown();
+            }
+        };
+
+        new Expectations() {
+            {
+                coord1.join(anyInt);
+                result = new Delegate() {
+                    boolean join(int timeoutS) throws InterruptedException {
+                        return started.await(10, TimeUnit.SECONDS);
+                    }
+                };
+                coord1.getExecStatus();
+                minTimes = 0;
+                result = new Status(TStatusCode.INTERNAL_ERROR, "export failed");
+                coord2.exec();
+                result = exec;
+                coord3.exec();
+                result = exec;
+                coord2.join(anyInt);
+                result = join;
+                coord3.join(anyInt);
+                result = join;
+                coord2.cancel();
+                result = cancel;
+                coord3.cancel();
+                result = cancel;
+                coord2.getExecStatus();
+                minTimes = 0;
+                result = Status.OK;
+                coord3.getExecStatus();
+                minTimes = 0;
+                result = Status.OK;
+            }
+        };
+
+        ExportExportingTask task = new ExportExportingTask(job);
+        long startMs = System.currentTimeMillis();
+        task.exec();
+        Assert.assertEquals(0, cancelled.getCount());
+        // the running coordinators are cancelled instead of waiting for the timeout of join()
+        Assert.assertTrue(System.currentTimeMillis() - startMs < 10000);
+
+        new Verifications() {
+            {
+                job.cancel(ExportFailMsg.CancelType.RUN_FAIL, null);
+                times = 1;
+                job.updateState(ExportJob.JobState.FINISHED);
+                times = 0;
+            }
+        };
+    }
+
+    @Test
+    public void testNotExecCoordAfterCancelled() {
+        ExportExportingTask task = new ExportExportingTask(job);
+        Deencapsulation.setField(task, "isCancelled", true);
+        boolean executed = Deencapsulation.invoke(task, "execCoordWithRetry", coord1, 1);
+        Assert.assertFalse(executed);
+
+        // the job is cancelled after the coordinator is added to the running coordinators
+        Deencapsulation.invoke(task, "actualExecCoord", new TUniqueId(1, 2), coord2);
+
+        new Verifications() {
+            {
+                coord1.exec();
+                times = 0;
+                coord2.exec();
+                times = 0;
+            }
+        };
+    }
+}
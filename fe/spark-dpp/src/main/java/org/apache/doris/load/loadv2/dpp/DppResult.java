@@ -32,6 +32,7 @@ public class DppResult implements Serializable {
         abnormalRows = 0;
         unselectRows = 0;
         partialAbnormalRows = "";
+        resumedFileNumber = 0;
     }
 
     @SerializedName("is_success")
@@ -61,4 +62,8 @@ public class DppResult implements Serializable {
     // only part of abnormal rows will be returned
     @SerializedName("partial_abnormal_rows")
     public String partialAbnormalRows;
+
+    // number of output files written by the previous etl jobs, whose buckets are skipped
+    @SerializedName("resumed_file_number")
+    public long resumedFileNumber;
 }
\ No newline at end of file
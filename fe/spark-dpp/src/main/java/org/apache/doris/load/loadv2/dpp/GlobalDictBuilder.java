@@ -19,6 +19,9 @@ package org.apache.doris.load.loadv2.dpp;
 
 import org.apache.commons.collections.map.MultiValueMap;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.api.java.function.UDF1;
+import org.apache.spark.broadcast.Broadcast;
 import org.apache.spark.sql.AnalysisException;
 import org.apache.spark.sql.Dataset;
 import org.apache.spark.sql.Row;
@@ -34,6 +37,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -59,12 +63,25 @@ import java.util.stream.Collectors;
  *      GlobalDictBuilder.buildGlobalDict()
  *  step4, encode intermediate hive table with global dict
  *      GlobalDictBuilder.encodeDorisIntermediateHiveTable()
+ *
+ *  in step4, the global dict of a column is broadcast as SortedDictSegments if its size is not larger than
+ *  maxBroadcastDictSize, nor than what a quarter of the driver memory can hold, and the column is encoded
+ *  by an udf looking up the broadcast dict, instead of joining the intermediate hive table with the global
+ *  dict table.
  */
 
 public class GlobalDictBuilder {
 
     protected static final Logger LOG = LogManager.getLogger(GlobalDictBuilder.class);
 
+    // spark conf of the max size of the broadcast dict, it can be set in the spark resource of the load
+    public static final String MAX_BROADCAST_DICT_SIZE_CONF = "spark.doris.max.broadcast.dict.size";
+    public static final long DEFAULT_MAX_BROADCAST_DICT_SIZE = 1000000L;
+    // estimated driver memory of an entry of the broadcast dict, including the collected key and value
+    // objects and the copy in SortedDictSegments
+    private static final long BROADCAST_DICT_ENTRY_BYTES = 200L;
+    private static final String DICT_ENCODE_UDF_NAME = "doris_dict_encode_%s";
+
     // name of the column in doris table which need to build global dict
     // for example: some dict columns a,b,c
     // case 1: all dict columns has no relation, then the map is as below
@@ -105,6 +122,9 @@ public class GlobalDictBuilder {
 
     private StructType distinctValueSchema;
 
+    // max size of the global dict of a column which can be broadcast to encode the column, <= 0 means never
+    private long maxBroadcastDictSize = DEFAULT_MAX_BROADCAST_DICT_SIZE;
+
     public GlobalDictBuilder(MultiValueMap dictColumn,
                              List<String> dorisOlapTableColumnList,
                              List<String> mapSideJoinColumns,
@@ -134,6 +154,10 @@ public class GlobalDictBuilder {
         spark.sql("use " + dorisHiveDB);
     }
 
+    public void setMaxBroadcastDictSize(long maxBroadcastDictSize) {
+        this.maxBroadcastDictSize = maxBroadcastDictSize;
+    }
+
     public void createHiveIntermediateTable() throws AnalysisException {
         Map<String, String> sourceHiveTableColumn = spark.catalog()
                 .listColumns(sourceHiveDBTableName)
@@ -221,8 +245,54 @@ public class GlobalDictBuilder {
 
     // encode dorisIntermediateHiveTable's distinct column
     public void encodeDorisIntermediateHiveTable() {
+        long broadcastDictSizeLimit = getBroadcastDictSizeLimit(Runtime.getRuntime().maxMemory());
         for (Object distinctColumnObj : dictColumn.keySet()) {
-            spark.sql(getEncodeDorisIntermediateHiveTableSql(distinctColumnObj.toString(), (ArrayList)dictColumn.get(distinctColumnObj.toString())));
+            String distinctColumnName = distinctColumnObj.toString();
+            List<String> childColumn = (ArrayList) dictColumn.get(distinctColumnName);
+            long dictSize = getGlobalDictSize(distinctColumnName);
+            if (broadcastDictSizeLimit > 0 && dictSize <= broadcastDictSizeLimit
+                    && !mapSideJoinColumns.contains(distinctColumnName)) {
+                LOG.info("encode column " + distinctColumnName + " by broadcast dict, dict size: " + dictSize);
+                encodeByBroadcastDict(distinctColumnName, childColumn);
+            } else {
+                spark.sql(getEncodeDorisIntermediateHiveTableSql(distinctColumnName, childColumn));
+            }
+        }
+    }
+
+    // the dict is collected to the driver before broadcast, so it may take at most a quarter of the driver memory
+    long getBroadcastDictSizeLimit(long driverMaxMemory) {
+        return Math.min(maxBroadcastDictSize, driverMaxMemory / 4 / BROADCAST_DICT_ENTRY_BYTES);
+    }
+
+    private long getGlobalDictSize(String distinctColumnName) {
+        List<Row> rows = spark.sql("select count(*) from " + globalDictTableName
+                + " where dict_column='" + distinctColumnName + "'").collectAsList();
+        return rows.isEmpty() ? 0 : rows.get(0).getLong(0);
+    }
+
+    private void encodeByBroadcastDict(String distinctColumnName, List<String> childColumn) {
+        // collect the dict to driver, which is already checked to be small enough
+        List<String> keys = new ArrayList<>();
+        List<Long> values = new ArrayList<>();
+        Iterator<Row> rows = spark.sql("select dict_key,dict_value from " + globalDictTableName
+                + " where dict_column='" + distinctColumnName + "'").toLocalIterator();
+        while (rows.hasNext()) {
+            Row row = rows.next();
+            keys.add(row.getString(0));
+            values.add(row.getLong(1));
+        }
+        SortedDictSegments dict = SortedDictSegments.build(keys, values, SortedDictSegments.DEFAULT_SEGMENT_SIZE);
+        keys = null;
+        values = null;
+
+        Broadcast<SortedDictSegments> broadcastDict = JavaSparkContext.fromSparkContext(spark.sparkContext()).broadcast(dict);
+        String udfName = String.format(DICT_ENCODE_UDF_NAME, distinctColumnName);
+        spark.udf().register(udfName, (UDF1<String, Long>) key -> broadcastDict.value().lookup(key), DataTypes.LongType);
+        try {
+            spark.sql(getEncodeDorisIntermediateHiveTableByUdfSql(distinctColumnName, childColumn, udfName));
+        } finally {
+            broadcastDict.destroy();
         }
     }
 
@@ -376,6 +446,24 @@ public class GlobalDictBuilder {
         return sql.toString();
     }
 
+    private String getEncodeDorisIntermediateHiveTableByUdfSql(String dictColumn, List<String> childColumn,
+                                                               String udfName) {
+        StringBuilder sql = new StringBuilder();
+        sql.append("insert overwrite table ").append(dorisIntermediateHiveTable).append(" select ");
+        dorisOlapTableColumnList.forEach(columnName -> {
+            if (dictColumn.equals(columnName)) {
+                sql.append(String.format(" %s(%s) ", udfName, columnName)).append(" ,");
+                // means the dictColumn is reused
+            } else if (childColumn != null && childColumn.contains(columnName)) {
+                sql.append(String.format(" if(%s is null, null, %s(%s)) ", columnName, udfName, dictColumn)).append(" ,");
+            } else {
+                sql.append(columnName).append(" ,");
+            }
+        });
+        sql.deleteCharAt(sql.length() - 1).append(" from ").append(dorisIntermediateHiveTable);
+        return sql.toString();
+    }
+
     private void submitWorker(List<GlobalDictBuildWorker> workerList) {
         try {
             List<Future<Boolean>> futureList = new ArrayList<>();
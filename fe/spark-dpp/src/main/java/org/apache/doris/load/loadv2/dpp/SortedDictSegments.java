@@ -0,0 +1,97 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.load.loadv2.dpp;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * global dict of one column which is broadcast to the executors,
+ * so that the column can be encoded without joining the source table with the global dict table.
+ *
+ * the keys are sorted and split into segments of limited size, to avoid allocating a single huge array.
+ * a key is looked up by binary search on the first keys of the segments, and then in the segment.
+ */
+public class SortedDictSegments implements Serializable {
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 20;
+
+    private final String[] segmentFirstKeys;
+    private final String[][] segmentKeys;
+    private final long[][] segmentValues;
+
+    private SortedDictSegments(String[] segmentFirstKeys, String[][] segmentKeys, long[][] segmentValues) {
+        this.segmentFirstKeys = segmentFirstKeys;
+        this.segmentKeys = segmentKeys;
+        this.segmentValues = segmentValues;
+    }
+
+    // keys must be distinct and not null, and values.get(i) is the dict value of keys.get(i)
+    public static SortedDictSegments build(List<String> keys, List<Long> values, int segmentSize) {
+        if (keys.size() != values.size()) {
+            throw new IllegalArgumentException("dict keys size " + keys.size() + " != values size " + values.size());
+        }
+        Integer[] sortedIndexes = new Integer[keys.size()];
+        for (int i = 0; i < sortedIndexes.length; i++) {
+            sortedIndexes[i] = i;
+        }
+        Arrays.sort(sortedIndexes, (i1, i2) -> keys.get(i1).compareTo(keys.get(i2)));
+
+        int segmentNum = (sortedIndexes.length + segmentSize - 1) / segmentSize;
+        String[] segmentFirstKeys = new String[segmentNum];
+        String[][] segmentKeys = new String[segmentNum][];
+        long[][] segmentValues = new long[segmentNum][];
+        for (int segment = 0; segment < segmentNum; segment++) {
+            int start = segment * segmentSize;
+            int size = Math.min(segmentSize, sortedIndexes.length - start);
+            segmentKeys[segment] = new String[size];
+            segmentValues[segment] = new long[size];
+            for (int i = 0; i < size; i++) {
+                segmentKeys[segment][i] = keys.get(sortedIndexes[start + i]);
+                segmentValues[segment][i] = values.get(sortedIndexes[start + i]);
+            }
+            segmentFirstKeys[segment] = segmentKeys[segment][0];
+        }
+        return new SortedDictSegments(segmentFirstKeys, segmentKeys, segmentValues);
+    }
+
+    // return null if the key is not in the dict
+    public Long lookup(String key) {
+        if (key == null || segmentFirstKeys.length == 0) {
+            return null;
+        }
+        int segment = Arrays.binarySearch(segmentFirstKeys, key);
+        if (segment < 0) {
+            // the segment whose first key is the greatest one less than the key
+            segment = -segment - 2;
+            if (segment < 0) {
+                return null;
+            }
+        }
+        int pos = Arrays.binarySearch(segmentKeys[segment], key);
+        return pos < 0 ? null : segmentValues[segment][pos];
+    }
+
+    public long size() {
+        long size = 0;
+        for (String[] keys : segmentKeys) {
+            size += keys.length;
+        }
+        return size;
+    }
+}
@@ -106,6 +106,8 @@ public final class SparkDpp implements java.io.Serializable {
     // we need to wrap it so that we can use it in executor.
     private SerializableConfiguration serializableHadoopConf;
     private DppResult dppResult = new DppResult();
+    // tableId.partitionId.indexId.bucket.schemaHash of the output files written by the previous etl jobs
+    private Set<String> finishedTabletMetas = new HashSet<>();
 
 
     public SparkDpp(SparkSession spark, EtlJobConfig etlJobConfig) {
@@ -183,6 +185,13 @@ public final class SparkDpp implements java.io.Serializable {
         StructType dstSchema = DppUtils.createDstTableSchema(indexMeta.columns, false, true);
         ExpressionEncoder encoder = RowEncoder.apply(dstSchema);
 
+        // skip the buckets written by the previous etl jobs
+        Set<String> finishedBucketKeys = getFinishedBucketKeys(tableId, indexMeta.indexId);
+        if (!finishedBucketKeys.isEmpty()) {
+            LOG.info("skip " + finishedBucketKeys.size() + " finished buckets of index:" + indexMeta.indexId);
+            resultRDD = resultRDD.filter(pair -> !finishedBucketKeys.contains(pair._1().get(0).toString()));
+        }
+
         resultRDD.repartitionAndSortWithinPartitions(new BucketPartitioner(bucketKeyMap), new BucketComparator())
         .foreachPartition(new VoidFunction<Iterator<Tuple2<List<Object>,Object[]>>>() {
             @Override
@@ -272,6 +281,42 @@ public final class SparkDpp implements java.io.Serializable {
             }
         });}
 
+    // The output file of a bucket is renamed from the temporary file after all data of the bucket is written,
+    // so the existing output files are the buckets finished by the previous etl jobs of the same load job.
+    private void loadFinishedBuckets() throws IOException, URISyntaxException {
+        FileSystem fs = FileSystem.get(new URI(etlJobConfig.outputPath), serializableHadoopConf.value());
+        Path outputPath = new Path(etlJobConfig.outputPath);
+        if (!fs.exists(outputPath)) {
+            return;
+        }
+        for (FileStatus fileStatus : fs.listStatus(outputPath)) {
+            String fileName = fileStatus.getPath().getName();
+            if (fileStatus.isDirectory() || !fileName.endsWith("." + EtlJobConfig.ETL_OUTPUT_FILE_FORMAT)) {
+                continue;
+            }
+            try {
+                finishedTabletMetas.add(EtlJobConfig.getTabletMetaStr(fileName));
+            } catch (Exception e) {
+                LOG.warn("invalid etl output file:" + fileName, e);
+            }
+        }
+        dppResult.resumedFileNumber = finishedTabletMetas.size();
+        LOG.info("finished buckets of previous etl jobs:" + finishedTabletMetas.size());
+    }
+
+    // get the bucket keys (partitionId_bucketId) finished by the previous etl jobs of the index
+    private Set<String> getFinishedBucketKeys(long tableId, long indexId) {
+        Set<String> bucketKeys = new HashSet<>();
+        for (String tabletMeta : finishedTabletMetas) {
+            // tableId.partitionId.indexId.bucket.schemaHash
+            String[] metas = tabletMeta.split("\\.");
+            if (Long.parseLong(metas[0]) == tableId && Long.parseLong(metas[2]) == indexId) {
+                bucketKeys.add(metas[1] + "_" + metas[3]);
+            }
+        }
+        return bucketKeys;
+    }
+
     // TODO(wb) one shuffle to calculate the rollup in the same level
     private void processRollupTree(RollupTreeNode rootNode,
                                    JavaPairRDD<List<Object>, Object[]> rootRDD,
@@ -806,6 +851,7 @@ public final class SparkDpp implements java.io.Serializable {
 
     private void process() throws Exception {
         try {
+            loadFinishedBuckets();
             for (Map.Entry<Long, EtlJobConfig.EtlTable> entry : etlJobConfig.tables.entrySet()) {
                 Long tableId = entry.getKey();
                 EtlJobConfig.EtlTable etlTable = entry.getValue();
@@ -883,6 +929,20 @@ public final class SparkDpp implements java.io.Serializable {
                         tablePairRDD.union(ret);
                     }
                 }
+                // the buckets finished for all indexes need not be aggregated any more
+                Set<String> finishedBucketKeys = null;
+                for (EtlJobConfig.EtlIndex indexMeta : etlTable.indexes) {
+                    Set<String> indexBucketKeys = getFinishedBucketKeys(tableId, indexMeta.indexId);
+                    if (finishedBucketKeys == null) {
+                        finishedBucketKeys = indexBucketKeys;
+                    } else {
+                        finishedBucketKeys.retainAll(indexBucketKeys);
+                    }
+                }
+                if (finishedBucketKeys != null && !finishedBucketKeys.isEmpty()) {
+                    final Set<String> skippedBucketKeys = finishedBucketKeys;
+                    tablePairRDD = tablePairRDD.filter(pair -> !skippedBucketKeys.contains(pair._1().get(0).toString()));
+                }
                 processRollupTree(rootNode, tablePairRDD, tableId, baseIndex);
             }
             LOG.info("invalid rows contents:" + invalidRows.value());
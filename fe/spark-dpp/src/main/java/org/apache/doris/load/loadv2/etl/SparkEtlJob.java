@@ -187,6 +187,8 @@ public class SparkEtlJob {
                     dictColumnMap, dorisOlapTableColumnList, mapSideJoinColumns, sourceHiveDBTableName,
                     sourceHiveFilter, dorisHiveDB, distinctKeyTableName, globalDictTableName, dorisIntermediateHiveTable,
                     buildConcurrency, veryHighCardinalityColumn, veryHighCardinalityColumnSplitNum, spark);
+            globalDictBuilder.setMaxBroadcastDictSize(spark.sparkContext().conf().getLong(
+                    GlobalDictBuilder.MAX_BROADCAST_DICT_SIZE_CONF, GlobalDictBuilder.DEFAULT_MAX_BROADCAST_DICT_SIZE));
             globalDictBuilder.createHiveIntermediateTable();
             globalDictBuilder.extractDistinctColumn();
             globalDictBuilder.buildGlobalDict();
@@ -0,0 +1,56 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.load.loadv2.dpp;
+
+import org.apache.commons.collections.map.MultiValueMap;
+import org.apache.spark.sql.SparkSession;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import mockit.Mocked;
+
+public class GlobalDictBuilderTest {
+    private static final long GB = 1024L * 1024 * 1024;
+
+    @Mocked
+    SparkSession spark;
+
+    private GlobalDictBuilder newBuilder() {
+        return new GlobalDictBuilder(new MultiValueMap(), new ArrayList<>(), new ArrayList<>(), "db.source",
+                null, "db", "distinct_key", "global_dict", "intermediate", 1, new ArrayList<>(), 1, spark);
+    }
+
+    @Test
+    public void testBroadcastDictSizeLimit() {
+        GlobalDictBuilder builder = newBuilder();
+        // a quarter of 64GB holds much more than the default max size
+        Assert.assertEquals(GlobalDictBuilder.DEFAULT_MAX_BROADCAST_DICT_SIZE,
+                builder.getBroadcastDictSizeLimit(64 * GB));
+        // a quarter of 512MB holds 671088 entries of 200 bytes
+        Assert.assertEquals(671088L, builder.getBroadcastDictSizeLimit(GB / 2));
+
+        builder.setMaxBroadcastDictSize(10000000L);
+        Assert.assertEquals(10000000L, builder.getBroadcastDictSizeLimit(64 * GB));
+        Assert.assertEquals(1342177L, builder.getBroadcastDictSizeLimit(GB));
+
+        // never broadcast
+        builder.setMaxBroadcastDictSize(0);
+        Assert.assertEquals(0L, builder.getBroadcastDictSizeLimit(64 * GB));
+    }
+}
@@ -0,0 +1,56 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.load.loadv2.dpp;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class SortedDictSegmentsTest {
+
+    @Test
+    public void testLookup() {
+        List<String> keys = Arrays.asList("d", "a", "f", "b", "e", "c", "g");
+        List<Long> values = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            values.add((long) i + 1);
+        }
+
+        // 3 segments: [a, b, c], [d, e, f], [g]
+        SortedDictSegments dict = SortedDictSegments.build(keys, values, 3);
+        Assert.assertEquals(7, dict.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Assert.assertEquals(values.get(i), dict.lookup(keys.get(i)));
+        }
+        Assert.assertNull(dict.lookup("0"));
+        Assert.assertNull(dict.lookup("bb"));
+        Assert.assertNull(dict.lookup("h"));
+        Assert.assertNull(dict.lookup(null));
+    }
+
+    @Test
+    public void testEmptyDict() {
+        SortedDictSegments dict = SortedDictSegments.build(new ArrayList<>(), new ArrayList<>(),
+                SortedDictSegments.DEFAULT_SEGMENT_SIZE);
+        Assert.assertEquals(0, dict.size());
+        Assert.assertNull(dict.lookup("a"));
+    }
+}
@@ -0,0 +1,64 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.broker.hdfs;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Buffers of the readahead blocks, shared by the positional readers of all files.
+ *
+ * A buffer is taken when a block is read ahead and given back when the block is dropped,
+ * so that the sequential reads do not allocate a new block for each request.
+ * The idle buffers are kept by their exact length, the readers round the block lengths to a few sizes.
+ * At most maxIdleBytes are kept idle, the buffers given back beyond it are left to the gc.
+ */
+public class BlockBufferPool {
+
+    private final long maxIdleBytes;
+
+    // guarded by this
+    private final Map<Integer, ArrayDeque<byte[]>> idleBuffers = new HashMap<>();
+    private long idleBytes = 0;
+
+    public BlockBufferPool(long maxIdleBytes) {
+        this.maxIdleBytes = maxIdleBytes;
+    }
+
+    // return an idle buffer of the length, or a new one if there is none
+    public synchronized byte[] take(int length) {
+        ArrayDeque<byte[]> buffers = idleBuffers.get(length);
+        if (buffers == null || buffers.isEmpty()) {
+            return new byte[length];
+        }
+        idleBytes -= length;
+        return buffers.poll();
+    }
+
+    public synchronized void giveBack(byte[] buffer) {
+        if (idleBytes + buffer.length > maxIdleBytes) {
+            return;
+        }
+        idleBuffers.computeIfAbsent(buffer.length, k -> new ArrayDeque<>()).add(buffer);
+        idleBytes += buffer.length;
+    }
+
+    public synchronized long getIdleBytes() {
+        return idleBytes;
+    }
+}
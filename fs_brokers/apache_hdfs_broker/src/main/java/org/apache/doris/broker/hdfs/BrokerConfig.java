@@ -31,6 +31,46 @@ public class BrokerConfig extends ConfigBase {
     @ConfField
     public static int client_expire_seconds = 300;
     
+    // reuse the read buffer of a thrift worker thread for its pread requests, and the readahead blocks
+    @ConfField
+    public static boolean enable_read_buffer_reuse = true;
+    
+    // read the files by positional reads on a pool of streams instead of seeking a single stream
+    @ConfField
+    public static boolean enable_positional_read = true;
+    
+    // max number of streams opened for one file by the positional reader
+    @ConfField
+    public static int positional_read_streams_per_file = 4;
+    
+    // max size to read ahead when a file is read sequentially, 0 to disable readahead
+    @ConfField
+    public static int positional_read_max_readahead_kb = 1024;
+    
+    // max total size of the readahead data of all files, no data is read ahead when it is used up
+    @ConfField
+    public static int positional_read_max_total_readahead_mb = 256;
+    
+    @ConfField
+    public static int positional_read_readahead_threads = 16;
+    
+    // interval to log the latency histograms of the operations, 0 to disable it
+    @ConfField
+    public static int perf_monitor_log_interval_seconds = 300;
+    
+    // threads to list the directories of a wildcard path concurrently, 0 to list them one by one
+    @ConfField
+    public static int list_path_threads = 16;
+    
+    // time to keep the listings of the last level of wildcard paths, 0 to disable the cache.
+    // the sizes of the listed files may be stale for this time.
+    @ConfField
+    public static int list_path_cache_expire_seconds = 60;
+    
+    // max number of files in the cached listings
+    @ConfField
+    public static int list_path_cache_max_files = 1000000;
+    
     @ConfField
     public static int broker_ipc_port = 8000;
     
@@ -64,11 +64,17 @@ public class ClientContextManager {
     
     public synchronized void putNewInputStream(String clientId, TBrokerFD fd, FSDataInputStream fsDataInputStream, 
             BrokerFileSystem brokerFileSystem) {
+        putNewInputStream(clientId, fd, fsDataInputStream, null, brokerFileSystem);
+    }
+    
+    // the positional reader is null if the fd is read by seeking the input stream
+    public synchronized void putNewInputStream(String clientId, TBrokerFD fd, FSDataInputStream fsDataInputStream,
+            PositionalReader positionalReader, BrokerFileSystem brokerFileSystem) {
         if (!clientContexts.containsKey(clientId)) {
             clientContexts.putIfAbsent(clientId, new ClientResourceContext(clientId));
         }
         ClientResourceContext clientContext = clientContexts.get(clientId);
-        clientContext.putInputStream(fd, fsDataInputStream, brokerFileSystem);
+        clientContext.putInputStream(fd, fsDataInputStream, positionalReader, brokerFileSystem);
         fdToClientMap.putIfAbsent(fd, clientId);
     }
     
@@ -83,6 +89,16 @@ public class ClientContextManager {
         return fsDataInputStream;
     }
     
+    public synchronized PositionalReader getPositionalReader(TBrokerFD fd) {
+        String clientId = fdToClientMap.get(fd);
+        if (clientId == null) {
+            throw new BrokerException(TBrokerOperationStatusCode.TARGET_STORAGE_SERVICE_ERROR, 
+                    "the fd is not owned by client {}", clientId);
+        }
+        ClientResourceContext clientContext = clientContexts.get(clientId);
+        return clientContext.getPositionalReader(fd);
+    }
+    
     public synchronized FSDataOutputStream getFsDataOutputStream(TBrokerFD fd) {
         String clientId = fdToClientMap.get(fd);
         if (clientId == null) {
@@ -103,7 +119,11 @@ public class ClientContextManager {
         BrokerInputStream brokerInputStream = clientContext.inputStreams.remove(fd);
         try {
             if (brokerInputStream != null) {
-                brokerInputStream.inputStream.close();
+                if (brokerInputStream.positionalReader != null) {
+                    brokerInputStream.positionalReader.close();
+                } else {
+                    brokerInputStream.inputStream.close();
+                }
             }
         } catch (Exception e) {
             logger.error("errors while close file data input stream", e);
@@ -174,10 +194,13 @@ public class ClientContextManager {
     private static class BrokerInputStream {
         
         private final FSDataInputStream inputStream;
+        private final PositionalReader positionalReader;
         private final BrokerFileSystem brokerFileSystem;
         
-        public BrokerInputStream(FSDataInputStream inputStream, BrokerFileSystem brokerFileSystem) {
+        public BrokerInputStream(FSDataInputStream inputStream, PositionalReader positionalReader,
+                BrokerFileSystem brokerFileSystem) {
             this.inputStream = inputStream;
+            this.positionalReader = positionalReader;
             this.brokerFileSystem = brokerFileSystem;
             this.brokerFileSystem.updateLastUpdateAccessTime();
         }
@@ -187,6 +210,11 @@ public class ClientContextManager {
             return inputStream;
         }
         
+        public PositionalReader getPositionalReader() {
+            this.brokerFileSystem.updateLastUpdateAccessTime();
+            return positionalReader;
+        }
+        
         public void updateLastUpdateAccessTime() {
             this.brokerFileSystem.updateLastUpdateAccessTime();
         }
@@ -206,8 +234,9 @@ public class ClientContextManager {
             this.lastPingTimestamp = System.currentTimeMillis();
         }
         
-        public void putInputStream(TBrokerFD fd, FSDataInputStream inputStream, BrokerFileSystem fileSystem) {
-            inputStreams.putIfAbsent(fd, new BrokerInputStream(inputStream, fileSystem));
+        public void putInputStream(TBrokerFD fd, FSDataInputStream inputStream, PositionalReader positionalReader,
+                BrokerFileSystem fileSystem) {
+            inputStreams.putIfAbsent(fd, new BrokerInputStream(inputStream, positionalReader, fileSystem));
         }
         
         public void putOutputStream(TBrokerFD fd, FSDataOutputStream outputStream, BrokerFileSystem fileSystem) {
@@ -222,6 +251,14 @@ public class ClientContextManager {
             return null;
         }
         
+        public PositionalReader getPositionalReader(TBrokerFD fd) {
+            BrokerInputStream brokerInputStream = inputStreams.get(fd);
+            if (brokerInputStream != null) {
+                return brokerInputStream.getPositionalReader();
+            }
+            return null;
+        }
+        
         public FSDataOutputStream getOutputStream(TBrokerFD fd) {
             BrokerOutputStream brokerOutputStream = outputStreams.get(fd);
             if (brokerOutputStream != null) {
@@ -17,6 +17,7 @@
 
 package org.apache.doris.broker.hdfs;
 
+import org.apache.doris.common.BrokerPerfMonitor;
 import org.apache.doris.common.WildcardURI;
 import org.apache.doris.thrift.TBrokerFD;
 import org.apache.doris.thrift.TBrokerFileStatus;
@@ -54,8 +55,10 @@ import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
 public class FileSystemManager {
@@ -96,6 +99,12 @@ public class FileSystemManager {
     private static final String FS_S3A_IMPL_DISABLE_CACHE = "fs.s3a.impl.disable.cache";
 
     private ScheduledExecutorService handleManagementPool = Executors.newScheduledThreadPool(2);
+    private ExecutorService readaheadPool;
+    private Semaphore readaheadBudget;
+    private BlockBufferPool blockBufferPool;
+    private ExecutorService listPathPool;
+    private ListingCache listingCache;
+    private ReadBufferPool readBufferPool;
     
     private int readBufferSize = 128 << 10; // 128k
     private int writeBufferSize = 128 << 10; // 128k
@@ -109,6 +118,29 @@ public class FileSystemManager {
         readBufferSize = BrokerConfig.hdfs_read_buffer_size_kb << 10;
         writeBufferSize = BrokerConfig.hdfs_write_buffer_size_kb << 10;
         handleManagementPool.schedule(new FileSystemExpirationChecker(), 0, TimeUnit.SECONDS);
+        if (BrokerConfig.enable_read_buffer_reuse) {
+            readBufferPool = new ReadBufferPool(readBufferSize);
+        }
+        if (BrokerConfig.enable_positional_read) {
+            readaheadPool = Executors.newFixedThreadPool(BrokerConfig.positional_read_readahead_threads);
+            readaheadBudget = new Semaphore((int) Math.min(Integer.MAX_VALUE,
+                    (long) BrokerConfig.positional_read_max_total_readahead_mb << 20));
+            // keep at most the budget idle, so the blocks of a full budget can be reused
+            blockBufferPool = new BlockBufferPool(BrokerConfig.enable_read_buffer_reuse
+                    ? readaheadBudget.availablePermits() : 0);
+        }
+        if (BrokerConfig.list_path_threads > 0) {
+            listPathPool = Executors.newFixedThreadPool(BrokerConfig.list_path_threads);
+        }
+        if (BrokerConfig.list_path_cache_expire_seconds > 0) {
+            listingCache = new ListingCache(BrokerConfig.list_path_cache_expire_seconds,
+                    BrokerConfig.list_path_cache_max_files);
+        }
+        if (BrokerConfig.perf_monitor_log_interval_seconds > 0) {
+            handleManagementPool.scheduleAtFixedRate(() -> logger.info("operation latency: " + BrokerPerfMonitor.dump()),
+                    BrokerConfig.perf_monitor_log_interval_seconds, BrokerConfig.perf_monitor_log_interval_seconds,
+                    TimeUnit.SECONDS);
+        }
     }
 
     private static String preparePrincipal(String originalPrincipal) throws UnknownHostException {
@@ -416,7 +448,13 @@ public class FileSystemManager {
         BrokerFileSystem fileSystem = getFileSystem(path, properties);
         Path pathPattern = new Path(pathUri.getPath());
         try {
-            FileStatus[] files = fileSystem.getDFSFileSystem().globStatus(pathPattern);
+            FileStatus[] files;
+            if (listPathPool != null) {
+                files = new ParallelGlobber(fileSystem.getDFSFileSystem(), fileSystem.getIdentity(), listPathPool,
+                        listingCache).globStatus(pathPattern);
+            } else {
+                files = fileSystem.getDFSFileSystem().globStatus(pathPattern);
+            }
             if (files == null) {
                 resultFileStatus = new ArrayList<>(0);
                 return resultFileStatus;
@@ -511,22 +549,49 @@ public class FileSystemManager {
         WildcardURI pathUri = new WildcardURI(path);
         Path inputFilePath = new Path(pathUri.getPath());
         BrokerFileSystem fileSystem = getFileSystem(path, properties);
+        return openReader(clientId, fileSystem, inputFilePath, startOffset);
+    }
+    
+    // open the path of the given file system, it is also used to open local files in the benchmarks
+    TBrokerFD openReader(String clientId, BrokerFileSystem fileSystem, Path inputFilePath, long startOffset) {
         try {
             FSDataInputStream fsDataInputStream = fileSystem.getDFSFileSystem().open(inputFilePath, readBufferSize);
             fsDataInputStream.seek(startOffset);
             UUID uuid = UUID.randomUUID();
             TBrokerFD fd = parseUUIDToFD(uuid);
-            clientContextManager.putNewInputStream(clientId, fd, fsDataInputStream, fileSystem);
+            PositionalReader positionalReader = null;
+            if (readaheadPool != null) {
+                positionalReader = new PositionalReader(fileSystem.getDFSFileSystem(), inputFilePath,
+                        fsDataInputStream, readBufferSize, BrokerConfig.positional_read_streams_per_file,
+                        BrokerConfig.positional_read_max_readahead_kb << 10, readaheadPool, readaheadBudget,
+                        blockBufferPool);
+            }
+            clientContextManager.putNewInputStream(clientId, fd, fsDataInputStream, positionalReader, fileSystem);
             return fd;
         } catch (IOException e) {
             logger.error("errors while open path", e);
             fileSystem.closeFileSystem();
             throw new BrokerException(TBrokerOperationStatusCode.TARGET_STORAGE_SERVICE_ERROR, 
-                    e, "could not open file {}", path);
+                    e, "could not open file {}", inputFilePath);
         }
     }
     
     public ByteBuffer pread(TBrokerFD fd, long offset, long length) {
+        PositionalReader positionalReader = clientContextManager.getPositionalReader(fd);
+        if (positionalReader != null) {
+            try {
+                ByteBuffer buf = allocateReadBuffer(length);
+                positionalReader.read(offset, buf);
+                if (logger.isDebugEnabled()) {
+                    logger.debug("positional read from offset " + offset + ", read length:" + buf.remaining());
+                }
+                return buf;
+            } catch (IOException e) {
+                logger.error("errors while read data from stream", e);
+                throw new BrokerException(TBrokerOperationStatusCode.TARGET_STORAGE_SERVICE_ERROR,
+                        e, "errors while read data from stream");
+            }
+        }
         FSDataInputStream fsDataInputStream = clientContextManager.getFsDataInputStream(fd);
         synchronized (fsDataInputStream) {
             long currentStreamOffset;
@@ -550,12 +615,7 @@ public class FileSystemManager {
                             currentStreamOffset, offset);
                 }
             }
-            ByteBuffer buf;
-            if (length > readBufferSize) {
-                buf = ByteBuffer.allocate(readBufferSize);
-            } else {
-                buf = ByteBuffer.allocate((int) length);
-            }
+            ByteBuffer buf = allocateReadBuffer(length);
             try {
                 int readLength = readByteBufferFully(fsDataInputStream, buf);
                 if (readLength < 0) {
@@ -563,7 +623,7 @@ public class FileSystemManager {
                             "end of file reached");
                 }
                 if (logger.isDebugEnabled()) {
-                    logger.debug("read buffer from input stream, buffer size:" + buf.capacity() + ", read length:" + readLength);
+                    logger.debug("read buffer from input stream, request length:" + length + ", read length:" + readLength);
                 }
                 return buf;
             } catch (IOException e) {
@@ -574,12 +634,25 @@ public class FileSystemManager {
         }
     }
     
+    private ByteBuffer allocateReadBuffer(long length) {
+        int bufferSize = (int) Math.min(length, readBufferSize);
+        if (readBufferPool != null) {
+            return readBufferPool.getBuffer(bufferSize);
+        }
+        return ByteBuffer.allocate(bufferSize);
+    }
+    
     public void seek(TBrokerFD fd, long offset) {
         throw new BrokerException(TBrokerOperationStatusCode.OPERATION_NOT_SUPPORTED, 
                 "seek this method is not supported");
     }
     
     public void closeReader(TBrokerFD fd) {
+        if (clientContextManager.getPositionalReader(fd) != null) {
+            // the streams of the reader are closed when it is removed
+            clientContextManager.removeInputStream(fd);
+            return;
+        }
         FSDataInputStream fsDataInputStream = clientContextManager.getFsDataInputStream(fd);
         synchronized (fsDataInputStream) {
             try {
@@ -57,6 +57,10 @@ public class HDFSBrokerServiceImpl implements TPaloBrokerService.Iface {
         fileSystemManager = new FileSystemManager();
     }
     
+    HDFSBrokerServiceImpl(FileSystemManager fileSystemManager) {
+        this.fileSystemManager = fileSystemManager;
+    }
+    
     private TBrokerOperationStatus generateOKStatus() {
         return new TBrokerOperationStatus(TBrokerOperationStatusCode.OK);
     }
@@ -66,6 +70,7 @@ public class HDFSBrokerServiceImpl implements TPaloBrokerService.Iface {
             throws TException {
         logger.info("received a list path request, request detail: " + request);
         TBrokerListResponse response = new TBrokerListResponse();
+        Stopwatch stopwatch = BrokerPerfMonitor.startWatch();
         try {
             boolean fileNameOnly = false;
             if (request.isSetFileNameOnly()) {
@@ -81,6 +86,9 @@ public class HDFSBrokerServiceImpl implements TPaloBrokerService.Iface {
             TBrokerOperationStatus errorStatus = e.generateFailedOperationStatus();
             response.setOpStatus(errorStatus);
             return response;
+        } finally {
+            stopwatch.stop();
+            BrokerPerfMonitor.record("list_path", stopwatch);
         }
     }
 
@@ -155,7 +163,8 @@ public class HDFSBrokerServiceImpl implements TPaloBrokerService.Iface {
         TBrokerReadResponse response = new TBrokerReadResponse();
         try {
             ByteBuffer readBuf = fileSystemManager.pread(request.fd, request.offset, request.length);
-            response.setData(readBuf);
+            // not by setData, which copies the buffer by TBaseHelper.copyBinary since thrift 0.9.2
+            response.data = readBuf;
             response.setOpStatus(generateOKStatus());
         } catch (BrokerException e) {
             logger.warn("failed to pread: " + request.fd, e);
@@ -164,6 +173,7 @@ public class HDFSBrokerServiceImpl implements TPaloBrokerService.Iface {
             return response;
         } finally {
             stopwatch.stop();
+            BrokerPerfMonitor.record("pread", stopwatch);
             logger.debug("read request fd: " + request.fd.high + "" 
                     + request.fd.low + " cost " 
                     + stopwatch.elapsed(TimeUnit.MILLISECONDS) + " millis");
@@ -229,6 +239,7 @@ public class HDFSBrokerServiceImpl implements TPaloBrokerService.Iface {
             return errorStatus;
         } finally {
             stopwatch.stop();
+            BrokerPerfMonitor.record("pwrite", stopwatch);
             logger.debug("write request fd: " + request.fd.high + "" 
                     + request.fd.low + " cost " 
                     + stopwatch.elapsed(TimeUnit.MILLISECONDS) + " millis");
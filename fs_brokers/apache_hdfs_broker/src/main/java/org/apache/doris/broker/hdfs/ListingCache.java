@@ -0,0 +1,117 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.broker.hdfs;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.fs.FileStatus;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+
+/*
+ * Short-lived cache of the directory listings, so that the retries of a load do not list
+ * the same directories again.
+ *
+ * A listing is valid only if the modification time of the directory is not changed, which is
+ * updated when a child is added or removed. The directories without modification time,
+ * such as the ones of object storages, are not cached.
+ *
+ * The statuses of the children are cached, so a hit sends no request for the directory.
+ * Their sizes may be stale until the listing expires, because appending or closing a file being written
+ * does not change the directory. The expiration is short, and the loads read the files which are complete.
+ */
+public class ListingCache {
+
+    private final Cache<Key, Entry> cache;
+
+    public ListingCache(long expireSeconds, long maxFiles) {
+        this.cache = CacheBuilder.newBuilder()
+                .expireAfterWrite(expireSeconds, TimeUnit.SECONDS)
+                .maximumWeight(maxFiles)
+                .weigher(new Weigher<Key, Entry>() {
+                    @Override
+                    public int weigh(Key key, Entry entry) {
+                        return entry.children.length + 1;
+                    }
+                })
+                .build();
+    }
+
+    // return the children, or null if the listing of dir is not cached or is changed
+    public FileStatus[] get(FileSystemIdentity identity, FileStatus dir) {
+        if (dir.getModificationTime() <= 0) {
+            return null;
+        }
+        Entry entry = cache.getIfPresent(new Key(identity, dir.getPath().toString()));
+        if (entry == null || entry.modificationTime != dir.getModificationTime()) {
+            return null;
+        }
+        return entry.children;
+    }
+
+    public void put(FileSystemIdentity identity, FileStatus dir, FileStatus[] children) {
+        if (dir.getModificationTime() <= 0) {
+            return;
+        }
+        cache.put(new Key(identity, dir.getPath().toString()), new Entry(dir.getModificationTime(), children));
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    private static class Key {
+        // the listing is cached for each identity, which may have different permissions
+        private final FileSystemIdentity identity;
+        private final String path;
+
+        Key(FileSystemIdentity identity, String path) {
+            this.identity = identity;
+            this.path = path;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * identity.hashCode() + path.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return identity.equals(other.identity) && path.equals(other.path);
+        }
+    }
+
+    private static class Entry {
+        private final long modificationTime;
+        private final FileStatus[] children;
+
+        Entry(long modificationTime, FileStatus[] children) {
+            this.modificationTime = modificationTime;
+            this.children = children;
+        }
+    }
+}
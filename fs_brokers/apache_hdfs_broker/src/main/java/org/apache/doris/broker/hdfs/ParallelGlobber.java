@@ -0,0 +1,218 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.broker.hdfs;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.GlobFilter;
+import org.apache.hadoop.fs.Path;
+
+/*
+ * Expand the glob pattern like FileSystem.globStatus, but list the directories of a level concurrently.
+ *
+ * The pattern is split by '/'. The leading components without wildcards are the prefix to start from,
+ * then the candidates of each level are expanded in the pool, one task for each candidate directory.
+ * So the date partitioned directories matched by a pattern are listed at the same time.
+ *
+ * The listings of the last level are cached if a cache is given. They are validated by the
+ * modification time of the directory, which is always got from the storage in this glob.
+ * The sizes of the cached children may be stale until the listings expire.
+ * The patterns which can not be split, such as {a/b,c} or the escaped ones, are expanded by FileSystem.
+ */
+public class ParallelGlobber {
+
+    private final FileSystem fileSystem;
+    private final FileSystemIdentity identity;
+    private final ExecutorService pool;
+    private final ListingCache cache;
+
+    public ParallelGlobber(FileSystem fileSystem, FileSystemIdentity identity, ExecutorService pool,
+                           ListingCache cache) {
+        this.fileSystem = fileSystem;
+        this.identity = identity;
+        this.pool = pool;
+        this.cache = cache;
+    }
+
+    // return null if the path without wildcard does not exist, like FileSystem.globStatus
+    public FileStatus[] globStatus(Path pattern) throws IOException {
+        String pathString = pattern.toUri().getPath();
+        if (!hasWildcard(pathString) || !canSplit(pathString)) {
+            return fileSystem.globStatus(pattern);
+        }
+        List<String> components = new ArrayList<>();
+        for (String component : pathString.split("/")) {
+            if (!component.isEmpty()) {
+                components.add(component);
+            }
+        }
+
+        URI uri = fileSystem.getUri();
+        Path prefix = new Path(uri.getScheme(), uri.getAuthority(), "/");
+        int index = 0;
+        while (!hasWildcard(components.get(index))) {
+            prefix = new Path(prefix, components.get(index++));
+        }
+        FileStatus root = getFileStatus(prefix);
+        if (root == null) {
+            return new FileStatus[0];
+        }
+
+        List<FileStatus> candidates = new ArrayList<>();
+        candidates.add(root);
+        while (index < components.size() && !candidates.isEmpty()) {
+            String component = components.get(index);
+            if (hasWildcard(component)) {
+                boolean last = index == components.size() - 1;
+                candidates = listChildren(candidates, new GlobFilter(component), last);
+                index++;
+            } else {
+                // the consecutive components without wildcards are got by one request
+                StringBuilder relativePath = new StringBuilder(component);
+                index++;
+                while (index < components.size() && !hasWildcard(components.get(index))) {
+                    relativePath.append('/').append(components.get(index++));
+                }
+                candidates = getChildren(candidates, relativePath.toString());
+            }
+        }
+        return candidates.toArray(new FileStatus[candidates.size()]);
+    }
+
+    private List<FileStatus> listChildren(List<FileStatus> candidates, GlobFilter filter, boolean last)
+            throws IOException {
+        return expand(candidates, dir -> {
+            List<FileStatus> result = new ArrayList<>();
+            if (!dir.isDirectory()) {
+                return result;
+            }
+            FileStatus[] children = last && cache != null ? cache.get(identity, dir) : null;
+            if (children == null) {
+                try {
+                    children = fileSystem.listStatus(dir.getPath());
+                } catch (FileNotFoundException e) {
+                    // removed after it is listed
+                    return result;
+                }
+                if (last && cache != null) {
+                    cache.put(identity, dir, children);
+                }
+            }
+            for (FileStatus child : children) {
+                // only the directories can match the following components
+                if (filter.accept(child.getPath()) && (last || child.isDirectory())) {
+                    result.add(child);
+                }
+            }
+            return result;
+        });
+    }
+
+    private List<FileStatus> getChildren(List<FileStatus> candidates, String relativePath)
+            throws IOException {
+        return expand(candidates, dir -> {
+            List<FileStatus> result = new ArrayList<>();
+            if (dir.isDirectory()) {
+                FileStatus child = getFileStatus(new Path(dir.getPath(), relativePath));
+                if (child != null) {
+                    result.add(child);
+                }
+            }
+            return result;
+        });
+    }
+
+    private FileStatus getFileStatus(Path path) throws IOException {
+        try {
+            return fileSystem.getFileStatus(path);
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+    }
+
+    // apply the expansion to the candidates concurrently, the results are in the order of the candidates
+    private List<FileStatus> expand(List<FileStatus> candidates, Expansion expansion) throws IOException {
+        if (candidates.size() == 1) {
+            return expansion.apply(candidates.get(0));
+        }
+        List<Future<List<FileStatus>>> futures = new ArrayList<>(candidates.size());
+        for (FileStatus candidate : candidates) {
+            futures.add(pool.submit(() -> expansion.apply(candidate)));
+        }
+        List<FileStatus> result = new ArrayList<>();
+        try {
+            for (Future<List<FileStatus>> future : futures) {
+                result.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while listing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            for (Future<List<FileStatus>> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return result;
+    }
+
+    private static boolean hasWildcard(String path) {
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == '{') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // the path can not be split by '/' if there is '/' in the braces, or there are escaped characters
+    private static boolean canSplit(String path) {
+        int depth = 0;
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '\\') {
+                return false;
+            } else if (c == '{') {
+                depth++;
+            } else if (c == '}') {
+                depth--;
+            } else if (c == '/' && depth > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private interface Expansion {
+        List<FileStatus> apply(FileStatus dir) throws IOException;
+    }
+}
@@ -0,0 +1,392 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.broker.hdfs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.log4j.Logger;
+
+import org.apache.doris.common.BrokerPerfMonitor;
+
+import com.google.common.base.Stopwatch;
+
+/*
+ * Reader of one opened file which serves the pread requests by positional reads,
+ * so that the concurrent requests of a fd do not wait for each other to seek and read a shared stream.
+ *
+ * The streams are opened lazily, at most maxStreams streams are opened for the file.
+ * When the requests are sequential, the following data is read ahead in the readahead pool.
+ * The readahead size starts from the request length and doubles for each sequential request,
+ * up to maxReadaheadSize. A random request drops the readahead data and resets the size.
+ * The readahead data of all readers is bounded by the shared readaheadBudget, in bytes.
+ * No data is read ahead when the budget is used up.
+ * The readahead blocks are taken from the shared blockBufferPool and given back when they are dropped,
+ * their lengths are rounded up to powers of two so that the pool only keeps a few sizes.
+ */
+public class PositionalReader {
+
+    private static Logger logger = Logger.getLogger(PositionalReader.class.getName());
+
+    // a readahead block is read by chunks of this size, so that a dropped block stops reading early
+    private static final int READAHEAD_CHUNK_SIZE = 128 << 10;
+
+    private final FileSystem fileSystem;
+    private final Path path;
+    private final int bufferSize;
+    private final int maxStreams;
+    private final int maxReadaheadSize;
+    private final ExecutorService readaheadPool;
+    private final Semaphore readaheadBudget;
+    private final BlockBufferPool blockBufferPool;
+
+    // guarded by streams
+    private final ArrayDeque<FSDataInputStream> streams = new ArrayDeque<>();
+    private int openedStreamNum;
+    private boolean closed = false;
+
+    // guarded by this
+    private long lastReadEnd = -1;
+    private int readaheadSize = 0;
+    // the readahead block which is being consumed, and the one following it
+    private Readahead current;
+    private Readahead next;
+
+    public PositionalReader(FileSystem fileSystem, Path path, FSDataInputStream firstStream, int bufferSize,
+                            int maxStreams, int maxReadaheadSize, ExecutorService readaheadPool,
+                            Semaphore readaheadBudget, BlockBufferPool blockBufferPool) {
+        this.fileSystem = fileSystem;
+        this.path = path;
+        this.bufferSize = bufferSize;
+        this.maxStreams = Math.max(1, maxStreams);
+        this.maxReadaheadSize = maxReadaheadSize;
+        this.readaheadPool = readaheadPool;
+        this.readaheadBudget = readaheadBudget;
+        this.blockBufferPool = blockBufferPool;
+        this.streams.add(firstStream);
+        this.openedStreamNum = 1;
+    }
+
+    /*
+     * read at most dest.remaining() bytes from offset into the array backed buffer, and flip it.
+     * less bytes are read only if the end of file is reached.
+     */
+    public void read(long offset, ByteBuffer dest) throws IOException {
+        int length = dest.remaining();
+        Readahead block = prepareRead(offset, length);
+        if (block != null) {
+            try {
+                int dataLength = block.get();
+                int start = (int) (offset - block.offset);
+                dest.put(block.buffer, start, Math.max(0, Math.min(length, dataLength - start)));
+                dest.flip();
+                return;
+            } catch (IOException e) {
+                // read it again by ourselves
+                logger.warn("failed to read ahead " + path + " from " + block.offset + ", read it directly", e);
+                synchronized (this) {
+                    dropReadahead();
+                }
+            } finally {
+                block.unref();
+            }
+        }
+
+        int readLength = readFully(offset, dest.array(), dest.arrayOffset() + dest.position(), length);
+        dest.position(dest.position() + readLength);
+        dest.flip();
+    }
+
+    // the returned block is referenced until the data is copied from it
+    private synchronized Readahead prepareRead(long offset, int length) {
+        if (maxReadaheadSize <= 0) {
+            return null;
+        }
+        boolean sequential = offset == lastReadEnd;
+        lastReadEnd = offset + length;
+        if (!sequential) {
+            readaheadSize = 0;
+            dropReadahead();
+            return null;
+        }
+        readaheadSize = readaheadSize == 0 ? length : Math.min(readaheadSize * 2, maxReadaheadSize);
+        readaheadSize = Math.max(readaheadSize, length);
+
+        Readahead block = null;
+        if (current != null && current.covers(offset, length)) {
+            block = current;
+        } else if (next != null && next.covers(offset, length)) {
+            if (current != null) {
+                current.cancel();
+            }
+            current = next;
+            next = null;
+            block = current;
+        } else {
+            dropReadahead();
+        }
+        if (next == null) {
+            long start = current != null ? current.offset + current.length : offset + length;
+            next = startReadahead(start, blockLength(readaheadSize));
+            if (current == null) {
+                current = next;
+                next = null;
+            }
+        }
+        if (block != null) {
+            block.ref();
+        }
+        return block;
+    }
+
+    // round the size up to a power of two, which is at most maxReadaheadSize unless the size exceeds it
+    private int blockLength(int size) {
+        if (size >= maxReadaheadSize) {
+            return size;
+        }
+        int length = Integer.highestOneBit(size);
+        if (length < size) {
+            length <<= 1;
+        }
+        return Math.min(length, maxReadaheadSize);
+    }
+
+    // return null if the readahead budget is used up
+    private Readahead startReadahead(long offset, int length) {
+        if (!readaheadBudget.tryAcquire(length)) {
+            return null;
+        }
+        return new Readahead(offset, length);
+    }
+
+    private void dropReadahead() {
+        if (current != null) {
+            current.cancel();
+            current = null;
+        }
+        if (next != null) {
+            next.cancel();
+            next = null;
+        }
+    }
+
+    // return the length of data read, which is less than length only if the end of file is reached
+    private int readFully(long offset, byte[] data, int dataOffset, int length) throws IOException {
+        Stopwatch stopwatch = BrokerPerfMonitor.startWatch();
+        FSDataInputStream stream = borrowStream();
+        boolean broken = true;
+        try {
+            int readLength = 0;
+            while (readLength < length) {
+                int n = stream.read(offset + readLength, data, dataOffset + readLength, length - readLength);
+                if (n <= 0) {
+                    break;
+                }
+                readLength += n;
+            }
+            broken = false;
+            return readLength;
+        } finally {
+            returnStream(stream, broken);
+            BrokerPerfMonitor.record("hdfs_pread", stopwatch);
+        }
+    }
+
+    private FSDataInputStream borrowStream() throws IOException {
+        synchronized (streams) {
+            while (true) {
+                if (closed) {
+                    throw new IOException("reader of " + path + " is closed");
+                }
+                if (!streams.isEmpty()) {
+                    return streams.poll();
+                }
+                if (openedStreamNum < maxStreams) {
+                    openedStreamNum++;
+                    break;
+                }
+                try {
+                    streams.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("interrupted while waiting for a stream of " + path, e);
+                }
+            }
+        }
+        try {
+            return fileSystem.open(path, bufferSize);
+        } catch (IOException e) {
+            synchronized (streams) {
+                openedStreamNum--;
+                streams.notify();
+            }
+            throw e;
+        }
+    }
+
+    // a stream which failed to read is closed, so that the next read opens a new one
+    private void returnStream(FSDataInputStream stream, boolean broken) {
+        synchronized (streams) {
+            if (!closed && !broken) {
+                streams.add(stream);
+                streams.notify();
+                return;
+            }
+            openedStreamNum--;
+            streams.notify();
+        }
+        closeQuietly(stream);
+    }
+
+    public void close() {
+        synchronized (this) {
+            dropReadahead();
+        }
+        ArrayDeque<FSDataInputStream> idleStreams;
+        synchronized (streams) {
+            closed = true;
+            idleStreams = new ArrayDeque<>(streams);
+            openedStreamNum -= streams.size();
+            streams.clear();
+            streams.notifyAll();
+        }
+        // the borrowed streams are closed when they are returned
+        for (FSDataInputStream stream : idleStreams) {
+            closeQuietly(stream);
+        }
+    }
+
+    private void closeQuietly(FSDataInputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException e) {
+            logger.warn("errors while close input stream of " + path, e);
+        }
+    }
+
+    private class Readahead {
+        private final long offset;
+        private final int length;
+        private final byte[] buffer;
+        // length of the data read into the buffer
+        private final Future<Integer> data;
+
+        // guarded by this
+        private boolean running = false;
+        private boolean cancelled = false;
+        private boolean released = false;
+        // number of reads which are copying the data of the block
+        private int refs = 0;
+
+        Readahead(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+            this.buffer = blockBufferPool.take(length);
+            this.data = readaheadPool.submit(() -> {
+                synchronized (this) {
+                    if (cancelled) {
+                        throw new CancellationException("readahead of " + path + " is cancelled");
+                    }
+                    running = true;
+                }
+                try {
+                    return readBlock();
+                } finally {
+                    synchronized (this) {
+                        running = false;
+                        releaseIfUnused();
+                    }
+                }
+            });
+        }
+
+        private int readBlock() throws IOException {
+            int readLength = 0;
+            while (readLength < length) {
+                if (isCancelled()) {
+                    throw new CancellationException("readahead of " + path + " is cancelled");
+                }
+                int chunkLength = Math.min(READAHEAD_CHUNK_SIZE, length - readLength);
+                int n = readFully(offset + readLength, buffer, readLength, chunkLength);
+                readLength += n;
+                if (n < chunkLength) {
+                    break;
+                }
+            }
+            return readLength;
+        }
+
+        boolean covers(long start, int len) {
+            return start >= offset && start + len <= offset + length;
+        }
+
+        int get() throws IOException {
+            try {
+                return data.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted while waiting for readahead of " + path, e);
+            } catch (ExecutionException e) {
+                throw new IOException(e.getCause());
+            } catch (CancellationException e) {
+                throw new IOException("readahead of " + path + " is cancelled", e);
+            }
+        }
+
+        private synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        synchronized void ref() {
+            refs++;
+        }
+
+        synchronized void unref() {
+            refs--;
+            releaseIfUnused();
+        }
+
+        // the budget and the buffer are released when the block is dropped, no longer being read and copied
+        void cancel() {
+            synchronized (this) {
+                cancelled = true;
+                releaseIfUnused();
+            }
+            // do not interrupt the running read, the stream is returned by it
+            data.cancel(false);
+        }
+
+        // guarded by this
+        private void releaseIfUnused() {
+            if (cancelled && !running && refs == 0 && !released) {
+                released = true;
+                blockBufferPool.giveBack(buffer);
+                readaheadBudget.release(length);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.broker.hdfs;
+
+import java.nio.ByteBuffer;
+
+/*
+ * Read buffers reused by the pread requests, to avoid allocating a new buffer for each request.
+ *
+ * Each thrift worker thread owns one buffer. The buffer returned to a pread request is serialized
+ * to the socket before the worker thread handles its next request, so the buffer can be reused then.
+ * This only holds for the thread pool server, where a request is processed and responded by the same thread.
+ *
+ * The buffers are heap buffers, because the binary protocol of thrift writes the backing array
+ * of the buffer, and a direct buffer can not be serialized.
+ * The response is not streamed: the data is copied from the hdfs client into the buffer,
+ * and the whole buffer is written as one binary field of the response.
+ */
+public class ReadBufferPool {
+
+    private final int maxBufferSize;
+    private final ThreadLocal<byte[]> buffers = new ThreadLocal<>();
+
+    public ReadBufferPool(int maxBufferSize) {
+        this.maxBufferSize = maxBufferSize;
+    }
+
+    /*
+     * return a buffer of the given length, which is valid until the next call in the same thread.
+     * a new buffer is allocated if the length exceeds the max buffer size.
+     */
+    public ByteBuffer getBuffer(int length) {
+        if (length > maxBufferSize) {
+            return ByteBuffer.allocate(length);
+        }
+        byte[] buffer = buffers.get();
+        if (buffer == null || buffer.length < length) {
+            // always allocate the max size, so that the buffer is allocated only once for a thread
+            buffer = new byte[maxBufferSize];
+            buffers.set(buffer);
+        }
+        ByteBuffer buf = ByteBuffer.wrap(buffer);
+        buf.limit(length);
+        return buf;
+    }
+}
@@ -17,13 +17,109 @@
 
 package org.apache.doris.common;
 
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
 import com.google.common.base.Stopwatch;
 
 public class BrokerPerfMonitor {
 
+    // upper bounds of the latency buckets in millis, the last bucket is for the larger latencies
+    private static final long[] BUCKET_BOUNDS_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000};
+
+    private static final ConcurrentHashMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
     public static Stopwatch startWatch() {
         Stopwatch stopwatch = Stopwatch.createUnstarted();
         stopwatch.start();
         return stopwatch;
     }
+
+    // record the elapsed time of the watch to the latency histogram of the operation
+    public static void record(String op, Stopwatch stopwatch) {
+        long latencyMs = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+        LatencyHistogram histogram = histograms.get(op);
+        if (histogram == null) {
+            histograms.putIfAbsent(op, new LatencyHistogram());
+            histogram = histograms.get(op);
+        }
+        histogram.add(latencyMs);
+    }
+
+    public static LatencyHistogram getHistogram(String op) {
+        return histograms.get(op);
+    }
+
+    // eg: pread: count=100, avg=3ms, p50<=2ms, p90<=10ms, p99<=50ms, max=42ms
+    public static String dump() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            if (sb.length() > 0) {
+                sb.append("; ");
+            }
+            sb.append(entry.getKey()).append(": ").append(entry.getValue());
+        }
+        return sb.toString();
+    }
+
+    public static class LatencyHistogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_MS.length + 1);
+        private final AtomicLong count = new AtomicLong(0);
+        private final AtomicLong totalMs = new AtomicLong(0);
+        private final AtomicLong maxMs = new AtomicLong(0);
+
+        public void add(long latencyMs) {
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS_MS.length && latencyMs > BUCKET_BOUNDS_MS[bucket]) {
+                bucket++;
+            }
+            buckets.incrementAndGet(bucket);
+            count.incrementAndGet();
+            totalMs.addAndGet(latencyMs);
+            long max = maxMs.get();
+            while (latencyMs > max && !maxMs.compareAndSet(max, latencyMs)) {
+                max = maxMs.get();
+            }
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public long getMaxMs() {
+            return maxMs.get();
+        }
+
+        // return the upper bound of the bucket which the percentile falls in, or the max latency if it is the last one
+        public long getPercentileMs(double percentile) {
+            long total = count.get();
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(total * percentile);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    return Math.min(BUCKET_BOUNDS_MS[i], maxMs.get());
+                }
+            }
+            return maxMs.get();
+        }
+
+        @Override
+        public String toString() {
+            long total = count.get();
+            return "count=" + total
+                    + ", avg=" + (total == 0 ? 0 : totalMs.get() / total) + "ms"
+                    + ", p50<=" + getPercentileMs(0.5) + "ms"
+                    + ", p90<=" + getPercentileMs(0.9) + "ms"
+                    + ", p99<=" + getPercentileMs(0.99) + "ms"
+                    + ", max=" + maxMs.get() + "ms";
+        }
+    }
 }
@@ -0,0 +1,125 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+package org.apache.doris.broker.hdfs;
+
+import com.google.common.io.ByteStreams;
+import org.apache.doris.thrift.TBrokerFD;
+import org.apache.doris.thrift.TBrokerOperationStatusCode;
+import org.apache.doris.thrift.TBrokerPReadRequest;
+import org.apache.doris.thrift.TBrokerReadResponse;
+import org.apache.doris.thrift.TBrokerVersion;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.log4j.Logger;
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.transport.TIOStreamTransport;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/*
+ * Read a local file by the pread requests of the broker service with allocated and reused buffers,
+ * and log the throughput and the heap allocated by all threads, including the readahead threads.
+ * The responses are serialized by the binary protocol like the thrift server does.
+ * It is not a unit test, run it by its main method.
+ */
+public class ReadBufferPoolBenchmark {
+
+    private static Logger logger = Logger.getLogger(ReadBufferPoolBenchmark.class.getName());
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    public static void main(String[] args) throws Exception {
+        FileSystem fileSystem = FileSystem.getLocal(new Configuration());
+        File file = File.createTempFile("read_buffer_pool", ".dat");
+        file.deleteOnExit();
+        Path path = new Path(file.getAbsolutePath());
+        long fileSize = 32L * BUFFER_SIZE;
+        byte[] block = new byte[BUFFER_SIZE];
+        try (FSDataOutputStream out = fileSystem.create(path, true)) {
+            for (long written = 0; written < fileSize; written += block.length) {
+                out.write(block);
+            }
+        }
+
+        BrokerConfig.hdfs_read_buffer_size_kb = BUFFER_SIZE >> 10;
+        BrokerConfig.enable_read_buffer_reuse = false;
+        FileSystemManager allocateManager = new FileSystemManager();
+        BrokerConfig.enable_read_buffer_reuse = true;
+        FileSystemManager reuseManager = new FileSystemManager();
+        try {
+            for (int round = 0; round < 3; round++) {
+                benchmark("allocate", allocateManager, fileSystem, path, fileSize);
+                benchmark("reuse", reuseManager, fileSystem, path, fileSize);
+            }
+        } finally {
+            fileSystem.delete(path, false);
+        }
+        // the file system managers have no way to stop their threads
+        System.exit(0);
+    }
+
+    private static void benchmark(String name, FileSystemManager fileSystemManager, FileSystem fileSystem, Path path,
+                                  long fileSize) throws IOException, TException {
+        BrokerFileSystem brokerFileSystem = new BrokerFileSystem(new FileSystemIdentity(path.toString(), ""));
+        brokerFileSystem.setFileSystem(fileSystem);
+        TBrokerFD fd = fileSystemManager.openReader("benchmark", brokerFileSystem, path, 0);
+        HDFSBrokerServiceImpl service = new HDFSBrokerServiceImpl(fileSystemManager);
+        TProtocol protocol = new TBinaryProtocol(new TIOStreamTransport(ByteStreams.nullOutputStream()));
+        long startNs = System.nanoTime();
+        long allocatedBefore = allocatedBytes();
+        long readBytes = 0;
+        while (readBytes < fileSize) {
+            TBrokerReadResponse response = service.pread(
+                    new TBrokerPReadRequest(TBrokerVersion.VERSION_ONE, fd, readBytes, BUFFER_SIZE));
+            if (response.getOpStatus().getStatusCode() != TBrokerOperationStatusCode.OK) {
+                throw new IOException("failed to read " + path + ": " + response.getOpStatus());
+            }
+            int readLength = response.data.remaining();
+            if (readLength == 0) {
+                throw new IOException("unexpected end of file " + path + " at " + readBytes);
+            }
+            response.write(protocol);
+            readBytes += readLength;
+        }
+        long allocated = allocatedBytes() - allocatedBefore;
+        long costMs = Math.max(1, (System.nanoTime() - startNs) / 1000000);
+        fileSystemManager.closeReader(fd);
+        logger.info(name + ": read " + readBytes + " bytes in " + costMs + " ms, "
+                + (readBytes * 1000 / costMs >> 20) + " MB/s, allocated " + (allocated >> 10) + " KB");
+    }
+
+    // bytes allocated by all live threads, or 0 if it is not supported by the jvm
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return 0;
+        }
+        long[] threadIds = bean.getAllThreadIds();
+        long total = 0;
+        for (long allocated : ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(threadIds)) {
+            total += Math.max(0, allocated);
+        }
+        return total;
+    }
+}
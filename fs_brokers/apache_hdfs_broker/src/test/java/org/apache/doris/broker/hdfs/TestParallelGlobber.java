@@ -0,0 +1,173 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.broker.hdfs;
+
+import junit.framework.TestCase;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.FilterFileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestParallelGlobber extends TestCase {
+
+    private FileSystem fileSystem;
+    private Path root;
+    private ExecutorService pool;
+    private FileSystemIdentity identity = new FileSystemIdentity("localhost", "");
+
+    protected void setUp() throws Exception {
+        fileSystem = FileSystem.getLocal(new Configuration());
+        File dir = Files.createTempDirectory("parallel_globber").toFile();
+        root = new Path(dir.getAbsolutePath());
+        for (int day = 1; day <= 3; day++) {
+            Path partition = new Path(root, "dt=2020-01-0" + day);
+            for (int i = 0; i < 5; i++) {
+                fileSystem.create(new Path(partition, "part-" + i + ".csv"), true).close();
+            }
+        }
+        fileSystem.create(new Path(root, "other.txt"), true).close();
+        pool = Executors.newFixedThreadPool(4);
+    }
+
+    protected void tearDown() throws Exception {
+        pool.shutdownNow();
+        fileSystem.delete(root, true);
+    }
+
+    // counts the requests sent to the file system
+    private static class CountingFileSystem extends FilterFileSystem {
+        private final AtomicInteger listStatusCount = new AtomicInteger(0);
+        private final AtomicInteger getFileStatusCount = new AtomicInteger(0);
+
+        CountingFileSystem(FileSystem fs) {
+            super(fs);
+        }
+
+        @Override
+        public FileStatus[] listStatus(Path f) throws IOException {
+            listStatusCount.incrementAndGet();
+            return super.listStatus(f);
+        }
+
+        @Override
+        public FileStatus getFileStatus(Path f) throws IOException {
+            getFileStatusCount.incrementAndGet();
+            return super.getFileStatus(f);
+        }
+    }
+
+    private Set<String> glob(ListingCache cache, String pattern) throws IOException {
+        FileStatus[] files = new ParallelGlobber(fileSystem, identity, pool, cache).globStatus(new Path(pattern));
+        return toSet(files);
+    }
+
+    private Set<String> toSet(FileStatus[] files) {
+        if (files == null) {
+            return null;
+        }
+        Set<String> paths = new TreeSet<>();
+        for (FileStatus file : files) {
+            paths.add(file.getPath().toUri().getPath() + (file.isDirectory() ? "/" : ""));
+        }
+        return paths;
+    }
+
+    @Test
+    public void testSameAsGlobStatus() throws IOException {
+        String[] patterns = {
+                root + "/dt=*/*.csv",
+                root + "/dt=2020-01-0[12]/part-1.csv",
+                root + "/*/part-{1,2}.csv",
+                root + "/dt=*",
+                root + "/*",
+                root + "/nothing*/part-1.csv",
+                root + "/other.txt/*",
+                root + "/dt=2020-01-01",
+                root + "/not_exist",
+                root + "/{dt=2020-01-01/part-0.csv,other.txt}",
+        };
+        for (String pattern : patterns) {
+            Set<String> expected = toSet(fileSystem.globStatus(new Path(pattern)));
+            assertEquals(pattern, expected, glob(null, pattern));
+        }
+        assertEquals(15, glob(null, root + "/dt=*/*.csv").size());
+    }
+
+    @Test
+    public void testListingCache() throws IOException {
+        ListingCache cache = new ListingCache(60, 1000);
+        String pattern = root + "/dt=*/*.csv";
+        assertEquals(15, glob(cache, pattern).size());
+        // the listings of the last level are cached
+        assertEquals(3, cache.size());
+
+        // the cached listing is used if the modification time of the directory is not changed
+        Path partition = new Path(root, "dt=2020-01-01");
+        long modificationTime = fileSystem.getFileStatus(partition).getModificationTime();
+        fileSystem.create(new Path(partition, "part-5.csv"), true).close();
+        fileSystem.setTimes(partition, modificationTime, -1);
+        assertEquals(15, glob(cache, pattern).size());
+
+        // the sizes are cached too, they are stale if a file is appended without changing the directory
+        Path file = new Path(partition, "part-0.csv");
+        try (FSDataOutputStream out = fileSystem.create(file, true)) {
+            out.write(new byte[10]);
+        }
+        fileSystem.setTimes(partition, modificationTime, -1);
+        // the pattern matches the cached listing of the same directory
+        FileStatus[] files = new ParallelGlobber(fileSystem, identity, pool, cache)
+                .globStatus(new Path(partition, "part-0.cs?"));
+        assertEquals(1, files.length);
+        assertEquals(0, files[0].getLen());
+
+        // and it is listed again if the directory is changed
+        fileSystem.setTimes(partition, modificationTime + 1000, -1);
+        assertEquals(16, glob(cache, pattern).size());
+        files = new ParallelGlobber(fileSystem, identity, pool, cache).globStatus(new Path(partition, "part-0.cs?"));
+        assertEquals(10, files[0].getLen());
+    }
+
+    @Test
+    public void testRequestsOfCacheHit() throws IOException {
+        CountingFileSystem countingFileSystem = new CountingFileSystem(fileSystem);
+        ListingCache cache = new ListingCache(60, 1000);
+        ParallelGlobber globber = new ParallelGlobber(countingFileSystem, identity, pool, cache);
+        Path pattern = new Path(root + "/dt=*/*.csv");
+        assertEquals(15, globber.globStatus(pattern).length);
+        // the status of the root, and the listings of the root and the 3 partitions
+        assertEquals(1, countingFileSystem.getFileStatusCount.get());
+        assertEquals(4, countingFileSystem.listStatusCount.get());
+
+        // the partitions are not listed again, and the matched files are not got one by one
+        assertEquals(15, globber.globStatus(pattern).length);
+        assertEquals(2, countingFileSystem.getFileStatusCount.get());
+        assertEquals(5, countingFileSystem.listStatusCount.get());
+    }
+}
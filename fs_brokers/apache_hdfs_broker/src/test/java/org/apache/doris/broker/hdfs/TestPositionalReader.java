@@ -0,0 +1,226 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.broker.hdfs;
+
+import junit.framework.TestCase;
+import org.apache.doris.common.BrokerPerfMonitor;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+public class TestPositionalReader extends TestCase {
+
+    private static final int FILE_SIZE = 100000;
+
+    private FileSystem fileSystem;
+    private Path path;
+    private ExecutorService readaheadPool;
+    private Semaphore readaheadBudget;
+    private BlockBufferPool blockBufferPool;
+
+    protected void setUp() throws Exception {
+        fileSystem = FileSystem.getLocal(new Configuration());
+        File file = File.createTempFile("positional_reader", ".dat");
+        file.deleteOnExit();
+        path = new Path(file.getAbsolutePath());
+        try (FSDataOutputStream out = fileSystem.create(path, true)) {
+            for (int i = 0; i < FILE_SIZE; i++) {
+                out.write(i % 251);
+            }
+        }
+        readaheadPool = Executors.newFixedThreadPool(2);
+        readaheadBudget = new Semaphore(1 << 20);
+        blockBufferPool = new BlockBufferPool(1 << 20);
+    }
+
+    protected void tearDown() throws Exception {
+        readaheadPool.shutdownNow();
+        fileSystem.delete(path, false);
+    }
+
+    private PositionalReader createReader(int maxStreams, int maxReadaheadSize) throws IOException {
+        return new PositionalReader(fileSystem, path, fileSystem.open(path), 4096, maxStreams,
+                maxReadaheadSize, readaheadPool, readaheadBudget, blockBufferPool);
+    }
+
+    private void checkData(ByteBuffer buf, long offset, int expectedLength) {
+        assertEquals(expectedLength, buf.remaining());
+        for (int i = 0; i < expectedLength; i++) {
+            assertEquals((byte) ((offset + i) % 251), buf.get(buf.position() + i));
+        }
+    }
+
+    @Test
+    public void testSequentialReadWithReadahead() throws IOException {
+        PositionalReader reader = createReader(2, 32 << 10);
+        long offset = 0;
+        while (offset < FILE_SIZE) {
+            ByteBuffer buf = ByteBuffer.allocate(3000);
+            reader.read(offset, buf);
+            checkData(buf, offset, (int) Math.min(3000, FILE_SIZE - offset));
+            offset += buf.remaining();
+        }
+        ByteBuffer eof = ByteBuffer.allocate(3000);
+        reader.read(offset, eof);
+        assertEquals(0, eof.remaining());
+        reader.close();
+        assertTrue(BrokerPerfMonitor.getHistogram("hdfs_pread").getCount() > 0);
+    }
+
+    @Test
+    public void testReadaheadBudget() throws Exception {
+        // the budget is less than one readahead block, so nothing is read ahead
+        readaheadBudget = new Semaphore(1000);
+        PositionalReader reader = createReader(2, 32 << 10);
+        long offset = 0;
+        while (offset < FILE_SIZE) {
+            ByteBuffer buf = ByteBuffer.allocate(3000);
+            reader.read(offset, buf);
+            checkData(buf, offset, (int) Math.min(3000, FILE_SIZE - offset));
+            offset += buf.remaining();
+        }
+        assertEquals(1000, readaheadBudget.availablePermits());
+        reader.close();
+    }
+
+    @Test
+    public void testReadaheadBudgetReleased() throws Exception {
+        PositionalReader reader = createReader(2, 32 << 10);
+        for (long offset = 0; offset < FILE_SIZE / 2; offset += 3000) {
+            ByteBuffer buf = ByteBuffer.allocate(3000);
+            reader.read(offset, buf);
+            checkData(buf, offset, 3000);
+        }
+        // a random read drops the readahead blocks
+        ByteBuffer buf = ByteBuffer.allocate(3000);
+        reader.read(100, buf);
+        checkData(buf, 100, 3000);
+        reader.close();
+        // the dropped blocks which are being read release the budget when they stop
+        readaheadPool.shutdown();
+        assertTrue(readaheadPool.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1 << 20, readaheadBudget.availablePermits());
+    }
+
+    @Test
+    public void testReadaheadBuffersReused() throws Exception {
+        Set<byte[]> buffers = Collections.newSetFromMap(new IdentityHashMap<>());
+        int[] takeNum = {0};
+        blockBufferPool = new BlockBufferPool(1 << 20) {
+            @Override
+            public synchronized byte[] take(int length) {
+                byte[] buffer = super.take(length);
+                buffers.add(buffer);
+                takeNum[0]++;
+                return buffer;
+            }
+        };
+        PositionalReader reader = createReader(2, 16 << 10);
+        for (int round = 0; round < 2; round++) {
+            // a read from the start drops the readahead blocks of the last round
+            long offset = 0;
+            while (offset < FILE_SIZE) {
+                ByteBuffer buf = ByteBuffer.allocate(4096);
+                reader.read(offset, buf);
+                checkData(buf, offset, (int) Math.min(4096, FILE_SIZE - offset));
+                offset += buf.remaining();
+            }
+        }
+        reader.close();
+        readaheadPool.shutdown();
+        assertTrue(readaheadPool.awaitTermination(10, TimeUnit.SECONDS));
+        // the blocks are rounded to 4k, 8k and 16k, and the dropped ones are taken again
+        assertTrue(takeNum[0] > 2 * buffers.size());
+        for (byte[] buffer : buffers) {
+            assertTrue(buffer.length == 4096 || buffer.length == 8192 || buffer.length == 16384);
+        }
+        assertEquals(1 << 20, readaheadBudget.availablePermits());
+        assertTrue(blockBufferPool.getIdleBytes() > 0);
+    }
+
+    @Test
+    public void testRandomRead() throws IOException {
+        PositionalReader reader = createReader(2, 32 << 10);
+        long[] offsets = {50000, 100, 99000, 100, 3100, 70000};
+        for (long offset : offsets) {
+            ByteBuffer buf = ByteBuffer.allocate(3000);
+            reader.read(offset, buf);
+            checkData(buf, offset, (int) Math.min(3000, FILE_SIZE - offset));
+        }
+        reader.close();
+    }
+
+    @Test
+    public void testConcurrentRead() throws Exception {
+        PositionalReader reader = createReader(3, 0);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            long offset = (i * 7919L) % FILE_SIZE;
+            futures.add(pool.submit(() -> {
+                ByteBuffer buf = ByteBuffer.allocate(1000);
+                reader.read(offset, buf);
+                checkData(buf, offset, (int) Math.min(1000, FILE_SIZE - offset));
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        reader.close();
+        try {
+            reader.read(0, ByteBuffer.allocate(10));
+            fail("read a closed reader");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testLatencyHistogram() {
+        BrokerPerfMonitor.LatencyHistogram histogram = new BrokerPerfMonitor.LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.add(1);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.add(300);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(300, histogram.getMaxMs());
+        assertEquals(1, histogram.getPercentileMs(0.5));
+        assertEquals(1, histogram.getPercentileMs(0.9));
+        assertEquals(300, histogram.getPercentileMs(0.99));
+    }
+}
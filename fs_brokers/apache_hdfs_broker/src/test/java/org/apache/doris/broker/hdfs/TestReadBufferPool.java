@@ -0,0 +1,50 @@
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.apache.doris.broker.hdfs;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class TestReadBufferPool extends TestCase {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    @Test
+    public void testReuseBuffer() throws Exception {
+        ReadBufferPool pool = new ReadBufferPool(BUFFER_SIZE);
+        ByteBuffer buf1 = pool.getBuffer(100);
+        assertEquals(0, buf1.position());
+        assertEquals(100, buf1.remaining());
+        ByteBuffer buf2 = pool.getBuffer(BUFFER_SIZE);
+        assertEquals(BUFFER_SIZE, buf2.remaining());
+        assertSame(buf1.array(), buf2.array());
+
+        // a larger buffer is not pooled
+        ByteBuffer large = pool.getBuffer(BUFFER_SIZE + 1);
+        assertNotSame(buf1.array(), large.array());
+
+        // each thread has its own buffer
+        final ByteBuffer[] other = new ByteBuffer[1];
+        Thread thread = new Thread(() -> other[0] = pool.getBuffer(100));
+        thread.start();
+        thread.join();
+        assertNotSame(buf1.array(), other[0].array());
+    }
+}
@@ -183,6 +183,9 @@ struct TUploadReq {
     2: required map<string, string> src_dest_map
     3: required Types.TNetworkAddress broker_addr
     4: optional map<string, string> broker_prop
+    // speed limit of the job on the backend, shared by its running tasks.
+    // no limit if not set or <= 0
+    5: optional i64 max_bytes_per_sec
 }
 
 struct TDownloadReq {
@@ -190,6 +193,9 @@ struct TDownloadReq {
     2: required map<string, string> src_dest_map
     3: required Types.TNetworkAddress broker_addr
     4: optional map<string, string> broker_prop
+    // speed limit of the job on the backend, shared by its running tasks.
+    // no limit if not set or <= 0
+    5: optional i64 max_bytes_per_sec
 }
 
 struct TSnapshotRequest {
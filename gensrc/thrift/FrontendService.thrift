@@ -635,6 +635,8 @@ struct TSnapshotLoaderReportRequest {
     3: required Types.TTaskType task_type
     4: optional i32 finished_num
     5: optional i32 total_num
+    // bytes uploaded or downloaded by the task so far
+    6: optional i64 finished_bytes
 }
 
 service FrontendService {
@@ -105,7 +105,8 @@ enum TFileFormatType {
     FORMAT_PARQUET,
     FORMAT_CSV_DEFLATE,
     FORMAT_ORC,
-    FORMAT_JSON
+    FORMAT_JSON,
+    FORMAT_ARROW
 }
 
 // One broker range information.
@@ -307,6 +308,9 @@ struct TOlapScanNode {
   3: required list<Types.TPrimitiveType> key_column_type
   4: required bool is_preaggregation
   5: optional string sort_column
+  // max number of rows each scanner returns, set when rows are read in the order of
+  // a top-n sort on top of this node
+  6: optional i64 sort_limit
 }
 struct TEqJoinCondition {
   // left-hand side of "<a> = <b>"
@@ -369,6 +369,7 @@ enum TFileType {
     FILE_LOCAL,
     FILE_BROKER,
     FILE_STREAM,    // file content is streaming in the buffer
+    FILE_S3,        // S3 compatible object storage, which is read by BE directly
 }
 
 struct TTabletCommitInfo {
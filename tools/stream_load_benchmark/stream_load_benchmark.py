@@ -0,0 +1,147 @@
+# Licensed to the Apache Software Foundation (ASF) under one
+# or more contributor license agreements.  See the NOTICE file
+# distributed with this work for additional information
+# regarding copyright ownership.  The ASF licenses this file
+# to you under the Apache License, Version 2.0 (the
+# "License"); you may not use this file except in compliance
+# with the License.  You may obtain a copy of the License at
+#
+#   http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing,
+# software distributed under the License is distributed on an
+# "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+# KIND, either express or implied.  See the License for the
+# specific language governing permissions and limitations
+# under the License.
+
+
+import base64
+import configparser
+import http.client
+import io
+import json
+import time
+import uuid
+
+import pyarrow as pa
+import pymysql
+
+CREATE_TABLE = """
+CREATE TABLE IF NOT EXISTS `%s` (
+    `k1` int NOT NULL,
+    `k2` bigint NOT NULL,
+    `v1` double NULL,
+    `v2` varchar(32) NULL,
+    `v3` date NULL,
+    `v4` datetime NULL
+) DUPLICATE KEY(`k1`, `k2`)
+DISTRIBUTED BY HASH(`k1`) BUCKETS 8
+PROPERTIES ("replication_num" = "1")
+"""
+
+
+
+def generate(rows, batch_rows):
+    """
+    Generate the data set as arrow record batches, and encode it in all formats
+    """
+    batches = []
+    for start in range(0, rows, batch_rows):
+        ids = range(start, min(start + batch_rows, rows))
+        batches.append(pa.RecordBatch.from_arrays([
+            pa.array([i for i in ids], pa.int32()),
+            pa.array([i * 7919 for i in ids], pa.int64()),
+            pa.array([i / 3.0 for i in ids], pa.float64()),
+            pa.array(["str_%d" % (i % 10007) for i in ids], pa.string()),
+            pa.array([i % 20000 for i in ids], pa.date32()),
+            pa.array([i * 60 for i in ids], pa.timestamp("s")),
+        ], ["k1", "k2", "v1", "v2", "v3", "v4"]))
+
+    sink = io.BytesIO()
+    writer = pa.ipc.new_stream(sink, batches[0].schema)
+    for batch in batches:
+        writer.write_batch(batch)
+    writer.close()
+    arrow_data = sink.getvalue()
+
+    # the text formats have the same values as the arrow data, in the UTC timezone
+    csv_lines = []
+    json_rows = []
+    for batch in batches:
+        for row in zip(*[column.to_pylist() for column in batch.columns]):
+            values = [row[0], row[1], repr(row[2]), row[3], row[4].isoformat(),
+                      row[5].strftime("%Y-%m-%d %H:%M:%S")]
+            csv_lines.append("\t".join(str(v) for v in values))
+            json_rows.append(dict(zip(["k1", "k2", "v1", "v2", "v3", "v4"], values)))
+    csv_data = ("\n".join(csv_lines) + "\n").encode("utf-8")
+    json_data = json.dumps(json_rows, separators=(",", ":")).encode("utf-8")
+    return [("csv", csv_data, {}),
+            ("json", json_data, {"format": "json", "strip_outer_array": "true"}),
+            ("arrow", arrow_data, {"format": "arrow"})]
+
+
+def stream_load(conf, data, headers):
+    """
+    Send the data to the stream load API of BE, and return the elapsed seconds and the result of the load
+    """
+    auth = "%s:%s" % (conf.get("cluster", "username"), conf.get("cluster", "password"))
+    headers = dict(headers)
+    headers["label"] = "stream_load_benchmark_" + uuid.uuid4().hex
+    headers["timezone"] = "UTC"
+    headers["Authorization"] = "Basic " + base64.b64encode(auth.encode("utf-8")).decode("ascii")
+    headers["Content-Length"] = str(len(data))
+    conn = http.client.HTTPConnection(conf.get("cluster", "be_host"), conf.getint("cluster", "be_http_port"))
+    try:
+        start = time.time()
+        conn.request("PUT", "/api/%s/%s/_stream_load" % (conf.get("cluster", "database"),
+                                                         conf.get("cluster", "table")), data, headers)
+        result = json.loads(conn.getresponse().read())
+        elapsed = time.time() - start
+    finally:
+        conn.close()
+    if result.get("Status") != "Success":
+        raise Exception("stream load failed: %s" % result)
+    return elapsed, result
+
+
+def main():
+    conf = configparser.ConfigParser()
+    conf.read("./conf")
+    database = conf.get("cluster", "database")
+    table = conf.get("cluster", "table")
+    rows = conf.getint("benchmark", "rows")
+    rounds = conf.getint("benchmark", "rounds")
+
+    db = pymysql.connect(host=conf.get("cluster", "fe_host"), port=conf.getint("cluster", "query_port"),
+                         user=conf.get("cluster", "username"), passwd=conf.get("cluster", "password"))
+    cur = db.cursor()
+    cur.execute("CREATE DATABASE IF NOT EXISTS `%s`" % database)
+    cur.execute("USE `%s`" % database)
+    cur.execute(CREATE_TABLE % table)
+
+    print("generating %d rows" % rows)
+    formats = generate(rows, conf.getint("benchmark", "batch_rows"))
+
+    print("%-7s %-9s %-11s %-8s %-11s %-7s %s" % ("format", "rows", "bytes", "time(s)", "rows/s", "MB/s",
+                                                  "BE load time(ms)"))
+    for name, data, headers in formats:
+        total_elapsed = 0
+        total_load_time_ms = 0
+        for _ in range(rounds):
+            cur.execute("TRUNCATE TABLE `%s`" % table)
+            elapsed, result = stream_load(conf, data, headers)
+            if result["NumberLoadedRows"] != rows:
+                raise Exception("%s load loaded %d rows of %d" % (name, result["NumberLoadedRows"], rows))
+            total_elapsed += elapsed
+            total_load_time_ms += result["LoadTimeMs"]
+        elapsed = total_elapsed / rounds
+        print("%-7s %-9d %-11d %-8.3f %-11d %-7.2f %d" % (name, rows, len(data), elapsed, rows / elapsed,
+                                                          len(data) / elapsed / 1024 / 1024,
+                                                          total_load_time_ms / rounds))
+    cur.close()
+    db.close()
+
+
+if __name__ == "__main__":
+    main()